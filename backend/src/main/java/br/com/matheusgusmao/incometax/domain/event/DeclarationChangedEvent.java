@@ -0,0 +1,4 @@
+package br.com.matheusgusmao.incometax.domain.event;
+
+public record DeclarationChangedEvent(Long declarationId) {
+}
@@ -0,0 +1,15 @@
+package br.com.matheusgusmao.incometax.domain.event;
+
+public enum DeclarationEventType {
+    DECLARATION_CREATED,
+    INCOME_ADDED,
+    INCOME_REMOVED,
+    EXPENSE_ADDED,
+    EXPENSE_REMOVED,
+    DEPENDENT_ADDED,
+    DEPENDENT_REMOVED,
+    DECLARATION_SUBMITTED,
+    DECLARATION_AMENDED,
+    DECLARATION_COPIED,
+    DECLARATION_ARCHIVED
+}
@@ -0,0 +1,7 @@
+package br.com.matheusgusmao.incometax.domain.event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record DeclarationSubmittedEvent(Long declarationId, UUID taxpayerId, int year, LocalDateTime deliveryDate) {
+}
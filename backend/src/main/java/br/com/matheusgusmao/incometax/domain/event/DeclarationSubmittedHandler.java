@@ -0,0 +1,11 @@
+package br.com.matheusgusmao.incometax.domain.event;
+
+/**
+ * Work done for every submitted declaration after the submit has returned, fed from the submission outbox
+ * by {@link br.com.matheusgusmao.incometax.domain.service.DeclarationOutboxDispatcher}. An event is handed
+ * over again when any handler of it failed, so handling the same event twice must change nothing.
+ */
+public interface DeclarationSubmittedHandler {
+
+    void handle(DeclarationSubmittedEvent event);
+}
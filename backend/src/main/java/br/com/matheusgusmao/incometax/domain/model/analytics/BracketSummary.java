@@ -0,0 +1,6 @@
+package br.com.matheusgusmao.incometax.domain.model.analytics;
+
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+
+public record BracketSummary(int bracket, long declarations, Money taxDue) {
+}
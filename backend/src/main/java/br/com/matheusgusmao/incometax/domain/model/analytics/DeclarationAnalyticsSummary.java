@@ -0,0 +1,20 @@
+package br.com.matheusgusmao.incometax.domain.model.analytics;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+
+import java.util.List;
+import java.util.Map;
+
+public record DeclarationAnalyticsSummary(
+        int year,
+        long declarations,
+        Map<DeclarationStatus, Long> declarationsByStatus,
+        Map<IncomeType, Money> incomeByType,
+        Map<ExpenseType, Money> deductionsByType,
+        List<BracketSummary> taxBrackets,
+        Map<Integer, Money> taxDuePercentiles
+) {
+}
@@ -0,0 +1,200 @@
+package br.com.matheusgusmao.incometax.domain.model.analytics;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// One primitive array per attribute, indexed by row; rows are kept sorted by declaration id so point
+// updates are a binary search and scans touch only the columns a query needs.
+public final class DeclarationColumns {
+
+    public static final int BRACKETS = 5;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INCOME_TYPES = IncomeType.values().length;
+    private static final int EXPENSE_TYPES = ExpenseType.values().length;
+    private static final DeclarationStatus[] STATUSES = DeclarationStatus.values();
+    private static final IncomeType[] INCOME_TYPE_VALUES = IncomeType.values();
+    private static final ExpenseType[] EXPENSE_TYPE_VALUES = ExpenseType.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids;
+    private int[] years;
+    private byte[] statuses;
+    private long[] incomeCents;
+    private long[] deductionCents;
+    private long[] taxDueCents;
+    private byte[] brackets;
+    private int size;
+
+    public DeclarationColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public DeclarationColumns(int capacity) {
+        var initialCapacity = Math.max(capacity, 1);
+        ids = new long[initialCapacity];
+        years = new int[initialCapacity];
+        statuses = new byte[initialCapacity];
+        incomeCents = new long[initialCapacity * INCOME_TYPES];
+        deductionCents = new long[initialCapacity * EXPENSE_TYPES];
+        taxDueCents = new long[initialCapacity];
+        brackets = new byte[initialCapacity];
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsert(DeclarationRow row) {
+        lock.writeLock().lock();
+        try {
+            var index = Arrays.binarySearch(ids, 0, size, row.declarationId());
+            if (index < 0) {
+                index = insertAt(-index - 1, row.declarationId());
+            }
+            write(index, row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long declarationId) {
+        lock.writeLock().lock();
+        try {
+            var index = Arrays.binarySearch(ids, 0, size, declarationId);
+            if (index < 0) {
+                return;
+            }
+            var tail = size - index - 1;
+            System.arraycopy(ids, index + 1, ids, index, tail);
+            System.arraycopy(years, index + 1, years, index, tail);
+            System.arraycopy(statuses, index + 1, statuses, index, tail);
+            System.arraycopy(incomeCents, (index + 1) * INCOME_TYPES, incomeCents, index * INCOME_TYPES, tail * INCOME_TYPES);
+            System.arraycopy(deductionCents, (index + 1) * EXPENSE_TYPES, deductionCents, index * EXPENSE_TYPES, tail * EXPENSE_TYPES);
+            System.arraycopy(taxDueCents, index + 1, taxDueCents, index, tail);
+            System.arraycopy(brackets, index + 1, brackets, index, tail);
+            size--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public DeclarationAnalyticsSummary summarize(int year, int[] percentiles) {
+        var statusCounts = new long[STATUSES.length];
+        var incomeSums = new long[INCOME_TYPES];
+        var deductionSums = new long[EXPENSE_TYPES];
+        var bracketCounts = new long[BRACKETS];
+        var bracketTaxSums = new long[BRACKETS];
+        long[] taxDues;
+        int matches = 0;
+
+        lock.readLock().lock();
+        try {
+            taxDues = new long[size];
+            for (int row = 0; row < size; row++) {
+                if (years[row] != year) {
+                    continue;
+                }
+                statusCounts[statuses[row]]++;
+                for (int type = 0; type < INCOME_TYPES; type++) {
+                    incomeSums[type] += incomeCents[row * INCOME_TYPES + type];
+                }
+                for (int type = 0; type < EXPENSE_TYPES; type++) {
+                    deductionSums[type] += deductionCents[row * EXPENSE_TYPES + type];
+                }
+                bracketCounts[brackets[row] - 1]++;
+                bracketTaxSums[brackets[row] - 1] += taxDueCents[row];
+                taxDues[matches++] = taxDueCents[row];
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Arrays.sort(taxDues, 0, matches);
+
+        Map<DeclarationStatus, Long> byStatus = new EnumMap<>(DeclarationStatus.class);
+        for (var status : STATUSES) {
+            byStatus.put(status, statusCounts[status.ordinal()]);
+        }
+        Map<IncomeType, Money> incomeByType = new EnumMap<>(IncomeType.class);
+        for (var type : INCOME_TYPE_VALUES) {
+            incomeByType.put(type, Money.ofCents(incomeSums[type.ordinal()]));
+        }
+        Map<ExpenseType, Money> deductionsByType = new EnumMap<>(ExpenseType.class);
+        for (var type : EXPENSE_TYPE_VALUES) {
+            deductionsByType.put(type, Money.ofCents(deductionSums[type.ordinal()]));
+        }
+        List<BracketSummary> bracketSummaries = new ArrayList<>(BRACKETS);
+        for (int bracket = 0; bracket < BRACKETS; bracket++) {
+            bracketSummaries.add(new BracketSummary(bracket + 1, bracketCounts[bracket], Money.ofCents(bracketTaxSums[bracket])));
+        }
+        Map<Integer, Money> taxDuePercentiles = new LinkedHashMap<>();
+        for (var percentile : percentiles) {
+            taxDuePercentiles.put(percentile, matches == 0 ? Money.ZERO : Money.ofCents(taxDues[nearestRank(percentile, matches)]));
+        }
+
+        return new DeclarationAnalyticsSummary(year, matches, byStatus, incomeByType, deductionsByType, bracketSummaries, taxDuePercentiles);
+    }
+
+    private static int nearestRank(int percentile, int count) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        var rank = (int) Math.ceil(percentile / 100d * count);
+        return Math.max(rank, 1) - 1;
+    }
+
+    private int insertAt(int index, long declarationId) {
+        ensureCapacity(size + 1);
+        var tail = size - index;
+        System.arraycopy(ids, index, ids, index + 1, tail);
+        System.arraycopy(years, index, years, index + 1, tail);
+        System.arraycopy(statuses, index, statuses, index + 1, tail);
+        System.arraycopy(incomeCents, index * INCOME_TYPES, incomeCents, (index + 1) * INCOME_TYPES, tail * INCOME_TYPES);
+        System.arraycopy(deductionCents, index * EXPENSE_TYPES, deductionCents, (index + 1) * EXPENSE_TYPES, tail * EXPENSE_TYPES);
+        System.arraycopy(taxDueCents, index, taxDueCents, index + 1, tail);
+        System.arraycopy(brackets, index, brackets, index + 1, tail);
+        ids[index] = declarationId;
+        size++;
+        return index;
+    }
+
+    private void write(int index, DeclarationRow row) {
+        years[index] = row.year();
+        statuses[index] = (byte) row.status().ordinal();
+        System.arraycopy(row.incomeCentsByType(), 0, incomeCents, index * INCOME_TYPES, INCOME_TYPES);
+        System.arraycopy(row.deductionCentsByType(), 0, deductionCents, index * EXPENSE_TYPES, EXPENSE_TYPES);
+        taxDueCents[index] = row.taxDueCents();
+        brackets[index] = (byte) row.bracket();
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        var capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        years = Arrays.copyOf(years, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        incomeCents = Arrays.copyOf(incomeCents, capacity * INCOME_TYPES);
+        deductionCents = Arrays.copyOf(deductionCents, capacity * EXPENSE_TYPES);
+        taxDueCents = Arrays.copyOf(taxDueCents, capacity);
+        brackets = Arrays.copyOf(brackets, capacity);
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.matheusgusmao.incometax.domain.model.analytics;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+
+public record DeclarationRow(
+        long declarationId,
+        int year,
+        DeclarationStatus status,
+        long[] incomeCentsByType,
+        long[] deductionCentsByType,
+        long taxDueCents,
+        int bracket
+) {
+    public DeclarationRow {
+        if (incomeCentsByType.length != IncomeType.values().length || deductionCentsByType.length != ExpenseType.values().length) {
+            throw new IllegalArgumentException("Totals must have one entry per income and expense type.");
+        }
+        if (bracket < 1 || bracket > DeclarationColumns.BRACKETS) {
+            throw new IllegalArgumentException("Invalid tax bracket: " + bracket);
+        }
+    }
+}
@@ -3,12 +3,13 @@ package br.com.matheusgusmao.incometax.domain.model.declaration;
 import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
 import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
 import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.Getter;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 @Getter
@@ -17,11 +18,13 @@ public final class Declaration {
     private Long id;
     private final UUID taxpayerId;
     private final int year;
+    private final int amendment;
     private DeclarationStatus status;
     private LocalDateTime deliveryDate;
-    private final List<Income> incomes = new ArrayList<>();
-    private final List<DeductibleExpense> deductibleExpenses = new ArrayList<>();
-    private final List<Dependent> dependents = new ArrayList<>();
+    private Long version;
+    private PersistentList<Income> incomes;
+    private PersistentList<DeductibleExpense> deductibleExpenses;
+    private PersistentList<Dependent> dependents;
 
     private static final Pattern YEAR_REGEX_PATTERN = Pattern.compile("^\\d{4}$");
 
@@ -34,22 +37,74 @@ public final class Declaration {
 
         this.taxpayerId = taxpayerId;
         this.year = year;
+        this.amendment = 0;
         this.status = DeclarationStatus.EDITING;
+        this.incomes = PersistentList.of();
+        this.deductibleExpenses = PersistentList.of();
+        this.dependents = PersistentList.of();
     }
 
     public Declaration(Long id, UUID taxpayerId, int year, DeclarationStatus status, LocalDateTime deliveryDate) {
+        this(id, taxpayerId, year, status, deliveryDate, null);
+    }
+
+    public Declaration(Long id, UUID taxpayerId, int year, DeclarationStatus status, LocalDateTime deliveryDate, Long version) {
+        this(id, taxpayerId, year, 0, status, deliveryDate, version, PersistentList.of(), PersistentList.of(), PersistentList.of());
+    }
+
+    private Declaration(Long id, UUID taxpayerId, int year, int amendment, DeclarationStatus status, LocalDateTime deliveryDate, Long version,
+                        PersistentList<Income> incomes, PersistentList<DeductibleExpense> deductibleExpenses, PersistentList<Dependent> dependents) {
         this.id = id;
         this.taxpayerId = taxpayerId;
         this.year = year;
+        this.amendment = amendment;
         this.status = status;
         this.deliveryDate = deliveryDate;
+        this.version = version;
+        this.incomes = incomes;
+        this.deductibleExpenses = deductibleExpenses;
+        this.dependents = dependents;
+    }
 
+    /**
+     * Rebuilds a persisted aggregate without re-running the invariants enforced when it was written. Lists
+     * that are not persistent lists already are copied into new ones, so declarations loaded separately,
+     * such as an amendment and the version it replaced, share no children in memory; in storage they share
+     * the child rows.
+     */
+    public static Declaration rehydrate(Long id, UUID taxpayerId, int year, DeclarationStatus status, LocalDateTime deliveryDate, Long version,
+                                        List<Income> incomes, List<DeductibleExpense> deductibleExpenses, List<Dependent> dependents) {
+        return rehydrate(id, taxpayerId, year, 0, status, deliveryDate, version, incomes, deductibleExpenses, dependents);
     }
+
+    public static Declaration rehydrate(Long id, UUID taxpayerId, int year, int amendment, DeclarationStatus status, LocalDateTime deliveryDate,
+                                        Long version, List<Income> incomes, List<DeductibleExpense> deductibleExpenses, List<Dependent> dependents) {
+        return new Declaration(id, taxpayerId, year, amendment, status, deliveryDate, version,
+                PersistentList.copyOf(incomes), PersistentList.copyOf(deductibleExpenses), PersistentList.copyOf(dependents));
+    }
+
+    /**
+     * Starts the next amendment of this delivered declaration: the same declaration back in editing, which
+     * replaces this version once it is submitted. The amendment begins with this instance's incomes,
+     * expenses and dependents, sharing them in memory until it changes them, and this version is left as it is.
+     */
+    public Declaration amend() {
+        if (this.status != DeclarationStatus.DELIVERED) {
+            throw new IllegalStateException("Only a delivered declaration can be amended.");
+        }
+        return new Declaration(id, taxpayerId, year, amendment + 1, DeclarationStatus.EDITING, null, version,
+                incomes, deductibleExpenses, dependents);
+    }
+
+    public List<Income> getIncomes() {
+        return incomes;
+    }
+
     public void addIncome(Income income) {
         if (this.status != DeclarationStatus.EDITING) {
             throw new IllegalStateException("Cannot add income to a declaration that is not in editing status.");
         }
-        this.incomes.add(income);
+        this.incomes = this.incomes.plus(income);
     }
 
     public void removeIncome(Long incomeId) {
@@ -57,23 +112,18 @@ public final class Declaration {
             throw new IllegalStateException("Cannot remove income from a declaration that is not in editing status.");
         }
 
-        Income incomeToRemove = this.incomes.stream()
-                .filter(income -> income.getId().equals(incomeId))
-                .findFirst()
-                .orElseThrow(() -> new EntityNotFoundException("Income not found with id: " + incomeId));
-
-        this.incomes.remove(incomeToRemove);
+        this.incomes = this.incomes.minus(indexOf(this.incomes, Income::getId, incomeId, "Income not found with id: "));
     }
 
     public List<DeductibleExpense> getDeductibleExpenses() {
-        return Collections.unmodifiableList(deductibleExpenses);
+        return deductibleExpenses;
     }
 
     public void addDeductibleExpense(DeductibleExpense expense) {
         if (this.status != DeclarationStatus.EDITING) {
             throw new IllegalStateException("Cannot add expense to a declaration that is not in editing status.");
         }
-        this.deductibleExpenses.add(expense);
+        this.deductibleExpenses = this.deductibleExpenses.plus(expense);
     }
 
     public void removeDeductibleExpense(Long expenseId) {
@@ -81,23 +131,19 @@ public final class Declaration {
             throw new IllegalStateException("Cannot remove expense from a declaration that is not in editing status.");
         }
 
-        DeductibleExpense expenseToRemove = this.deductibleExpenses.stream()
-                .filter(expense -> expense.getId().equals(expenseId))
-                .findFirst()
-                .orElseThrow(() -> new EntityNotFoundException("Deductible expense not found with id: " + expenseId));
-
-        this.deductibleExpenses.remove(expenseToRemove);
+        this.deductibleExpenses = this.deductibleExpenses.minus(
+                indexOf(this.deductibleExpenses, DeductibleExpense::getId, expenseId, "Deductible expense not found with id: "));
     }
 
     public List<Dependent> getDependents() {
-        return Collections.unmodifiableList(dependents);
+        return dependents;
     }
 
     public void addDependent(Dependent dependent) {
         if (this.status != DeclarationStatus.EDITING) {
             throw new IllegalStateException("Cannot add dependent to a declaration that is not in editing status.");
         }
-        this.dependents.add(dependent);
+        this.dependents = this.dependents.plus(dependent);
     }
 
     public void removeDependent(Long dependentId) {
@@ -105,12 +151,7 @@ public final class Declaration {
             throw new IllegalStateException("Cannot remove dependent from a declaration that is not in editing status.");
         }
 
-        Dependent dependentToRemove = this.dependents.stream()
-                .filter(dependent -> dependent.getId().equals(dependentId))
-                .findFirst()
-                .orElseThrow(() -> new EntityNotFoundException("Dependent not found with id: " + dependentId));
-
-        this.dependents.remove(dependentToRemove);
+        this.dependents = this.dependents.minus(indexOf(this.dependents, Dependent::getId, dependentId, "Dependent not found with id: "));
     }
 
     public void submit() {
@@ -124,15 +165,30 @@ public final class Declaration {
         this.deliveryDate = LocalDateTime.now();
     }
 
-    public BigDecimal calculateTotalIncome() {
-        return this.incomes.stream()
-                .map(Income::getValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public Money calculateTotalIncome() {
+        long total = 0;
+        for (Income income : this.incomes) {
+            total = Math.addExact(total, income.getValue().cents());
+        }
+        return Money.ofCents(total);
     }
 
-    public BigDecimal calculateTotalDeductions() {
-        return this.deductibleExpenses.stream()
-                .map(DeductibleExpense::getValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public Money calculateTotalDeductions() {
+        long total = 0;
+        for (DeductibleExpense expense : this.deductibleExpenses) {
+            total = Math.addExact(total, expense.getValue().cents());
+        }
+        return Money.ofCents(total);
+    }
+
+    private static <T> int indexOf(List<T> items, Function<T, Long> id, Long itemId, String notFoundMessage) {
+        var index = 0;
+        for (var item : items) {
+            if (id.apply(item).equals(itemId)) {
+                return index;
+            }
+            index++;
+        }
+        throw new EntityNotFoundException(notFoundMessage + itemId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+package br.com.matheusgusmao.incometax.domain.model.declaration;
+
+import java.time.LocalDateTime;
+
+/**
+ * A delivered version of a declaration that an amendment replaced. {@code version} is the declaration's
+ * version as it was delivered.
+ */
+public record DeclarationAmendment(Long declarationId, int amendment, long version, LocalDateTime deliveryDate, LocalDateTime amendedAt) {
+}
@@ -0,0 +1,4 @@
+package br.com.matheusgusmao.incometax.domain.model.declaration;
+
+public record DeclarationCreation(Declaration declaration, boolean created) {
+}
@@ -0,0 +1,11 @@
+package br.com.matheusgusmao.incometax.domain.model.declaration;
+
+/**
+ * Outcome of one export. Rows count each declaration and each of its incomes, expenses and dependents.
+ */
+public record DeclarationExportSummary(long declarations, long rows, long elapsedMillis) {
+
+    public long rowsPerSecond() {
+        return elapsedMillis == 0 ? rows * 1000 : rows * 1000 / elapsedMillis;
+    }
+}
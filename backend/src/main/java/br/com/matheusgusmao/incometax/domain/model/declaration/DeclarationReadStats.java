@@ -0,0 +1,8 @@
+package br.com.matheusgusmao.incometax.domain.model.declaration;
+
+public record DeclarationReadStats(long reads, long loads) {
+
+    public long coalesced() {
+        return reads - loads;
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.matheusgusmao.incometax.domain.model.declaration;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record DeclarationReceipt(Long declarationId, UUID taxpayerId, String number, LocalDateTime issuedAt) {
+}
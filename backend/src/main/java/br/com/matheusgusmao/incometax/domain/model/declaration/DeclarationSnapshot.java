@@ -0,0 +1,53 @@
+package br.com.matheusgusmao.incometax.domain.model.declaration;
+
+import br.com.matheusgusmao.incometax.domain.model.dependent.Cpf;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only copy of a declaration that can be handed to several callers at once.
+ */
+public record DeclarationSnapshot(
+        Long id,
+        UUID taxpayerId,
+        int year,
+        int amendment,
+        DeclarationStatus status,
+        LocalDateTime deliveryDate,
+        Long version,
+        List<Income> incomes,
+        List<DeductibleExpense> deductibleExpenses,
+        List<DependentEntry> dependents
+) {
+    public DeclarationSnapshot {
+        // The declaration's own lists never change, so they are shared rather than copied.
+        incomes = incomes instanceof PersistentList<Income> ? incomes : List.copyOf(incomes);
+        deductibleExpenses = deductibleExpenses instanceof PersistentList<DeductibleExpense> ? deductibleExpenses : List.copyOf(deductibleExpenses);
+        dependents = List.copyOf(dependents);
+    }
+
+    public static DeclarationSnapshot of(Declaration declaration) {
+        return new DeclarationSnapshot(
+                declaration.getId(),
+                declaration.getTaxpayerId(),
+                declaration.getYear(),
+                declaration.getAmendment(),
+                declaration.getStatus(),
+                declaration.getDeliveryDate(),
+                declaration.getVersion(),
+                declaration.getIncomes(),
+                declaration.getDeductibleExpenses(),
+                declaration.getDependents().stream()
+                        .map(dependent -> new DependentEntry(dependent.getId(), dependent.getName(), dependent.getCpf(), dependent.getBirthDate()))
+                        .toList());
+    }
+
+    // Dependent has setters, so the snapshot keeps its own immutable copy of each one.
+    public record DependentEntry(Long id, String name, Cpf cpf, LocalDate birthDate) {
+    }
+}
@@ -0,0 +1,202 @@
+package br.com.matheusgusmao.incometax.domain.model.declaration;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Immutable list that shares its elements with the lists it was derived from. Elements are held in chunks
+ * of up to 32; adding or removing one copies only the chunk it touches, at most one neighbour it is merged
+ * into, and the array pointing at the chunks, and every other chunk stays shared. Each list also keeps where
+ * its chunks end, so {@link #get} finds an element's chunk by binary search. An amendment started in memory
+ * holds its declaration's lists as they are, so the two only hold separate copies of the chunks the
+ * amendment goes on to change.
+ */
+public final class PersistentList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int CHUNK_SIZE = 32;
+    private static final PersistentList<?> EMPTY = new PersistentList<>(new Object[0][]);
+
+    private final Object[][] chunks;
+    // ends[i] is the number of elements in chunks 0 to i; chunks are never empty, so it strictly increases.
+    private final int[] ends;
+    private final int size;
+
+    private PersistentList(Object[][] chunks) {
+        this.chunks = chunks;
+        this.ends = new int[chunks.length];
+        var total = 0;
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            total += chunks[chunk].length;
+            ends[chunk] = total;
+        }
+        this.size = total;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentList<E> of() {
+        return (PersistentList<E>) EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentList<E> copyOf(Collection<? extends E> elements) {
+        if (elements instanceof PersistentList<?> list) {
+            return (PersistentList<E>) list;
+        }
+        var array = elements.toArray();
+        if (array.length == 0) {
+            return of();
+        }
+        var chunks = new Object[(array.length + CHUNK_SIZE - 1) / CHUNK_SIZE][];
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            chunks[chunk] = Arrays.copyOfRange(array, chunk * CHUNK_SIZE, Math.min(array.length, (chunk + 1) * CHUNK_SIZE));
+        }
+        return new PersistentList<>(chunks);
+    }
+
+    /**
+     * Returns a list with the element appended, sharing every chunk but the last with this one.
+     */
+    public PersistentList<E> plus(E element) {
+        Objects.requireNonNull(element, "Persistent list elements cannot be null.");
+        var last = chunks.length - 1;
+        if (last >= 0 && chunks[last].length < CHUNK_SIZE) {
+            var copy = chunks.clone();
+            copy[last] = Arrays.copyOf(chunks[last], chunks[last].length + 1);
+            copy[last][chunks[last].length] = element;
+            return new PersistentList<>(copy);
+        }
+        var copy = Arrays.copyOf(chunks, chunks.length + 1);
+        copy[chunks.length] = new Object[]{element};
+        return new PersistentList<>(copy);
+    }
+
+    /**
+     * Returns a list without the element at the index, sharing every chunk but that element's with this one.
+     * A chunk left less than half full is merged into a neighbour with room for it, so removals cannot leave
+     * a trail of tiny chunks behind.
+     */
+    public PersistentList<E> minus(int index) {
+        Objects.checkIndex(index, size);
+        var chunk = chunkOf(index);
+        var offset = index - start(chunk);
+
+        var old = chunks[chunk];
+        if (old.length == 1) {
+            return new PersistentList<>(without(chunk));
+        }
+        var shrunk = new Object[old.length - 1];
+        System.arraycopy(old, 0, shrunk, 0, offset);
+        System.arraycopy(old, offset + 1, shrunk, offset, old.length - offset - 1);
+
+        if (shrunk.length < CHUNK_SIZE / 2) {
+            if (chunk + 1 < chunks.length && shrunk.length + chunks[chunk + 1].length <= CHUNK_SIZE) {
+                return merged(chunk, shrunk, chunks[chunk + 1]);
+            }
+            if (chunk > 0 && chunks[chunk - 1].length + shrunk.length <= CHUNK_SIZE) {
+                return merged(chunk - 1, chunks[chunk - 1], shrunk);
+            }
+        }
+        var copy = chunks.clone();
+        copy[chunk] = shrunk;
+        return new PersistentList<>(copy);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        var chunk = chunkOf(index);
+        return (E) chunks[chunk][index - start(chunk)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int chunk;
+            private int offset;
+
+            @Override
+            public boolean hasNext() {
+                while (chunk < chunks.length && offset == chunks[chunk].length) {
+                    chunk++;
+                    offset = 0;
+                }
+                return chunk < chunks.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (E) chunks[chunk][offset++];
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        for (var chunk : chunks) {
+            for (var element : chunk) {
+                action.accept((E) element);
+            }
+        }
+    }
+
+    // How many chunks the two lists hold in common, for checking that derived lists share storage.
+    int sharedChunks(PersistentList<?> other) {
+        var shared = 0;
+        for (var chunk : chunks) {
+            for (var otherChunk : other.chunks) {
+                if (chunk == otherChunk) {
+                    shared++;
+                    break;
+                }
+            }
+        }
+        return shared;
+    }
+
+    int chunkCount() {
+        return chunks.length;
+    }
+
+    // The first chunk ending after the index.
+    private int chunkOf(int index) {
+        var found = Arrays.binarySearch(ends, index);
+        return found >= 0 ? found + 1 : -found - 1;
+    }
+
+    private int start(int chunk) {
+        return chunk == 0 ? 0 : ends[chunk - 1];
+    }
+
+    private Object[][] without(int chunk) {
+        var copy = new Object[chunks.length - 1][];
+        System.arraycopy(chunks, 0, copy, 0, chunk);
+        System.arraycopy(chunks, chunk + 1, copy, chunk, chunks.length - chunk - 1);
+        return copy;
+    }
+
+    // Replaces chunks first and first + 1 with the two given parts joined.
+    private PersistentList<E> merged(int first, Object[] head, Object[] tail) {
+        var joined = Arrays.copyOf(head, head.length + tail.length);
+        System.arraycopy(tail, 0, joined, head.length, tail.length);
+        var copy = without(first + 1);
+        copy[first] = joined;
+        return new PersistentList<>(copy);
+    }
+}
@@ -1,16 +1,18 @@
 package br.com.matheusgusmao.incometax.domain.model.declaration;
 
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+
 import java.math.BigDecimal;
 
 public record TaxCalculationResult(
-        BigDecimal totalIncome,
-        BigDecimal totalDeductions,
-        BigDecimal calculationBase,
-        BigDecimal taxDue,
+        Money totalIncome,
+        Money totalDeductions,
+        Money calculationBase,
+        Money taxDue,
         BigDecimal effectiveAliquot,
-        BigDecimal finalBalance
+        Money finalBalance
 ) {
-    public TaxCalculationResult(BigDecimal totalIncome, BigDecimal totalDeductions, BigDecimal calculationBase, BigDecimal taxDue, BigDecimal effectiveAliquot) {
+    public TaxCalculationResult(Money totalIncome, Money totalDeductions, Money calculationBase, Money taxDue, BigDecimal effectiveAliquot) {
         this(totalIncome, totalDeductions, calculationBase, taxDue, effectiveAliquot, taxDue);
     }
-}
\ No newline at end of file
+}
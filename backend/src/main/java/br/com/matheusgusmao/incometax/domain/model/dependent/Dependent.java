@@ -1,17 +1,15 @@
 package br.com.matheusgusmao.incometax.domain.model.dependent;
 
 import lombok.Getter;
-import lombok.Setter;
 
 import java.time.LocalDate;
 
 @Getter
-@Setter
 public class Dependent {
-    private Long id;
-    private String name;
-    private Cpf cpf;
-    private LocalDate birthDate;
+    private final Long id;
+    private final String name;
+    private final Cpf cpf;
+    private final LocalDate birthDate;
 
     public Dependent(Long id, String name, Cpf cpf, LocalDate birthDate) {
         this.id = id;
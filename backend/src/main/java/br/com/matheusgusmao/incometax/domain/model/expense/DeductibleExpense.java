@@ -1,5 +1,6 @@
 package br.com.matheusgusmao.incometax.domain.model.expense;
 
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
 import lombok.Getter;
 
 import java.math.BigDecimal;
@@ -9,12 +10,12 @@ import java.util.Objects;
 public class DeductibleExpense {
 
     private Long id;
-    private final String description;
-    private final ExpenseType type;
-    private final BigDecimal value;
+    private String description;
+    private ExpenseType type;
+    private Money value;
 
-    public DeductibleExpense(String description, ExpenseType type, BigDecimal value) {
-        if (value == null || value.compareTo(BigDecimal.ZERO) <= 0) {
+    public DeductibleExpense(String description, ExpenseType type, Money value) {
+        if (value == null || !value.isPositive()) {
             throw new IllegalArgumentException("Expense value must be positive.");
         }
         this.description = Objects.requireNonNull(description, "Description cannot be null");
@@ -22,8 +23,28 @@ public class DeductibleExpense {
         this.value = value;
     }
 
-    public DeductibleExpense(Long id, String description, ExpenseType type, BigDecimal value) {
+    public DeductibleExpense(Long id, String description, ExpenseType type, Money value) {
         this(description, type, value);
         this.id = id;
     }
+
+    private DeductibleExpense() {
+    }
+
+    public static DeductibleExpense rehydrate(Long id, String description, ExpenseType type, Money value) {
+        var expense = new DeductibleExpense();
+        expense.id = id;
+        expense.description = description;
+        expense.type = type;
+        expense.value = value;
+        return expense;
+    }
+
+    public DeductibleExpense(String description, ExpenseType type, BigDecimal value) {
+        this(description, type, value == null ? null : Money.of(value));
+    }
+
+    public DeductibleExpense(Long id, String description, ExpenseType type, BigDecimal value) {
+        this(id, description, type, value == null ? null : Money.of(value));
+    }
 }
@@ -1,5 +1,6 @@
 package br.com.matheusgusmao.incometax.domain.model.income;
 
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
 import lombok.Getter;
 
 import java.math.BigDecimal;
@@ -9,10 +10,10 @@ public class Income {
     private Long id;
     private String payingSource;
     private IncomeType type;
-    private BigDecimal value;
+    private Money value;
 
-    public Income(String payingSource, IncomeType type, BigDecimal value) {
-        if (value == null || value.compareTo(BigDecimal.ZERO) < 0) {
+    public Income(String payingSource, IncomeType type, Money value) {
+        if (value == null || value.isNegative()) {
             throw new IllegalArgumentException("Income value cannot be negative.");
         }
         if (payingSource == null || payingSource.isBlank()) {
@@ -23,9 +24,29 @@ public class Income {
         this.value = value;
     }
 
-    public Income(Long id, String payingSource, IncomeType type, BigDecimal value) {
+    public Income(Long id, String payingSource, IncomeType type, Money value) {
         this(payingSource, type, value);
         this.id = id;
     }
 
+    private Income() {
+    }
+
+    public static Income rehydrate(Long id, String payingSource, IncomeType type, Money value) {
+        var income = new Income();
+        income.id = id;
+        income.payingSource = payingSource;
+        income.type = type;
+        income.value = value;
+        return income;
+    }
+
+    public Income(String payingSource, IncomeType type, BigDecimal value) {
+        this(payingSource, type, value == null ? null : Money.of(value));
+    }
+
+    public Income(Long id, String payingSource, IncomeType type, BigDecimal value) {
+        this(id, payingSource, type, value == null ? null : Money.of(value));
+    }
+
 }
@@ -0,0 +1,21 @@
+package br.com.matheusgusmao.incometax.domain.model.recalculation;
+
+import java.time.LocalDateTime;
+
+public record TaxRecalculationProgress(
+        Long jobId,
+        TaxRecalculationStatus status,
+        long lastDeclarationId,
+        long processed,
+        double declarationsPerSecond,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {
+    public TaxRecalculationProgress advance(long lastDeclarationId, long processed, double declarationsPerSecond) {
+        return new TaxRecalculationProgress(jobId, status, lastDeclarationId, processed, declarationsPerSecond, startedAt, finishedAt);
+    }
+
+    public TaxRecalculationProgress finish(TaxRecalculationStatus status, LocalDateTime finishedAt) {
+        return new TaxRecalculationProgress(jobId, status, lastDeclarationId, processed, declarationsPerSecond, startedAt, finishedAt);
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.matheusgusmao.incometax.domain.model.recalculation;
+
+public enum TaxRecalculationStatus {
+    RUNNING,
+    FAILED,
+    COMPLETED
+}
@@ -0,0 +1,23 @@
+package br.com.matheusgusmao.incometax.domain.model.rollover;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record DeclarationRolloverProgress(
+        Long jobId,
+        int year,
+        DeclarationRolloverStatus status,
+        UUID lastTaxpayerId,
+        long created,
+        double declarationsPerSecond,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {
+    public DeclarationRolloverProgress advance(UUID lastTaxpayerId, long created, double declarationsPerSecond) {
+        return new DeclarationRolloverProgress(jobId, year, status, lastTaxpayerId, created, declarationsPerSecond, startedAt, finishedAt);
+    }
+
+    public DeclarationRolloverProgress finish(DeclarationRolloverStatus status, LocalDateTime finishedAt) {
+        return new DeclarationRolloverProgress(jobId, year, status, lastTaxpayerId, created, declarationsPerSecond, startedAt, finishedAt);
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.matheusgusmao.incometax.domain.model.rollover;
+
+public enum DeclarationRolloverStatus {
+    RUNNING,
+    FAILED,
+    COMPLETED
+}
@@ -0,0 +1,125 @@
+package br.com.matheusgusmao.incometax.domain.service;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationChangedEvent;
+import br.com.matheusgusmao.incometax.domain.event.DeclarationProjectedEvent;
+import br.com.matheusgusmao.incometax.domain.model.analytics.DeclarationAnalyticsSummary;
+import br.com.matheusgusmao.incometax.domain.model.analytics.DeclarationColumns;
+import br.com.matheusgusmao.incometax.domain.model.analytics.DeclarationRow;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationTypeTotals;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationAnalyticsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class DeclarationAnalyticsService {
+
+    private static final int REFRESH_BATCH_SIZE = 300;
+
+    private final DeclarationAnalyticsRepository analyticsRepository;
+    private final TaxCalculationService taxCalculationService;
+    private final Set<Long> changedDeclarationIds = ConcurrentHashMap.newKeySet();
+    private volatile DeclarationColumns columns;
+
+    public DeclarationAnalyticsService(DeclarationAnalyticsRepository analyticsRepository, TaxCalculationService taxCalculationService) {
+        this.analyticsRepository = analyticsRepository;
+        this.taxCalculationService = taxCalculationService;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeclarationChanged(DeclarationChangedEvent event) {
+        changedDeclarationIds.add(event.declarationId());
+    }
+
+    // In document storage mode the child tables read here catch up after commit, so refresh again once they have.
+    @EventListener
+    public void onDeclarationProjected(DeclarationProjectedEvent event) {
+        changedDeclarationIds.add(event.declarationId());
+    }
+
+    @Scheduled(fixedDelayString = "${application.analytics.refreshIntervalMillis:1000}")
+    public void refresh() {
+        if (columns == null) {
+            rebuild();
+            return;
+        }
+        if (changedDeclarationIds.isEmpty()) {
+            return;
+        }
+
+        List<Long> batch = new ArrayList<>(REFRESH_BATCH_SIZE);
+        for (var declarationId : changedDeclarationIds) {
+            changedDeclarationIds.remove(declarationId);
+            batch.add(declarationId);
+            if (batch.size() == REFRESH_BATCH_SIZE) {
+                apply(batch);
+                batch.clear();
+            }
+        }
+        apply(batch);
+    }
+
+    public void rebuild() {
+        var startNanos = System.nanoTime();
+        var rebuilt = new DeclarationColumns();
+        changedDeclarationIds.clear();
+        analyticsRepository.forEachDeclaration(totals -> rebuilt.upsert(toRow(totals)));
+        columns = rebuilt;
+        log.info("Declaration analytics snapshot built with {} declarations in {} ms",
+                rebuilt.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    public DeclarationAnalyticsSummary summarize(int year, int[] percentiles) {
+        var current = columns;
+        if (current == null) {
+            throw new IllegalStateException("Declaration analytics are still loading. Try again shortly.");
+        }
+        return current.summarize(year, percentiles);
+    }
+
+    private void apply(List<Long> declarationIds) {
+        if (declarationIds.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(declarationIds);
+        analyticsRepository.forEachDeclaration(declarationIds, totals -> {
+            missing.remove(totals.declarationId());
+            columns.upsert(toRow(totals));
+        });
+        missing.forEach(columns::remove);
+    }
+
+    private DeclarationRow toRow(DeclarationTypeTotals totals) {
+        var incomeCents = sum(totals.incomeCentsByType());
+        var deductionCents = sum(totals.deductionCentsByType());
+        var result = taxCalculationService.calculate(Money.ofCents(incomeCents), Money.ofCents(deductionCents));
+
+        return new DeclarationRow(
+                totals.declarationId(),
+                totals.year(),
+                totals.status(),
+                totals.incomeCentsByType(),
+                totals.deductionCentsByType(),
+                result.taxDue().cents(),
+                taxCalculationService.bracketOf(result.calculationBase())
+        );
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (var value : values) {
+            total = Math.addExact(total, value);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.matheusgusmao.incometax.domain.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of fair locks indexed by declaration id. Two declarations share a lock only when their ids
+ * fall on the same stripe, so the stripe count bounds memory without a per-declaration map to clean up.
+ */
+final class DeclarationLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    DeclarationLocks(int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Lock stripes must be at least 1.");
+        }
+        var size = Integer.highestOneBit((stripeCount - 1) << 1 | 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.mask = size - 1;
+    }
+
+    ReentrantLock forDeclaration(Long declarationId) {
+        var hash = Long.hashCode(declarationId);
+        return stripes[(hash ^ hash >>> 16) & mask];
+    }
+
+    int size() {
+        return stripes.length;
+    }
+}
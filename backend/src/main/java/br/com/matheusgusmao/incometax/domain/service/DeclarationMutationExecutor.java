@@ -0,0 +1,90 @@
+package br.com.matheusgusmao.incometax.domain.service;
+
+import br.com.matheusgusmao.incometax.infra.exception.custom.DeclarationVersionConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+@Component
+public class DeclarationMutationExecutor {
+
+    private static final long BASE_BACKOFF_MILLIS = 10;
+
+    private final DeclarationService declarationService;
+    private final int maxAttempts;
+    private final DeclarationLocks locks;
+
+    public DeclarationMutationExecutor(DeclarationService declarationService,
+                                       @Value("${application.declaration.conflictMaxAttempts:5}") int maxAttempts,
+                                       @Value("${application.declaration.lockStripes:256}") int lockStripes) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1.");
+        }
+        this.declarationService = declarationService;
+        this.maxAttempts = maxAttempts;
+        this.locks = new DeclarationLocks(lockStripes);
+    }
+
+    // For commutative mutations (adding a child): a concurrent writer cannot invalidate them, so each
+    // attempt runs in a fresh transaction on top of the latest state. SQLite busy errors are retried too.
+    // The back-off happens outside the lock, so queued mutations of the declaration run in the meantime.
+    public <T> T retrying(Long declarationId, Supplier<T> mutation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return serialized(declarationId, mutation);
+            } catch (ConcurrencyFailureException exception) {
+                if (attempt >= maxAttempts) {
+                    throw conflict(declarationId);
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    // For mutations whose meaning depends on the state the client saw (removals, submission).
+    public <T> T once(Long declarationId, Supplier<T> mutation) {
+        return serialized(declarationId, () -> {
+            try {
+                return mutation.get();
+            } catch (OptimisticLockingFailureException exception) {
+                throw conflict(declarationId);
+            }
+        });
+    }
+
+    // Mutations of one declaration queue here in arrival order instead of racing on the version column.
+    // The lock is taken before the mutation opens its transaction, so a waiter holds no connection, and a
+    // ReentrantLock parks a virtual thread without pinning its carrier. Other instances are still caught
+    // by the version check.
+    private <T> T serialized(Long declarationId, Supplier<T> mutation) {
+        var lock = locks.forDeclaration(declarationId);
+        try {
+            lock.lockInterruptibly();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to mutate declaration " + declarationId + ".", exception);
+        }
+        try {
+            return mutation.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private DeclarationVersionConflictException conflict(Long declarationId) {
+        return new DeclarationVersionConflictException(declarationId, declarationService.findVersion(declarationId));
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(BASE_BACKOFF_MILLIS * attempt + ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying declaration mutation.", exception);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package br.com.matheusgusmao.incometax.domain.service;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationSubmittedEvent;
+import br.com.matheusgusmao.incometax.domain.event.DeclarationSubmittedHandler;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationOutboxEntry;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the submission outbox written by {@link DeclarationService#submitDeclaration}. Due events are
+ * claimed in batches and run through every {@link DeclarationSubmittedHandler}, at most
+ * {@code parallelism} events at a time. Delivered events are deleted; an event whose handlers failed is
+ * retried with exponential backoff and kept as DEAD once it runs out of attempts.
+ */
+@Slf4j
+@Service
+public class DeclarationOutboxDispatcher {
+
+    private final DeclarationOutboxRepository outboxRepository;
+    private final List<DeclarationSubmittedHandler> handlers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimDuration;
+    private final Executor dispatchExecutor;
+    private final Executor handlerExecutor;
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    @Autowired
+    public DeclarationOutboxDispatcher(DeclarationOutboxRepository outboxRepository,
+                                       List<DeclarationSubmittedHandler> handlers,
+                                       @Value("${application.declaration.outbox.batchSize:100}") int batchSize,
+                                       @Value("${application.declaration.outbox.parallelism:4}") int parallelism,
+                                       @Value("${application.declaration.outbox.maxAttempts:10}") int maxAttempts,
+                                       @Value("${application.declaration.outbox.initialBackoffMillis:1000}") long initialBackoffMillis,
+                                       @Value("${application.declaration.outbox.maxBackoffMillis:300000}") long maxBackoffMillis,
+                                       @Value("${application.declaration.outbox.claimMillis:60000}") long claimMillis) {
+        this(outboxRepository, handlers, batchSize, maxAttempts, initialBackoffMillis, maxBackoffMillis, claimMillis,
+                Executors.newSingleThreadExecutor(), Executors.newFixedThreadPool(requirePositive(parallelism)));
+    }
+
+    public DeclarationOutboxDispatcher(DeclarationOutboxRepository outboxRepository,
+                                       List<DeclarationSubmittedHandler> handlers,
+                                       int batchSize,
+                                       int maxAttempts,
+                                       long initialBackoffMillis,
+                                       long maxBackoffMillis,
+                                       long claimMillis,
+                                       Executor dispatchExecutor,
+                                       Executor handlerExecutor) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Outbox batch size must be at least 1.");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Outbox max attempts must be at least 1.");
+        }
+        if (initialBackoffMillis < 1 || maxBackoffMillis < initialBackoffMillis) {
+            throw new IllegalArgumentException("Outbox backoff must be positive and its maximum at least the initial backoff.");
+        }
+        if (claimMillis < 1) {
+            throw new IllegalArgumentException("Outbox claim duration must be positive.");
+        }
+        this.outboxRepository = outboxRepository;
+        this.handlers = List.copyOf(handlers);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMillis);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMillis);
+        this.claimDuration = Duration.ofMillis(claimMillis);
+        this.dispatchExecutor = dispatchExecutor;
+        this.handlerExecutor = handlerExecutor;
+    }
+
+    // A submit wakes the dispatcher once it has committed; polling picks up retries and anything left over from a restart.
+    @TransactionalEventListener
+    public void onDeclarationSubmitted(DeclarationSubmittedEvent event) {
+        requestDrain();
+    }
+
+    @Scheduled(fixedDelayString = "${application.declaration.outbox.pollIntervalMillis:1000}")
+    public void poll() {
+        requestDrain();
+    }
+
+    /**
+     * Dispatches batches until no due event is left and returns how many events were delivered.
+     */
+    public int drain() {
+        var delivered = 0;
+        try {
+            List<DeclarationOutboxEntry> batch;
+            do {
+                var now = LocalDateTime.now();
+                batch = outboxRepository.claim(batchSize, now, now.plus(claimDuration));
+                delivered += dispatch(batch);
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException exception) {
+            log.error("Declaration outbox dispatch failed", exception);
+        }
+        return delivered;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (var executor : List.of(dispatchExecutor, handlerExecutor)) {
+            if (executor instanceof ExecutorService executorService) {
+                executorService.shutdownNow();
+            }
+        }
+    }
+
+    private void requestDrain() {
+        if (drainRequested.compareAndSet(false, true)) {
+            dispatchExecutor.execute(() -> {
+                drainRequested.set(false);
+                drain();
+            });
+        }
+    }
+
+    private int dispatch(List<DeclarationOutboxEntry> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        // The handlers of one event run in order; separate events run side by side on the handler pool.
+        var runs = batch.stream()
+                .map(entry -> CompletableFuture.runAsync(() -> handlers.forEach(handler -> handler.handle(entry.event())), handlerExecutor))
+                .toList();
+
+        var delivered = new ArrayList<Long>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            var entry = batch.get(i);
+            try {
+                runs.get(i).join();
+                delivered.add(entry.id());
+            } catch (CompletionException exception) {
+                fail(entry, exception.getCause());
+            }
+        }
+        outboxRepository.delete(delivered);
+        return delivered.size();
+    }
+
+    private void fail(DeclarationOutboxEntry entry, Throwable cause) {
+        var attempts = entry.attempts() + 1;
+        var declarationId = entry.event().declarationId();
+        if (attempts >= maxAttempts) {
+            log.error("Giving up on submission event of declaration {} after {} attempts", declarationId, attempts, cause);
+            outboxRepository.markDead(entry.id(), attempts, String.valueOf(cause));
+            return;
+        }
+
+        var backoff = backoff(attempts);
+        log.warn("Submission event of declaration {} failed on attempt {}, retrying in {} ms: {}",
+                declarationId, attempts, backoff.toMillis(), String.valueOf(cause));
+        outboxRepository.reschedule(entry.id(), attempts, LocalDateTime.now().plus(backoff), String.valueOf(cause));
+    }
+
+    private Duration backoff(int attempts) {
+        var doublings = Math.min(attempts - 1, 30);
+        var backoff = initialBackoff.multipliedBy(1L << doublings);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private static int requirePositive(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Outbox parallelism must be at least 1.");
+        }
+        return parallelism;
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.matheusgusmao.incometax.domain.service;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationChangedEvent;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationReadStats;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationSnapshot;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets concurrent reads of the same declaration share one load. The first caller loads the declaration and
+ * every caller that arrives while that load is running waits for its result instead of starting another.
+ * Nothing is kept once the load finishes, so this never serves a declaration older than the reads it joins.
+ */
+@Service
+public class DeclarationReadCoalescer {
+
+    private final DeclarationService declarationService;
+    private final ConcurrentHashMap<Long, CompletableFuture<DeclarationSnapshot>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    public DeclarationReadCoalescer(DeclarationService declarationService) {
+        this.declarationService = declarationService;
+    }
+
+    public DeclarationSnapshot findById(Long declarationId) {
+        reads.increment();
+        var load = new CompletableFuture<DeclarationSnapshot>();
+        var running = inFlight.putIfAbsent(declarationId, load);
+        if (running != null) {
+            return await(running);
+        }
+
+        loads.increment();
+        try {
+            var snapshot = DeclarationSnapshot.of(declarationService.findById(declarationId));
+            load.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException | Error exception) {
+            load.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            inFlight.remove(declarationId, load);
+        }
+    }
+
+    public DeclarationReadStats stats() {
+        return new DeclarationReadStats(reads.sum(), loads.sum());
+    }
+
+    // A read that starts after a change commits must not join a load that began before it.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeclarationChanged(DeclarationChangedEvent event) {
+        inFlight.remove(event.declarationId());
+    }
+
+    private static DeclarationSnapshot await(CompletableFuture<DeclarationSnapshot> load) {
+        try {
+            return load.get();
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (exception.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a declaration load.", exception);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.matheusgusmao.incometax.domain.service;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationSubmittedEvent;
+import br.com.matheusgusmao.incometax.domain.event.DeclarationSubmittedHandler;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationReceipt;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationReceiptRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues the delivery receipt of a submitted declaration. The receipt number is derived from the
+ * submission itself, so a redelivered event produces the same receipt.
+ */
+@Service
+public class DeclarationReceiptService implements DeclarationSubmittedHandler {
+
+    private static final int NUMBER_BYTES = 10;
+
+    private final DeclarationReceiptRepository receiptRepository;
+
+    public DeclarationReceiptService(DeclarationReceiptRepository receiptRepository) {
+        this.receiptRepository = receiptRepository;
+    }
+
+    @Override
+    public void handle(DeclarationSubmittedEvent event) {
+        receiptRepository.issue(new DeclarationReceipt(event.declarationId(), event.taxpayerId(), receiptNumber(event), LocalDateTime.now()));
+    }
+
+    public DeclarationReceipt findReceipt(Long declarationId, UUID taxpayerId) {
+        var receipt = receiptRepository.findByDeclarationId(declarationId)
+                .orElseThrow(() -> new EntityNotFoundException("No receipt issued for declaration with id: " + declarationId));
+        if (!receipt.taxpayerId().equals(taxpayerId)) {
+            throw new AccessDeniedException("User is not authorized to access this declaration.");
+        }
+        return receipt;
+    }
+
+    static String receiptNumber(DeclarationSubmittedEvent event) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(
+                    (event.declarationId() + ":" + event.taxpayerId() + ":" + event.year() + ":" + event.deliveryDate())
+                            .getBytes(StandardCharsets.UTF_8));
+            var hex = HexFormat.of().withUpperCase().formatHex(digest, 0, NUMBER_BYTES);
+            return String.join(".", hex.substring(0, 5), hex.substring(5, 10), hex.substring(10, 15), hex.substring(15, 20));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available.", exception);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package br.com.matheusgusmao.incometax.domain.service;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationChangedEvent;
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+import br.com.matheusgusmao.incometax.domain.model.rollover.DeclarationRolloverProgress;
+import br.com.matheusgusmao.incometax.domain.model.rollover.DeclarationRolloverStatus;
+import br.com.matheusgusmao.incometax.infra.event.DeclarationEventBus;
+import br.com.matheusgusmao.incometax.infra.persistence.archive.DeclarationArchive;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRolloverRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pre-creates the EDITING declaration of a year for every active taxpayer ahead of the filing season, so
+ * the first requests of the season find their declaration instead of all inserting at once. Taxpayers are
+ * walked in id order in chunks, each inserted with one statement and checkpointed in the same transaction,
+ * and an interrupted job resumes after its last checkpoint. Between chunks the job sleeps so it holds the
+ * database's write lock for at most {@code application.declaration.rollover.writeShare} of the time.
+ */
+@Slf4j
+@Service
+public class DeclarationRolloverService {
+
+    private final DeclarationRolloverRepository rolloverRepository;
+    private final DeclarationArchive declarationArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeclarationEventBus declarationEventBus;
+    private final int chunkSize;
+    private final int lookbackYears;
+    private final double writeShare;
+    private final Executor jobExecutor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<DeclarationRolloverProgress> currentProgress = new AtomicReference<>();
+
+    @Autowired
+    public DeclarationRolloverService(DeclarationRolloverRepository rolloverRepository,
+                                      DeclarationArchive declarationArchive,
+                                      TransactionTemplate transactionTemplate,
+                                      ApplicationEventPublisher eventPublisher,
+                                      DeclarationEventBus declarationEventBus,
+                                      @Value("${application.declaration.rollover.chunkSize:500}") int chunkSize,
+                                      @Value("${application.declaration.rollover.lookbackYears:2}") int lookbackYears,
+                                      @Value("${application.declaration.rollover.writeShare:0.25}") double writeShare) {
+        this(rolloverRepository, declarationArchive, transactionTemplate, eventPublisher, declarationEventBus, chunkSize,
+                lookbackYears, writeShare, Executors.newSingleThreadExecutor());
+    }
+
+    public DeclarationRolloverService(DeclarationRolloverRepository rolloverRepository,
+                                      DeclarationArchive declarationArchive,
+                                      TransactionTemplate transactionTemplate,
+                                      ApplicationEventPublisher eventPublisher,
+                                      DeclarationEventBus declarationEventBus,
+                                      int chunkSize,
+                                      int lookbackYears,
+                                      double writeShare,
+                                      Executor jobExecutor) {
+        // Each row binds two parameters and SQLite allows 32766 per statement.
+        if (chunkSize < 1 || chunkSize > 10_000) {
+            throw new IllegalArgumentException("Rollover chunk size must be between 1 and 10000.");
+        }
+        if (lookbackYears < 1) {
+            throw new IllegalArgumentException("Rollover lookback must be at least one year.");
+        }
+        if (!(writeShare > 0 && writeShare <= 1)) {
+            throw new IllegalArgumentException("Rollover write share must be greater than 0 and at most 1.");
+        }
+        this.rolloverRepository = rolloverRepository;
+        this.declarationArchive = declarationArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.declarationEventBus = declarationEventBus;
+        this.chunkSize = chunkSize;
+        this.lookbackYears = lookbackYears;
+        this.writeShare = writeShare;
+        this.jobExecutor = jobExecutor;
+    }
+
+    public DeclarationRolloverProgress start(int year) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A declaration rollover is already running.");
+        }
+        try {
+            var job = rolloverRepository.findUnfinishedJob(year)
+                    .orElseGet(() -> rolloverRepository.createJob(year, LocalDateTime.now()));
+            currentProgress.set(job);
+            jobExecutor.execute(() -> run(job));
+            return job;
+        } catch (RuntimeException exception) {
+            running.set(false);
+            throw exception;
+        }
+    }
+
+    public Optional<DeclarationRolloverProgress> getProgress() {
+        return Optional.ofNullable(currentProgress.get()).or(rolloverRepository::findLatestJob);
+    }
+
+    @Scheduled(cron = "${application.declaration.rollover.cron:-}")
+    public void startScheduled() {
+        start(Year.now().getValue());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJob() {
+        rolloverRepository.findUnfinishedJob().ifPresent(job -> {
+            log.info("Resuming interrupted declaration rollover for {} from its last checkpoint", job.year());
+            start(job.year());
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (jobExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void run(DeclarationRolloverProgress job) {
+        var progress = job;
+        var startNanos = System.nanoTime();
+        var createdInRun = 0L;
+
+        try {
+            List<UUID> chunk;
+            while (!(chunk = rolloverRepository.findActiveTaxpayersAfter(progress.lastTaxpayerId(), job.year(), lookbackYears, chunkSize)).isEmpty()) {
+                // Archived years are older than any rollover year, but the archive is the other half of the uniqueness rule.
+                var taxpayers = chunk.stream().filter(taxpayerId -> !declarationArchive.exists(taxpayerId, job.year())).toList();
+                var lastTaxpayerId = chunk.getLast();
+                var writeStartNanos = System.nanoTime();
+
+                var baseline = progress.created();
+                var created = transactionTemplate.execute(status -> {
+                    var declarations = rolloverRepository.createEditing(taxpayers, job.year());
+                    rolloverRepository.updateCheckpoint(job.jobId(), lastTaxpayerId, baseline + declarations.size());
+                    return declarations;
+                });
+                var writeNanos = System.nanoTime() - writeStartNanos;
+                created.forEach(declaration -> {
+                    eventPublisher.publishEvent(new DeclarationChangedEvent(declaration.id()));
+                    declarationEventBus.publish(DeclarationEventType.DECLARATION_CREATED, declaration.id(), declaration.taxpayerId(), 0, 0);
+                });
+
+                createdInRun += created.size();
+                progress = progress.advance(lastTaxpayerId, baseline + created.size(), throughput(createdInRun, startNanos));
+                currentProgress.set(progress);
+                log.info("Declaration rollover {} for {}: {} declarations created up to taxpayer {} ({} declarations/s)",
+                        job.jobId(), job.year(), progress.created(), lastTaxpayerId, Math.round(progress.declarationsPerSecond()));
+
+                pause(writeNanos);
+            }
+
+            var finishedAt = LocalDateTime.now();
+            rolloverRepository.finishJob(job.jobId(), DeclarationRolloverStatus.COMPLETED, finishedAt);
+            currentProgress.set(progress.finish(DeclarationRolloverStatus.COMPLETED, finishedAt));
+        } catch (RuntimeException | InterruptedException exception) {
+            log.error("Declaration rollover {} for {} failed after taxpayer {}", job.jobId(), job.year(), progress.lastTaxpayerId(), exception);
+            var finishedAt = LocalDateTime.now();
+            rolloverRepository.finishJob(job.jobId(), DeclarationRolloverStatus.FAILED, finishedAt);
+            currentProgress.set(progress.finish(DeclarationRolloverStatus.FAILED, finishedAt));
+            if (exception instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Sleeping (1 - share) / share times as long as the write took keeps the job's share of write time at writeShare.
+    private void pause(long writeNanos) throws InterruptedException {
+        var pauseNanos = (long) (writeNanos * (1 - writeShare) / writeShare);
+        if (pauseNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(pauseNanos);
+        }
+    }
+
+    private static double throughput(long created, long startNanos) {
+        var elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000d;
+        return elapsedSeconds > 0 ? created / elapsedSeconds : created;
+    }
+}
@@ -1,163 +1,408 @@
 package br.com.matheusgusmao.incometax.domain.service;
 
+import br.com.matheusgusmao.incometax.domain.event.DeclarationChangedEvent;
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+import br.com.matheusgusmao.incometax.domain.event.DeclarationSubmittedEvent;
 import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
 import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
 import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationAmendment;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationCreation;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
 import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import br.com.matheusgusmao.incometax.infra.event.DeclarationEventBus;
+import br.com.matheusgusmao.incometax.infra.exception.custom.DeclarationVersionConflictException;
 import br.com.matheusgusmao.incometax.infra.exception.custom.EntityAlreadyExistsException;
+import br.com.matheusgusmao.incometax.infra.persistence.archive.DeclarationArchive;
 import br.com.matheusgusmao.incometax.infra.persistence.entity.declaration.DeclarationEntity;
-import br.com.matheusgusmao.incometax.infra.persistence.mapper.DeclarationMapper;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationHistoryVersion;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationAmendmentRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationCopyRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationOutboxRepository;
 import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRolloverRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.store.DeclarationStore;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import br.com.matheusgusmao.incometax.web.dto.declaration.DeclarationHistoryResponse;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class DeclarationService {
 
     private final DeclarationRepository declarationRepository;
-    private final DeclarationMapper declarationMapper;
-
-    public DeclarationService(final DeclarationRepository declarationRepository, final DeclarationMapper declarationMapper) {
+    private final DeclarationStore declarationStore;
+    private final DeclarationArchive declarationArchive;
+    private final DeclarationCopyRepository declarationCopyRepository;
+    private final DeclarationRolloverRepository declarationRolloverRepository;
+    private final DeclarationOutboxRepository declarationOutboxRepository;
+    private final DeclarationAmendmentRepository declarationAmendmentRepository;
+    private final DeclarationEventBus declarationEventBus;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DeclarationService(final DeclarationRepository declarationRepository, final DeclarationStore declarationStore,
+                              final DeclarationArchive declarationArchive, final DeclarationCopyRepository declarationCopyRepository,
+                              final DeclarationRolloverRepository declarationRolloverRepository,
+                              final DeclarationOutboxRepository declarationOutboxRepository,
+                              final DeclarationAmendmentRepository declarationAmendmentRepository,
+                              final DeclarationEventBus declarationEventBus,
+                              final ApplicationEventPublisher eventPublisher) {
         this.declarationRepository = declarationRepository;
-        this.declarationMapper = declarationMapper;
+        this.declarationStore = declarationStore;
+        this.declarationArchive = declarationArchive;
+        this.declarationCopyRepository = declarationCopyRepository;
+        this.declarationRolloverRepository = declarationRolloverRepository;
+        this.declarationOutboxRepository = declarationOutboxRepository;
+        this.declarationAmendmentRepository = declarationAmendmentRepository;
+        this.declarationEventBus = declarationEventBus;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Returns the taxpayer's declaration for the year, creating it if there is none yet. Most taxpayers get
+     * theirs from the yearly rollover, so this usually only reads; a concurrent create of the same
+     * declaration is absorbed by the insert instead of failing.
+     */
     @Transactional
-    public Declaration createNewDeclaration(UUID taxpayerId, int year) {
-        if (declarationRepository.existsByTaxpayerIdAndYear(taxpayerId, year)) {
-            throw new EntityAlreadyExistsException("A declaration for the given taxpayer and year already exists.");
+    public DeclarationCreation findOrCreateDeclaration(UUID taxpayerId, int year) {
+        var draft = new Declaration(taxpayerId, year);
+        var existingId = declarationRolloverRepository.findIdByTaxpayerAndYear(taxpayerId, year);
+        if (existingId.isPresent()) {
+            return new DeclarationCreation(load(existingId.get()), false);
+        }
+        if (declarationArchive.exists(taxpayerId, year)) {
+            var archived = declarationArchive.findByTaxpayer(taxpayerId).stream()
+                    .filter(declaration -> declaration.getYear() == year)
+                    .findFirst()
+                    .orElseThrow();
+            return new DeclarationCreation(archived, false);
+        }
+
+        var createdIds = declarationRolloverRepository.createEditing(List.of(draft.getTaxpayerId()), draft.getYear());
+        if (createdIds.isEmpty()) {
+            var concurrentId = declarationRolloverRepository.findIdByTaxpayerAndYear(taxpayerId, year).orElseThrow();
+            return new DeclarationCreation(load(concurrentId), false);
         }
+        var created = load(createdIds.getFirst().id());
+        eventPublisher.publishEvent(new DeclarationChangedEvent(created.getId()));
+        publish(DeclarationEventType.DECLARATION_CREATED, created, 0);
+        return new DeclarationCreation(created, true);
+    }
 
-        var newDeclaration = new Declaration(taxpayerId, year);
-        var entityToSave = declarationMapper.toEntity(newDeclaration);
-        var savedEntity = declarationRepository.save(entityToSave);
+    /**
+     * Starts the taxpayer's declaration for {@code year} with the incomes, expenses and dependents of
+     * another of their declarations. A delivered declaration still in the database is copied with one
+     * statement per table; archived ones have no rows to copy, and an editing one or one kept as a document
+     * may have edits that are not in its rows yet, so those are copied through the aggregate.
+     */
+    @Transactional
+    public Declaration copyToYear(Long sourceId, UUID taxpayerId, int year) {
+        var source = findAndValidateOwnership(sourceId, taxpayerId);
+        var copy = new Declaration(taxpayerId, year);
+        validateYearIsFree(taxpayerId, year);
+
+        var copyId = source.getStatus() == DeclarationStatus.DELIVERED
+                ? declarationCopyRepository.copyToYear(sourceId, year)
+                : OptionalLong.empty();
+        if (copyId.isEmpty()) {
+            source.getIncomes().forEach(income -> copy.addIncome(new Income(income.getPayingSource(), income.getType(), income.getValue())));
+            source.getDeductibleExpenses().forEach(expense ->
+                    copy.addDeductibleExpense(new DeductibleExpense(expense.getDescription(), expense.getType(), expense.getValue())));
+            source.getDependents().forEach(dependent ->
+                    copy.addDependent(new Dependent(dependent.getName(), dependent.getCpf(), dependent.getBirthDate())));
+            copyId = OptionalLong.of(declarationStore.create(copy).getId());
+        }
 
-        return declarationMapper.toDomain(savedEntity);
+        var copied = load(copyId.getAsLong());
+        eventPublisher.publishEvent(new DeclarationChangedEvent(copied.getId()));
+        publish(DeclarationEventType.DECLARATION_COPIED, copied, 0, sourceId);
+        return copied;
     }
 
     @Transactional
     public Declaration addIncome(Long declarationId, Income income) {
-        var declarationEntity = declarationRepository.findById(declarationId)
-                .orElseThrow(() -> new EntityNotFoundException("Declaration not found with id: " + declarationId));
-
-        var declarationDomain = declarationMapper.toDomain(declarationEntity);
+        var declarationDomain = load(declarationId);
         declarationDomain.addIncome(income);
 
-        var entityToSave = declarationMapper.toEntity(declarationDomain);
-        var savedEntity = declarationRepository.save(entityToSave);
+        var savedDeclaration = declarationStore.update(declarationDomain);
+        eventPublisher.publishEvent(new DeclarationChangedEvent(declarationId));
+        publish(DeclarationEventType.INCOME_ADDED, savedDeclaration, income.getValue().cents(),
+                newestId(savedDeclaration.getIncomes(), Income::getId));
 
-        return declarationMapper.toDomain(savedEntity);
+        return savedDeclaration;
     }
 
     @Transactional
     public Declaration removeIncome(Long declarationId, Long incomeId) {
-        var declarationEntity = declarationRepository.findById(declarationId)
-                .orElseThrow(() -> new EntityNotFoundException("Declaration not found with id: " + declarationId));
+        return removeIncome(load(declarationId), incomeId);
+    }
+
+    @Transactional
+    public Declaration removeIncome(Long declarationId, Long incomeId, UUID taxpayerId, Long expectedVersion) {
+        return removeIncome(findForMutation(declarationId, taxpayerId, expectedVersion), incomeId);
+    }
 
-        var declarationDomain = declarationMapper.toDomain(declarationEntity);
+    private Declaration removeIncome(Declaration declarationDomain, Long incomeId) {
+        var declarationId = declarationDomain.getId();
+        var amountCents = amountOf(declarationDomain.getIncomes(), incomeId, Income::getId, Income::getValue);
         declarationDomain.removeIncome(incomeId);
 
-        var entityToSave = declarationMapper.toEntity(declarationDomain);
-        var savedEntity = declarationRepository.save(entityToSave);
+        var savedDeclaration = declarationStore.update(declarationDomain);
+        eventPublisher.publishEvent(new DeclarationChangedEvent(declarationId));
+        publish(DeclarationEventType.INCOME_REMOVED, savedDeclaration, amountCents, incomeId);
 
-        return declarationMapper.toDomain(savedEntity);
+        return savedDeclaration;
     }
 
     @Transactional
     public Declaration addDeductibleExpense(Long declarationId, DeductibleExpense expense) {
-        var declarationEntity = declarationRepository.findById(declarationId)
-                .orElseThrow(() -> new EntityNotFoundException("Declaration not found with id: " + declarationId));
-
-        var declarationDomain = declarationMapper.toDomain(declarationEntity);
+        var declarationDomain = load(declarationId);
         declarationDomain.addDeductibleExpense(expense);
 
-        var entityToSave = declarationMapper.toEntity(declarationDomain);
-        var savedEntity = declarationRepository.save(entityToSave);
+        var savedDeclaration = declarationStore.update(declarationDomain);
+        eventPublisher.publishEvent(new DeclarationChangedEvent(declarationId));
+        publish(DeclarationEventType.EXPENSE_ADDED, savedDeclaration, expense.getValue().cents(),
+                newestId(savedDeclaration.getDeductibleExpenses(), DeductibleExpense::getId));
 
-        return declarationMapper.toDomain(savedEntity);
+        return savedDeclaration;
     }
 
     @Transactional
     public Declaration removeDeductibleExpense(Long declarationId, Long expenseId) {
-        var declarationEntity = declarationRepository.findById(declarationId)
-                .orElseThrow(() -> new EntityNotFoundException("Declaration not found with id: " + declarationId));
+        return removeDeductibleExpense(load(declarationId), expenseId);
+    }
 
-        var declarationDomain = declarationMapper.toDomain(declarationEntity);
+    @Transactional
+    public Declaration removeDeductibleExpense(Long declarationId, Long expenseId, UUID taxpayerId, Long expectedVersion) {
+        return removeDeductibleExpense(findForMutation(declarationId, taxpayerId, expectedVersion), expenseId);
+    }
+
+    private Declaration removeDeductibleExpense(Declaration declarationDomain, Long expenseId) {
+        var declarationId = declarationDomain.getId();
+        var amountCents = amountOf(declarationDomain.getDeductibleExpenses(), expenseId, DeductibleExpense::getId, DeductibleExpense::getValue);
         declarationDomain.removeDeductibleExpense(expenseId);
 
-        var entityToSave = declarationMapper.toEntity(declarationDomain);
-        var savedEntity = declarationRepository.save(entityToSave);
+        var savedDeclaration = declarationStore.update(declarationDomain);
+        eventPublisher.publishEvent(new DeclarationChangedEvent(declarationId));
+        publish(DeclarationEventType.EXPENSE_REMOVED, savedDeclaration, amountCents, expenseId);
 
-        return declarationMapper.toDomain(savedEntity);
+        return savedDeclaration;
     }
 
     @Transactional
     public Declaration addDependent(Long declarationId, Dependent dependent) {
-        var declarationEntity = declarationRepository.findById(declarationId)
-                .orElseThrow(() -> new EntityNotFoundException("Declaration not found with id: " + declarationId));
-
-        var declarationDomain = declarationMapper.toDomain(declarationEntity);
+        var declarationDomain = load(declarationId);
         declarationDomain.addDependent(dependent);
 
-        var entityToSave = declarationMapper.toEntity(declarationDomain);
-        var savedEntity = declarationRepository.save(entityToSave);
+        var savedDeclaration = declarationStore.update(declarationDomain);
+        eventPublisher.publishEvent(new DeclarationChangedEvent(declarationId));
+        publish(DeclarationEventType.DEPENDENT_ADDED, savedDeclaration, 0,
+                newestId(savedDeclaration.getDependents(), Dependent::getId));
 
-        return declarationMapper.toDomain(savedEntity);
+        return savedDeclaration;
     }
 
     @Transactional
     public Declaration removeDependent(Long declarationId, Long dependentId) {
-        var declarationEntity = declarationRepository.findById(declarationId)
-                .orElseThrow(() -> new EntityNotFoundException("Declaration not found with id: " + declarationId));
+        return removeDependent(load(declarationId), dependentId);
+    }
+
+    @Transactional
+    public Declaration removeDependent(Long declarationId, Long dependentId, UUID taxpayerId, Long expectedVersion) {
+        return removeDependent(findForMutation(declarationId, taxpayerId, expectedVersion), dependentId);
+    }
 
-        var declarationDomain = declarationMapper.toDomain(declarationEntity);
+    private Declaration removeDependent(Declaration declarationDomain, Long dependentId) {
+        var declarationId = declarationDomain.getId();
         declarationDomain.removeDependent(dependentId);
 
-        var entityToSave = declarationMapper.toEntity(declarationDomain);
-        var savedEntity = declarationRepository.save(entityToSave);
+        var savedDeclaration = declarationStore.update(declarationDomain);
+        eventPublisher.publishEvent(new DeclarationChangedEvent(declarationId));
+        publish(DeclarationEventType.DEPENDENT_REMOVED, savedDeclaration, 0, dependentId);
 
-        return declarationMapper.toDomain(savedEntity);
+        return savedDeclaration;
     }
 
     @Transactional
     public Declaration submitDeclaration(Long declarationId, UUID taxpayerId) {
-        var declarationEntity = findAndValidateOwnership(declarationId, taxpayerId);
+        return submitDeclaration(declarationId, taxpayerId, null);
+    }
+
+    @Transactional
+    public Declaration submitDeclaration(Long declarationId, UUID taxpayerId, Long expectedVersion) {
+        var declarationDomain = findAndValidateOwnership(declarationId, taxpayerId);
+        validateVersion(declarationDomain, expectedVersion);
 
-        var declarationDomain = declarationMapper.toDomain(declarationEntity);
         declarationDomain.submit();
 
-        var entityToSave = declarationMapper.toEntity(declarationDomain);
-        declarationRepository.save(entityToSave);
+        declarationStore.updateStatus(declarationDomain);
+        // Receipts and other follow-up work run from the outbox, off this request and only once the submit has committed.
+        var submitted = new DeclarationSubmittedEvent(declarationId, taxpayerId, declarationDomain.getYear(), declarationDomain.getDeliveryDate());
+        declarationOutboxRepository.append(submitted, LocalDateTime.now());
+        eventPublisher.publishEvent(new DeclarationChangedEvent(declarationId));
+        eventPublisher.publishEvent(submitted);
+        publish(DeclarationEventType.DECLARATION_SUBMITTED, declarationDomain, 0);
 
         return declarationDomain;
     }
 
+    /**
+     * Reopens a delivered declaration as its next amendment. The delivered version is kept as it is and
+     * stays readable; the amendment replaces it once submitted.
+     */
+    @Transactional
+    public Declaration amendDeclaration(Long declarationId, UUID taxpayerId, Long expectedVersion) {
+        var delivered = findAndValidateOwnership(declarationId, taxpayerId);
+        validateVersion(delivered, expectedVersion);
+        if (declarationStore.findVersion(declarationId).isEmpty()) {
+            throw new IllegalStateException("An archived declaration cannot be amended.");
+        }
+
+        var amendment = declarationStore.amend(delivered, delivered.amend());
+        eventPublisher.publishEvent(new DeclarationChangedEvent(declarationId));
+        publish(DeclarationEventType.DECLARATION_AMENDED, amendment, 0);
+
+        return amendment;
+    }
+
+    @Transactional(readOnly = true)
     public Declaration findById(Long declarationId) {
-        var declarationEntity = declarationRepository.findById(declarationId)
+        return load(declarationId);
+    }
+
+    @Transactional(readOnly = true)
+    public Declaration findAsOf(Long declarationId, UUID taxpayerId, LocalDateTime asOf) {
+        var declaration = declarationStore.findAsOf(declarationId, asOf)
+                .orElseThrow(() -> new EntityNotFoundException("Declaration " + declarationId + " has no recorded state as of " + asOf));
+        validateReadAccess(declaration, taxpayerId);
+        return declaration;
+    }
+
+    /**
+     * Returns the given amendment of the declaration: the current one, or a delivered version it replaced.
+     */
+    @Transactional(readOnly = true)
+    public Declaration findAmendment(Long declarationId, UUID taxpayerId, int amendment) {
+        var current = load(declarationId);
+        validateReadAccess(current, taxpayerId);
+        if (amendment == current.getAmendment()) {
+            return current;
+        }
+        var replaced = amendment >= 0 && amendment < current.getAmendment()
+                ? declarationStore.findReplaced(declarationId, amendment)
+                : Optional.<Declaration>empty();
+        return replaced.orElseThrow(() -> new EntityNotFoundException("Declaration " + declarationId + " has no amendment " + amendment));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DeclarationAmendment> findReplacedAmendments(Long declarationId, UUID taxpayerId) {
+        validateReadAccess(load(declarationId), taxpayerId);
+        return declarationAmendmentRepository.findAll(declarationId);
+    }
+
+    @Transactional(readOnly = true)
+    public Long findVersion(Long declarationId) {
+        return declarationStore.findVersion(declarationId)
+                .or(() -> declarationArchive.findById(declarationId).map(Declaration::getVersion))
                 .orElseThrow(() -> new EntityNotFoundException("Declaration not found with id: " + declarationId));
-        return declarationMapper.toDomain(declarationEntity);
     }
 
+    @Transactional(readOnly = true)
+    public DeclarationHistoryVersion getDeclarationHistoryVersion(UUID taxpayerId) {
+        return declarationRepository.findHistoryVersionByTaxpayerId(taxpayerId);
+    }
+
+    @Transactional(readOnly = true)
     public List<DeclarationHistoryResponse> getDeclarationHistory(UUID taxpayerId) {
         var declarations = declarationRepository.findAllByTaxpayerId(taxpayerId);
-        return declarations.stream()
-                .map(d -> new DeclarationHistoryResponse(d.getYear(), d.getStatus().name()))
+        var stored = declarations.stream().map(DeclarationEntity::getId).collect(Collectors.toSet());
+        var archived = declarationArchive.findByTaxpayer(taxpayerId).stream()
+                .filter(d -> !stored.contains(d.getId()))
+                .map(d -> new DeclarationHistoryResponse(d.getYear(), d.getStatus().name()));
+        return Stream.concat(archived, declarations.stream()
+                        .map(d -> new DeclarationHistoryResponse(d.getYear(), d.getStatus().name())))
                 .toList();
     }
 
-    private DeclarationEntity findAndValidateOwnership(Long declarationId, UUID taxpayerId) {
-        var declarationEntity = declarationRepository.findById(declarationId)
-                .orElseThrow(() -> new EntityNotFoundException("Declaration not found with id: " + declarationId));
+    private void validateYearIsFree(UUID taxpayerId, int year) {
+        if (declarationRepository.existsByTaxpayerIdAndYear(taxpayerId, year) || declarationArchive.exists(taxpayerId, year)) {
+            throw new EntityAlreadyExistsException("A declaration for the given taxpayer and year already exists.");
+        }
+    }
+
+    private Declaration findForMutation(Long declarationId, UUID taxpayerId, Long expectedVersion) {
+        var declaration = findAndValidateOwnership(declarationId, taxpayerId);
+
+        validateVersion(declaration, expectedVersion);
+        return declaration;
+    }
 
-        if (!declarationEntity.getTaxpayerId().equals(taxpayerId)) {
+    private void validateVersion(Declaration declaration, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(declaration.getVersion())) {
+            throw new DeclarationVersionConflictException(declaration.getId(), declaration.getVersion());
+        }
+    }
+
+    private Declaration findAndValidateOwnership(Long declarationId, UUID taxpayerId) {
+        var declaration = load(declarationId);
+
+        if (!declaration.getTaxpayerId().equals(taxpayerId)) {
             throw new AccessDeniedException("User is not authorized to modify this declaration.");
         }
-        return declarationEntity;
+        return declaration;
+    }
+
+    private static void validateReadAccess(Declaration declaration, UUID taxpayerId) {
+        if (!declaration.getTaxpayerId().equals(taxpayerId)) {
+            throw new AccessDeniedException("User is not authorized to read this declaration.");
+        }
+    }
+
+    private void publish(DeclarationEventType type, Declaration declaration, long amountCents) {
+        publish(type, declaration, amountCents, 0);
+    }
+
+    private void publish(DeclarationEventType type, Declaration declaration, long amountCents, long relatedId) {
+        declarationEventBus.publishAfterCommit(type, declaration.getId(), declaration.getTaxpayerId(),
+                Objects.requireNonNullElse(declaration.getVersion(), 0L), amountCents, relatedId);
+    }
+
+    // Child ids only grow, so the item just added has the highest one.
+    private static <T> long newestId(List<T> items, Function<T, Long> id) {
+        return items.stream()
+                .map(id)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0L);
+    }
+
+    // Read before the removal drops the item; an unknown id is reported by the removal itself.
+    private static <T> long amountOf(List<T> items, Long itemId, Function<T, Long> id, Function<T, Money> value) {
+        return items.stream()
+                .filter(item -> itemId.equals(id.apply(item)))
+                .findFirst()
+                .map(item -> value.apply(item).cents())
+                .orElse(0L);
+    }
+
+    // Delivered declarations of past years may have been moved to the archive.
+    private Declaration load(Long declarationId) {
+        return declarationStore.findById(declarationId)
+                .or(() -> declarationArchive.findById(declarationId))
+                .orElseThrow(() -> new EntityNotFoundException("Declaration not found with id: " + declarationId));
     }
-}
\ No newline at end of file
+}
@@ -2,70 +2,113 @@ package br.com.matheusgusmao.incometax.domain.service;
 
 import br.com.matheusgusmao.incometax.domain.model.declaration.TaxCalculationResult;
 import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
-import br.com.matheusgusmao.incometax.infra.persistence.mapper.DeclarationMapper;
-import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRepository;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationTaxResult;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.TaxCalculationRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.store.DeclarationStore;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Service
 public class TaxCalculationService {
 
-    private final DeclarationRepository declarationRepository;
-    private final DeclarationMapper declarationMapper;
+    private final DeclarationStore declarationStore;
+    private final TaxCalculationRepository calculationRepository;
 
-    private static final BigDecimal FAIXA_1_LIMITE = new BigDecimal("24511.92");
-    private static final BigDecimal FAIXA_2_LIMITE = new BigDecimal("33919.80");
+    private static final Money FAIXA_1_LIMITE = Money.of(new BigDecimal("24511.92"));
+    private static final Money FAIXA_2_LIMITE = Money.of(new BigDecimal("33919.80"));
     private static final BigDecimal FAIXA_2_ALIQUOTA = new BigDecimal("0.075");
-    private static final BigDecimal FAIXA_2_DEDUCAO = new BigDecimal("1838.39");
-    private static final BigDecimal FAIXA_3_LIMITE = new BigDecimal("45012.60");
+    private static final Money FAIXA_2_DEDUCAO = Money.of(new BigDecimal("1838.39"));
+    private static final Money FAIXA_3_LIMITE = Money.of(new BigDecimal("45012.60"));
     private static final BigDecimal FAIXA_3_ALIQUOTA = new BigDecimal("0.15");
-    private static final BigDecimal FAIXA_3_DEDUCAO = new BigDecimal("4382.38");
-    private static final BigDecimal FAIXA_4_LIMITE = new BigDecimal("55976.16");
+    private static final Money FAIXA_3_DEDUCAO = Money.of(new BigDecimal("4382.38"));
+    private static final Money FAIXA_4_LIMITE = Money.of(new BigDecimal("55976.16"));
     private static final BigDecimal FAIXA_4_ALIQUOTA = new BigDecimal("0.225");
-    private static final BigDecimal FAIXA_4_DEDUCAO = new BigDecimal("7953.24");
+    private static final Money FAIXA_4_DEDUCAO = Money.of(new BigDecimal("7953.24"));
     private static final BigDecimal FAIXA_5_ALIQUOTA = new BigDecimal("0.275");
-    private static final BigDecimal FAIXA_5_DEDUCAO = new BigDecimal("10752.05");
+    private static final Money FAIXA_5_DEDUCAO = Money.of(new BigDecimal("10752.05"));
 
-    public TaxCalculationService(DeclarationRepository declarationRepository, DeclarationMapper declarationMapper) {
-        this.declarationRepository = declarationRepository;
-        this.declarationMapper = declarationMapper;
+    public TaxCalculationService(DeclarationStore declarationStore, TaxCalculationRepository calculationRepository) {
+        this.declarationStore = declarationStore;
+        this.calculationRepository = calculationRepository;
     }
 
+    @Transactional(readOnly = true)
     public TaxCalculationResult calculate(Long declarationId) {
-        var declarationEntity = declarationRepository.findById(declarationId)
+        Declaration declaration = declarationStore.findById(declarationId)
                 .orElseThrow(() -> new EntityNotFoundException("Declaration not found: " + declarationId));
 
-        Declaration declaration = declarationMapper.toDomain(declarationEntity);
+        return calculate(declaration.calculateTotalIncome(), declaration.calculateTotalDeductions());
+    }
 
-        BigDecimal totalIncome = declaration.calculateTotalIncome();
-        BigDecimal totalDeductions = declaration.calculateTotalDeductions();
-        BigDecimal calculationBase = totalIncome.subtract(totalDeductions);
+    /**
+     * Returns the stored calculation of the declaration while it matches the current version, and
+     * otherwise calculates it again and stores the result for that version.
+     */
+    @Transactional
+    public TaxCalculationResult findOrCalculate(Long declarationId, UUID taxpayerId) {
+        var version = declarationStore.findVersion(declarationId)
+                .orElseThrow(() -> new EntityNotFoundException("Declaration not found: " + declarationId));
+        var stored = calculationRepository.findByVersion(declarationId, version);
+        if (stored.isPresent()) {
+            validateOwnership(stored.get().taxpayerId(), taxpayerId);
+            return stored.get().result();
+        }
+
+        Declaration declaration = declarationStore.findById(declarationId)
+                .orElseThrow(() -> new EntityNotFoundException("Declaration not found: " + declarationId));
+        validateOwnership(declaration.getTaxpayerId(), taxpayerId);
+        var result = calculate(declaration.calculateTotalIncome(), declaration.calculateTotalDeductions());
+        calculationRepository.save(new DeclarationTaxResult(declarationId, declaration.getVersion(), result), LocalDateTime.now());
+        return result;
+    }
 
-        if (calculationBase.compareTo(BigDecimal.ZERO) <= 0) {
-            return new TaxCalculationResult(totalIncome, totalDeductions, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    public TaxCalculationResult calculate(Money totalIncome, Money totalDeductions) {
+        Money calculationBase = totalIncome.minus(totalDeductions);
+
+        if (!calculationBase.isPositive()) {
+            return new TaxCalculationResult(totalIncome, totalDeductions, Money.ZERO, Money.ZERO, BigDecimal.ZERO);
         }
 
-        BigDecimal taxDue = calculateProgressiveTax(calculationBase);
-        BigDecimal effectiveAliquot = taxDue.divide(totalIncome, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"));
+        Money taxDue = calculateProgressiveTax(calculationBase);
+        BigDecimal effectiveAliquot = taxDue.toBigDecimal().divide(totalIncome.toBigDecimal(), 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"));
 
         return new TaxCalculationResult(totalIncome, totalDeductions, calculationBase, taxDue, effectiveAliquot);
     }
 
-    private BigDecimal calculateProgressiveTax(BigDecimal base) {
-        BigDecimal tax;
+    public int bracketOf(Money base) {
         if (base.compareTo(FAIXA_1_LIMITE) <= 0) {
-            tax = BigDecimal.ZERO;
+            return 1;
         } else if (base.compareTo(FAIXA_2_LIMITE) <= 0) {
-            tax = base.multiply(FAIXA_2_ALIQUOTA).subtract(FAIXA_2_DEDUCAO);
+            return 2;
         } else if (base.compareTo(FAIXA_3_LIMITE) <= 0) {
-            tax = base.multiply(FAIXA_3_ALIQUOTA).subtract(FAIXA_3_DEDUCAO);
+            return 3;
         } else if (base.compareTo(FAIXA_4_LIMITE) <= 0) {
-            tax = base.multiply(FAIXA_4_ALIQUOTA).subtract(FAIXA_4_DEDUCAO);
-        } else {
-            tax = base.multiply(FAIXA_5_ALIQUOTA).subtract(FAIXA_5_DEDUCAO);
+            return 4;
+        }
+        return 5;
+    }
+
+    private static void validateOwnership(UUID ownerId, UUID taxpayerId) {
+        if (!ownerId.equals(taxpayerId)) {
+            throw new AccessDeniedException("User is not authorized to access this declaration.");
         }
-        return tax.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private Money calculateProgressiveTax(Money base) {
+        return switch (bracketOf(base)) {
+            case 1 -> Money.ZERO;
+            case 2 -> base.multiply(FAIXA_2_ALIQUOTA, RoundingMode.HALF_UP).minus(FAIXA_2_DEDUCAO);
+            case 3 -> base.multiply(FAIXA_3_ALIQUOTA, RoundingMode.HALF_UP).minus(FAIXA_3_DEDUCAO);
+            case 4 -> base.multiply(FAIXA_4_ALIQUOTA, RoundingMode.HALF_UP).minus(FAIXA_4_DEDUCAO);
+            default -> base.multiply(FAIXA_5_ALIQUOTA, RoundingMode.HALF_UP).minus(FAIXA_5_DEDUCAO);
+        };
     }
 }
\ No newline at end of file
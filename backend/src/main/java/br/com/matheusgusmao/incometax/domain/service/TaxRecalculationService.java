@@ -0,0 +1,148 @@
+package br.com.matheusgusmao.incometax.domain.service;
+
+import br.com.matheusgusmao.incometax.domain.model.recalculation.TaxRecalculationProgress;
+import br.com.matheusgusmao.incometax.domain.model.recalculation.TaxRecalculationStatus;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationTaxResult;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationTotals;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.TaxRecalculationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Service
+public class TaxRecalculationService {
+
+    private final TaxRecalculationRepository recalculationRepository;
+    private final TaxCalculationService taxCalculationService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Executor jobExecutor;
+    private final ForkJoinPool calculationPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<TaxRecalculationProgress> currentProgress = new AtomicReference<>();
+
+    @Autowired
+    public TaxRecalculationService(TaxRecalculationRepository recalculationRepository,
+                                   TaxCalculationService taxCalculationService,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${application.taxRecalculation.chunkSize:500}") int chunkSize) {
+        this(recalculationRepository, taxCalculationService, transactionTemplate, chunkSize, Executors.newSingleThreadExecutor());
+    }
+
+    public TaxRecalculationService(TaxRecalculationRepository recalculationRepository,
+                                   TaxCalculationService taxCalculationService,
+                                   TransactionTemplate transactionTemplate,
+                                   int chunkSize,
+                                   Executor jobExecutor) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1.");
+        }
+        this.recalculationRepository = recalculationRepository;
+        this.taxCalculationService = taxCalculationService;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.jobExecutor = jobExecutor;
+    }
+
+    public TaxRecalculationProgress start() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A tax recalculation is already running.");
+        }
+        try {
+            var job = recalculationRepository.findUnfinishedJob()
+                    .orElseGet(() -> recalculationRepository.createJob(LocalDateTime.now()));
+            currentProgress.set(job);
+            jobExecutor.execute(() -> run(job));
+            return job;
+        } catch (RuntimeException exception) {
+            running.set(false);
+            throw exception;
+        }
+    }
+
+    public Optional<TaxRecalculationProgress> getProgress() {
+        return Optional.ofNullable(currentProgress.get()).or(recalculationRepository::findLatestJob);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJob() {
+        if (recalculationRepository.findUnfinishedJob().isPresent()) {
+            log.info("Resuming interrupted tax recalculation from its last checkpoint");
+            start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        calculationPool.shutdownNow();
+        if (jobExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void run(TaxRecalculationProgress job) {
+        var progress = job;
+        var startNanos = System.nanoTime();
+        var processedInRun = 0L;
+
+        try {
+            List<DeclarationTotals> chunk;
+            while (!(chunk = recalculationRepository.findEditingTotalsAfter(progress.lastDeclarationId(), chunkSize)).isEmpty()) {
+                var results = calculate(chunk);
+                var lastDeclarationId = chunk.getLast().declarationId();
+                var processed = progress.processed() + results.size();
+
+                transactionTemplate.executeWithoutResult(status -> {
+                    recalculationRepository.saveResults(results, LocalDateTime.now());
+                    recalculationRepository.updateCheckpoint(job.jobId(), lastDeclarationId, processed);
+                });
+
+                processedInRun += results.size();
+                progress = progress.advance(lastDeclarationId, processed, throughput(processedInRun, startNanos));
+                currentProgress.set(progress);
+                log.info("Tax recalculation {}: {} declarations processed up to id {} ({} declarations/s)",
+                        job.jobId(), processed, lastDeclarationId, Math.round(progress.declarationsPerSecond()));
+            }
+
+            var finishedAt = LocalDateTime.now();
+            recalculationRepository.finishJob(job.jobId(), TaxRecalculationStatus.COMPLETED, finishedAt);
+            currentProgress.set(progress.finish(TaxRecalculationStatus.COMPLETED, finishedAt));
+        } catch (RuntimeException exception) {
+            log.error("Tax recalculation {} failed after declaration {}", job.jobId(), progress.lastDeclarationId(), exception);
+            var finishedAt = LocalDateTime.now();
+            recalculationRepository.finishJob(job.jobId(), TaxRecalculationStatus.FAILED, finishedAt);
+            currentProgress.set(progress.finish(TaxRecalculationStatus.FAILED, finishedAt));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<DeclarationTaxResult> calculate(List<DeclarationTotals> chunk) {
+        return calculationPool.submit(() -> chunk.parallelStream()
+                        .map(totals -> new DeclarationTaxResult(totals.declarationId(), totals.declarationVersion(),
+                                taxCalculationService.calculate(totals.totalIncome(), totals.totalDeductions())))
+                        .toList())
+                .join();
+    }
+
+    private static double throughput(long processed, long startNanos) {
+        var elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000d;
+        return elapsedSeconds > 0 ? processed / elapsedSeconds : processed;
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -27,11 +28,20 @@ public class ApplicationConfig {
 
     @Bean
     AuthenticationProvider authenticationProvider() {
-        var authenticationProvider = new DaoAuthenticationProvider(userDetailsService());
+        var authenticationProvider = new DaoAuthenticationProvider(credentialsService());
         authenticationProvider.setPasswordEncoder(passwordEncoder());
         return authenticationProvider;
     }
 
+    private UserDetailsService credentialsService() {
+        return username -> userRepository.findCredentialsByEmail(username)
+                .map(credentials -> User.withUsername(credentials.email())
+                        .password(credentials.password())
+                        .authorities(credentials.role().name())
+                        .build())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found!"));
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
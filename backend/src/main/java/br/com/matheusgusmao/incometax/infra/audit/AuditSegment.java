@@ -0,0 +1,220 @@
+package br.com.matheusgusmao.incometax.infra.audit;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * A file of the audit log and what is known about its contents. Records are framed with a length and a
+ * CRC32 like the declaration change log. A sealed segment ends with a trailer holding its record count and
+ * the range of its timestamps, so opening the log does not read the records; only a segment left unsealed
+ * by a crash is scanned, cut back to its last whole record and sealed. The related id trails the actor,
+ * so records written before it existed still read, with 0.
+ */
+@Slf4j
+record AuditSegment(long number, Path path, long dataBytes, long records, long minMillis, long maxMillis) {
+
+    static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int FIXED_PAYLOAD_BYTES = Long.BYTES * 6 + Short.BYTES * 2;
+    private static final int RELATED_ID_BYTES = Long.BYTES;
+    private static final int TRAILER_BYTES = Long.BYTES * 4;
+    private static final long TRAILER_MAGIC = 0x4155444954534547L;
+    private static final int MAX_RECORD_BYTES = 1024 * 1024;
+
+    static AuditSegment empty(long number, Path path) {
+        return new AuditSegment(number, path, 0, 0, Long.MAX_VALUE, Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns the segment at the path, sealing it first if it was left unsealed, or nothing if it holds no
+     * records, in which case the file is removed.
+     */
+    static Optional<AuditSegment> open(long number, Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var size = channel.size();
+            if (size >= TRAILER_BYTES) {
+                var trailer = ByteBuffer.allocate(TRAILER_BYTES);
+                channel.read(trailer, size - TRAILER_BYTES);
+                trailer.flip();
+                var records = trailer.getLong();
+                var minMillis = trailer.getLong();
+                var maxMillis = trailer.getLong();
+                if (trailer.getLong() == TRAILER_MAGIC) {
+                    return Optional.of(new AuditSegment(number, path, size - TRAILER_BYTES, records, minMillis, maxMillis));
+                }
+            }
+
+            var recovered = empty(number, path);
+            try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                while (true) {
+                    var payload = readPayload(in);
+                    if (payload == null) {
+                        break;
+                    }
+                    var timestampMillis = ByteBuffer.wrap(payload).getLong();
+                    recovered = recovered.withAppended(HEADER_BYTES + payload.length, 1, timestampMillis, timestampMillis);
+                }
+            }
+            if (recovered.dataBytes() < size) {
+                log.warn("Dropping {} bytes of a torn record at the end of audit segment {}", size - recovered.dataBytes(), path.getFileName());
+            }
+            channel.truncate(recovered.dataBytes());
+            if (recovered.records() == 0) {
+                Files.delete(path);
+                return Optional.empty();
+            }
+            recovered.seal(channel);
+            channel.force(false);
+            log.info("Sealed audit segment {} holding {} records left open by an earlier run", path.getFileName(), recovered.records());
+            return Optional.of(recovered);
+        }
+    }
+
+    /**
+     * Writes the trailer after the records. The channel must be positioned at the end of the records.
+     */
+    void seal(FileChannel channel) throws IOException {
+        var trailer = ByteBuffer.allocate(TRAILER_BYTES)
+                .putLong(records)
+                .putLong(minMillis)
+                .putLong(maxMillis)
+                .putLong(TRAILER_MAGIC)
+                .flip();
+        channel.position(dataBytes);
+        while (trailer.hasRemaining()) {
+            channel.write(trailer);
+        }
+    }
+
+    AuditSegment withAppended(long bytes, long appendedRecords, long appendedMinMillis, long appendedMaxMillis) {
+        return new AuditSegment(number, path, dataBytes + bytes, records + appendedRecords,
+                Math.min(minMillis, appendedMinMillis), Math.max(maxMillis, appendedMaxMillis));
+    }
+
+    boolean overlaps(long fromMillis, long toMillis) {
+        return records > 0 && maxMillis >= fromMillis && minMillis <= toMillis;
+    }
+
+    /**
+     * Passes the records timestamped within the range to the visitor in the order they were written, and
+     * returns false as soon as the visitor does.
+     */
+    boolean read(long fromMillis, long toMillis, Predicate<DeclarationAuditRecord> visitor) {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            var position = 0L;
+            while (position < dataBytes) {
+                var payload = readPayload(in);
+                if (payload == null) {
+                    throw new IllegalStateException("Audit segment %s is damaged at byte %d.".formatted(path.getFileName(), position));
+                }
+                position += HEADER_BYTES + payload.length;
+                var buffer = ByteBuffer.wrap(payload);
+                var timestampMillis = buffer.getLong();
+                if (timestampMillis >= fromMillis && timestampMillis <= toMillis && !visitor.test(decode(timestampMillis, buffer))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    static int recordBytes(byte[] type, byte[] actor) {
+        return HEADER_BYTES + FIXED_PAYLOAD_BYTES + RELATED_ID_BYTES + type.length + (actor == null ? 0 : actor.length);
+    }
+
+    /**
+     * Frames the record into the buffer, which must have {@link #recordBytes} bytes left.
+     */
+    static void encode(ByteBuffer buffer, CRC32 crc, long timestampMillis, byte[] type, long declarationId, UUID taxpayerId,
+                       long version, long amountCents, long relatedId, byte[] actor) {
+        var start = buffer.position();
+        buffer.position(start + HEADER_BYTES)
+                .putLong(timestampMillis)
+                .putLong(declarationId)
+                .putLong(taxpayerId == null ? 0 : taxpayerId.getMostSignificantBits())
+                .putLong(taxpayerId == null ? 0 : taxpayerId.getLeastSignificantBits())
+                .putLong(version)
+                .putLong(amountCents)
+                .putShort((short) type.length)
+                .put(type)
+                .putShort((short) (actor == null ? -1 : actor.length));
+        if (actor != null) {
+            buffer.put(actor);
+        }
+        buffer.putLong(relatedId);
+        var end = buffer.position();
+
+        crc.reset();
+        crc.update(buffer.slice(start + HEADER_BYTES, end - start - HEADER_BYTES));
+        buffer.putInt(start, end - start - HEADER_BYTES).putInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static DeclarationAuditRecord decode(long timestampMillis, ByteBuffer buffer) {
+        var declarationId = buffer.getLong();
+        var taxpayerId = new UUID(buffer.getLong(), buffer.getLong());
+        var version = buffer.getLong();
+        var amountCents = buffer.getLong();
+        var type = DeclarationEventType.valueOf(readString(buffer, buffer.getShort()));
+        var actorLength = buffer.getShort();
+        var actor = actorLength < 0 ? null : readString(buffer, actorLength);
+        var relatedId = buffer.remaining() >= RELATED_ID_BYTES ? buffer.getLong() : 0;
+        return new DeclarationAuditRecord(toLocalDateTime(timestampMillis), actor, type, declarationId, taxpayerId, version,
+                amountCents, relatedId);
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        var value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    // Returns null at the end of the stream or at a torn record.
+    private static byte[] readPayload(DataInputStream in) throws IOException {
+        int length;
+        int expectedCrc;
+        try {
+            length = in.readInt();
+            expectedCrc = in.readInt();
+        } catch (EOFException endOfSegment) {
+            return null;
+        }
+        if (length < FIXED_PAYLOAD_BYTES || length > MAX_RECORD_BYTES) {
+            return null;
+        }
+        var payload = in.readNBytes(length);
+        var crc = new CRC32();
+        crc.update(payload);
+        if (payload.length < length || (int) crc.getValue() != expectedCrc) {
+            return null;
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,267 @@
+package br.com.matheusgusmao.incometax.infra.audit;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+import br.com.matheusgusmao.incometax.infra.event.DeclarationEvent;
+import br.com.matheusgusmao.incometax.infra.event.DeclarationEventConsumer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only record of who changed what on every declaration, fed by the {@code DeclarationEventBus}.
+ * Records are framed into a memory buffer and written with a single fsync at the end of each batch of
+ * events, or earlier when the buffer fills, so a burst of changes costs one disk flush rather than one per
+ * change. Segments are started anew once they pass {@code application.declaration.audit.segmentBytes}
+ * and are never rewritten. Changes that committed in the last moments before a crash may be missing.
+ * Only kept when {@code application.declaration.audit.enabled} is true.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.declaration.audit.enabled", havingValue = "true")
+public class DeclarationAuditLog implements DeclarationEventConsumer {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d+)\\.log");
+    private static final byte[][] TYPE_NAMES = Arrays.stream(DeclarationEventType.values())
+            .map(type -> type.name().getBytes(StandardCharsets.US_ASCII))
+            .toArray(byte[][]::new);
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final ByteBuffer buffer;
+    private final CRC32 crc = new CRC32();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Segments segments;
+    // Guarded by the lock.
+    private AuditSegment current;
+    private FileChannel channel;
+    private long bufferedRecords;
+    private long bufferedMinMillis = Long.MAX_VALUE;
+    private long bufferedMaxMillis = Long.MIN_VALUE;
+
+    public DeclarationAuditLog(@Value("${application.declaration.audit.directory:declaration-audit}") Path directory,
+                               @Value("${application.declaration.audit.segmentBytes:67108864}") long segmentBytes,
+                               @Value("${application.declaration.audit.bufferBytes:1048576}") int bufferBytes) {
+        if (segmentBytes < 1) {
+            throw new IllegalArgumentException("Audit segment size must be positive.");
+        }
+        if (bufferBytes < 64 * 1024) {
+            throw new IllegalArgumentException("Audit buffer must hold at least 64 KiB.");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.buffer = ByteBuffer.allocate(bufferBytes);
+
+        var sealed = new ArrayList<AuditSegment>();
+        var nextNumber = 1L;
+        if (Files.isDirectory(directory)) {
+            try {
+                for (var number : segmentNumbers()) {
+                    AuditSegment.open(number, path(number)).ifPresent(sealed::add);
+                    nextNumber = number + 1;
+                }
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+        this.segments = new Segments(List.copyOf(sealed), null);
+        this.current = AuditSegment.empty(nextNumber, path(nextNumber));
+    }
+
+    @Override
+    public String name() {
+        return "audit";
+    }
+
+    @Override
+    public void onEvent(DeclarationEvent event, long sequence, boolean endOfBatch) {
+        var type = TYPE_NAMES[event.getType().ordinal()];
+        var actor = event.getActor() == null ? null : event.getActor().getBytes(StandardCharsets.UTF_8);
+        if (actor != null && actor.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Audit actor name is too long.");
+        }
+
+        lock.lock();
+        try {
+            if (AuditSegment.recordBytes(type, actor) > buffer.remaining()) {
+                flush();
+            }
+            AuditSegment.encode(buffer, crc, event.getTimestampMillis(), type, event.getDeclarationId(), event.getTaxpayerId(),
+                    event.getVersion(), event.getAmountCents(), event.getRelatedId(), actor);
+            bufferedRecords++;
+            bufferedMinMillis = Math.min(bufferedMinMillis, event.getTimestampMillis());
+            bufferedMaxMillis = Math.max(bufferedMaxMillis, event.getTimestampMillis());
+            if (endOfBatch) {
+                flush();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Passes every record timestamped within the range, either end of which may be null, to the visitor
+     * in the order they were written until the visitor returns false. Records still in the buffer are not
+     * seen; the buffer is written out at the end of every batch of events.
+     */
+    public void replay(LocalDateTime from, LocalDateTime to, Predicate<DeclarationAuditRecord> visitor) {
+        var fromMillis = from == null ? Long.MIN_VALUE : AuditSegment.toEpochMillis(from);
+        var toMillis = to == null ? Long.MAX_VALUE : AuditSegment.toEpochMillis(to);
+        if (fromMillis > toMillis) {
+            throw new IllegalArgumentException("The start of the audit range must not be after its end.");
+        }
+        for (var segment : segments.all()) {
+            if (segment.overlaps(fromMillis, toMillis) && !segment.read(fromMillis, toMillis, visitor)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} records of the range, of one declaration when {@code declarationId} is
+     * not null, oldest first.
+     */
+    public List<DeclarationAuditRecord> find(LocalDateTime from, LocalDateTime to, Long declarationId, int limit) {
+        if (limit < 1 || limit > 10_000) {
+            throw new IllegalArgumentException("Audit query limit must be between 1 and 10000.");
+        }
+        var found = new ArrayList<DeclarationAuditRecord>();
+        replay(from, to, auditRecord -> {
+            if (declarationId == null || declarationId == auditRecord.declarationId()) {
+                found.add(auditRecord);
+            }
+            return found.size() < limit;
+        });
+        return found;
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            flush();
+            if (channel != null) {
+                seal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int segmentCount() {
+        return segments.all().size();
+    }
+
+    private void flush() {
+        if (bufferedRecords == 0) {
+            return;
+        }
+        buffer.flip();
+        try {
+            if (channel == null) {
+                Files.createDirectories(directory);
+                channel = FileChannel.open(current.path(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                // Cuts off whatever a failed flush may have left behind.
+                channel.truncate(current.dataBytes());
+                channel.position(current.dataBytes());
+            }
+            var bytes = buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+
+            current = current.withAppended(bytes, bufferedRecords, bufferedMinMillis, bufferedMaxMillis);
+            segments = new Segments(segments.sealed(), current);
+        } catch (IOException exception) {
+            closeChannel();
+            throw new UncheckedIOException("Dropped %d audit records that could not be written.".formatted(bufferedRecords), exception);
+        } finally {
+            buffer.clear();
+            bufferedRecords = 0;
+            bufferedMinMillis = Long.MAX_VALUE;
+            bufferedMaxMillis = Long.MIN_VALUE;
+        }
+
+        if (current.dataBytes() >= segmentBytes) {
+            seal();
+        }
+    }
+
+    private void seal() {
+        try {
+            current.seal(channel);
+            channel.force(false);
+        } catch (IOException exception) {
+            // The segment stays readable and is sealed when the log is next opened.
+            log.error("Could not seal audit segment {}", current.path().getFileName(), exception);
+        }
+        closeChannel();
+
+        var sealed = new ArrayList<>(segments.sealed());
+        sealed.add(current);
+        segments = new Segments(List.copyOf(sealed), null);
+        var next = current.number() + 1;
+        current = AuditSegment.empty(next, path(next));
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            log.warn("Could not close audit segment {}", current.path().getFileName(), exception);
+        } finally {
+            channel = null;
+        }
+    }
+
+    private List<Long> segmentNumbers() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path path(long number) {
+        return directory.resolve("audit-%020d.log".formatted(number));
+    }
+
+    // Replaced as a whole so a reader sees the sealed segments and the one being written consistently.
+    private record Segments(List<AuditSegment> sealed, AuditSegment active) {
+
+        List<AuditSegment> all() {
+            if (active == null) {
+                return sealed;
+            }
+            var all = new ArrayList<>(sealed);
+            all.add(active);
+            return all;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.matheusgusmao.incometax.infra.audit;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One change to a declaration as recorded by the {@link DeclarationAuditLog}. {@code actor} is null for
+ * changes no user asked for. {@code relatedId} is the income, expense or dependent added or removed, or
+ * the declaration a copy was made from, and 0 otherwise.
+ */
+public record DeclarationAuditRecord(
+        LocalDateTime timestamp,
+        String actor,
+        DeclarationEventType type,
+        long declarationId,
+        UUID taxpayerId,
+        long version,
+        long amountCents,
+        long relatedId
+) {
+}
@@ -0,0 +1,39 @@
+package br.com.matheusgusmao.incometax.infra.event;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * One slot of the {@link DeclarationEventBus} ring. Slots are allocated once and overwritten by later
+ * events, so a consumer must copy anything it keeps past {@link DeclarationEventConsumer#onEvent}.
+ * {@code amountCents} is the value of the income or expense added or removed, and 0 for other events.
+ * {@code relatedId} is the id of the income, expense or dependent added or removed, or of the declaration
+ * a {@code DECLARATION_COPIED} one was copied from, and 0 for other events.
+ * {@code actor} is the name of the user the change was made for, or null for work no user asked for.
+ */
+@Getter
+public final class DeclarationEvent {
+
+    private DeclarationEventType type;
+    private long declarationId;
+    private UUID taxpayerId;
+    private long version;
+    private long amountCents;
+    private long relatedId;
+    private long timestampMillis;
+    private String actor;
+
+    void set(DeclarationEventType type, long declarationId, UUID taxpayerId, long version, long amountCents,
+             long relatedId, long timestampMillis, String actor) {
+        this.type = type;
+        this.declarationId = declarationId;
+        this.taxpayerId = taxpayerId;
+        this.version = version;
+        this.amountCents = amountCents;
+        this.relatedId = relatedId;
+        this.timestampMillis = timestampMillis;
+        this.actor = actor;
+    }
+}
@@ -0,0 +1,232 @@
+package br.com.matheusgusmao.incometax.infra.event;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process bus for fine-grained declaration events, built on a ring of preallocated
+ * {@link DeclarationEvent} slots. Publishing claims the next sequence with one atomic increment, fills
+ * the slot in place and marks it published, so it takes no lock and allocates nothing. Every
+ * {@link DeclarationEventConsumer} follows the ring on its own thread, handling whatever has been
+ * published since its last batch. A producer that laps the slowest consumer waits for it.
+ */
+@Slf4j
+@Component
+public class DeclarationEventBus {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long FULL_RING_PARK_NANOS = 1_000;
+
+    private final DeclarationEvent[] ring;
+    private final int mask;
+    // The sequence last written to each slot; sequence s is readable once its slot holds s.
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    // Lower bound of the slowest consumer's sequence, so producers only scan the consumers when close to lapping them.
+    private final AtomicLong gatingSequence = new AtomicLong(-1);
+    private final List<Worker> workers;
+    private final long idleParkNanos;
+    private volatile boolean running;
+
+    public DeclarationEventBus(List<DeclarationEventConsumer> consumers,
+                               @Value("${application.declaration.events.bufferSize:65536}") int bufferSize,
+                               @Value("${application.declaration.events.idleParkMicros:100}") long idleParkMicros) {
+        if (bufferSize < 2 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Event bus buffer size must be a power of two.");
+        }
+        if (idleParkMicros < 1) {
+            throw new IllegalArgumentException("Event bus idle park must be at least one microsecond.");
+        }
+        this.ring = new DeclarationEvent[bufferSize];
+        this.mask = bufferSize - 1;
+        this.published = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            ring[i] = new DeclarationEvent();
+            published.set(i, -1);
+        }
+        this.idleParkNanos = idleParkMicros * 1_000;
+        this.workers = consumers.stream().map(Worker::new).toList();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        workers.forEach(worker -> worker.thread.start());
+    }
+
+    /**
+     * Stops taking events and lets every consumer finish what was published before returning.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        for (var worker : workers) {
+            try {
+                worker.thread.join(5_000);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public void publish(DeclarationEventType type, long declarationId, UUID taxpayerId, long version, long amountCents) {
+        publish(type, declarationId, taxpayerId, version, amountCents, 0);
+    }
+
+    /**
+     * Stamps the event with the current time and the user authenticated on the calling thread.
+     */
+    public void publish(DeclarationEventType type, long declarationId, UUID taxpayerId, long version, long amountCents,
+                        long relatedId) {
+        if (!running) {
+            return;
+        }
+        var timestampMillis = System.currentTimeMillis();
+        var actor = currentActor();
+        var sequence = claimed.incrementAndGet();
+        var wrapPoint = sequence - ring.length;
+        if (wrapPoint > gatingSequence.get()) {
+            long slowest;
+            while (wrapPoint > (slowest = slowestConsumer(sequence)) && running) {
+                LockSupport.parkNanos(FULL_RING_PARK_NANOS);
+            }
+            gatingSequence.set(slowest);
+        }
+
+        var index = (int) sequence & mask;
+        ring[index].set(type, declarationId, taxpayerId, version, amountCents, relatedId, timestampMillis, actor);
+        published.set(index, sequence);
+    }
+
+    /**
+     * Publishes once the current transaction has committed, or right away outside of one, so consumers
+     * never see a change that was rolled back.
+     */
+    public void publishAfterCommit(DeclarationEventType type, long declarationId, UUID taxpayerId, long version, long amountCents,
+                                   long relatedId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(type, declarationId, taxpayerId, version, amountCents, relatedId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(type, declarationId, taxpayerId, version, amountCents, relatedId);
+            }
+        });
+    }
+
+    public DeclarationEventBusStats stats() {
+        var publishedCount = claimed.get() + 1;
+        var consumers = workers.stream()
+                .map(worker -> {
+                    var processed = worker.sequence.get() + 1;
+                    return new DeclarationEventBusStats.ConsumerStats(worker.consumer.name(), processed, publishedCount - processed,
+                            worker.batches, worker.maxBatchSize, worker.failures);
+                })
+                .toList();
+        return new DeclarationEventBusStats(ring.length, publishedCount, consumers);
+    }
+
+    private static String currentActor() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private long slowestConsumer(long sequence) {
+        var slowest = sequence;
+        for (var worker : workers) {
+            slowest = Math.min(slowest, worker.sequence.get());
+        }
+        return slowest;
+    }
+
+    // Events are published out of claim order when producers race, so a batch ends at the first gap.
+    private long highestPublished(long from) {
+        var upTo = claimed.get();
+        var sequence = from;
+        while (sequence <= upTo && published.get((int) sequence & mask) == sequence) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    private final class Worker implements Runnable {
+
+        private final DeclarationEventConsumer consumer;
+        private final AtomicLong sequence = new AtomicLong(-1);
+        private final Thread thread;
+        // Written by the worker thread only.
+        private volatile long batches;
+        private volatile long maxBatchSize;
+        private volatile long failures;
+
+        private Worker(DeclarationEventConsumer consumer) {
+            this.consumer = consumer;
+            this.thread = new Thread(this, "declaration-events-" + consumer.name());
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            var next = sequence.get() + 1;
+            var idle = 0;
+            while (true) {
+                var available = highestPublished(next);
+                if (available < next) {
+                    if (!running) {
+                        return;
+                    }
+                    idle = idle(idle);
+                    continue;
+                }
+
+                idle = 0;
+                for (var current = next; current <= available; current++) {
+                    try {
+                        consumer.onEvent(ring[(int) current & mask], current, current == available);
+                    } catch (RuntimeException exception) {
+                        failures++;
+                        log.error("Declaration event consumer {} failed on event {}", consumer.name(), current, exception);
+                    }
+                }
+                batches++;
+                maxBatchSize = Math.max(maxBatchSize, available - next + 1);
+                sequence.set(available);
+                next = available + 1;
+            }
+        }
+
+        // Spin briefly for low latency under load, then back off so an idle bus costs next to nothing.
+        private int idle(int tries) {
+            if (tries < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(idleParkNanos);
+                return tries;
+            }
+            return tries + 1;
+        }
+    }
+}
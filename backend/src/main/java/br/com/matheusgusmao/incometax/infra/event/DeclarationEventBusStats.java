@@ -0,0 +1,9 @@
+package br.com.matheusgusmao.incometax.infra.event;
+
+import java.util.List;
+
+public record DeclarationEventBusStats(int capacity, long published, List<ConsumerStats> consumers) {
+
+    public record ConsumerStats(String name, long processed, long lag, long batches, long maxBatchSize, long failures) {
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.matheusgusmao.incometax.infra.event;
+
+/**
+ * Receives every event published on the {@link DeclarationEventBus}, in order, on a thread of its own.
+ * Events arrive in batches of whatever was published since the last one; {@code endOfBatch} marks the
+ * last event of a batch, where work that can be grouped is best flushed.
+ */
+public interface DeclarationEventConsumer {
+
+    String name();
+
+    void onEvent(DeclarationEvent event, long sequence, boolean endOfBatch);
+}
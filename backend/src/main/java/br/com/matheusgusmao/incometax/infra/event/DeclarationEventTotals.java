@@ -0,0 +1,41 @@
+package br.com.matheusgusmao.incometax.infra.event;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Running count and amount of each kind of declaration event since startup.
+ */
+@Component
+public class DeclarationEventTotals implements DeclarationEventConsumer {
+
+    private static final DeclarationEventType[] TYPES = DeclarationEventType.values();
+
+    private final AtomicLongArray counts = new AtomicLongArray(TYPES.length);
+    private final AtomicLongArray amountCents = new AtomicLongArray(TYPES.length);
+
+    @Override
+    public String name() {
+        return "totals";
+    }
+
+    @Override
+    public void onEvent(DeclarationEvent event, long sequence, boolean endOfBatch) {
+        var index = event.getType().ordinal();
+        counts.incrementAndGet(index);
+        amountCents.addAndGet(index, event.getAmountCents());
+    }
+
+    public List<Total> totals() {
+        return Arrays.stream(TYPES)
+                .map(type -> new Total(type, counts.get(type.ordinal()), amountCents.get(type.ordinal())))
+                .toList();
+    }
+
+    public record Total(DeclarationEventType type, long count, long amountCents) {
+    }
+}
@@ -1,11 +1,13 @@
 package br.com.matheusgusmao.incometax.infra.exception;
 
 import lombok.Builder;
+import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
 import java.time.LocalDateTime;
 
 @Builder
+@Getter
 public class ApiException {
     private final String message;
     private final HttpStatus status;
@@ -1,7 +1,11 @@
 package br.com.matheusgusmao.incometax.infra.exception;
 
+import br.com.matheusgusmao.incometax.infra.exception.custom.DeclarationVersionConflictException;
+import br.com.matheusgusmao.incometax.infra.exception.custom.DeclarationWriteConflictException;
 import br.com.matheusgusmao.incometax.infra.exception.custom.EntityAlreadyExistsException;
+import br.com.matheusgusmao.incometax.web.controller.DeclarationETags;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -24,6 +28,24 @@ public class ApiExceptionHandler {
         return buildErrorResponse(CONFLICT, exception.getMessage(), exception.getClass().getSimpleName());
     }
 
+    @ExceptionHandler(DeclarationVersionConflictException.class)
+    public ResponseEntity<ApiException> handleDeclarationVersionConflict(DeclarationVersionConflictException exception) {
+        var response = buildErrorResponse(CONFLICT, exception.getMessage(), exception.getClass().getSimpleName());
+        return ResponseEntity.status(CONFLICT)
+                .eTag(DeclarationETags.of(exception.getDeclarationId(), exception.getCurrentVersion()))
+                .body(response.getBody());
+    }
+
+    @ExceptionHandler(DeclarationWriteConflictException.class)
+    public ResponseEntity<ApiException> handleDeclarationWriteConflict(DeclarationWriteConflictException exception) {
+        return buildErrorResponse(CONFLICT, exception.getMessage(), exception.getClass().getSimpleName());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiException> handleOptimisticLockingFailure(OptimisticLockingFailureException exception) {
+        return buildErrorResponse(CONFLICT, "The resource was modified concurrently. Reload it and try again.", exception.getClass().getSimpleName());
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ApiException> handleEntityNotFound(EntityNotFoundException exception) {
         return buildErrorResponse(NOT_FOUND, exception.getMessage(), exception.getClass().getSimpleName());
@@ -0,0 +1,15 @@
+package br.com.matheusgusmao.incometax.infra.exception.custom;
+
+import lombok.Getter;
+
+@Getter
+public class DeclarationVersionConflictException extends RuntimeException {
+    private final Long declarationId;
+    private final Long currentVersion;
+
+    public DeclarationVersionConflictException(Long declarationId, Long currentVersion) {
+        super("Declaration " + declarationId + " was modified concurrently. Current version is " + currentVersion + ".");
+        this.declarationId = declarationId;
+        this.currentVersion = currentVersion;
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.matheusgusmao.incometax.infra.exception.custom;
+
+import lombok.Getter;
+
+@Getter
+public class DeclarationWriteConflictException extends RuntimeException {
+    private final Long declarationId;
+    private final long lostVersion;
+
+    public DeclarationWriteConflictException(Long declarationId, long lostVersion) {
+        super("Declaration " + declarationId + " was changed elsewhere before version " + lostVersion
+                + " could be saved. That version was kept aside; reload the declaration and apply the change again.");
+        this.declarationId = declarationId;
+        this.lostVersion = lostVersion;
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.matheusgusmao.incometax.infra.export;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.infra.persistence.store.DeclarationDocumentCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * A header ({@value #MAGIC} and a format byte), then per declaration a record marker, the id, taxpayer,
+ * year, delivery date and version followed by the children in the {@link DeclarationDocumentCodec}
+ * layout, and a terminating end marker.
+ */
+final class BinaryDeclarationExportWriter implements DeclarationExportWriter {
+
+    static final int MAGIC = 0x44455850;
+    static final byte FORMAT = 1;
+    static final byte RECORD = 1;
+    static final byte END = 0;
+
+    private final DataOutputStream out;
+
+    BinaryDeclarationExportWriter(OutputStream target) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(target, BUFFER_BYTES));
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT);
+    }
+
+    @Override
+    public void write(Declaration declaration) {
+        try {
+            out.writeByte(RECORD);
+            out.writeLong(declaration.getId());
+            out.writeLong(declaration.getTaxpayerId().getMostSignificantBits());
+            out.writeLong(declaration.getTaxpayerId().getLeastSignificantBits());
+            out.writeInt(declaration.getYear());
+            out.writeUTF(declaration.getDeliveryDate() == null ? "" : declaration.getDeliveryDate().toString());
+            out.writeLong(declaration.getVersion());
+            var document = DeclarationDocumentCodec.encode(declaration, declaration.getVersion());
+            out.writeInt(document.length);
+            out.write(document);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.writeByte(END);
+            out.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.matheusgusmao.incometax.infra.export;
+
+import lombok.Getter;
+
+@Getter
+public enum DeclarationExportFormat {
+    NDJSON("ndjson.gz"),
+    BINARY("bin.gz");
+
+    private final String fileExtension;
+
+    DeclarationExportFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.matheusgusmao.incometax.infra.export;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes exported declarations one at a time to a gzip stream over the target. Nothing is buffered beyond
+ * the compressor's window, and closing the writer finishes the gzip stream without closing the target.
+ */
+public sealed interface DeclarationExportWriter extends AutoCloseable permits NdjsonDeclarationExportWriter, BinaryDeclarationExportWriter {
+
+    int BUFFER_BYTES = 64 * 1024;
+
+    static DeclarationExportWriter open(DeclarationExportFormat format, OutputStream target, ObjectMapper objectMapper) {
+        try {
+            var gzip = new GZIPOutputStream(new UnclosedOutputStream(target), BUFFER_BYTES);
+            return switch (format) {
+                case NDJSON -> new NdjsonDeclarationExportWriter(gzip, objectMapper);
+                case BINARY -> new BinaryDeclarationExportWriter(gzip);
+            };
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    void write(Declaration declaration);
+
+    @Override
+    void close();
+}
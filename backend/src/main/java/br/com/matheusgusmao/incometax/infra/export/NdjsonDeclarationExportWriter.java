@@ -0,0 +1,87 @@
+package br.com.matheusgusmao.incometax.infra.export;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * One JSON object per line. The objects are written field by field through a streaming generator, so no
+ * tree or DTO is built for a declaration.
+ */
+final class NdjsonDeclarationExportWriter implements DeclarationExportWriter {
+
+    private final JsonGenerator generator;
+    private boolean written;
+
+    NdjsonDeclarationExportWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.setRootValueSeparator(new SerializedString("\n"));
+    }
+
+    @Override
+    public void write(Declaration declaration) {
+        try {
+            written = true;
+            generator.writeStartObject();
+            generator.writeNumberField("id", declaration.getId());
+            generator.writeStringField("taxpayerId", declaration.getTaxpayerId().toString());
+            generator.writeNumberField("year", declaration.getYear());
+            generator.writeStringField("status", declaration.getStatus().name());
+            generator.writeStringField("deliveryDate", declaration.getDeliveryDate() == null ? null : declaration.getDeliveryDate().toString());
+            generator.writeNumberField("version", declaration.getVersion());
+
+            generator.writeArrayFieldStart("incomes");
+            for (var income : declaration.getIncomes()) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", income.getId());
+                generator.writeStringField("payingSource", income.getPayingSource());
+                generator.writeStringField("type", income.getType().name());
+                generator.writeNumberField("value", income.getValue().toBigDecimal());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("deductibleExpenses");
+            for (var expense : declaration.getDeductibleExpenses()) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", expense.getId());
+                generator.writeStringField("description", expense.getDescription());
+                generator.writeStringField("type", expense.getType().name());
+                generator.writeNumberField("value", expense.getValue().toBigDecimal());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("dependents");
+            for (var dependent : declaration.getDependents()) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", dependent.getId());
+                generator.writeStringField("name", dependent.getName());
+                generator.writeStringField("cpf", dependent.getCpf().getValue());
+                generator.writeStringField("birthDate", dependent.getBirthDate().toString());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (written) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
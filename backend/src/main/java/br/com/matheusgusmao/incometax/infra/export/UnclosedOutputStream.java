@@ -0,0 +1,23 @@
+package br.com.matheusgusmao.incometax.infra.export;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Flushes instead of closing, so finishing an export leaves the caller's stream open.
+final class UnclosedOutputStream extends FilterOutputStream {
+
+    UnclosedOutputStream(OutputStream target) {
+        super(target);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        out.write(bytes, offset, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+}
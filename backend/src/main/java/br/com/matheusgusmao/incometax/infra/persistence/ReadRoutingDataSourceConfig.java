@@ -0,0 +1,37 @@
+package br.com.matheusgusmao.incometax.infra.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty("application.datasource.read.url")
+public class ReadRoutingDataSourceConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties,
+                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int writePoolSize,
+                                 @Value("${application.datasource.read.url}") String readUrl,
+                                 @Value("${application.datasource.read.maximumPoolSize:10}") int readPoolSize) {
+        var writeDataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        writeDataSource.setPoolName("write");
+        writeDataSource.setMaximumPoolSize(writePoolSize);
+
+        var readDataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(readUrl).build();
+        readDataSource.setPoolName("read");
+        readDataSource.setMaximumPoolSize(readPoolSize);
+        readDataSource.setReadOnly(true);
+
+        var dataSource = new LazyConnectionDataSourceProxy(writeDataSource);
+        dataSource.setReadOnlyDataSource(readDataSource);
+        return dataSource;
+    }
+}
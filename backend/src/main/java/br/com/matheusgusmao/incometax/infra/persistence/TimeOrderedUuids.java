@@ -0,0 +1,32 @@
+package br.com.matheusgusmao.incometax.infra.persistence;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+public final class TimeOrderedUuids {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private TimeOrderedUuids() {
+    }
+
+    public static UUID next() {
+        return at(System.currentTimeMillis());
+    }
+
+    static UUID at(long epochMillis) {
+        var random = new byte[10];
+        RANDOM.nextBytes(random);
+
+        long mostSigBits = (epochMillis & 0xFFFF_FFFF_FFFFL) << 16
+                | 0x7000L
+                | ((random[0] & 0x0FL) << 8)
+                | (random[1] & 0xFFL);
+
+        long leastSigBits = 0x8000_0000_0000_0000L | ((random[2] & 0x3FL) << 56);
+        for (int i = 3; i < 10; i++) {
+            leastSigBits |= (random[i] & 0xFFL) << (8 * (9 - i));
+        }
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,317 @@
+package br.com.matheusgusmao.incometax.infra.persistence.archive;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.infra.persistence.store.DeclarationDocumentCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One immutable archive file, read through a read-only memory mapping.
+ * <p>
+ * Layout: a header, the records sorted by (taxpayer, year, id), a dense index of (id, offset) sorted by id,
+ * a sparse index holding the key and offset of every {@value #SPARSE_INTERVAL}th record, and a fixed-size
+ * footer locating both indexes. Each record starts with its uncompressed key, so a scan can skip records
+ * without inflating them, followed by the deflated declaration.
+ */
+final class ArchiveSegment {
+
+    private static final int MAGIC = 0x44415243;
+    private static final byte FORMAT = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + Byte.BYTES;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES * 3 + Integer.BYTES;
+    private static final int ID_ENTRY_BYTES = Long.BYTES * 2;
+    private static final int SPARSE_ENTRY_BYTES = Long.BYTES * 3 + Integer.BYTES;
+    private static final int FOOTER_BYTES = Long.BYTES * 2 + Integer.BYTES * 3;
+    static final int SPARSE_INTERVAL = 16;
+
+    static final Comparator<Declaration> RECORD_ORDER = Comparator
+            .comparing(Declaration::getTaxpayerId, ArchiveSegment::compareTaxpayers)
+            .thenComparingInt(Declaration::getYear)
+            .thenComparing(Declaration::getId);
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long recordsEnd;
+    private final int idCount;
+    private final long sparseIndexOffset;
+    private final int sparseCount;
+
+    private ArchiveSegment(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        var footer = buffer.capacity() - FOOTER_BYTES;
+        if (buffer.capacity() < HEADER_BYTES + FOOTER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(footer + FOOTER_BYTES - Integer.BYTES) != MAGIC) {
+            throw new IllegalStateException("Not a declaration archive segment: " + path.getFileName());
+        }
+        if (buffer.get(Integer.BYTES) != FORMAT) {
+            throw new IllegalStateException("Unsupported declaration archive format in " + path.getFileName());
+        }
+        this.recordsEnd = buffer.getLong(footer);
+        this.idCount = buffer.getInt(footer + Long.BYTES);
+        this.sparseIndexOffset = buffer.getLong(footer + Long.BYTES + Integer.BYTES);
+        this.sparseCount = buffer.getInt(footer + Long.BYTES * 2 + Integer.BYTES);
+    }
+
+    static ArchiveSegment open(Path path) {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Declaration archive segment too large to map: " + path.getFileName());
+            }
+            return new ArchiveSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Writes the declarations to a new segment file and forces it to disk. The file is complete when this
+     * returns; the caller makes it visible by renaming it.
+     */
+    static void write(Path path, List<Declaration> declarations) {
+        var records = declarations.stream().sorted(RECORD_ORDER).toList();
+        var idIndex = new long[records.size()][];
+        var sparseIndex = new ArrayList<SparseEntry>();
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+            long offset = 0;
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT);
+            offset += HEADER_BYTES;
+
+            var deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                for (int i = 0; i < records.size(); i++) {
+                    var declaration = records.get(i);
+                    var raw = encode(declaration);
+                    var compressed = deflate(deflater, raw);
+                    var taxpayerId = declaration.getTaxpayerId();
+
+                    idIndex[i] = new long[]{declaration.getId(), offset};
+                    if (i % SPARSE_INTERVAL == 0) {
+                        sparseIndex.add(new SparseEntry(taxpayerId, declaration.getYear(), offset));
+                    }
+
+                    out.writeInt(compressed.length);
+                    out.writeInt(raw.length);
+                    out.writeLong(taxpayerId.getMostSignificantBits());
+                    out.writeLong(taxpayerId.getLeastSignificantBits());
+                    out.writeLong(declaration.getId());
+                    out.writeInt(declaration.getYear());
+                    out.write(compressed);
+                    offset += RECORD_HEADER_BYTES + compressed.length;
+                }
+            } finally {
+                deflater.end();
+            }
+
+            var recordsEnd = offset;
+            Arrays.sort(idIndex, Comparator.comparingLong(entry -> entry[0]));
+            for (var entry : idIndex) {
+                out.writeLong(entry[0]);
+                out.writeLong(entry[1]);
+            }
+            var sparseIndexOffset = recordsEnd + (long) idIndex.length * ID_ENTRY_BYTES;
+            for (var entry : sparseIndex) {
+                out.writeLong(entry.taxpayerId().getMostSignificantBits());
+                out.writeLong(entry.taxpayerId().getLeastSignificantBits());
+                out.writeInt(entry.year());
+                out.writeLong(entry.offset());
+            }
+
+            out.writeLong(recordsEnd);
+            out.writeInt(idIndex.length);
+            out.writeLong(sparseIndexOffset);
+            out.writeInt(sparseIndex.size());
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    int size() {
+        return idCount;
+    }
+
+    Optional<Declaration> findById(long declarationId) {
+        var offset = offsetOf(declarationId);
+        return offset < 0 ? Optional.empty() : Optional.of(read(offset));
+    }
+
+    boolean contains(long declarationId) {
+        return offsetOf(declarationId) >= 0;
+    }
+
+    // Walks the records in file order, skipping other years by their key without inflating them.
+    void forEach(Integer year, Consumer<Declaration> consumer) {
+        for (long offset = HEADER_BYTES; offset < recordsEnd; offset += RECORD_HEADER_BYTES + buffer.getInt((int) offset)) {
+            if (year == null || yearAt(offset) == year) {
+                consumer.accept(read(offset));
+            }
+        }
+    }
+
+    List<Declaration> findByTaxpayer(UUID taxpayerId) {
+        var declarations = new ArrayList<Declaration>();
+        scanTaxpayer(taxpayerId, offset -> declarations.add(read(offset)));
+        return declarations;
+    }
+
+    boolean exists(UUID taxpayerId, int year) {
+        var found = new boolean[1];
+        scanTaxpayer(taxpayerId, offset -> found[0] |= yearAt(offset) == year);
+        return found[0];
+    }
+
+    private long offsetOf(long declarationId) {
+        int low = 0;
+        int high = idCount - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var entry = recordsEnd + (long) middle * ID_ENTRY_BYTES;
+            var id = buffer.getLong((int) entry);
+            if (id < declarationId) {
+                low = middle + 1;
+            } else if (id > declarationId) {
+                high = middle - 1;
+            } else {
+                return buffer.getLong((int) entry + Long.BYTES);
+            }
+        }
+        return -1;
+    }
+
+    // Starts from the last sparse entry before the taxpayer and walks forward over the record keys.
+    private void scanTaxpayer(UUID taxpayerId, LongConsumer onMatch) {
+        long offset = HEADER_BYTES;
+        int low = 0;
+        int high = sparseCount - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var entry = (int) (sparseIndexOffset + (long) middle * SPARSE_ENTRY_BYTES);
+            if (compareTaxpayers(taxpayerAt(entry), taxpayerId) < 0) {
+                offset = buffer.getLong(entry + Long.BYTES * 2 + Integer.BYTES);
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        while (offset < recordsEnd) {
+            var record = (int) offset;
+            var comparison = compareTaxpayers(taxpayerAt(record + Integer.BYTES * 2), taxpayerId);
+            if (comparison > 0) {
+                return;
+            }
+            if (comparison == 0) {
+                onMatch.accept(offset);
+            }
+            offset += RECORD_HEADER_BYTES + buffer.getInt(record);
+        }
+    }
+
+    private int yearAt(long offset) {
+        return buffer.getInt((int) offset + RECORD_HEADER_BYTES - Integer.BYTES);
+    }
+
+    private UUID taxpayerAt(int position) {
+        return new UUID(buffer.getLong(position), buffer.getLong(position + Long.BYTES));
+    }
+
+    private Declaration read(long offset) {
+        var record = (int) offset;
+        var compressed = new byte[buffer.getInt(record)];
+        var raw = new byte[buffer.getInt(record + Integer.BYTES)];
+        var taxpayerId = taxpayerAt(record + Integer.BYTES * 2);
+        var id = buffer.getLong(record + Integer.BYTES * 2 + Long.BYTES * 2);
+        var year = buffer.getInt(record + Integer.BYTES * 2 + Long.BYTES * 3);
+        buffer.get(record + RECORD_HEADER_BYTES, compressed);
+
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            if (inflater.inflate(raw) != raw.length) {
+                throw new IllegalStateException("Truncated record for declaration " + id + " in " + path.getFileName());
+            }
+        } catch (DataFormatException exception) {
+            throw new IllegalStateException("Corrupt record for declaration " + id + " in " + path.getFileName(), exception);
+        } finally {
+            inflater.end();
+        }
+        return decode(id, taxpayerId, year, raw);
+    }
+
+    private static byte[] encode(Declaration declaration) {
+        var bytes = new ByteArrayOutputStream(256);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeUTF(declaration.getStatus().name());
+            out.writeUTF(declaration.getDeliveryDate() == null ? "" : declaration.getDeliveryDate().toString());
+            out.writeLong(declaration.getVersion());
+            var document = DeclarationDocumentCodec.encode(declaration, declaration.getVersion());
+            out.writeInt(document.length);
+            out.write(document);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Declaration decode(long id, UUID taxpayerId, int year, byte[] raw) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(raw))) {
+            var status = DeclarationStatus.valueOf(in.readUTF());
+            var deliveryDate = in.readUTF();
+            var version = in.readLong();
+            var document = DeclarationDocumentCodec.decode(in.readNBytes(in.readInt()));
+            return Declaration.rehydrate(id, taxpayerId, year, status, deliveryDate.isEmpty() ? null : LocalDateTime.parse(deliveryDate),
+                    version, document.incomes(), document.deductibleExpenses(), document.dependents());
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        var out = new ByteArrayOutputStream(raw.length);
+        var chunk = new byte[Math.max(64, raw.length)];
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return out.toByteArray();
+    }
+
+    private static int compareTaxpayers(UUID left, UUID right) {
+        var comparison = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return comparison != 0 ? comparison : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+
+    private record SparseEntry(UUID taxpayerId, int year, long offset) {
+    }
+}
@@ -0,0 +1,198 @@
+package br.com.matheusgusmao.incometax.infra.persistence.archive;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier for delivered declarations moved out of the database by {@link DeclarationArchiver}. Segments
+ * are never modified once written; new ones are added as whole files, so reads need no locking.
+ */
+@Slf4j
+@Component
+public class DeclarationArchive {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("declarations-(\\d+)\\.seg");
+
+    private final Path directory;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantReadWriteLock moveLock = new ReentrantReadWriteLock();
+    private volatile List<ArchiveSegment> segments;
+    private long nextSegment;
+
+    public DeclarationArchive(@Value("${application.declaration.archive.directory:declaration-archive}") Path directory) {
+        this.directory = directory;
+        if (!Files.isDirectory(directory)) {
+            this.segments = List.of();
+            return;
+        }
+        try (Stream<Path> leftovers = Files.list(directory)) {
+            for (var leftover : leftovers.filter(file -> file.getFileName().toString().endsWith(".tmp")).toList()) {
+                Files.delete(leftover);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        var opened = new ArrayList<ArchiveSegment>();
+        for (var number : segmentNumbers()) {
+            opened.add(ArchiveSegment.open(path(number)));
+            nextSegment = number + 1;
+        }
+        this.segments = List.copyOf(opened);
+        if (!opened.isEmpty()) {
+            log.info("Opened {} declaration archive segments holding {} declarations", opened.size(),
+                    opened.stream().mapToLong(ArchiveSegment::size).sum());
+        }
+    }
+
+    public Optional<Declaration> findById(Long declarationId) {
+        var current = segments;
+        for (int i = current.size() - 1; i >= 0; i--) {
+            var declaration = current.get(i).findById(declarationId);
+            if (declaration.isPresent()) {
+                return declaration;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<Declaration> findByTaxpayer(UUID taxpayerId) {
+        var seen = new HashSet<Long>();
+        var declarations = new ArrayList<Declaration>();
+        var current = segments;
+        for (int i = current.size() - 1; i >= 0; i--) {
+            for (var declaration : current.get(i).findByTaxpayer(taxpayerId)) {
+                if (seen.add(declaration.getId())) {
+                    declarations.add(declaration);
+                }
+            }
+        }
+        declarations.sort(Comparator.comparingInt(Declaration::getYear));
+        return declarations;
+    }
+
+    public boolean exists(UUID taxpayerId, int year) {
+        for (var segment : segments) {
+            if (segment.exists(taxpayerId, year)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean contains(Long declarationId) {
+        for (var segment : segments) {
+            if (segment.contains(declarationId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hands every archived declaration of the year, or of all years when {@code year} is null, to the
+     * consumer one at a time, oldest segment first. A declaration archived twice is passed on once.
+     */
+    public void forEach(Integer year, Consumer<Declaration> consumer) {
+        var current = segments;
+        for (int i = 0; i < current.size(); i++) {
+            var newer = current.subList(i + 1, current.size());
+            current.get(i).forEach(year, declaration -> {
+                if (newer.stream().noneMatch(segment -> segment.contains(declaration.getId()))) {
+                    consumer.accept(declaration);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs a move of declarations from the database into the archive. Moves wait for running
+     * {@linkplain #withMovesPaused exports}, which must see each declaration in exactly one tier.
+     */
+    public void move(Runnable move) {
+        moveLock.writeLock().lock();
+        try {
+            move.run();
+        } finally {
+            moveLock.writeLock().unlock();
+        }
+    }
+
+    public <T> T withMovesPaused(Supplier<T> work) {
+        moveLock.readLock().lock();
+        try {
+            return work.get();
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the declarations as a new segment. Once this returns they are durable and readable, so the
+     * caller may remove them from the database.
+     */
+    public void append(List<Declaration> declarations) {
+        if (declarations.isEmpty()) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            Files.createDirectories(directory);
+            var number = nextSegment;
+            var target = path(number);
+            var temporary = directory.resolve(target.getFileName() + ".tmp");
+            ArchiveSegment.write(temporary, declarations);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+            var updated = new ArrayList<>(segments);
+            updated.add(ArchiveSegment.open(target));
+            segments = List.copyOf(updated);
+            nextSegment = number + 1;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private List<Long> segmentNumbers() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private Path path(long number) {
+        return directory.resolve("declarations-%020d.seg".formatted(number));
+    }
+}
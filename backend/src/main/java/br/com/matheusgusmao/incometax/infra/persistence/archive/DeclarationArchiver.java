@@ -0,0 +1,105 @@
+package br.com.matheusgusmao.incometax.infra.persistence.archive;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationChangedEvent;
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.infra.event.DeclarationEventBus;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationArchiveRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.store.DeclarationStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+/**
+ * Moves delivered declarations of years before {@code application.declaration.archive.beforeYear} out of
+ * the database and into {@link DeclarationArchive}. Each batch is written and forced to disk as a segment
+ * before its rows are deleted, so a crash in between leaves the declarations in both tiers; the next run
+ * finds them already archived and only deletes the rows.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.declaration.archive.enabled", havingValue = "true")
+public class DeclarationArchiver {
+
+    private final DeclarationArchiveRepository archiveRepository;
+    private final DeclarationStore declarationStore;
+    private final DeclarationArchive archive;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeclarationEventBus declarationEventBus;
+    private final int beforeYear;
+    private final int segmentSize;
+
+    public DeclarationArchiver(DeclarationArchiveRepository archiveRepository,
+                               DeclarationStore declarationStore,
+                               DeclarationArchive archive,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               DeclarationEventBus declarationEventBus,
+                               @Value("${application.declaration.archive.beforeYear}") int beforeYear,
+                               @Value("${application.declaration.archive.segmentSize:10000}") int segmentSize) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Archive segment size must be at least 1.");
+        }
+        this.archiveRepository = archiveRepository;
+        this.declarationStore = declarationStore;
+        this.archive = archive;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.declarationEventBus = declarationEventBus;
+        this.beforeYear = beforeYear;
+        this.segmentSize = segmentSize;
+    }
+
+    @Scheduled(cron = "${application.declaration.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        long archived = 0;
+        int batch;
+        do {
+            batch = archiveBatch();
+            archived += batch;
+        } while (batch == segmentSize);
+
+        if (archived > 0) {
+            log.info("Archived {} delivered declarations from before {}", archived, beforeYear);
+        }
+    }
+
+    int archiveBatch() {
+        var ids = archiveRepository.findArchivableIds(beforeYear, segmentSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        var archived = new ArrayList<Declaration>();
+        archive.move(() -> {
+            var declarations = readTransaction.execute(status -> ids.stream()
+                    .filter(id -> !archive.contains(id))
+                    .map(declarationStore::findById)
+                    .flatMap(Optional::stream)
+                    .toList());
+            archive.append(declarations);
+
+            var deleted = writeTransaction.execute(status -> archiveRepository.deleteAll(ids));
+            // A declaration amended since the ids were read keeps its rows; its copy in the archive is never
+            // read while the database still has it.
+            declarations.stream().filter(declaration -> deleted.contains(declaration.getId())).forEach(archived::add);
+        });
+        ids.forEach(id -> eventPublisher.publishEvent(new DeclarationChangedEvent(id)));
+        // Declarations archived by an interrupted run were announced then, so only this run's are.
+        archived.forEach(declaration -> declarationEventBus.publish(DeclarationEventType.DECLARATION_ARCHIVED,
+                declaration.getId(), declaration.getTaxpayerId(), declaration.getVersion(), 0));
+        return ids.size();
+    }
+}
@@ -24,15 +24,19 @@ import java.util.UUID;
 public class DeclarationEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(columnDefinition = "integer")
     private Long id;
 
-    @JdbcTypeCode(Types.VARCHAR)
-    @Column(nullable = false)
+    @JdbcTypeCode(Types.BINARY)
+    @Column(nullable = false, length = 16)
     private UUID taxpayerId;
 
     @Column(nullable = false)
     private int year;
 
+    @Column(nullable = false)
+    private int amendment;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 30)
     private DeclarationStatus status;
@@ -40,6 +44,10 @@ public class DeclarationEntity {
     @Column
     private LocalDateTime deliveryDate;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "declaration", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<IncomeEntity> incomes = new ArrayList<>();
 
@@ -16,6 +16,7 @@ import java.time.LocalDate;
 public class DependentEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(columnDefinition = "integer")
     private Long id;
 
     @Column(nullable = false)
@@ -27,6 +28,10 @@ public class DependentEntity {
     @Column(nullable = false)
     private LocalDate birthDate;
 
+    // Written once: a row keeps the amendment that added it.
+    @Column(nullable = false, updatable = false)
+    private int amendment;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "declaration_id", nullable = false)
     private DeclarationEntity declaration;
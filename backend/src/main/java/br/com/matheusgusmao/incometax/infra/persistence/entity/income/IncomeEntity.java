@@ -1,13 +1,12 @@
 package br.com.matheusgusmao.incometax.infra.persistence.entity.income;
 
 import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
 import br.com.matheusgusmao.incometax.infra.persistence.entity.declaration.DeclarationEntity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.math.BigDecimal;
-
 @Entity
 @Table(name = "incomes")
 @Getter
@@ -16,6 +15,7 @@ public class IncomeEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(columnDefinition = "integer")
     private Long id;
 
     @Column(nullable = false)
@@ -26,7 +26,11 @@ public class IncomeEntity {
     private IncomeType type;
 
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal value;
+    private Money value;
+
+    // Written once: a row keeps the amendment that added it.
+    @Column(nullable = false, updatable = false)
+    private int amendment;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "declaration_id", nullable = false)
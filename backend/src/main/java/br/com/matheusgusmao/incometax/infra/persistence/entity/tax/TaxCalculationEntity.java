@@ -0,0 +1,40 @@
+package br.com.matheusgusmao.incometax.infra.persistence.entity.tax;
+
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "tax_calculations")
+@Getter
+@Setter
+public class TaxCalculationEntity {
+    @Id
+    @Column(name = "declaration_id")
+    private Long declarationId;
+
+    @Column(nullable = false)
+    private Long declarationVersion;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private Money totalIncome;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private Money totalDeductions;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private Money calculationBase;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private Money taxDue;
+
+    @Column(nullable = false, precision = 7, scale = 4)
+    private BigDecimal effectiveAliquot;
+
+    @Column(nullable = false)
+    private LocalDateTime calculatedAt;
+}
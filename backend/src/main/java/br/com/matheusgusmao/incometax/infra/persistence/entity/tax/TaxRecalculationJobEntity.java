@@ -0,0 +1,35 @@
+package br.com.matheusgusmao.incometax.infra.persistence.entity.tax;
+
+import br.com.matheusgusmao.incometax.domain.model.recalculation.TaxRecalculationStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "tax_recalculation_jobs")
+@Getter
+@Setter
+public class TaxRecalculationJobEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(columnDefinition = "integer")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TaxRecalculationStatus status;
+
+    @Column(nullable = false)
+    private long lastDeclarationId;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column
+    private LocalDateTime finishedAt;
+}
@@ -20,8 +20,8 @@ import java.util.UUID;
 @Table(name = "app_user")
 public class UserEntity implements UserDetails {
     @Id
-    @JdbcTypeCode(Types.VARCHAR)
-    @NonNull @Column(nullable = false, unique = true)
+    @JdbcTypeCode(Types.BINARY)
+    @NonNull @Column(nullable = false, unique = true, length = 16)
     @Getter
     private UUID id;
     @NonNull @Column(nullable = false)
@@ -31,6 +31,7 @@ public class UserEntity implements UserDetails {
     @NonNull @Column(nullable = false, unique = true)
     private String email;
     @NonNull @Column(nullable = false)
+    @Basic(fetch = FetchType.LAZY)
     private String password;
     @Enumerated(EnumType.STRING)
     private Role role;
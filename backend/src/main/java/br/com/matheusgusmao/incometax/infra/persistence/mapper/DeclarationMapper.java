@@ -5,6 +5,9 @@ import br.com.matheusgusmao.incometax.infra.persistence.entity.declaration.Decla
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
@@ -31,8 +34,10 @@ public class DeclarationMapper {
         declarationEntity.setId(domain.getId());
         declarationEntity.setTaxpayerId(domain.getTaxpayerId());
         declarationEntity.setYear(domain.getYear());
+        declarationEntity.setAmendment(domain.getAmendment());
         declarationEntity.setStatus(domain.getStatus());
         declarationEntity.setDeliveryDate(domain.getDeliveryDate());
+        declarationEntity.setVersion(domain.getVersion());
 
         declarationEntity.setIncomes(domain.getIncomes().stream()
                 .map(income -> incomeMapper.toEntity(income, declarationEntity))
@@ -52,26 +57,25 @@ public class DeclarationMapper {
     public Declaration toDomain(DeclarationEntity entity) {
         if (entity == null) return null;
 
-        Declaration domain = new Declaration(entity.getId(), entity.getTaxpayerId(), entity.getYear(), entity.getStatus(), entity.getDeliveryDate());
-
-        if (!entity.getIncomes().isEmpty()) {
-            entity.getIncomes().stream()
-                    .map(incomeMapper::toDomain)
-                    .forEach(domain::addIncome);
-        }
-
-        if (!entity.getDeductibleExpenses().isEmpty()) {
-            entity.getDeductibleExpenses().stream()
-                    .map(deductibleExpenseMapper::toDomain)
-                    .forEach(domain::addDeductibleExpense);
-        }
+        return Declaration.rehydrate(
+                entity.getId(),
+                entity.getTaxpayerId(),
+                entity.getYear(),
+                entity.getAmendment(),
+                entity.getStatus(),
+                entity.getDeliveryDate(),
+                entity.getVersion(),
+                mapAll(entity.getIncomes(), income -> incomeMapper.toDomain(income)),
+                mapAll(entity.getDeductibleExpenses(), expense -> deductibleExpenseMapper.toDomain(expense)),
+                mapAll(entity.getDependents(), dependent -> dependentMapper.toDomain(dependent))
+        );
+    }
 
-        if (!entity.getDependents().isEmpty()) {
-            entity.getDependents().stream()
-                    .map(dependentMapper::toDomain)
-                    .forEach(domain::addDependent);
+    private static <E, D> ArrayList<D> mapAll(List<E> entities, Function<E, D> mapper) {
+        var result = new ArrayList<D>(entities.size());
+        for (var entity : entities) {
+            result.add(mapper.apply(entity));
         }
-
-        return domain;
+        return result;
     }
 }
\ No newline at end of file
@@ -16,12 +16,13 @@ public class DeductibleExpenseMapper {
         entity.setType(domain.getType());
         entity.setValue(domain.getValue());
         entity.setDeclaration(declaration);
+        entity.setAmendment(declaration.getAmendment());
         return entity;
     }
 
     public DeductibleExpense toDomain(DeductibleExpenseEntity entity) {
         if (entity == null) return null;
 
-        return new DeductibleExpense(entity.getId(), entity.getDescription(), entity.getType(), entity.getValue());
+        return DeductibleExpense.rehydrate(entity.getId(), entity.getDescription(), entity.getType(), entity.getValue());
     }
 }
\ No newline at end of file
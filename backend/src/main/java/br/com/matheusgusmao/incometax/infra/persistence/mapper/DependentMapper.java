@@ -16,6 +16,7 @@ public class DependentMapper {
         entity.setCpf(dependent.getCpf().getValue());
         entity.setBirthDate(dependent.getBirthDate());
         entity.setDeclaration(declaration);
+        entity.setAmendment(declaration.getAmendment());
         return entity;
     }
 
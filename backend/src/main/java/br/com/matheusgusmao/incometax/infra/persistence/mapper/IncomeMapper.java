@@ -16,12 +16,13 @@ public class IncomeMapper {
         entity.setType(domain.getType());
         entity.setValue(domain.getValue());
         entity.setDeclaration(declarationEntity);
+        entity.setAmendment(declarationEntity.getAmendment());
         return entity;
     }
 
     public Income toDomain(IncomeEntity entity) {
         if (entity == null) return null;
 
-        return new Income(entity.getId(), entity.getPayingSource(), entity.getType(), entity.getValue());
+        return Income.rehydrate(entity.getId(), entity.getPayingSource(), entity.getType(), entity.getValue());
     }
 }
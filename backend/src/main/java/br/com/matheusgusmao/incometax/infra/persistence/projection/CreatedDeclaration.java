@@ -0,0 +1,6 @@
+package br.com.matheusgusmao.incometax.infra.persistence.projection;
+
+import java.util.UUID;
+
+public record CreatedDeclaration(long id, UUID taxpayerId) {
+}
@@ -0,0 +1,4 @@
+package br.com.matheusgusmao.incometax.infra.persistence.projection;
+
+public record DeclarationHistoryVersion(long declarationCount, long versionSum) {
+}
@@ -0,0 +1,6 @@
+package br.com.matheusgusmao.incometax.infra.persistence.projection;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationSubmittedEvent;
+
+public record DeclarationOutboxEntry(long id, DeclarationSubmittedEvent event, int attempts) {
+}
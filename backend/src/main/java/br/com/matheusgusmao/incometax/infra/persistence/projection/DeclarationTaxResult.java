@@ -0,0 +1,6 @@
+package br.com.matheusgusmao.incometax.infra.persistence.projection;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.TaxCalculationResult;
+
+public record DeclarationTaxResult(long declarationId, long declarationVersion, TaxCalculationResult result) {
+}
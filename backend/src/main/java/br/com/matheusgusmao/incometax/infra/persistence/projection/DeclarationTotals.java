@@ -0,0 +1,6 @@
+package br.com.matheusgusmao.incometax.infra.persistence.projection;
+
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+
+public record DeclarationTotals(long declarationId, long declarationVersion, Money totalIncome, Money totalDeductions) {
+}
@@ -0,0 +1,12 @@
+package br.com.matheusgusmao.incometax.infra.persistence.projection;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+
+public record DeclarationTypeTotals(
+        long declarationId,
+        int year,
+        DeclarationStatus status,
+        long[] incomeCentsByType,
+        long[] deductionCentsByType
+) {
+}
@@ -0,0 +1,11 @@
+package br.com.matheusgusmao.incometax.infra.persistence.projection;
+
+import java.time.LocalDateTime;
+
+public record IdempotentResponse(byte[] requestHash, int status, String contentType, String location, String eTag,
+                                 byte[] body, LocalDateTime expiresAt) {
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.matheusgusmao.incometax.infra.persistence.projection;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.TaxCalculationResult;
+
+import java.util.UUID;
+
+public record StoredTaxCalculation(UUID taxpayerId, TaxCalculationResult result) {
+}
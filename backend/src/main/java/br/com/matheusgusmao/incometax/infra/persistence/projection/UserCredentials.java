@@ -0,0 +1,6 @@
+package br.com.matheusgusmao.incometax.infra.persistence.projection;
+
+import br.com.matheusgusmao.incometax.infra.persistence.entity.user.Role;
+
+public record UserCredentials(String email, String password, Role role) {
+}
@@ -0,0 +1,49 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Objects;
+
+/**
+ * Hands out ids for incomes, deductible expenses and dependents whose rows are written later or in bulk,
+ * so the id a child is given is the id of its row. Reservations take part in the caller's transaction
+ * and are undone with it.
+ */
+@Repository
+public class ChildIdSequenceRepository {
+
+    public enum ChildTable {
+        INCOMES("incomes"),
+        DEDUCTIBLE_EXPENSES("deductible_expenses"),
+        DEPENDENTS("dependents");
+
+        // Never below the table's next rowid, so rows inserted without an id are not handed out again.
+        private final String reserve;
+
+        ChildTable(String tableName) {
+            this.reserve = """
+                    update child_id_sequences
+                    set next_id = max(next_id, (select coalesce(max(id), 0) + 1 from %s)) + ?
+                    where table_name = '%s'
+                    returning next_id - ?
+                    """.formatted(tableName, tableName);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChildIdSequenceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reserves {@code count} consecutive ids of the table and returns the first.
+     */
+    public long reserve(ChildTable table, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one id must be reserved.");
+        }
+        return Objects.requireNonNull(jdbcTemplate.queryForObject(table.reserve, Long.class, count, count));
+    }
+}
@@ -0,0 +1,198 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationAmendment;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Cpf;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import br.com.matheusgusmao.incometax.infra.persistence.UuidBytes;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Keeps the delivered versions of declarations that amendments replaced, as deltas. A child row is written
+ * once, tagged with the amendment that added it, and stays shared by every later version until one removes
+ * it; only then is it moved to the matching {@code removed_} table, so version {@code n} is the live rows
+ * added up to {@code n} plus the removed rows added up to {@code n} and removed after it.
+ */
+@Repository
+public class DeclarationAmendmentRepository {
+
+    private static final String INSERT = """
+            insert into declaration_amendments (declaration_id, amendment, version, delivery_date, amended_at)
+            values (?, ?, ?, ?, ?)
+            """;
+
+    private static final String FIND_ALL = """
+            select declaration_id, amendment, version, delivery_date, amended_at
+            from declaration_amendments
+            where declaration_id = ?
+            order by amendment
+            """;
+
+    private static final String FIND = """
+            select declaration_id, amendment, version, delivery_date, amended_at
+            from declaration_amendments
+            where declaration_id = ? and amendment = ?
+            """;
+
+    private static final String COUNT_BEFORE_VERSION = "select count(*) from declaration_amendments where declaration_id = ? and version < ?";
+
+    private static final String FIND_HEADER = "select taxpayer_id, year from declarations where id = ?";
+
+    // Each is given the removing amendment, the declaration, the amendment again and the ids it still holds.
+    private static final String KEEP_REMOVED_INCOMES = """
+            insert into removed_incomes (id, declaration_id, paying_source, type, value, amendment, removed_in)
+            select id, declaration_id, paying_source, type, value, amendment, ?
+            from incomes
+            where declaration_id = ? and amendment < ? and id not in (%s)
+            """;
+    private static final String KEEP_REMOVED_EXPENSES = """
+            insert into removed_deductible_expenses (id, declaration_id, description, type, value, amendment, removed_in)
+            select id, declaration_id, description, type, value, amendment, ?
+            from deductible_expenses
+            where declaration_id = ? and amendment < ? and id not in (%s)
+            """;
+    private static final String KEEP_REMOVED_DEPENDENTS = """
+            insert into removed_dependents (id, declaration_id, name, cpf, birth_date, amendment, removed_in)
+            select id, declaration_id, name, cpf, birth_date, amendment, ?
+            from dependents
+            where declaration_id = ? and amendment < ? and id not in (%s)
+            """;
+
+    // Each is given the declaration and the amendment twice, and the amendment once more for the removed rows.
+    private static final String FIND_INCOMES = """
+            select id, paying_source, type, cast(round(value * 100) as integer) as value_cents
+            from incomes
+            where declaration_id = ? and amendment <= ?
+            union all
+            select id, paying_source, type, cast(round(value * 100) as integer)
+            from removed_incomes
+            where declaration_id = ? and amendment <= ? and removed_in > ?
+            order by id
+            """;
+    private static final String FIND_EXPENSES = """
+            select id, description, type, cast(round(value * 100) as integer) as value_cents
+            from deductible_expenses
+            where declaration_id = ? and amendment <= ?
+            union all
+            select id, description, type, cast(round(value * 100) as integer)
+            from removed_deductible_expenses
+            where declaration_id = ? and amendment <= ? and removed_in > ?
+            order by id
+            """;
+    private static final String FIND_DEPENDENTS = """
+            select id, name, cpf, birth_date
+            from dependents
+            where declaration_id = ? and amendment <= ?
+            union all
+            select id, name, cpf, birth_date
+            from removed_dependents
+            where declaration_id = ? and amendment <= ? and removed_in > ?
+            order by id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeclarationAmendmentRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records the delivered declaration as replaced by its next amendment.
+     */
+    public void recordReplaced(Declaration delivered, LocalDateTime amendedAt) {
+        jdbcTemplate.update(INSERT, delivered.getId(), delivered.getAmendment(), delivered.getVersion(),
+                Timestamp.valueOf(delivered.getDeliveryDate()), Timestamp.valueOf(amendedAt));
+    }
+
+    public List<DeclarationAmendment> findAll(Long declarationId) {
+        return jdbcTemplate.query(FIND_ALL, this::mapAmendment, declarationId);
+    }
+
+    public Optional<DeclarationAmendment> find(Long declarationId, int amendment) {
+        return jdbcTemplate.query(FIND, this::mapAmendment, declarationId, amendment).stream().findFirst();
+    }
+
+    /**
+     * Returns the amendment the declaration was on at the given version.
+     */
+    public int amendmentAt(Long declarationId, long version) {
+        var replaced = jdbcTemplate.queryForObject(COUNT_BEFORE_VERSION, Integer.class, declarationId, version);
+        return replaced == null ? 0 : replaced;
+    }
+
+    /**
+     * Moves aside the children that an amended declaration no longer holds but an earlier version still
+     * does, ahead of their rows being deleted. Children added by the amendment itself belong to no
+     * delivered version and are left to be deleted. Must run in the transaction that deletes the rows.
+     */
+    public void keepRemovedChildren(Declaration declaration) {
+        keepRemoved(KEEP_REMOVED_INCOMES, declaration, declaration.getIncomes(), Income::getId);
+        keepRemoved(KEEP_REMOVED_EXPENSES, declaration, declaration.getDeductibleExpenses(), DeductibleExpense::getId);
+        keepRemoved(KEEP_REMOVED_DEPENDENTS, declaration, declaration.getDependents(), Dependent::getId);
+    }
+
+    /**
+     * Rebuilds the delivered version of the declaration that the given amendment replaced.
+     */
+    public Optional<Declaration> findReplaced(Long declarationId, int amendment) {
+        var replaced = find(declarationId, amendment);
+        if (replaced.isEmpty()) {
+            return Optional.empty();
+        }
+        return jdbcTemplate.query(FIND_HEADER, (rs, rowNum) -> Declaration.rehydrate(
+                declarationId,
+                UuidBytes.toUuid(rs.getBytes("taxpayer_id")),
+                rs.getInt("year"),
+                amendment,
+                DeclarationStatus.DELIVERED,
+                replaced.get().deliveryDate(),
+                replaced.get().version(),
+                findChildren(FIND_INCOMES, declarationId, amendment, (child, rowNumber) -> Income.rehydrate(child.getLong("id"),
+                        child.getString("paying_source"), IncomeType.valueOf(child.getString("type")), Money.ofCents(child.getLong("value_cents")))),
+                findChildren(FIND_EXPENSES, declarationId, amendment, (child, rowNumber) -> DeductibleExpense.rehydrate(child.getLong("id"),
+                        child.getString("description"), ExpenseType.valueOf(child.getString("type")), Money.ofCents(child.getLong("value_cents")))),
+                findChildren(FIND_DEPENDENTS, declarationId, amendment, (child, rowNumber) -> new Dependent(child.getLong("id"),
+                        child.getString("name"), new Cpf(child.getString("cpf")), child.getDate("birth_date").toLocalDate()))
+        ), declarationId).stream().findFirst();
+    }
+
+    private <T> void keepRemoved(String statement, Declaration declaration, List<T> children, Function<T, Long> id) {
+        // Children added since the last save have no id yet, and a null would make "not in" match nothing.
+        var heldIds = children.stream().map(id).filter(Objects::nonNull).toList();
+        var arguments = new Object[3 + heldIds.size()];
+        arguments[0] = declaration.getAmendment();
+        arguments[1] = declaration.getId();
+        arguments[2] = declaration.getAmendment();
+        for (int i = 0; i < heldIds.size(); i++) {
+            arguments[3 + i] = heldIds.get(i);
+        }
+        jdbcTemplate.update(statement.formatted(String.join(", ", Collections.nCopies(heldIds.size(), "?"))), arguments);
+    }
+
+    private <T> List<T> findChildren(String statement, Long declarationId, int amendment, RowMapper<T> mapper) {
+        return jdbcTemplate.query(statement, mapper, declarationId, amendment, declarationId, amendment, amendment);
+    }
+
+    private DeclarationAmendment mapAmendment(ResultSet rs, int rowNum) throws SQLException {
+        return new DeclarationAmendment(rs.getLong("declaration_id"), rs.getInt("amendment"), rs.getLong("version"),
+                rs.getTimestamp("delivery_date").toLocalDateTime(), rs.getTimestamp("amended_at").toLocalDateTime());
+    }
+}
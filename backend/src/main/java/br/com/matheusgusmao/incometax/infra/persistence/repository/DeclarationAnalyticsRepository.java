@@ -0,0 +1,100 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationTypeTotals;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Repository
+public class DeclarationAnalyticsRepository {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeclarationAnalyticsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void forEachDeclaration(Consumer<DeclarationTypeTotals> consumer) {
+        stream(totalsQuery(""), consumer);
+    }
+
+    public void forEachDeclaration(Collection<Long> declarationIds, Consumer<DeclarationTypeTotals> consumer) {
+        if (declarationIds.isEmpty()) {
+            return;
+        }
+        var placeholders = String.join(", ", Collections.nCopies(declarationIds.size(), "?"));
+        var ids = declarationIds.toArray();
+        var params = new Object[ids.length * 3];
+        System.arraycopy(ids, 0, params, 0, ids.length);
+        System.arraycopy(ids, 0, params, ids.length, ids.length);
+        System.arraycopy(ids, 0, params, ids.length * 2, ids.length);
+        stream(totalsQuery(" in (" + placeholders + ")"), consumer, params);
+    }
+
+    private void stream(String sql, Consumer<DeclarationTypeTotals> consumer, Object... params) {
+        var incomeTypes = IncomeType.values().length;
+        var expenseTypes = ExpenseType.values().length;
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            var incomeCents = new long[incomeTypes];
+            for (int type = 0; type < incomeTypes; type++) {
+                incomeCents[type] = rs.getLong(4 + type);
+            }
+            var deductionCents = new long[expenseTypes];
+            for (int type = 0; type < expenseTypes; type++) {
+                deductionCents[type] = rs.getLong(4 + incomeTypes + type);
+            }
+            consumer.accept(new DeclarationTypeTotals(rs.getLong(1), rs.getInt(2), DeclarationStatus.valueOf(rs.getString(3)), incomeCents, deductionCents));
+        });
+    }
+
+    // Child values are pivoted into one centavo column per enum constant, so a declaration and all
+    // its totals arrive as a single row in id order.
+    private static String totalsQuery(String idFilter) {
+        var incomeColumns = Arrays.stream(IncomeType.values())
+                .map(type -> "coalesce(i." + column(type) + ", 0)")
+                .collect(Collectors.joining(", "));
+        var expenseColumns = Arrays.stream(ExpenseType.values())
+                .map(type -> "coalesce(e." + column(type) + ", 0)")
+                .collect(Collectors.joining(", "));
+        var incomeSums = Arrays.stream(IncomeType.values())
+                .map(type -> sumOf(type) + " as " + column(type))
+                .collect(Collectors.joining(", "));
+        var expenseSums = Arrays.stream(ExpenseType.values())
+                .map(type -> sumOf(type) + " as " + column(type))
+                .collect(Collectors.joining(", "));
+        var idCondition = idFilter.isEmpty() ? "" : " where declaration_id" + idFilter;
+
+        return "select d.id, d.year, d.status, " + incomeColumns + ", " + expenseColumns
+                + " from declarations d"
+                + " left join (select declaration_id, " + incomeSums + " from incomes" + idCondition + " group by declaration_id) i on i.declaration_id = d.id"
+                + " left join (select declaration_id, " + expenseSums + " from deductible_expenses" + idCondition + " group by declaration_id) e on e.declaration_id = d.id"
+                + (idFilter.isEmpty() ? "" : " where d.id" + idFilter)
+                + " order by d.id";
+    }
+
+    private static String sumOf(Enum<?> type) {
+        return "sum(case when type = '" + type.name() + "' then cast(round(value * 100) as integer) else 0 end)";
+    }
+
+    private static String column(Enum<?> type) {
+        return "cents_" + type.name().toLowerCase();
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class DeclarationArchiveRepository {
+
+    // The newest declaration is never archived: SQLite hands out max(id) + 1 for new rows, so deleting the
+    // highest id would let a new declaration reuse the id of an archived one. Amended declarations stay
+    // too, since the archive holds one version and their replaced versions live in the database.
+    private static final String FIND_ARCHIVABLE_IDS = """
+            select id
+            from declarations
+            where status = 'DELIVERED' and amendment = 0 and year < ? and id < (select max(id) from declarations)
+            order by id
+            limit ?
+            """;
+
+    // The ids were read outside the deleting transaction, so each statement checks again that the declaration is
+    // still archivable: an amendment committed in between reopens it, and its rows, shared with the version it
+    // replaced, must stay. The declaration row goes last, after the children that check it.
+    private static final String STILL_ARCHIVABLE = "select id from declarations where id = ? and status = 'DELIVERED' and amendment = 0";
+
+    private static final List<String> DELETE_STATEMENTS = List.of(
+            "delete from incomes where declaration_id in (" + STILL_ARCHIVABLE + ")",
+            "delete from deductible_expenses where declaration_id in (" + STILL_ARCHIVABLE + ")",
+            "delete from dependents where declaration_id in (" + STILL_ARCHIVABLE + ")",
+            "delete from tax_calculations where declaration_id in (" + STILL_ARCHIVABLE + ")",
+            "delete from declarations where id in (" + STILL_ARCHIVABLE + ")"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeclarationArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Long> findArchivableIds(int beforeYear, int limit) {
+        return jdbcTemplate.queryForList(FIND_ARCHIVABLE_IDS, Long.class, beforeYear, limit);
+    }
+
+    /**
+     * Deletes the declarations that are still delivered and unamended, with their children, and returns
+     * the ids of those it deleted.
+     */
+    public List<Long> deleteAll(List<Long> declarationIds) {
+        if (declarationIds.isEmpty()) {
+            return List.of();
+        }
+        int[][] deleted = null;
+        for (var statement : DELETE_STATEMENTS) {
+            deleted = jdbcTemplate.batchUpdate(statement, declarationIds, declarationIds.size(), (ps, id) -> ps.setLong(1, id));
+        }
+        var deletedIds = new ArrayList<Long>();
+        for (int i = 0; i < declarationIds.size(); i++) {
+            if (deleted[0][i] > 0) {
+                deletedIds.add(declarationIds.get(i));
+            }
+        }
+        return deletedIds;
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import br.com.matheusgusmao.incometax.infra.persistence.repository.ChildIdSequenceRepository.ChildTable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+/**
+ * Copies a declaration and its children row for row inside the database, without loading the aggregate.
+ */
+@Repository
+public class DeclarationCopyRepository {
+
+    // A declaration kept as a document has its rows rebuilt after commit, so they may lag behind it and it is
+    // left to the aggregate copy. The version only has to grow from here.
+    private static final String COPY_DECLARATION = """
+            insert into declarations (taxpayer_id, year, status, delivery_date, version)
+            select taxpayer_id, ?, 'EDITING', null, version
+            from declarations
+            where id = ? and document is null
+            """;
+
+    // Copied rows take ids reserved from the child table sequence rather than new rowids, which could be
+    // ids a document has already given out.
+    private static final Map<ChildTable, String> COUNT_CHILDREN = Map.of(
+            ChildTable.INCOMES, "select count(*) from incomes where declaration_id = ?",
+            ChildTable.DEDUCTIBLE_EXPENSES, "select count(*) from deductible_expenses where declaration_id = ?",
+            ChildTable.DEPENDENTS, "select count(*) from dependents where declaration_id = ?"
+    );
+
+    private static final Map<ChildTable, String> COPY_CHILDREN = Map.of(
+            ChildTable.INCOMES, """
+            insert into incomes (id, declaration_id, paying_source, type, value)
+            select ? + row_number() over (order by id) - 1, ?, paying_source, type, value from incomes where declaration_id = ?
+            """,
+            ChildTable.DEDUCTIBLE_EXPENSES, """
+            insert into deductible_expenses (id, declaration_id, description, type, value)
+            select ? + row_number() over (order by id) - 1, ?, description, type, value from deductible_expenses where declaration_id = ?
+            """,
+            ChildTable.DEPENDENTS, """
+            insert into dependents (id, declaration_id, name, cpf, birth_date)
+            select ? + row_number() over (order by id) - 1, ?, name, cpf, birth_date from dependents where declaration_id = ?
+            """
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChildIdSequenceRepository childIdSequences;
+
+    public DeclarationCopyRepository(JdbcTemplate jdbcTemplate, ChildIdSequenceRepository childIdSequences) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.childIdSequences = childIdSequences;
+    }
+
+    /**
+     * Inserts an EDITING copy of the declaration for the given year with the same incomes, expenses and
+     * dependents and returns its id, or nothing if the declaration has no row or is kept as a document.
+     * Must run in a transaction.
+     */
+    public OptionalLong copyToYear(long sourceId, int year) {
+        var keyHolder = new GeneratedKeyHolder();
+        var copied = jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(COPY_DECLARATION, Statement.RETURN_GENERATED_KEYS);
+            statement.setInt(1, year);
+            statement.setLong(2, sourceId);
+            return statement;
+        }, keyHolder);
+        if (copied == 0) {
+            return OptionalLong.empty();
+        }
+
+        var copyId = Objects.requireNonNull(keyHolder.getKey()).longValue();
+        for (var table : ChildTable.values()) {
+            var count = Objects.requireNonNull(jdbcTemplate.queryForObject(COUNT_CHILDREN.get(table), Integer.class, sourceId));
+            if (count > 0) {
+                jdbcTemplate.update(COPY_CHILDREN.get(table), childIdSequences.reserve(table, count), copyId, sourceId);
+            }
+        }
+        return OptionalLong.of(copyId);
+    }
+}
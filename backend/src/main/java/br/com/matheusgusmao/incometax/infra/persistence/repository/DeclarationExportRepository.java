@@ -0,0 +1,181 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Cpf;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import br.com.matheusgusmao.incometax.infra.persistence.UuidBytes;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+
+/**
+ * Reads delivered declarations for export without going through the persistence context. A chunk opens one
+ * forward-only cursor on the declarations and one per child table, all ordered by declaration id, and
+ * assembles each aggregate by advancing the child cursors up to the current declaration. Only the
+ * declaration being assembled is held in memory.
+ */
+@Repository
+public class DeclarationExportRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String CHUNK_END = """
+            select max(id)
+            from (select id
+                  from declarations
+                  where status = 'DELIVERED' and id > ? and (? is null or year = ?)
+                  order by id
+                  limit ?)
+            """;
+
+    private static final String DECLARATIONS = """
+            select id, taxpayer_id, year, delivery_date, version
+            from declarations
+            where status = 'DELIVERED' and id > ? and id <= ? and (? is null or year = ?)
+            order by id
+            """;
+
+    private static final String INCOMES = """
+            select c.declaration_id, c.id, c.paying_source, c.type, cast(round(c.value * 100) as integer)
+            from incomes c
+            join declarations d on d.id = c.declaration_id
+            where c.declaration_id > ? and c.declaration_id <= ? and d.status = 'DELIVERED' and (? is null or d.year = ?)
+            order by c.declaration_id, c.id
+            """;
+
+    private static final String DEDUCTIBLE_EXPENSES = """
+            select c.declaration_id, c.id, c.description, c.type, cast(round(c.value * 100) as integer)
+            from deductible_expenses c
+            join declarations d on d.id = c.declaration_id
+            where c.declaration_id > ? and c.declaration_id <= ? and d.status = 'DELIVERED' and (? is null or d.year = ?)
+            order by c.declaration_id, c.id
+            """;
+
+    private static final String DEPENDENTS = """
+            select c.declaration_id, c.id, c.name, c.cpf, c.birth_date
+            from dependents c
+            join declarations d on d.id = c.declaration_id
+            where c.declaration_id > ? and c.declaration_id <= ? and d.status = 'DELIVERED' and (? is null or d.year = ?)
+            order by c.declaration_id, c.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeclarationExportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Passes the next {@code limit} delivered declarations after {@code afterId}, of the year or of all
+     * years when {@code year} is null, to the consumer in id order. Returns the last id of the chunk, or
+     * nothing once no declarations are left. Must run in a transaction so every cursor reads the same state.
+     */
+    public OptionalLong exportChunk(long afterId, Integer year, int limit, Consumer<Declaration> consumer) {
+        var chunkEnd = jdbcTemplate.queryForObject(CHUNK_END, Long.class, afterId, year, year, limit);
+        if (chunkEnd == null) {
+            return OptionalLong.empty();
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (var declarations = new Cursor(connection, DECLARATIONS, afterId, chunkEnd, year);
+                 var incomes = new Cursor(connection, INCOMES, afterId, chunkEnd, year);
+                 var expenses = new Cursor(connection, DEDUCTIBLE_EXPENSES, afterId, chunkEnd, year);
+                 var dependents = new Cursor(connection, DEPENDENTS, afterId, chunkEnd, year)) {
+                for (; declarations.hasRow(); declarations.next()) {
+                    var row = declarations.rows;
+                    var id = row.getLong(1);
+
+                    var declarationIncomes = new ArrayList<Income>();
+                    for (; incomes.at(id); incomes.next()) {
+                        var child = incomes.rows;
+                        declarationIncomes.add(Income.rehydrate(child.getLong(2), child.getString(3),
+                                IncomeType.valueOf(child.getString(4)), Money.ofCents(child.getLong(5))));
+                    }
+                    var declarationExpenses = new ArrayList<DeductibleExpense>();
+                    for (; expenses.at(id); expenses.next()) {
+                        var child = expenses.rows;
+                        declarationExpenses.add(DeductibleExpense.rehydrate(child.getLong(2), child.getString(3),
+                                ExpenseType.valueOf(child.getString(4)), Money.ofCents(child.getLong(5))));
+                    }
+                    var declarationDependents = new ArrayList<Dependent>();
+                    for (; dependents.at(id); dependents.next()) {
+                        var child = dependents.rows;
+                        declarationDependents.add(new Dependent(child.getLong(2), child.getString(3),
+                                new Cpf(child.getString(4)), child.getDate(5).toLocalDate()));
+                    }
+
+                    var deliveryDate = row.getTimestamp(4);
+                    consumer.accept(Declaration.rehydrate(id, UuidBytes.toUuid(row.getBytes(2)), row.getInt(3), DeclarationStatus.DELIVERED,
+                            deliveryDate == null ? null : deliveryDate.toLocalDateTime(), row.getLong(5),
+                            declarationIncomes, declarationExpenses, declarationDependents));
+                }
+            }
+            return null;
+        });
+        return OptionalLong.of(chunkEnd);
+    }
+
+
+    // A forward-only result set whose first column is the declaration id, positioned on its current row.
+    private static final class Cursor implements AutoCloseable {
+
+        private final PreparedStatement statement;
+        private final ResultSet rows;
+        private boolean hasRow;
+
+        private Cursor(Connection connection, String sql, long afterId, long chunkEnd, Integer year) throws SQLException {
+            this.statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            try {
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setLong(1, afterId);
+                statement.setLong(2, chunkEnd);
+                statement.setObject(3, year);
+                statement.setObject(4, year);
+                this.rows = statement.executeQuery();
+                this.hasRow = rows.next();
+            } catch (SQLException exception) {
+                statement.close();
+                throw exception;
+            }
+        }
+
+        private boolean hasRow() {
+            return hasRow;
+        }
+
+        private void next() throws SQLException {
+            hasRow = rows.next();
+        }
+
+        // Skips rows of lower declaration ids, which the declaration cursor has already passed.
+        private boolean at(long declarationId) throws SQLException {
+            while (hasRow && rows.getLong(1) < declarationId) {
+                hasRow = rows.next();
+            }
+            return hasRow && rows.getLong(1) == declarationId;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                rows.close();
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationSubmittedEvent;
+import br.com.matheusgusmao.incometax.infra.persistence.UuidBytes;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationOutboxEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+@Repository
+public class DeclarationOutboxRepository {
+
+    private static final String APPEND = """
+            insert into declaration_submission_outbox (declaration_id, taxpayer_id, year, delivery_date, status, attempts, available_at, created_at)
+            values (?, ?, ?, ?, 'PENDING', 0, ?, ?)
+            """;
+
+    // Claiming sets a lease instead of deleting, so events claimed by a dispatcher that died are claimed again once it runs out.
+    private static final String CLAIM = """
+            update declaration_submission_outbox
+            set claimed_until = ?
+            where id in (select id
+                         from declaration_submission_outbox
+                         where status = 'PENDING' and available_at <= ? and (claimed_until is null or claimed_until <= ?)
+                         order by id
+                         limit ?)
+            returning id, declaration_id, taxpayer_id, year, delivery_date, attempts
+            """;
+
+    private static final String RESCHEDULE = """
+            update declaration_submission_outbox
+            set attempts = ?, available_at = ?, claimed_until = null, last_error = ?
+            where id = ?
+            """;
+
+    private static final String MARK_DEAD = """
+            update declaration_submission_outbox
+            set status = 'DEAD', attempts = ?, claimed_until = null, last_error = ?
+            where id = ?
+            """;
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeclarationOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Queues the event for the dispatcher. Must run in the transaction that submits the declaration, so the
+     * event exists exactly when the submit committed.
+     */
+    public void append(DeclarationSubmittedEvent event, LocalDateTime now) {
+        jdbcTemplate.update(APPEND, event.declarationId(), UuidBytes.toBytes(event.taxpayerId()), event.year(),
+                Timestamp.valueOf(event.deliveryDate()), Timestamp.valueOf(now), Timestamp.valueOf(now));
+    }
+
+    public List<DeclarationOutboxEntry> claim(int limit, LocalDateTime now, LocalDateTime claimedUntil) {
+        var entries = jdbcTemplate.query(CLAIM, (rs, rowNum) -> new DeclarationOutboxEntry(
+                        rs.getLong("id"),
+                        new DeclarationSubmittedEvent(
+                                rs.getLong("declaration_id"),
+                                UuidBytes.toUuid(rs.getBytes("taxpayer_id")),
+                                rs.getInt("year"),
+                                rs.getTimestamp("delivery_date").toLocalDateTime()),
+                        rs.getInt("attempts")),
+                Timestamp.valueOf(claimedUntil), Timestamp.valueOf(now), Timestamp.valueOf(now), limit);
+        // RETURNING gives rows in no particular order.
+        return entries.stream().sorted(Comparator.comparingLong(DeclarationOutboxEntry::id)).toList();
+    }
+
+    public void delete(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        var placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        jdbcTemplate.update("delete from declaration_submission_outbox where id in (" + placeholders + ")", ids.toArray());
+    }
+
+    public void reschedule(long id, int attempts, LocalDateTime availableAt, String error) {
+        jdbcTemplate.update(RESCHEDULE, attempts, Timestamp.valueOf(availableAt), truncate(error), id);
+    }
+
+    public void markDead(long id, int attempts, String error) {
+        jdbcTemplate.update(MARK_DEAD, attempts, truncate(error), id);
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
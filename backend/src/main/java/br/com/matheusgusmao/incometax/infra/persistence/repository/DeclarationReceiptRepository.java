@@ -0,0 +1,45 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationReceipt;
+import br.com.matheusgusmao.incometax.infra.persistence.UuidBytes;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Optional;
+
+@Repository
+public class DeclarationReceiptRepository {
+
+    private static final String INSERT = """
+            insert into declaration_receipts (declaration_id, taxpayer_id, number, issued_at)
+            values (?, ?, ?, ?)
+            on conflict (declaration_id) do nothing
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeclarationReceiptRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stores the receipt unless the declaration already has one. Returns whether it was stored.
+     */
+    public boolean issue(DeclarationReceipt receipt) {
+        return jdbcTemplate.update(INSERT, receipt.declarationId(), UuidBytes.toBytes(receipt.taxpayerId()), receipt.number(),
+                Timestamp.valueOf(receipt.issuedAt())) > 0;
+    }
+
+    public Optional<DeclarationReceipt> findByDeclarationId(Long declarationId) {
+        return jdbcTemplate.query("select declaration_id, taxpayer_id, number, issued_at from declaration_receipts where declaration_id = ?",
+                        (rs, rowNum) -> new DeclarationReceipt(
+                                rs.getLong("declaration_id"),
+                                UuidBytes.toUuid(rs.getBytes("taxpayer_id")),
+                                rs.getString("number"),
+                                rs.getTimestamp("issued_at").toLocalDateTime()),
+                        declarationId)
+                .stream()
+                .findFirst();
+    }
+}
@@ -1,15 +1,30 @@
 package br.com.matheusgusmao.incometax.infra.persistence.repository;
 
 import br.com.matheusgusmao.incometax.infra.persistence.entity.declaration.DeclarationEntity;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationHistoryVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
 
 @Repository
-public interface DeclarationRepository extends JpaRepository<DeclarationEntity, Long> {
+public interface DeclarationRepository extends JpaRepository<DeclarationEntity, Long>, DeclarationVersionOperations {
     boolean existsByTaxpayerIdAndYear(UUID taxpayerId, int year);
 
     List<DeclarationEntity> findAllByTaxpayerId(UUID taxpayerId);
-}
\ No newline at end of file
+
+    @Query("select d.version from DeclarationEntity d where d.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("""
+            select new br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationHistoryVersion(
+                count(d), coalesce(sum(d.version), 0))
+            from DeclarationEntity d
+            where d.taxpayerId = :taxpayerId
+            """)
+    DeclarationHistoryVersion findHistoryVersionByTaxpayerId(@Param("taxpayerId") UUID taxpayerId);
+}
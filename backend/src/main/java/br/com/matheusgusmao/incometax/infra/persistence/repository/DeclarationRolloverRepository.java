@@ -0,0 +1,144 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import br.com.matheusgusmao.incometax.domain.model.rollover.DeclarationRolloverProgress;
+import br.com.matheusgusmao.incometax.domain.model.rollover.DeclarationRolloverStatus;
+import br.com.matheusgusmao.incometax.infra.persistence.UuidBytes;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.CreatedDeclaration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public class DeclarationRolloverRepository {
+
+    // A taxpayer counts as active when they had a declaration in one of the years before the rollover year.
+    // Both lookups are served by the primary key of app_user and the (taxpayer_id, year) unique index.
+    private static final String FIND_ACTIVE_TAXPAYERS_AFTER = """
+            select u.id
+            from app_user u
+            where u.id > ?
+              and exists (select 1 from declarations d where d.taxpayer_id = u.id and d.year >= ? and d.year < ?)
+            order by u.id
+            limit ?
+            """;
+
+    private static final String INSERT_EDITING = """
+            insert into declarations (taxpayer_id, year, status, delivery_date, version)
+            values %s
+            on conflict (taxpayer_id, year) do nothing
+            returning id, taxpayer_id
+            """;
+
+    private static final String INSERT_EDITING_ROW = "(?, ?, 'EDITING', null, 0)";
+
+    private static final String FIND_ID_BY_TAXPAYER_AND_YEAR = "select id from declarations where taxpayer_id = ? and year = ?";
+
+    private static final String JOB_COLUMNS = "id, year, status, last_taxpayer_id, created, started_at, finished_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeclarationRolloverRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<UUID> findActiveTaxpayersAfter(UUID lastTaxpayerId, int year, int lookbackYears, int limit) {
+        var after = lastTaxpayerId == null ? new byte[0] : UuidBytes.toBytes(lastTaxpayerId);
+        return jdbcTemplate.query(FIND_ACTIVE_TAXPAYERS_AFTER, (rs, rowNum) -> UuidBytes.toUuid(rs.getBytes(1)),
+                after, year - lookbackYears, year, limit);
+    }
+
+    /**
+     * Inserts an empty EDITING declaration for each taxpayer in one multi-row statement, skipping those who
+     * already have one for the year, and returns the declarations actually created.
+     */
+    public List<CreatedDeclaration> createEditing(List<UUID> taxpayerIds, int year) {
+        if (taxpayerIds.isEmpty()) {
+            return List.of();
+        }
+        var sql = INSERT_EDITING.formatted(String.join(", ", Collections.nCopies(taxpayerIds.size(), INSERT_EDITING_ROW)));
+        var params = new Object[taxpayerIds.size() * 2];
+        for (int i = 0; i < taxpayerIds.size(); i++) {
+            params[i * 2] = UuidBytes.toBytes(taxpayerIds.get(i));
+            params[i * 2 + 1] = year;
+        }
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new CreatedDeclaration(rs.getLong("id"), UuidBytes.toUuid(rs.getBytes("taxpayer_id"))),
+                params);
+    }
+
+    public Optional<Long> findIdByTaxpayerAndYear(UUID taxpayerId, int year) {
+        return jdbcTemplate.queryForList(FIND_ID_BY_TAXPAYER_AND_YEAR, Long.class, UuidBytes.toBytes(taxpayerId), year).stream().findFirst();
+    }
+
+    public Optional<DeclarationRolloverProgress> findLatestJob() {
+        return jdbcTemplate.query("select " + JOB_COLUMNS + " from declaration_rollover_jobs order by id desc limit 1", this::mapJob)
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<DeclarationRolloverProgress> findUnfinishedJob(int year) {
+        return jdbcTemplate.query("select " + JOB_COLUMNS + " from declaration_rollover_jobs where year = ? and status <> ? order by id desc limit 1",
+                        this::mapJob, year, DeclarationRolloverStatus.COMPLETED.name())
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<DeclarationRolloverProgress> findUnfinishedJob() {
+        return jdbcTemplate.query("select " + JOB_COLUMNS + " from declaration_rollover_jobs where status <> ? order by id desc limit 1",
+                        this::mapJob, DeclarationRolloverStatus.COMPLETED.name())
+                .stream()
+                .findFirst();
+    }
+
+    public DeclarationRolloverProgress createJob(int year, LocalDateTime startedAt) {
+        var keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "insert into declaration_rollover_jobs (year, status, created, started_at) values (?, ?, 0, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setInt(1, year);
+            ps.setString(2, DeclarationRolloverStatus.RUNNING.name());
+            ps.setTimestamp(3, Timestamp.valueOf(startedAt));
+            return ps;
+        }, keyHolder);
+
+        var jobId = Objects.requireNonNull(keyHolder.getKey(), "No id generated for declaration rollover job").longValue();
+        return new DeclarationRolloverProgress(jobId, year, DeclarationRolloverStatus.RUNNING, null, 0, 0, startedAt, null);
+    }
+
+    public void updateCheckpoint(long jobId, UUID lastTaxpayerId, long created) {
+        jdbcTemplate.update("update declaration_rollover_jobs set status = ?, last_taxpayer_id = ?, created = ? where id = ?",
+                DeclarationRolloverStatus.RUNNING.name(), UuidBytes.toBytes(lastTaxpayerId), created, jobId);
+    }
+
+    public void finishJob(long jobId, DeclarationRolloverStatus status, LocalDateTime finishedAt) {
+        jdbcTemplate.update("update declaration_rollover_jobs set status = ?, finished_at = ? where id = ?",
+                status.name(), Timestamp.valueOf(finishedAt), jobId);
+    }
+
+    private DeclarationRolloverProgress mapJob(ResultSet rs, int rowNum) throws SQLException {
+        var lastTaxpayerId = rs.getBytes("last_taxpayer_id");
+        var finishedAt = rs.getTimestamp("finished_at");
+        return new DeclarationRolloverProgress(
+                rs.getLong("id"),
+                rs.getInt("year"),
+                DeclarationRolloverStatus.valueOf(rs.getString("status")),
+                lastTaxpayerId == null ? null : UuidBytes.toUuid(lastTaxpayerId),
+                rs.getLong("created"),
+                0,
+                rs.getTimestamp("started_at").toLocalDateTime(),
+                finishedAt == null ? null : finishedAt.toLocalDateTime()
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import br.com.matheusgusmao.incometax.infra.persistence.entity.declaration.DeclarationEntity;
+
+public interface DeclarationVersionOperations {
+    void incrementVersion(DeclarationEntity declaration);
+}
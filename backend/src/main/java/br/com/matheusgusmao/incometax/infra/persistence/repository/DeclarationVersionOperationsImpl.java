@@ -0,0 +1,22 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import br.com.matheusgusmao.incometax.infra.persistence.entity.declaration.DeclarationEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+class DeclarationVersionOperationsImpl implements DeclarationVersionOperations {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Child collections are mapped by the child side, so adding or removing them does not dirty the
+    // declaration row; the version has to be bumped explicitly to keep ETags and conflict checks honest.
+    // The pending changes are flushed first and the bump is written right away, not at commit, so the
+    // entity already carries the new version when it is mapped back.
+    @Override
+    public void incrementVersion(DeclarationEntity declaration) {
+        entityManager.flush();
+        entityManager.lock(declaration, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import br.com.matheusgusmao.incometax.infra.persistence.projection.IdempotentResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public class IdempotencyKeyRepository {
+
+    private static final String FIND = """
+            select request_hash, status, content_type, location, etag, body, expires_at
+            from idempotency_keys
+            where owner = ? and idempotency_key = ? and expires_at > ?
+            """;
+
+    // A key whose row expired but was not purged yet can be used again, which replaces the row.
+    private static final String INSERT = """
+            insert into idempotency_keys (owner, idempotency_key, request_hash, status, content_type, location, etag, body, expires_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict (owner, idempotency_key) do update set
+                request_hash = excluded.request_hash,
+                status = excluded.status,
+                content_type = excluded.content_type,
+                location = excluded.location,
+                etag = excluded.etag,
+                body = excluded.body,
+                expires_at = excluded.expires_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<IdempotentResponse> find(String owner, String idempotencyKey, LocalDateTime now) {
+        return jdbcTemplate.query(FIND, (rs, rowNum) -> new IdempotentResponse(
+                                rs.getBytes("request_hash"),
+                                rs.getInt("status"),
+                                rs.getString("content_type"),
+                                rs.getString("location"),
+                                rs.getString("etag"),
+                                rs.getBytes("body"),
+                                rs.getTimestamp("expires_at").toLocalDateTime()),
+                        owner, idempotencyKey, Timestamp.valueOf(now))
+                .stream()
+                .findFirst();
+    }
+
+    public void save(String owner, String idempotencyKey, IdempotentResponse response) {
+        jdbcTemplate.update(INSERT, owner, idempotencyKey, response.requestHash(), response.status(), response.contentType(),
+                response.location(), response.eTag(), response.body(), Timestamp.valueOf(response.expiresAt()));
+    }
+
+    public int deleteExpired(LocalDateTime now) {
+        return jdbcTemplate.update("delete from idempotency_keys where expires_at <= ?", Timestamp.valueOf(now));
+    }
+}
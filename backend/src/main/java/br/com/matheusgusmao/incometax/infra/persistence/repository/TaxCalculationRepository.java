@@ -0,0 +1,81 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.TaxCalculationResult;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import br.com.matheusgusmao.incometax.infra.persistence.UuidBytes;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationTaxResult;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.StoredTaxCalculation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public class TaxCalculationRepository {
+
+    // A calculation made from an older version never replaces one made from a newer version.
+    static final String UPSERT_TAX_CALCULATION = """
+            insert into tax_calculations (declaration_id, declaration_version, total_income, total_deductions, calculation_base, tax_due, effective_aliquot, calculated_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict (declaration_id) do update set
+                declaration_version = excluded.declaration_version,
+                total_income = excluded.total_income,
+                total_deductions = excluded.total_deductions,
+                calculation_base = excluded.calculation_base,
+                tax_due = excluded.tax_due,
+                effective_aliquot = excluded.effective_aliquot,
+                calculated_at = excluded.calculated_at
+            where excluded.declaration_version >= tax_calculations.declaration_version
+            """;
+
+    private static final String FIND_BY_VERSION = """
+            select d.taxpayer_id, t.total_income, t.total_deductions, t.calculation_base, t.tax_due, t.effective_aliquot
+            from tax_calculations t
+            join declarations d on d.id = t.declaration_id
+            where t.declaration_id = ? and t.declaration_version = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaxCalculationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns the stored calculation of the declaration if it was made from the given version.
+     */
+    public Optional<StoredTaxCalculation> findByVersion(long declarationId, long declarationVersion) {
+        return jdbcTemplate.query(FIND_BY_VERSION, (rs, rowNum) -> new StoredTaxCalculation(
+                        UuidBytes.toUuid(rs.getBytes("taxpayer_id")),
+                        new TaxCalculationResult(
+                                Money.of(rs.getBigDecimal("total_income")),
+                                Money.of(rs.getBigDecimal("total_deductions")),
+                                Money.of(rs.getBigDecimal("calculation_base")),
+                                Money.of(rs.getBigDecimal("tax_due")),
+                                rs.getBigDecimal("effective_aliquot"))),
+                        declarationId, declarationVersion)
+                .stream()
+                .findFirst();
+    }
+
+    public void save(DeclarationTaxResult result, LocalDateTime calculatedAt) {
+        var timestamp = Timestamp.valueOf(calculatedAt);
+        jdbcTemplate.update(UPSERT_TAX_CALCULATION, ps -> bind(ps, result, timestamp));
+    }
+
+    static void bind(PreparedStatement ps, DeclarationTaxResult row, Timestamp calculatedAt) throws SQLException {
+        var result = row.result();
+        ps.setLong(1, row.declarationId());
+        ps.setLong(2, row.declarationVersion());
+        ps.setBigDecimal(3, result.totalIncome().toBigDecimal());
+        ps.setBigDecimal(4, result.totalDeductions().toBigDecimal());
+        ps.setBigDecimal(5, result.calculationBase().toBigDecimal());
+        ps.setBigDecimal(6, result.taxDue().toBigDecimal());
+        ps.setBigDecimal(7, result.effectiveAliquot());
+        ps.setTimestamp(8, calculatedAt);
+    }
+}
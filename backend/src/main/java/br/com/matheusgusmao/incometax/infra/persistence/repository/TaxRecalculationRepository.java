@@ -0,0 +1,109 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import br.com.matheusgusmao.incometax.domain.model.recalculation.TaxRecalculationProgress;
+import br.com.matheusgusmao.incometax.domain.model.recalculation.TaxRecalculationStatus;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationTaxResult;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationTotals;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Repository
+public class TaxRecalculationRepository {
+
+    // Totals are summed as integer centavos so SQLite's floating point NUMERIC storage cannot drift.
+    private static final String FIND_EDITING_TOTALS_AFTER = """
+            select d.id, d.version,
+                   coalesce((select sum(cast(round(i.value * 100) as integer)) from incomes i where i.declaration_id = d.id), 0) as income_cents,
+                   coalesce((select sum(cast(round(e.value * 100) as integer)) from deductible_expenses e where e.declaration_id = d.id), 0) as deduction_cents
+            from declarations d
+            where d.status = 'EDITING' and d.id > ?
+            order by d.id
+            limit ?
+            """;
+
+    private static final String JOB_COLUMNS = "id, status, last_declaration_id, processed, started_at, finished_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaxRecalculationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<DeclarationTotals> findEditingTotalsAfter(long lastDeclarationId, int limit) {
+        return jdbcTemplate.query(FIND_EDITING_TOTALS_AFTER, (rs, rowNum) -> new DeclarationTotals(
+                rs.getLong("id"),
+                rs.getLong("version"),
+                Money.ofCents(rs.getLong("income_cents")),
+                Money.ofCents(rs.getLong("deduction_cents"))
+        ), lastDeclarationId, limit);
+    }
+
+    public void saveResults(List<DeclarationTaxResult> results, LocalDateTime calculatedAt) {
+        var timestamp = Timestamp.valueOf(calculatedAt);
+        jdbcTemplate.batchUpdate(TaxCalculationRepository.UPSERT_TAX_CALCULATION, results, results.size(),
+                (ps, row) -> TaxCalculationRepository.bind(ps, row, timestamp));
+    }
+
+    public Optional<TaxRecalculationProgress> findLatestJob() {
+        return jdbcTemplate.query("select " + JOB_COLUMNS + " from tax_recalculation_jobs order by id desc limit 1", this::mapJob)
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<TaxRecalculationProgress> findUnfinishedJob() {
+        return jdbcTemplate.query("select " + JOB_COLUMNS + " from tax_recalculation_jobs where status <> ? order by id desc limit 1",
+                        this::mapJob, TaxRecalculationStatus.COMPLETED.name())
+                .stream()
+                .findFirst();
+    }
+
+    public TaxRecalculationProgress createJob(LocalDateTime startedAt) {
+        var keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "insert into tax_recalculation_jobs (status, last_declaration_id, processed, started_at) values (?, 0, 0, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, TaxRecalculationStatus.RUNNING.name());
+            ps.setTimestamp(2, Timestamp.valueOf(startedAt));
+            return ps;
+        }, keyHolder);
+
+        var jobId = Objects.requireNonNull(keyHolder.getKey(), "No id generated for tax recalculation job").longValue();
+        return new TaxRecalculationProgress(jobId, TaxRecalculationStatus.RUNNING, 0, 0, 0, startedAt, null);
+    }
+
+    public void updateCheckpoint(long jobId, long lastDeclarationId, long processed) {
+        jdbcTemplate.update("update tax_recalculation_jobs set status = ?, last_declaration_id = ?, processed = ? where id = ?",
+                TaxRecalculationStatus.RUNNING.name(), lastDeclarationId, processed, jobId);
+    }
+
+    public void finishJob(long jobId, TaxRecalculationStatus status, LocalDateTime finishedAt) {
+        jdbcTemplate.update("update tax_recalculation_jobs set status = ?, finished_at = ? where id = ?",
+                status.name(), Timestamp.valueOf(finishedAt), jobId);
+    }
+
+    private TaxRecalculationProgress mapJob(ResultSet rs, int rowNum) throws SQLException {
+        var finishedAt = rs.getTimestamp("finished_at");
+        return new TaxRecalculationProgress(
+                rs.getLong("id"),
+                TaxRecalculationStatus.valueOf(rs.getString("status")),
+                rs.getLong("last_declaration_id"),
+                rs.getLong("processed"),
+                0,
+                rs.getTimestamp("started_at").toLocalDateTime(),
+                finishedAt == null ? null : finishedAt.toLocalDateTime()
+        );
+    }
+}
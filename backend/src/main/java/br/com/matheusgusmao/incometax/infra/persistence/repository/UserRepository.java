@@ -1,11 +1,18 @@
 package br.com.matheusgusmao.incometax.infra.persistence.repository;
 
 import br.com.matheusgusmao.incometax.infra.persistence.entity.user.UserEntity;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.UserCredentials;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
-    Optional<UserEntity> findByEmail(String email);
-}
\ No newline at end of file
+    @Query("select u from UserEntity u where lower(u.email) = lower(:email)")
+    Optional<UserEntity> findByEmail(@Param("email") String email);
+
+    @Query("select new br.com.matheusgusmao.incometax.infra.persistence.projection.UserCredentials(u.email, u.password, u.role) from UserEntity u where lower(u.email) = lower(:email)")
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+}
@@ -0,0 +1,52 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.ChildIdSequenceRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.ChildIdSequenceRepository.ChildTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Gives the children added since the last save their ids from the child table sequences, before the
+ * declaration is encoded or recorded, so the ids the API returns are the ids of the projected rows.
+ */
+final class ChildIds {
+
+    private ChildIds() {
+    }
+
+    static Declaration assign(Declaration declaration, ChildIdSequenceRepository sequences) {
+        var incomes = assign(declaration.getIncomes(), Income::getId, ChildTable.INCOMES, sequences,
+                (id, income) -> Income.rehydrate(id, income.getPayingSource(), income.getType(), income.getValue()));
+        var expenses = assign(declaration.getDeductibleExpenses(), DeductibleExpense::getId, ChildTable.DEDUCTIBLE_EXPENSES, sequences,
+                (id, expense) -> DeductibleExpense.rehydrate(id, expense.getDescription(), expense.getType(), expense.getValue()));
+        var dependents = assign(declaration.getDependents(), Dependent::getId, ChildTable.DEPENDENTS, sequences,
+                (id, dependent) -> new Dependent(id, dependent.getName(), dependent.getCpf(), dependent.getBirthDate()));
+        if (incomes == declaration.getIncomes() && expenses == declaration.getDeductibleExpenses()
+                && dependents == declaration.getDependents()) {
+            return declaration;
+        }
+        return Declaration.rehydrate(declaration.getId(), declaration.getTaxpayerId(), declaration.getYear(), declaration.getAmendment(),
+                declaration.getStatus(), declaration.getDeliveryDate(), declaration.getVersion(), incomes, expenses, dependents);
+    }
+
+    private static <T> List<T> assign(List<T> children, Function<T, Long> id, ChildTable table, ChildIdSequenceRepository sequences,
+                                      BiFunction<Long, T, T> withId) {
+        var missing = (int) children.stream().filter(child -> id.apply(child) == null).count();
+        if (missing == 0) {
+            return children;
+        }
+        var next = sequences.reserve(table, missing);
+        var assigned = new ArrayList<T>(children.size());
+        for (var child : children) {
+            assigned.add(id.apply(child) == null ? withId.apply(next++, child) : child);
+        }
+        return assigned;
+    }
+}
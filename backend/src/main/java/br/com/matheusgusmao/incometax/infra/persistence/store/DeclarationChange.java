@@ -0,0 +1,36 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+
+import java.time.LocalDateTime;
+
+/**
+ * One step in the history of a declaration kept by {@link EventSourcedDeclarationStore}. Added children
+ * carry the id they were given; removals only name it.
+ */
+sealed interface DeclarationChange {
+
+    record IncomeAdded(Income income) implements DeclarationChange {
+    }
+
+    record IncomeRemoved(long incomeId) implements DeclarationChange {
+    }
+
+    record ExpenseAdded(DeductibleExpense expense) implements DeclarationChange {
+    }
+
+    record ExpenseRemoved(long expenseId) implements DeclarationChange {
+    }
+
+    record DependentAdded(Dependent dependent) implements DeclarationChange {
+    }
+
+    record DependentRemoved(long dependentId) implements DeclarationChange {
+    }
+
+    record StatusChanged(DeclarationStatus status, LocalDateTime deliveryDate) implements DeclarationChange {
+    }
+}
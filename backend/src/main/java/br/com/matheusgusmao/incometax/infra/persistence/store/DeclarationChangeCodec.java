@@ -0,0 +1,128 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Cpf;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary layout of the changes recorded for one version of a declaration in {@code declaration_events}.
+ * Each change is a tag byte followed by its fields, so removing a child costs nine bytes.
+ */
+final class DeclarationChangeCodec {
+
+    private static final byte FORMAT = 1;
+
+    private static final byte INCOME_ADDED = 1;
+    private static final byte INCOME_REMOVED = 2;
+    private static final byte EXPENSE_ADDED = 3;
+    private static final byte EXPENSE_REMOVED = 4;
+    private static final byte DEPENDENT_ADDED = 5;
+    private static final byte DEPENDENT_REMOVED = 6;
+    private static final byte STATUS_CHANGED = 7;
+
+    private DeclarationChangeCodec() {
+    }
+
+    static byte[] encode(List<DeclarationChange> changes) {
+        var bytes = new ByteArrayOutputStream(32 * changes.size() + 8);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeInt(changes.size());
+            for (var change : changes) {
+                switch (change) {
+                    case DeclarationChange.IncomeAdded(var income) -> {
+                        out.writeByte(INCOME_ADDED);
+                        out.writeLong(income.getId());
+                        out.writeUTF(income.getPayingSource());
+                        out.writeUTF(income.getType().name());
+                        out.writeLong(income.getValue().cents());
+                    }
+                    case DeclarationChange.IncomeRemoved(var incomeId) -> {
+                        out.writeByte(INCOME_REMOVED);
+                        out.writeLong(incomeId);
+                    }
+                    case DeclarationChange.ExpenseAdded(var expense) -> {
+                        out.writeByte(EXPENSE_ADDED);
+                        out.writeLong(expense.getId());
+                        out.writeUTF(expense.getDescription());
+                        out.writeUTF(expense.getType().name());
+                        out.writeLong(expense.getValue().cents());
+                    }
+                    case DeclarationChange.ExpenseRemoved(var expenseId) -> {
+                        out.writeByte(EXPENSE_REMOVED);
+                        out.writeLong(expenseId);
+                    }
+                    case DeclarationChange.DependentAdded(var dependent) -> {
+                        out.writeByte(DEPENDENT_ADDED);
+                        out.writeLong(dependent.getId());
+                        out.writeUTF(dependent.getName());
+                        out.writeUTF(dependent.getCpf().getValue());
+                        out.writeLong(dependent.getBirthDate().toEpochDay());
+                    }
+                    case DeclarationChange.DependentRemoved(var dependentId) -> {
+                        out.writeByte(DEPENDENT_REMOVED);
+                        out.writeLong(dependentId);
+                    }
+                    case DeclarationChange.StatusChanged(var status, var deliveryDate) -> {
+                        out.writeByte(STATUS_CHANGED);
+                        out.writeUTF(status.name());
+                        out.writeUTF(deliveryDate == null ? "" : deliveryDate.toString());
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<DeclarationChange> decode(byte[] encoded) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            var format = in.readByte();
+            if (format != FORMAT) {
+                throw new IllegalStateException("Unsupported declaration change format: " + format);
+            }
+            var count = in.readInt();
+            var changes = new ArrayList<DeclarationChange>(count);
+            for (int i = 0; i < count; i++) {
+                var tag = in.readByte();
+                changes.add(switch (tag) {
+                    case INCOME_ADDED -> new DeclarationChange.IncomeAdded(
+                            Income.rehydrate(in.readLong(), in.readUTF(), IncomeType.valueOf(in.readUTF()), Money.ofCents(in.readLong())));
+                    case INCOME_REMOVED -> new DeclarationChange.IncomeRemoved(in.readLong());
+                    case EXPENSE_ADDED -> new DeclarationChange.ExpenseAdded(
+                            DeductibleExpense.rehydrate(in.readLong(), in.readUTF(), ExpenseType.valueOf(in.readUTF()), Money.ofCents(in.readLong())));
+                    case EXPENSE_REMOVED -> new DeclarationChange.ExpenseRemoved(in.readLong());
+                    case DEPENDENT_ADDED -> new DeclarationChange.DependentAdded(
+                            new Dependent(in.readLong(), in.readUTF(), new Cpf(in.readUTF()), LocalDate.ofEpochDay(in.readLong())));
+                    case DEPENDENT_REMOVED -> new DeclarationChange.DependentRemoved(in.readLong());
+                    case STATUS_CHANGED -> {
+                        var status = DeclarationStatus.valueOf(in.readUTF());
+                        var deliveryDate = in.readUTF();
+                        yield new DeclarationChange.StatusChanged(status, deliveryDate.isEmpty() ? null : LocalDateTime.parse(deliveryDate));
+                    }
+                    default -> throw new IllegalStateException("Unknown declaration change: " + tag);
+                });
+            }
+            return changes;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of declaration writes that have been acknowledged but not yet flushed to the database.
+ * Each record is a full document, so replay only needs the newest record per declaration. Records are
+ * framed with a length and a CRC32; a torn record at the end of a segment marks where a crash cut it off.
+ */
+@Slf4j
+final class DeclarationChangeLog implements AutoCloseable {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("changes-(\\d+)\\.log");
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long segment;
+    private FileChannel channel;
+
+    DeclarationChangeLog(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        this.segment = segments().stream().mapToLong(Long::longValue).max().orElse(0) + 1;
+    }
+
+    /**
+     * Returns only after the record has reached the disk.
+     */
+    void append(DocumentWrite write) {
+        var payload = encode(write);
+        var crc = new CRC32();
+        crc.update(payload);
+        var record = ByteBuffer.allocate(HEADER_BYTES + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+
+        lock.lock();
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(path(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            channel.force(false);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Seals the current segment and returns the number of the next one. Every record appended before the
+     * call lives in a segment numbered below the returned value.
+     */
+    long rotate() {
+        lock.lock();
+        try {
+            closeChannel();
+            return ++segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void deleteBefore(long boundary) {
+        for (var sealed : segments()) {
+            if (sealed < boundary) {
+                try {
+                    Files.deleteIfExists(path(sealed));
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads every segment on disk and returns the newest write recorded for each declaration, based on the
+     * oldest version any of its writes expected.
+     */
+    List<DocumentWrite> readLatest() {
+        var latest = new HashMap<Long, DocumentWrite>();
+        for (var sealed : segments()) {
+            read(path(sealed), write -> latest.merge(write.declarationId(), write, DeclarationChangeLog::newestOf));
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private static DocumentWrite newestOf(DocumentWrite current, DocumentWrite candidate) {
+        var newest = candidate.version() > current.version() ? candidate : current;
+        var expectedVersion = Math.min(current.expectedVersion(), candidate.expectedVersion());
+        return new DocumentWrite(newest.declarationId(), newest.status(), newest.deliveryDate(),
+                expectedVersion, newest.version(), newest.document());
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closeChannel();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void read(Path file, Consumer<DocumentWrite> consumer) {
+        try (var in = new DataInputStream(Files.newInputStream(file))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException endOfSegment) {
+                    return;
+                }
+                if (length < 0 || length > MAX_RECORD_BYTES) {
+                    log.warn("Ignoring torn record at the end of declaration change log {}", file.getFileName());
+                    return;
+                }
+                var expectedCrc = in.readInt();
+                var payload = in.readNBytes(length);
+                var crc = new CRC32();
+                crc.update(payload);
+                if (payload.length < length || (int) crc.getValue() != expectedCrc) {
+                    log.warn("Ignoring torn record at the end of declaration change log {}", file.getFileName());
+                    return;
+                }
+                consumer.accept(decode(payload));
+            }
+        } catch (EOFException tornHeader) {
+            log.warn("Ignoring torn record at the end of declaration change log {}", file.getFileName());
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private List<Long> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private Path path(long number) {
+        return directory.resolve("changes-%020d.log".formatted(number));
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            channel = null;
+        }
+    }
+
+    private static byte[] encode(DocumentWrite write) {
+        var bytes = new ByteArrayOutputStream(write.document().length + 64);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeLong(write.declarationId());
+            out.writeUTF(write.status().name());
+            out.writeUTF(write.deliveryDate() == null ? "" : write.deliveryDate().toString());
+            out.writeLong(write.expectedVersion());
+            out.writeLong(write.version());
+            out.writeInt(write.document().length);
+            out.write(write.document());
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DocumentWrite decode(byte[] payload) throws IOException {
+        try (var in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            var declarationId = in.readLong();
+            var status = DeclarationStatus.valueOf(in.readUTF());
+            var deliveryDate = in.readUTF();
+            var expectedVersion = in.readLong();
+            var version = in.readLong();
+            var document = in.readNBytes(in.readInt());
+            return new DocumentWrite(declarationId, status, deliveryDate.isEmpty() ? null : LocalDateTime.parse(deliveryDate),
+                    expectedVersion, version, document);
+        }
+    }
+}
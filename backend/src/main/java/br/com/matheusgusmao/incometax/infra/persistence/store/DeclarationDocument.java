@@ -0,0 +1,11 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+
+import java.util.ArrayList;
+
+public record DeclarationDocument(long version, ArrayList<Income> incomes, ArrayList<DeductibleExpense> deductibleExpenses,
+                           ArrayList<Dependent> dependents) {
+}
@@ -0,0 +1,105 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Cpf;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Objects;
+
+/**
+ * Binary layout of a declaration's incomes, expenses and dependents, stored in {@code declarations.document}.
+ * The document records the row version it was written with, so a row saved afterwards by the relational
+ * mode is recognised as newer than its document.
+ */
+public final class DeclarationDocumentCodec {
+
+    private static final byte FORMAT = 1;
+
+    private DeclarationDocumentCodec() {
+    }
+
+    public static byte[] encode(Declaration declaration, long version) {
+        var bytes = new ByteArrayOutputStream(256);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeLong(version);
+
+            out.writeInt(declaration.getIncomes().size());
+            for (var income : declaration.getIncomes()) {
+                out.writeLong(idOf(income.getId()));
+                out.writeUTF(income.getPayingSource());
+                out.writeUTF(income.getType().name());
+                out.writeLong(income.getValue().cents());
+            }
+
+            out.writeInt(declaration.getDeductibleExpenses().size());
+            for (var expense : declaration.getDeductibleExpenses()) {
+                out.writeLong(idOf(expense.getId()));
+                out.writeUTF(expense.getDescription());
+                out.writeUTF(expense.getType().name());
+                out.writeLong(expense.getValue().cents());
+            }
+
+            out.writeInt(declaration.getDependents().size());
+            for (var dependent : declaration.getDependents()) {
+                out.writeLong(idOf(dependent.getId()));
+                out.writeUTF(dependent.getName());
+                out.writeUTF(dependent.getCpf().getValue());
+                out.writeLong(dependent.getBirthDate().toEpochDay());
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static DeclarationDocument decode(byte[] document) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(document))) {
+            var format = in.readByte();
+            if (format != FORMAT) {
+                throw new IllegalStateException("Unsupported declaration document format: " + format);
+            }
+            var version = in.readLong();
+
+            var incomeCount = in.readInt();
+            var incomes = new ArrayList<Income>(incomeCount);
+            for (int i = 0; i < incomeCount; i++) {
+                incomes.add(Income.rehydrate(in.readLong(), in.readUTF(), IncomeType.valueOf(in.readUTF()), Money.ofCents(in.readLong())));
+            }
+
+            var expenseCount = in.readInt();
+            var expenses = new ArrayList<DeductibleExpense>(expenseCount);
+            for (int i = 0; i < expenseCount; i++) {
+                expenses.add(DeductibleExpense.rehydrate(in.readLong(), in.readUTF(), ExpenseType.valueOf(in.readUTF()), Money.ofCents(in.readLong())));
+            }
+
+            var dependentCount = in.readInt();
+            var dependents = new ArrayList<Dependent>(dependentCount);
+            for (int i = 0; i < dependentCount; i++) {
+                dependents.add(new Dependent(in.readLong(), in.readUTF(), new Cpf(in.readUTF()), LocalDate.ofEpochDay(in.readLong())));
+            }
+
+            return new DeclarationDocument(version, incomes, expenses, dependents);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    // Children are given their ids from the child table sequences before they are encoded.
+    private static long idOf(Long id) {
+        return Objects.requireNonNull(id, "Children must have an id before they are encoded.");
+    }
+}
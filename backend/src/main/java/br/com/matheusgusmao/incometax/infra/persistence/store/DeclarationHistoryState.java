@@ -0,0 +1,147 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * A declaration as rebuilt from a snapshot and the changes recorded after it. Children carry the ids of
+ * their rows in the child tables, which are never reused, so a removal recorded in the history names exactly
+ * one child. {@code lastChildId} is the highest of them the history has seen.
+ */
+@Getter
+final class DeclarationHistoryState {
+
+    private final long snapshotVersion;
+    private long version;
+    private DeclarationStatus status;
+    private LocalDateTime deliveryDate;
+    private long lastChildId;
+    private final ArrayList<Income> incomes;
+    private final ArrayList<DeductibleExpense> deductibleExpenses;
+    private final ArrayList<Dependent> dependents;
+
+    DeclarationHistoryState(long snapshotVersion, DeclarationStatus status, LocalDateTime deliveryDate, long lastChildId,
+                            DeclarationDocument document) {
+        this.snapshotVersion = snapshotVersion;
+        this.version = snapshotVersion;
+        this.status = status;
+        this.deliveryDate = deliveryDate;
+        this.lastChildId = lastChildId;
+        this.incomes = document.incomes();
+        this.deductibleExpenses = document.deductibleExpenses();
+        this.dependents = document.dependents();
+    }
+
+    static DeclarationHistoryState empty(DeclarationStatus status, LocalDateTime deliveryDate) {
+        return new DeclarationHistoryState(0L, status, deliveryDate, 0L,
+                new DeclarationDocument(0L, new ArrayList<>(), new ArrayList<>(), new ArrayList<>()));
+    }
+
+    /**
+     * Starts a history from a saved declaration, whose children all have ids.
+     */
+    static DeclarationHistoryState of(Declaration declaration, long version) {
+        var document = new DeclarationDocument(version, new ArrayList<>(declaration.getIncomes()),
+                new ArrayList<>(declaration.getDeductibleExpenses()), new ArrayList<>(declaration.getDependents()));
+        var lastChildId = 0L;
+        for (var income : document.incomes()) {
+            lastChildId = Math.max(lastChildId, Objects.requireNonNull(income.getId()));
+        }
+        for (var expense : document.deductibleExpenses()) {
+            lastChildId = Math.max(lastChildId, Objects.requireNonNull(expense.getId()));
+        }
+        for (var dependent : document.dependents()) {
+            lastChildId = Math.max(lastChildId, Objects.requireNonNull(dependent.getId()));
+        }
+        return new DeclarationHistoryState(version, declaration.getStatus(), declaration.getDeliveryDate(), lastChildId, document);
+    }
+
+    /**
+     * Lists what turns this state into the given declaration, whose children must all have ids: children
+     * the state does not hold were added, children no longer present were removed. The state itself is left
+     * as it is.
+     */
+    List<DeclarationChange> changesTo(Declaration declaration) {
+        var changes = new ArrayList<DeclarationChange>();
+
+        for (var income : missingFrom(declaration.getIncomes(), incomes, Income::getId)) {
+            changes.add(new DeclarationChange.IncomeRemoved(income.getId()));
+        }
+        for (var expense : missingFrom(declaration.getDeductibleExpenses(), deductibleExpenses, DeductibleExpense::getId)) {
+            changes.add(new DeclarationChange.ExpenseRemoved(expense.getId()));
+        }
+        for (var dependent : missingFrom(declaration.getDependents(), dependents, Dependent::getId)) {
+            changes.add(new DeclarationChange.DependentRemoved(dependent.getId()));
+        }
+
+        for (var income : missingFrom(incomes, declaration.getIncomes(), Income::getId)) {
+            changes.add(new DeclarationChange.IncomeAdded(income));
+        }
+        for (var expense : missingFrom(deductibleExpenses, declaration.getDeductibleExpenses(), DeductibleExpense::getId)) {
+            changes.add(new DeclarationChange.ExpenseAdded(expense));
+        }
+        for (var dependent : missingFrom(dependents, declaration.getDependents(), Dependent::getId)) {
+            changes.add(new DeclarationChange.DependentAdded(dependent));
+        }
+
+        if (declaration.getStatus() != status || !Objects.equals(declaration.getDeliveryDate(), deliveryDate)) {
+            changes.add(new DeclarationChange.StatusChanged(declaration.getStatus(), declaration.getDeliveryDate()));
+        }
+        return changes;
+    }
+
+    void apply(long changedVersion, List<DeclarationChange> changes) {
+        for (var change : changes) {
+            switch (change) {
+                case DeclarationChange.IncomeAdded(var income) -> {
+                    incomes.add(income);
+                    lastChildId = Math.max(lastChildId, income.getId());
+                }
+                case DeclarationChange.IncomeRemoved(var incomeId) -> incomes.removeIf(income -> income.getId() == incomeId);
+                case DeclarationChange.ExpenseAdded(var expense) -> {
+                    deductibleExpenses.add(expense);
+                    lastChildId = Math.max(lastChildId, expense.getId());
+                }
+                case DeclarationChange.ExpenseRemoved(var expenseId) -> deductibleExpenses.removeIf(expense -> expense.getId() == expenseId);
+                case DeclarationChange.DependentAdded(var dependent) -> {
+                    dependents.add(dependent);
+                    lastChildId = Math.max(lastChildId, dependent.getId());
+                }
+                case DeclarationChange.DependentRemoved(var dependentId) -> dependents.removeIf(dependent -> dependent.getId() == dependentId);
+                case DeclarationChange.StatusChanged(var changedStatus, var changedDeliveryDate) -> {
+                    status = changedStatus;
+                    deliveryDate = changedDeliveryDate;
+                }
+            }
+        }
+        version = changedVersion;
+    }
+
+    Declaration toDeclaration(Long id, UUID taxpayerId, int year) {
+        return Declaration.rehydrate(id, taxpayerId, year, status, deliveryDate, version,
+                new ArrayList<>(incomes), new ArrayList<>(deductibleExpenses), new ArrayList<>(dependents));
+    }
+
+    // The children of candidates whose id none of the reference children has.
+    private static <T> List<T> missingFrom(List<T> reference, List<T> candidates, Function<T, Long> id) {
+        var ids = new HashSet<Long>();
+        for (var child : reference) {
+            ids.add(Objects.requireNonNull(id.apply(child), "Children must have ids before their changes are listed."));
+        }
+        return candidates.stream()
+                .filter(child -> !ids.contains(Objects.requireNonNull(id.apply(child), "Children must have ids before their changes are listed.")))
+                .toList();
+    }
+}
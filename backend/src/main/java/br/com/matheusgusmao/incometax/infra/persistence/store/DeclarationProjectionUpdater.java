@@ -0,0 +1,117 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationChangedEvent;
+import br.com.matheusgusmao.incometax.domain.event.DeclarationProjectedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Rebuilds the incomes, deductible_expenses and dependents rows of a declaration from its document once
+ * the write has committed, so reporting queries keep working in document mode. Rows keep the ids the
+ * document gave the children. Changes that arrive while a declaration is still queued are folded into
+ * the pending rebuild.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.declaration.storage", havingValue = "document")
+public class DeclarationProjectionUpdater {
+
+    private static final String FIND_DOCUMENT = "select version, document from declarations where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Set<Long> pendingDeclarationIds = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    public DeclarationProjectionUpdater(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                        ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeclarationChanged(DeclarationChangedEvent event) {
+        if (pendingDeclarationIds.add(event.declarationId())) {
+            executor.execute(() -> project(event.declarationId()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void project(Long declarationId) {
+        pendingDeclarationIds.remove(declarationId);
+        try {
+            var projected = Boolean.TRUE.equals(transactionTemplate.execute(status -> rebuild(declarationId)));
+            if (projected) {
+                eventPublisher.publishEvent(new DeclarationProjectedEvent(declarationId));
+            }
+        } catch (RuntimeException exception) {
+            log.error("Failed to project declaration {} into its child tables", declarationId, exception);
+        }
+    }
+
+    private boolean rebuild(Long declarationId) {
+        var rows = jdbcTemplate.query(FIND_DOCUMENT, (rs, rowNum) -> {
+            var document = rs.getBytes("document");
+            if (document == null) {
+                return null;
+            }
+            var decoded = DeclarationDocumentCodec.decode(document);
+            return decoded.version() == rs.getLong("version") ? decoded : null;
+        }, declarationId);
+        // Without a current document the child tables are still the source of truth.
+        if (rows.isEmpty() || rows.getFirst() == null) {
+            return false;
+        }
+        var document = rows.getFirst();
+
+        jdbcTemplate.update("delete from incomes where declaration_id = ?", declarationId);
+        jdbcTemplate.update("delete from deductible_expenses where declaration_id = ?", declarationId);
+        jdbcTemplate.update("delete from dependents where declaration_id = ?", declarationId);
+
+        jdbcTemplate.batchUpdate("insert into incomes (id, declaration_id, paying_source, type, value) values (?, ?, ?, ?, ?)",
+                document.incomes(), document.incomes().size(), (statement, income) -> {
+                    statement.setLong(1, income.getId());
+                    statement.setLong(2, declarationId);
+                    statement.setString(3, income.getPayingSource());
+                    statement.setString(4, income.getType().name());
+                    statement.setBigDecimal(5, income.getValue().toBigDecimal());
+                });
+        jdbcTemplate.batchUpdate("insert into deductible_expenses (id, declaration_id, description, type, value) values (?, ?, ?, ?, ?)",
+                document.deductibleExpenses(), document.deductibleExpenses().size(), (statement, expense) -> {
+                    statement.setLong(1, expense.getId());
+                    statement.setLong(2, declarationId);
+                    statement.setString(3, expense.getDescription());
+                    statement.setString(4, expense.getType().name());
+                    statement.setBigDecimal(5, expense.getValue().toBigDecimal());
+                });
+        jdbcTemplate.batchUpdate("insert into dependents (id, declaration_id, name, cpf, birth_date) values (?, ?, ?, ?, ?)",
+                document.dependents(), document.dependents().size(), (statement, dependent) -> {
+                    statement.setLong(1, dependent.getId());
+                    statement.setLong(2, declarationId);
+                    statement.setString(3, dependent.getName());
+                    statement.setString(4, dependent.getCpf().getValue());
+                    statement.setDate(5, Date.valueOf(dependent.getBirthDate()));
+                });
+        // A recalculation that read the rows before this rebuild stamped its totals with the new version.
+        jdbcTemplate.update("delete from tax_calculations where declaration_id = ?", declarationId);
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Loads and saves whole declaration aggregates. Header-only lookups (existence, history) stay on
+ * {@link br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRepository}, since the
+ * declarations row looks the same in every storage mode.
+ */
+public interface DeclarationStore {
+
+    Optional<Declaration> findById(Long declarationId);
+
+    Optional<Long> findVersion(Long declarationId);
+
+    /**
+     * Returns the declaration as it stood at the given time, or nothing if it had no recorded state yet.
+     * Only the events storage mode keeps the history this needs.
+     */
+    default Optional<Declaration> findAsOf(Long declarationId, LocalDateTime asOf) {
+        throw new IllegalStateException("Reading a declaration as of a past time needs application.declaration.storage=events.");
+    }
+
+    /**
+     * Returns the delivered version of the declaration that its given amendment replaced, or nothing if
+     * none did. Declarations are only amended in the relational and events storage modes.
+     */
+    default Optional<Declaration> findReplaced(Long declarationId, int amendment) {
+        return Optional.empty();
+    }
+
+    Declaration create(Declaration declaration);
+
+    /**
+     * Saves a declaration whose incomes, expenses or dependents changed, bumping its version.
+     * Fails with an optimistic locking exception if the version moved since it was loaded.
+     */
+    Declaration update(Declaration declaration);
+
+    /**
+     * Saves a change to the declaration's own columns (status and delivery date).
+     */
+    void updateStatus(Declaration declaration);
+
+    /**
+     * Saves the start of an amendment of the delivered declaration, keeping the delivered version it
+     * replaces, and bumps the declaration's version.
+     */
+    default Declaration amend(Declaration delivered, Declaration amendment) {
+        throw new IllegalStateException("Amending a declaration needs application.declaration.storage=relational or events.");
+    }
+}
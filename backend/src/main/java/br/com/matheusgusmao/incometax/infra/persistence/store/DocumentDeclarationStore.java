@@ -0,0 +1,193 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.infra.persistence.UuidBytes;
+import br.com.matheusgusmao.incometax.infra.persistence.mapper.DeclarationMapper;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.ChildIdSequenceRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationAmendmentRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Keeps each declaration's children as a single document column, so loading or saving the aggregate
+ * touches one row. The child tables are rebuilt from the document after commit by
+ * {@link DeclarationProjectionUpdater} and are only read here for declarations that have no current
+ * document yet.
+ */
+@Component
+@ConditionalOnProperty(name = "application.declaration.storage", havingValue = "document")
+public class DocumentDeclarationStore implements DeclarationStore {
+
+    private static final String FIND_BY_ID = """
+            select taxpayer_id, year, status, delivery_date, version, document
+            from declarations
+            where id = ?
+            """;
+
+    private static final String INSERT = """
+            insert into declarations (taxpayer_id, year, status, delivery_date, version, document)
+            values (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE = """
+            update declarations
+            set status = ?, delivery_date = ?, version = ?, document = ?
+            where id = ? and version = ?
+            """;
+
+    private static final String RESTORE = """
+            update declarations
+            set status = ?, delivery_date = ?, version = ?, document = ?
+            where id = ? and version >= ? and version < ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RelationalDeclarationStore relationalStore;
+    private final ChildIdSequenceRepository childIdSequences;
+
+    public DocumentDeclarationStore(JdbcTemplate jdbcTemplate, DeclarationRepository declarationRepository, DeclarationMapper declarationMapper,
+                                    DeclarationAmendmentRepository amendmentRepository, ChildIdSequenceRepository childIdSequences) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.childIdSequences = childIdSequences;
+        this.relationalStore = new RelationalDeclarationStore(declarationRepository, declarationMapper, amendmentRepository);
+    }
+
+    @Override
+    public Optional<Declaration> findById(Long declarationId) {
+        var rows = jdbcTemplate.query(FIND_BY_ID, (rs, rowNum) -> {
+            var version = rs.getLong("version");
+            var document = rs.getBytes("document");
+            if (document == null) {
+                return null;
+            }
+            var decoded = DeclarationDocumentCodec.decode(document);
+            if (decoded.version() != version) {
+                return null;
+            }
+            var deliveryDate = rs.getTimestamp("delivery_date");
+            return Declaration.rehydrate(
+                    declarationId,
+                    UuidBytes.toUuid(rs.getBytes("taxpayer_id")),
+                    rs.getInt("year"),
+                    DeclarationStatus.valueOf(rs.getString("status")),
+                    deliveryDate == null ? null : deliveryDate.toLocalDateTime(),
+                    version,
+                    decoded.incomes(),
+                    decoded.deductibleExpenses(),
+                    decoded.dependents());
+        }, declarationId);
+
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        var declaration = rows.getFirst();
+        return declaration != null ? Optional.of(declaration) : relationalStore.findById(declarationId);
+    }
+
+    @Override
+    public Optional<Long> findVersion(Long declarationId) {
+        return relationalStore.findVersion(declarationId);
+    }
+
+    @Override
+    public Declaration create(Declaration declaration) {
+        var created = assignChildIds(declaration);
+        var document = DeclarationDocumentCodec.encode(created, 0L);
+        var keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS);
+            statement.setBytes(1, UuidBytes.toBytes(created.getTaxpayerId()));
+            statement.setInt(2, created.getYear());
+            statement.setString(3, created.getStatus().name());
+            statement.setTimestamp(4, toTimestamp(created.getDeliveryDate()));
+            statement.setLong(5, 0L);
+            statement.setBytes(6, document);
+            return statement;
+        }, keyHolder);
+
+        var id = Objects.requireNonNull(keyHolder.getKey()).longValue();
+        return rehydrate(id, created, 0L, document);
+    }
+
+    @Override
+    public Declaration update(Declaration declaration) {
+        declaration = assignChildIds(declaration);
+        var version = declaration.getVersion() + 1;
+        var document = DeclarationDocumentCodec.encode(declaration, version);
+        writeOrFail(toWrite(declaration, version, document));
+        return rehydrate(declaration.getId(), declaration, version, document);
+    }
+
+    @Override
+    public void updateStatus(Declaration declaration) {
+        declaration = assignChildIds(declaration);
+        var version = declaration.getVersion() + 1;
+        writeOrFail(toWrite(declaration, version, DeclarationDocumentCodec.encode(declaration, version)));
+    }
+
+    Declaration assignChildIds(Declaration declaration) {
+        return ChildIds.assign(declaration, childIdSequences);
+    }
+
+    void writeOrFail(DocumentWrite write) {
+        if (jdbcTemplate.update(UPDATE, parameters(write)) == 0) {
+            throw new OptimisticLockingFailureException("Declaration " + write.declarationId() + " was modified concurrently.");
+        }
+    }
+
+    int[] writeAll(List<DocumentWrite> writes) {
+        return jdbcTemplate.batchUpdate(UPDATE, writes.stream().map(DocumentDeclarationStore::parameters).toList());
+    }
+
+    // Only moves a row forward from the version the write was based on, so replaying a change that was
+    // already flushed is a no-op and a row changed by someone else is left alone.
+    int[] restoreAll(List<DocumentWrite> writes) {
+        return jdbcTemplate.batchUpdate(RESTORE, writes.stream()
+                .map(write -> {
+                    var parameters = Arrays.copyOf(parameters(write), 7);
+                    parameters[6] = write.version();
+                    return parameters;
+                })
+                .toList());
+    }
+
+    static DocumentWrite toWrite(Declaration declaration, long version, byte[] document) {
+        return new DocumentWrite(declaration.getId(), declaration.getStatus(), declaration.getDeliveryDate(),
+                declaration.getVersion(), version, document);
+    }
+
+    private static Object[] parameters(DocumentWrite write) {
+        return new Object[]{
+                write.status().name(),
+                toTimestamp(write.deliveryDate()),
+                write.version(),
+                write.document(),
+                write.declarationId(),
+                write.expectedVersion()
+        };
+    }
+
+    // Decoding the written document hands back children carrying the ids assigned on encode.
+    static Declaration rehydrate(Long id, Declaration declaration, long version, byte[] document) {
+        var decoded = DeclarationDocumentCodec.decode(document);
+        return Declaration.rehydrate(id, declaration.getTaxpayerId(), declaration.getYear(), declaration.getStatus(),
+                declaration.getDeliveryDate(), version, decoded.incomes(), decoded.deductibleExpenses(), decoded.dependents());
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+}
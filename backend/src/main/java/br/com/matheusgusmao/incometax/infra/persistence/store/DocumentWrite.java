@@ -0,0 +1,9 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+
+import java.time.LocalDateTime;
+
+record DocumentWrite(long declarationId, DeclarationStatus status, LocalDateTime deliveryDate,
+                     long expectedVersion, long version, byte[] document) {
+}
@@ -0,0 +1,293 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.infra.persistence.UuidBytes;
+import br.com.matheusgusmao.incometax.infra.persistence.mapper.DeclarationMapper;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.ChildIdSequenceRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationAmendmentRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps each declaration's children as its history: every save appends the changes it made as one
+ * compact row of {@code declaration_events}, and every {@code application.declaration.history.snapshotInterval}
+ * versions the whole state is written to {@code declaration_snapshots}. A load decodes the newest snapshot
+ * and replays the few changes after it, and {@link #findAsOf} does the same up to a point in time. The child
+ * tables are kept in step in the same transaction for reporting queries; added children take their ids from
+ * the child table sequences, so the history and the rows agree on them. Declarations written outside this
+ * mode are read from the child tables until their first save here, which starts their history. A delivered
+ * version replaced by an amendment is read back by replaying up to the version it was delivered at.
+ */
+@Component
+@ConditionalOnProperty(name = "application.declaration.storage", havingValue = "events")
+public class EventSourcedDeclarationStore implements DeclarationStore {
+
+    private static final String FIND_HEADER = "select taxpayer_id, year, amendment, status, delivery_date, version from declarations where id = ?";
+
+    private static final String INSERT_HEADER = """
+            insert into declarations (taxpayer_id, year, status, delivery_date, version)
+            values (?, ?, ?, ?, 0)
+            """;
+
+    private static final String UPDATE_HEADER = """
+            update declarations
+            set amendment = ?, status = ?, delivery_date = ?, version = ?
+            where id = ? and version = ?
+            """;
+
+    private static final String FIND_SNAPSHOT = """
+            select version, taxpayer_id, year, status, delivery_date, last_child_id, document
+            from declaration_snapshots
+            where declaration_id = ? and version <= ?
+            order by version desc
+            limit 1
+            """;
+
+    private static final String FIND_CHANGES = """
+            select version, changes
+            from declaration_events
+            where declaration_id = ? and version > ? and version <= ?
+            order by version
+            """;
+
+    private static final String FIND_VERSION_AS_OF = """
+            select max(version)
+            from (select version from declaration_events where declaration_id = ? and recorded_at <= ?
+                  union all
+                  select version from declaration_snapshots where declaration_id = ? and recorded_at <= ?)
+            """;
+
+    private static final String INSERT_CHANGES = "insert into declaration_events (declaration_id, version, changes, recorded_at) values (?, ?, ?, ?)";
+
+    private static final String INSERT_SNAPSHOT = """
+            insert into declaration_snapshots (declaration_id, version, taxpayer_id, year, status, delivery_date, last_child_id, document, recorded_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict (declaration_id, version) do nothing
+            """;
+
+    private static final String INSERT_INCOME = "insert into incomes (id, declaration_id, paying_source, type, value) values (?, ?, ?, ?, ?)";
+    private static final String DELETE_INCOME = "delete from incomes where id = ? and declaration_id = ?";
+    private static final String INSERT_EXPENSE = "insert into deductible_expenses (id, declaration_id, description, type, value) values (?, ?, ?, ?, ?)";
+    private static final String DELETE_EXPENSE = "delete from deductible_expenses where id = ? and declaration_id = ?";
+    private static final String INSERT_DEPENDENT = "insert into dependents (id, declaration_id, name, cpf, birth_date) values (?, ?, ?, ?, ?)";
+    private static final String DELETE_DEPENDENT = "delete from dependents where id = ? and declaration_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RelationalDeclarationStore relationalStore;
+    private final DeclarationAmendmentRepository amendmentRepository;
+    private final ChildIdSequenceRepository childIdSequences;
+    private final int snapshotInterval;
+
+    public EventSourcedDeclarationStore(JdbcTemplate jdbcTemplate, DeclarationRepository declarationRepository, DeclarationMapper declarationMapper,
+                                        DeclarationAmendmentRepository amendmentRepository, ChildIdSequenceRepository childIdSequences,
+                                        @Value("${application.declaration.history.snapshotInterval:64}") int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be at least one version.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.relationalStore = new RelationalDeclarationStore(declarationRepository, declarationMapper, amendmentRepository);
+        this.amendmentRepository = amendmentRepository;
+        this.childIdSequences = childIdSequences;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    @Override
+    public Optional<Declaration> findById(Long declarationId) {
+        var header = findHeader(declarationId);
+        if (header.isEmpty()) {
+            return Optional.empty();
+        }
+        var row = header.get();
+        return replay(declarationId, row.version())
+                .map(state -> Declaration.rehydrate(declarationId, row.taxpayerId(), row.year(), row.amendment(), row.status(),
+                        row.deliveryDate(), row.version(), state.getIncomes(), state.getDeductibleExpenses(), state.getDependents()))
+                .or(() -> relationalStore.findById(declarationId));
+    }
+
+    @Override
+    public Optional<Long> findVersion(Long declarationId) {
+        return relationalStore.findVersion(declarationId);
+    }
+
+    @Override
+    public Optional<Declaration> findAsOf(Long declarationId, LocalDateTime asOf) {
+        var at = Timestamp.valueOf(asOf);
+        var version = jdbcTemplate.queryForObject(FIND_VERSION_AS_OF, Long.class, declarationId, at, declarationId, at);
+        if (version == null) {
+            return Optional.empty();
+        }
+        var snapshot = findSnapshot(declarationId, version).orElseThrow();
+        var state = snapshot.state();
+        replayChanges(declarationId, state, version);
+        return Optional.of(Declaration.rehydrate(declarationId, snapshot.taxpayerId(), snapshot.year(),
+                amendmentRepository.amendmentAt(declarationId, version), state.getStatus(), state.getDeliveryDate(), version,
+                state.getIncomes(), state.getDeductibleExpenses(), state.getDependents()));
+    }
+
+    @Override
+    public Optional<Declaration> findReplaced(Long declarationId, int amendment) {
+        return amendmentRepository.find(declarationId, amendment).flatMap(replaced -> findHeader(declarationId)
+                .flatMap(header -> replay(declarationId, replaced.version())
+                        .map(state -> Declaration.rehydrate(declarationId, header.taxpayerId(), header.year(), amendment,
+                                DeclarationStatus.DELIVERED, replaced.deliveryDate(), replaced.version(),
+                                state.getIncomes(), state.getDeductibleExpenses(), state.getDependents()))));
+    }
+
+    @Override
+    public Declaration create(Declaration declaration) {
+        var keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(INSERT_HEADER, Statement.RETURN_GENERATED_KEYS);
+            statement.setBytes(1, UuidBytes.toBytes(declaration.getTaxpayerId()));
+            statement.setInt(2, declaration.getYear());
+            statement.setString(3, declaration.getStatus().name());
+            statement.setTimestamp(4, toTimestamp(declaration.getDeliveryDate()));
+            return statement;
+        }, keyHolder);
+        var id = Objects.requireNonNull(keyHolder.getKey()).longValue();
+
+        var state = DeclarationHistoryState.empty(declaration.getStatus(), declaration.getDeliveryDate());
+        var changes = state.changesTo(ChildIds.assign(declaration, childIdSequences));
+        project(id, changes);
+        state.apply(0L, changes);
+        insertSnapshot(id, declaration.getTaxpayerId(), declaration.getYear(), state, LocalDateTime.now());
+        return state.toDeclaration(id, declaration.getTaxpayerId(), declaration.getYear());
+    }
+
+    @Override
+    public Declaration update(Declaration declaration) {
+        return save(declaration);
+    }
+
+    @Override
+    public void updateStatus(Declaration declaration) {
+        save(declaration);
+    }
+
+    @Override
+    public Declaration amend(Declaration delivered, Declaration amendment) {
+        amendmentRepository.recordReplaced(delivered, LocalDateTime.now());
+        return save(amendment);
+    }
+
+    private Declaration save(Declaration declaration) {
+        var id = declaration.getId();
+        var expectedVersion = declaration.getVersion();
+        var version = expectedVersion + 1;
+        if (jdbcTemplate.update(UPDATE_HEADER, declaration.getAmendment(), declaration.getStatus().name(),
+                toTimestamp(declaration.getDeliveryDate()), version, id, expectedVersion) == 0) {
+            throw new OptimisticLockingFailureException("Declaration " + id + " was modified concurrently.");
+        }
+
+        var now = LocalDateTime.now();
+        var state = replay(id, expectedVersion).orElse(null);
+        if (state == null) {
+            // The declaration as the child tables have it, before this save touched anything.
+            state = DeclarationHistoryState.of(relationalStore.findById(id).orElseThrow(), expectedVersion);
+            insertSnapshot(id, declaration.getTaxpayerId(), declaration.getYear(), state, now);
+        }
+
+        var changes = state.changesTo(ChildIds.assign(declaration, childIdSequences));
+        project(id, changes);
+        state.apply(version, changes);
+        jdbcTemplate.update(INSERT_CHANGES, id, version, DeclarationChangeCodec.encode(changes), Timestamp.valueOf(now));
+        if (version - state.getSnapshotVersion() >= snapshotInterval) {
+            insertSnapshot(id, declaration.getTaxpayerId(), declaration.getYear(), state, now);
+        }
+        return Declaration.rehydrate(id, declaration.getTaxpayerId(), declaration.getYear(), declaration.getAmendment(), state.getStatus(),
+                state.getDeliveryDate(), version, state.getIncomes(), state.getDeductibleExpenses(), state.getDependents());
+    }
+
+    /**
+     * Rebuilds the declaration at the given version, or returns nothing if its history does not reach it.
+     */
+    private Optional<DeclarationHistoryState> replay(Long declarationId, long version) {
+        return findSnapshot(declarationId, version)
+                .map(SnapshotRow::state)
+                .map(state -> {
+                    replayChanges(declarationId, state, version);
+                    return state;
+                })
+                .filter(state -> state.getVersion() == version);
+    }
+
+    private void replayChanges(Long declarationId, DeclarationHistoryState state, long upToVersion) {
+        jdbcTemplate.query(FIND_CHANGES, (ResultSet rs) -> {
+            state.apply(rs.getLong(1), DeclarationChangeCodec.decode(rs.getBytes(2)));
+        }, declarationId, state.getSnapshotVersion(), upToVersion);
+    }
+
+    private void project(Long declarationId, List<DeclarationChange> changes) {
+        for (var change : changes) {
+            switch (change) {
+                case DeclarationChange.IncomeAdded(var income) -> jdbcTemplate.update(INSERT_INCOME, income.getId(),
+                        declarationId, income.getPayingSource(), income.getType().name(), income.getValue().toBigDecimal());
+                case DeclarationChange.IncomeRemoved(var incomeId) -> jdbcTemplate.update(DELETE_INCOME, incomeId, declarationId);
+                case DeclarationChange.ExpenseAdded(var expense) -> jdbcTemplate.update(INSERT_EXPENSE, expense.getId(),
+                        declarationId, expense.getDescription(), expense.getType().name(), expense.getValue().toBigDecimal());
+                case DeclarationChange.ExpenseRemoved(var expenseId) -> jdbcTemplate.update(DELETE_EXPENSE, expenseId, declarationId);
+                case DeclarationChange.DependentAdded(var dependent) -> jdbcTemplate.update(INSERT_DEPENDENT, dependent.getId(),
+                        declarationId, dependent.getName(), dependent.getCpf().getValue(), Date.valueOf(dependent.getBirthDate()));
+                case DeclarationChange.DependentRemoved(var dependentId) -> jdbcTemplate.update(DELETE_DEPENDENT, dependentId, declarationId);
+                case DeclarationChange.StatusChanged statusChanged -> {
+                }
+            }
+        }
+    }
+
+    private void insertSnapshot(Long declarationId, UUID taxpayerId, int year, DeclarationHistoryState state, LocalDateTime recordedAt) {
+        var document = DeclarationDocumentCodec.encode(state.toDeclaration(declarationId, taxpayerId, year), state.getVersion());
+        jdbcTemplate.update(INSERT_SNAPSHOT, declarationId, state.getVersion(), UuidBytes.toBytes(taxpayerId), year, state.getStatus().name(),
+                toTimestamp(state.getDeliveryDate()), state.getLastChildId(), document, Timestamp.valueOf(recordedAt));
+    }
+
+    private Optional<Header> findHeader(Long declarationId) {
+        return jdbcTemplate.query(FIND_HEADER, (rs, rowNum) -> {
+            var deliveryDate = rs.getTimestamp("delivery_date");
+            return new Header(UuidBytes.toUuid(rs.getBytes("taxpayer_id")), rs.getInt("year"), rs.getInt("amendment"),
+                    DeclarationStatus.valueOf(rs.getString("status")), deliveryDate == null ? null : deliveryDate.toLocalDateTime(),
+                    rs.getLong("version"));
+        }, declarationId).stream().findFirst();
+    }
+
+    private Optional<SnapshotRow> findSnapshot(Long declarationId, long version) {
+        return jdbcTemplate.query(FIND_SNAPSHOT, this::mapSnapshot, declarationId, version).stream().findFirst();
+    }
+
+    private SnapshotRow mapSnapshot(ResultSet rs, int rowNum) throws SQLException {
+        var deliveryDate = rs.getTimestamp("delivery_date");
+        var state = new DeclarationHistoryState(rs.getLong("version"), DeclarationStatus.valueOf(rs.getString("status")),
+                deliveryDate == null ? null : deliveryDate.toLocalDateTime(), rs.getLong("last_child_id"),
+                DeclarationDocumentCodec.decode(rs.getBytes("document")));
+        return new SnapshotRow(UuidBytes.toUuid(rs.getBytes("taxpayer_id")), rs.getInt("year"), state);
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+
+
+
+    private record Header(UUID taxpayerId, int year, int amendment, DeclarationStatus status, LocalDateTime deliveryDate, long version) {
+    }
+
+    private record SnapshotRow(UUID taxpayerId, int year, DeclarationHistoryState state) {
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.infra.persistence.mapper.DeclarationMapper;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationAmendmentRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "application.declaration.storage", havingValue = "relational", matchIfMissing = true)
+public class RelationalDeclarationStore implements DeclarationStore {
+
+    private final DeclarationRepository declarationRepository;
+    private final DeclarationMapper declarationMapper;
+    private final DeclarationAmendmentRepository amendmentRepository;
+
+    public RelationalDeclarationStore(DeclarationRepository declarationRepository, DeclarationMapper declarationMapper,
+                                      DeclarationAmendmentRepository amendmentRepository) {
+        this.declarationRepository = declarationRepository;
+        this.declarationMapper = declarationMapper;
+        this.amendmentRepository = amendmentRepository;
+    }
+
+    @Override
+    public Optional<Declaration> findById(Long declarationId) {
+        return declarationRepository.findById(declarationId).map(declarationMapper::toDomain);
+    }
+
+    @Override
+    public Optional<Long> findVersion(Long declarationId) {
+        return declarationRepository.findVersionById(declarationId);
+    }
+
+    @Override
+    public Optional<Declaration> findReplaced(Long declarationId, int amendment) {
+        return amendmentRepository.findReplaced(declarationId, amendment);
+    }
+
+    @Override
+    public Declaration create(Declaration declaration) {
+        var savedEntity = declarationRepository.save(declarationMapper.toEntity(declaration));
+        return declarationMapper.toDomain(savedEntity);
+    }
+
+    @Override
+    public Declaration update(Declaration declaration) {
+        if (declaration.getAmendment() > 0) {
+            amendmentRepository.keepRemovedChildren(declaration);
+        }
+        var savedEntity = declarationRepository.save(declarationMapper.toEntity(declaration));
+        declarationRepository.incrementVersion(savedEntity);
+        return declarationMapper.toDomain(savedEntity);
+    }
+
+    @Override
+    public void updateStatus(Declaration declaration) {
+        declarationRepository.save(declarationMapper.toEntity(declaration));
+    }
+
+    @Override
+    public Declaration amend(Declaration delivered, Declaration amendment) {
+        amendmentRepository.recordReplaced(delivered, LocalDateTime.now());
+        var savedEntity = declarationRepository.saveAndFlush(declarationMapper.toEntity(amendment));
+        return declarationMapper.toDomain(savedEntity);
+    }
+}
@@ -0,0 +1,561 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationChangedEvent;
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.infra.exception.custom.DeclarationWriteConflictException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps recently used EDITING declarations in memory so edits skip the database. An edit is written to the
+ * change log once its transaction has committed, and dirty declarations are flushed to the document store
+ * in one batch per interval. An edit the log failed to take is still kept, but only survives a crash once
+ * it has been flushed. Submission writes through in the caller's transaction. A flush that finds the row
+ * changed elsewhere moves the edit to the conflict log and answers the next use of that declaration with
+ * a conflict. The working set is bounded by entry count and by encoded document bytes, and only clean
+ * entries are evicted, so it may overshoot until the next flush.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnExpression("'${application.declaration.storage:relational}' == 'document' and ${application.declaration.writeBehind.enabled:false}")
+public class WriteBehindDeclarationStore implements DeclarationStore {
+
+    private final DocumentDeclarationStore delegate;
+    private final DeclarationChangeLog changeLog;
+    private final DeclarationChangeLog conflictLog;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    // Guards entries, cachedBytes and the write-through counters. Entry write locks may be taken before
+    // it, never after.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    // A read only fills the cache if no write-through was running or finished while it loaded, since the
+    // row it read may be about to change underneath the entry.
+    private long writeThroughGeneration;
+    private int writeThroughsInFlight;
+
+    // Serializes flushes with write-through submissions, so both never write the same row at once.
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private List<Long> recoveredDeclarationIds = List.of();
+
+    public WriteBehindDeclarationStore(DocumentDeclarationStore delegate,
+                                       PlatformTransactionManager transactionManager,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${application.declaration.writeBehind.logDirectory:declaration-changes}") String logDirectory,
+                                       @Value("${application.declaration.writeBehind.maxEntries:10000}") int maxEntries,
+                                       @Value("${application.declaration.writeBehind.maxBytes:67108864}") long maxBytes) {
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("Write-behind working set bounds must be positive.");
+        }
+        this.delegate = delegate;
+        this.changeLog = new DeclarationChangeLog(Path.of(logDirectory));
+        this.conflictLog = new DeclarationChangeLog(Path.of(logDirectory, "conflicts"));
+        // Only the flush and the recovery use it; they run outside any request.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    // Each logged write is replayed only onto a row between the version it was based on and its own, so a
+    // change that was already flushed is skipped and a row someone else moved is kept as a conflict.
+    @PostConstruct
+    void recover() {
+        var pending = changeLog.readLatest();
+        if (!pending.isEmpty()) {
+            var restored = new ArrayList<Long>();
+            transactionTemplate.executeWithoutResult(status -> {
+                var updated = delegate.restoreAll(pending);
+                for (int i = 0; i < pending.size(); i++) {
+                    var write = pending.get(i);
+                    if (updated[i] > 0) {
+                        restored.add(write.declarationId());
+                    } else if (delegate.findVersion(write.declarationId()).orElse(Long.MAX_VALUE) < write.version()) {
+                        keepConflict(write);
+                    }
+                }
+            });
+            recoveredDeclarationIds = restored;
+            log.info("Replayed {} unflushed declaration changes from the change log", restored.size());
+        }
+        changeLog.deleteBefore(changeLog.rotate());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void announceRecovered() {
+        recoveredDeclarationIds.forEach(id -> eventPublisher.publishEvent(new DeclarationChangedEvent(id)));
+        recoveredDeclarationIds = List.of();
+    }
+
+    @Override
+    public Optional<Declaration> findById(Long declarationId) {
+        var entry = lookup(declarationId);
+        if (entry != null) {
+            surfaceConflict(entry);
+            return Optional.of(visible(entry).toDeclaration());
+        }
+
+        var generation = writeThroughGeneration();
+        var loaded = delegate.findById(declarationId);
+        loaded.filter(declaration -> declaration.getStatus() == DeclarationStatus.EDITING)
+                .ifPresent(declaration -> cache(declaration, generation));
+        return loaded;
+    }
+
+    @Override
+    public Optional<Long> findVersion(Long declarationId) {
+        var entry = lookup(declarationId);
+        if (entry != null) {
+            surfaceConflict(entry);
+            return Optional.of(visible(entry).version());
+        }
+        return delegate.findVersion(declarationId);
+    }
+
+    @Override
+    public Declaration create(Declaration declaration) {
+        return delegate.create(declaration);
+    }
+
+    // The edit is kept as the entry's pending state until the caller's transaction commits; only then is it
+    // logged and made visible to other threads. The entry stays locked until the transaction completes.
+    @Override
+    public Declaration update(Declaration declaration) {
+        var entry = lookup(declaration.getId());
+        if (entry == null) {
+            return writeThrough(() -> delegate.update(declaration));
+        }
+
+        entry.writeLock.lock();
+        var handedOver = false;
+        try {
+            if (entry.evicted) {
+                return writeThrough(() -> delegate.update(declaration));
+            }
+            surfaceConflict(entry);
+            var current = visible(entry);
+            checkVersion(current, declaration);
+
+            var withIds = delegate.assignChildIds(declaration);
+            var version = current.version() + 1;
+            var document = DeclarationDocumentCodec.encode(withIds, version);
+            entry.pending = current.withDocument(version, document);
+            handedOver = true;
+            afterCommit(() -> commitPending(entry), committed -> {
+                entry.pending = null;
+                entry.writeLock.unlock();
+                evictOverflow();
+            });
+            return DocumentDeclarationStore.rehydrate(declaration.getId(), withIds, version, document);
+        } finally {
+            if (!handedOver) {
+                entry.writeLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void updateStatus(Declaration declaration) {
+        var entry = lookup(declaration.getId());
+        if (entry == null) {
+            writeThrough(() -> {
+                delegate.updateStatus(declaration);
+                return null;
+            });
+            return;
+        }
+
+        flushLock.lock();
+        entry.writeLock.lock();
+        var handedOver = false;
+        try {
+            if (entry.evicted) {
+                writeThrough(() -> {
+                    delegate.updateStatus(declaration);
+                    return null;
+                });
+                return;
+            }
+            surfaceConflict(entry);
+            var current = visible(entry);
+            checkVersion(current, declaration);
+
+            var withIds = delegate.assignChildIds(declaration);
+            var version = current.version() + 1;
+            var write = new DocumentWrite(declaration.getId(), declaration.getStatus(), declaration.getDeliveryDate(),
+                    entry.persistedVersion, version, DeclarationDocumentCodec.encode(withIds, version));
+            beginWriteThrough();
+            handedOver = true;
+            afterCommit(() -> evict(entry), committed -> {
+                endWriteThrough();
+                entry.writeLock.unlock();
+                flushLock.unlock();
+            });
+            delegate.writeOrFail(write);
+        } finally {
+            if (!handedOver) {
+                entry.writeLock.unlock();
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.declaration.writeBehind.flushIntervalMillis:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            var sealedBefore = changeLog.rotate();
+            var dirty = new ArrayList<Entry>();
+            var writes = new ArrayList<DocumentWrite>();
+            // Entries inside an open transaction are left for the next flush rather than waited on.
+            for (var entry : snapshotEntries()) {
+                if (!entry.writeLock.tryLock()) {
+                    continue;
+                }
+                try {
+                    if (!entry.evicted && entry.conflictedVersion == null && entry.isDirty()) {
+                        dirty.add(entry);
+                        writes.add(entry.current.toWrite(entry.persistedVersion));
+                    }
+                } finally {
+                    entry.writeLock.unlock();
+                }
+            }
+
+            if (!writes.isEmpty()) {
+                var updated = transactionTemplate.execute(status -> delegate.writeAll(writes));
+                for (int i = 0; i < dirty.size(); i++) {
+                    markFlushed(dirty.get(i), writes.get(i), updated != null && updated[i] > 0);
+                }
+            }
+            // Every acknowledged write is now in the database or in the conflict log.
+            changeLog.deleteBefore(sealedBefore);
+            writes.forEach(write -> eventPublisher.publishEvent(new DeclarationChangedEvent(write.declarationId())));
+            if (!writes.isEmpty()) {
+                log.debug("Flushed {} declarations; working set holds {} declarations in {} bytes",
+                        writes.size(), size(), cachedBytes());
+            }
+        } catch (RuntimeException exception) {
+            log.error("Failed to flush the declaration working set; changes stay in the change log", exception);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        changeLog.close();
+        conflictLog.close();
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long cachedBytes() {
+        lock.lock();
+        try {
+            return cachedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Only the flush moves persistedVersion, so it needs no entry lock; a request holding one is never waited on.
+    private void markFlushed(Entry entry, DocumentWrite write, boolean written) {
+        if (written) {
+            entry.persistedVersion = write.version();
+        } else {
+            // The row moved on outside this working set. The edit is kept on disk and the entry stays dirty,
+            // so it is neither flushed over the other change nor evicted until it is reported.
+            keepConflict(write);
+            entry.conflictedVersion = write.version();
+        }
+        evictOverflow();
+    }
+
+    private void keepConflict(DocumentWrite write) {
+        conflictLog.append(write);
+        log.error("Declaration {} changed in the database before version {} was flushed; the edit was moved to the conflict log",
+                write.declarationId(), write.version());
+    }
+
+    // Reports a conflict once, then drops the entry so the next use reads the row as it is now.
+    private void surfaceConflict(Entry entry) {
+        if (entry.conflictedVersion == null) {
+            return;
+        }
+        entry.writeLock.lock();
+        try {
+            var lostVersion = entry.conflictedVersion;
+            if (lostVersion != null && !entry.evicted) {
+                entry.conflictedVersion = null;
+                evict(entry);
+                throw new DeclarationWriteConflictException(entry.current.id(), lostVersion);
+            }
+        } finally {
+            entry.writeLock.unlock();
+        }
+    }
+
+    // A thread sees its own uncommitted edit; everyone else sees the committed state.
+    private static CachedDeclaration visible(Entry entry) {
+        var pending = entry.pending;
+        return pending != null && entry.writeLock.isHeldByCurrentThread() ? pending : entry.current;
+    }
+
+    private void commitPending(Entry entry) {
+        var pending = entry.pending;
+        if (pending == null) {
+            return;
+        }
+        try {
+            changeLog.append(pending.toWrite(entry.persistedVersion));
+        } catch (RuntimeException exception) {
+            // The caller's transaction has already committed, so the edit is kept rather than failed back to
+            // it. The entry stays dirty and reaches the database with the next flush, not the log.
+            log.error("Failed to log version {} of declaration {}; it is kept in memory until the next flush",
+                    pending.version(), pending.id(), exception);
+        }
+        replace(entry, pending);
+    }
+
+    private <T> T writeThrough(Supplier<T> write) {
+        beginWriteThrough();
+        var handedOver = false;
+        try {
+            var result = write.get();
+            handedOver = true;
+            afterCommit(() -> {
+            }, committed -> endWriteThrough());
+            return result;
+        } finally {
+            if (!handedOver) {
+                endWriteThrough();
+            }
+        }
+    }
+
+    // Runs the action once the caller's transaction commits and the cleanup once it completes either way,
+    // or both right away when there is no transaction to wait for.
+    private static void afterCommit(Runnable action, Consumer<Boolean> cleanup) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                action.run();
+            } finally {
+                cleanup.accept(true);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                cleanup.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static void checkVersion(CachedDeclaration current, Declaration declaration) {
+        if (current.version() != declaration.getVersion()) {
+            throw new OptimisticLockingFailureException("Declaration " + declaration.getId() + " was modified concurrently.");
+        }
+    }
+
+    private Entry lookup(Long declarationId) {
+        lock.lock();
+        try {
+            return entries.get(declarationId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Entry> snapshotEntries() {
+        lock.lock();
+        try {
+            return new ArrayList<>(entries.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cache(Declaration declaration, long generation) {
+        var version = declaration.getVersion();
+        var cached = CachedDeclaration.of(declaration, version, DeclarationDocumentCodec.encode(declaration, version));
+        lock.lock();
+        try {
+            if (writeThroughsInFlight == 0 && writeThroughGeneration == generation && !entries.containsKey(declaration.getId())) {
+                entries.put(declaration.getId(), new Entry(cached));
+                cachedBytes += cached.document().length;
+            }
+        } finally {
+            lock.unlock();
+        }
+        evictOverflow();
+    }
+
+    private long writeThroughGeneration() {
+        lock.lock();
+        try {
+            return writeThroughGeneration;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void beginWriteThrough() {
+        lock.lock();
+        try {
+            writeThroughsInFlight++;
+            writeThroughGeneration++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void endWriteThrough() {
+        lock.lock();
+        try {
+            writeThroughsInFlight--;
+            writeThroughGeneration++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replace(Entry entry, CachedDeclaration cached) {
+        lock.lock();
+        try {
+            cachedBytes += cached.document().length - entry.current.document().length;
+            entry.current = cached;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the entry's write lock.
+    private void evict(Entry entry) {
+        lock.lock();
+        try {
+            if (!entry.evicted && entries.remove(entry.current.id(), entry)) {
+                cachedBytes -= entry.current.document().length;
+            }
+            entry.evicted = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Walks from the least recently used end and drops clean entries nobody is writing to. The thread that
+    // owns an open edit can re-enter its lock here, so the pending state is checked as well.
+    private void evictOverflow() {
+        lock.lock();
+        try {
+            var iterator = entries.values().iterator();
+            while ((entries.size() > maxEntries || cachedBytes > maxBytes) && iterator.hasNext()) {
+                var entry = iterator.next();
+                if (!entry.writeLock.tryLock()) {
+                    continue;
+                }
+                try {
+                    if (!entry.isDirty() && entry.pending == null) {
+                        iterator.remove();
+                        cachedBytes -= entry.current.document().length;
+                        entry.evicted = true;
+                    }
+                } finally {
+                    entry.writeLock.unlock();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Entry {
+
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private volatile CachedDeclaration current;
+        private volatile long persistedVersion;
+        private volatile boolean evicted;
+        // Set while the owner's transaction is open; only the thread holding writeLock reads it.
+        private volatile CachedDeclaration pending;
+        private volatile Long conflictedVersion;
+
+        private Entry(CachedDeclaration current) {
+            this.current = current;
+            this.persistedVersion = current.version();
+        }
+
+        private boolean isDirty() {
+            return current.version() != persistedVersion;
+        }
+    }
+
+    private record CachedDeclaration(Long id, UUID taxpayerId, int year, DeclarationStatus status,
+                                     LocalDateTime deliveryDate, long version, byte[] document) {
+
+        private static CachedDeclaration of(Declaration declaration, long version, byte[] document) {
+            return new CachedDeclaration(declaration.getId(), declaration.getTaxpayerId(), declaration.getYear(),
+                    declaration.getStatus(), declaration.getDeliveryDate(), version, document);
+        }
+
+        private CachedDeclaration withDocument(long version, byte[] document) {
+            return new CachedDeclaration(id, taxpayerId, year, status, deliveryDate, version, document);
+        }
+
+        // Every caller gets its own decoded copy, so mutating it cannot touch the cached state.
+        private Declaration toDeclaration() {
+            var decoded = DeclarationDocumentCodec.decode(document);
+            return Declaration.rehydrate(id, taxpayerId, year, status, deliveryDate, version,
+                    decoded.incomes(), decoded.deductibleExpenses(), decoded.dependents());
+        }
+
+        private DocumentWrite toWrite(long expectedVersion) {
+            return new DocumentWrite(id, status, deliveryDate, expectedVersion, version, document);
+        }
+    }
+}
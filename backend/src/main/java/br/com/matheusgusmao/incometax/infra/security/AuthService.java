@@ -8,6 +8,7 @@ import br.com.matheusgusmao.incometax.infra.exception.custom.EntityAlreadyExists
 import br.com.matheusgusmao.incometax.infra.security.jwt.JwtService;
 import br.com.matheusgusmao.incometax.infra.persistence.entity.user.Role;
 import br.com.matheusgusmao.incometax.infra.persistence.entity.user.UserEntity;
+import br.com.matheusgusmao.incometax.infra.persistence.TimeOrderedUuids;
 import br.com.matheusgusmao.incometax.infra.persistence.repository.UserRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,8 +17,6 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
-
 @Service
 @AllArgsConstructor
 public class AuthService {
@@ -32,7 +31,7 @@ public class AuthService {
         });
 
         var encodedPassword = passwordEncoder.encode(request.password());
-        var uuid = UUID.randomUUID();
+        var uuid = TimeOrderedUuids.next();
         var user = UserEntity.builder().id(uuid).firstName(request.firstName()).lastName(request.lastName()).email(request.email()).password(encodedPassword).role(Role.USER).build();
 
         var savedUser = userRepository.save(user);
@@ -1,5 +1,6 @@
 package br.com.matheusgusmao.incometax.infra.security;
 
+import br.com.matheusgusmao.incometax.infra.persistence.entity.user.Role;
 import br.com.matheusgusmao.incometax.infra.security.jwt.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -32,6 +33,10 @@ public class SecurityConfig {
             "/swagger-ui/**"
     };
 
+    private static final String[] ADMIN_PATHS = {
+            "/admin/**"
+    };
+
     private static final String[] ALLOWED_ORIGINS = {
       "http://localhost:5173"
     };
@@ -45,7 +50,9 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(request ->
-                        request.requestMatchers(WHITELIST).permitAll().anyRequest().authenticated())
+                        request.requestMatchers(WHITELIST).permitAll()
+                                .requestMatchers(ADMIN_PATHS).hasAuthority(Role.ADMIN.name())
+                                .anyRequest().authenticated())
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)).authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
@@ -0,0 +1,135 @@
+package br.com.matheusgusmao.incometax.web.cache;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationSnapshot;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.web.controller.DeclarationETags;
+import br.com.matheusgusmao.incometax.web.dto.declaration.DeclarationResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the serialized {@code GET /declarations/{id}} body of delivered declarations. A delivered declaration
+ * does not change until it is amended, so its body is written once and then served as-is. Lookups take no
+ * lock; when the cache outgrows its byte budget the entries added first are dropped. Bodies are kept per
+ * version, and a put never replaces a newer version or brings back one an amendment evicted.
+ */
+@Component
+public class DeliveredDeclarationResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final ConcurrentHashMap<Long, Entry> responses = new ConcurrentHashMap<>();
+    private final ArrayDeque<Long> insertionOrder = new ArrayDeque<>();
+    // Versions below which an amended declaration's bodies are refused, until a newer one is delivered.
+    private final HashMap<Long, Long> refusedBefore = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long cachedBytes;
+
+    public DeliveredDeclarationResponseCache(ObjectMapper objectMapper,
+                                             @Value("${application.declaration.responseCache.maxBytes:16777216}") long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Response cache size cannot be negative.");
+        }
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+    }
+
+    public CachedResponse get(Long declarationId) {
+        var entry = responses.get(declarationId);
+        return entry == null ? null : entry.response();
+    }
+
+    /**
+     * Serializes the declaration's response and keeps it if the declaration is delivered. The returned
+     * body is the one to send, cached or not.
+     */
+    public CachedResponse put(DeclarationSnapshot declaration) {
+        var response = serialize(declaration);
+        if (declaration.status() != DeclarationStatus.DELIVERED || response.body().length > maxBytes) {
+            return response;
+        }
+
+        var id = declaration.id();
+        long version = declaration.version();
+        lock.lock();
+        try {
+            var refused = refusedBefore.get(id);
+            if (refused != null && version < refused) {
+                return response;
+            }
+            refusedBefore.remove(id);
+            var previous = responses.get(id);
+            if (previous != null && previous.version() >= version) {
+                return response;
+            }
+
+            responses.put(id, new Entry(version, response));
+            if (previous != null) {
+                cachedBytes -= previous.response().body().length;
+            } else {
+                insertionOrder.addLast(id);
+            }
+            cachedBytes += response.body().length;
+            while (cachedBytes > maxBytes) {
+                var evicted = responses.remove(insertionOrder.removeFirst());
+                cachedBytes -= evicted.response().body().length;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return response;
+    }
+
+    /**
+     * Drops the declaration's response once an amendment that moved it to {@code amendedVersion} has
+     * committed. A read that loaded the delivered version before the commit cannot put it back afterwards,
+     * since versions below {@code amendedVersion} are refused until a later one is delivered.
+     */
+    public void evict(Long declarationId, long amendedVersion) {
+        lock.lock();
+        try {
+            refusedBefore.merge(declarationId, amendedVersion, Math::max);
+            var evicted = responses.remove(declarationId);
+            if (evicted != null) {
+                insertionOrder.remove(declarationId);
+                cachedBytes -= evicted.response().body().length;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long cachedBytes() {
+        lock.lock();
+        try {
+            return cachedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Serializes the declaration's response without keeping it.
+     */
+    public CachedResponse serialize(DeclarationSnapshot declaration) {
+        try {
+            return new CachedResponse(DeclarationETags.of(declaration.id(), declaration.version()),
+                    objectMapper.writeValueAsBytes(DeclarationResponse.from(declaration)));
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Could not serialize declaration " + declaration.id() + ".", exception);
+        }
+    }
+
+    public record CachedResponse(String eTag, byte[] body) {
+    }
+
+    private record Entry(long version, CachedResponse response) {
+    }
+}
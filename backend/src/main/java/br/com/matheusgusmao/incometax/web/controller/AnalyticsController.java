@@ -0,0 +1,38 @@
+package br.com.matheusgusmao.incometax.web.controller;
+
+import br.com.matheusgusmao.incometax.domain.service.DeclarationAnalyticsService;
+import br.com.matheusgusmao.incometax.web.dto.analytics.DeclarationAnalyticsResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/analytics")
+@Tag(name = "Declaration Analytics")
+public class AnalyticsController {
+
+    private final DeclarationAnalyticsService analyticsService;
+
+    public AnalyticsController(DeclarationAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @Operation(summary = "Aggregate declarations of a year",
+            description = "Served from an in-memory columnar snapshot refreshed from declaration changes.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Summary computed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid percentile or snapshot still loading"),
+            @ApiResponse(responseCode = "403", description = "Administrator role required")
+    })
+    @GetMapping("/years/{year}")
+    public ResponseEntity<DeclarationAnalyticsResponse> summarize(
+            @PathVariable int year,
+            @RequestParam(defaultValue = "50,90,99") int[] percentiles) {
+
+        var summary = analyticsService.summarize(year, percentiles);
+        return ResponseEntity.ok(DeclarationAnalyticsResponse.from(summary));
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.matheusgusmao.incometax.web.controller;
+
+import br.com.matheusgusmao.incometax.infra.audit.DeclarationAuditLog;
+import br.com.matheusgusmao.incometax.web.dto.audit.DeclarationAuditRecordResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/audit")
+@ConditionalOnProperty(name = "application.declaration.audit.enabled", havingValue = "true")
+@Tag(name = "Declaration Audit")
+public class DeclarationAuditController {
+
+    private final DeclarationAuditLog auditLog;
+    private final ObjectMapper objectMapper;
+
+    public DeclarationAuditController(DeclarationAuditLog auditLog, ObjectMapper objectMapper) {
+        this.auditLog = auditLog;
+        this.objectMapper = objectMapper;
+    }
+
+    @Operation(summary = "List the recorded changes to declarations within a time range",
+            description = "Oldest first, optionally of one declaration. Either end of the range may be left open.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Audit records retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid range or limit"),
+            @ApiResponse(responseCode = "403", description = "Administrator role required")
+    })
+    @GetMapping("/declarations")
+    public ResponseEntity<List<DeclarationAuditRecordResponse>> findRecords(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long declarationId,
+            @RequestParam(defaultValue = "1000") int limit) {
+        var records = auditLog.find(from, to, declarationId, limit).stream()
+                .map(DeclarationAuditRecordResponse::from)
+                .toList();
+        return ResponseEntity.ok(records);
+    }
+
+    @Operation(summary = "Replay every recorded change to declarations within a time range as a stream",
+            description = "NDJSON, one change per line in the order they were recorded.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Audit records streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid range"),
+            @ApiResponse(responseCode = "403", description = "Administrator role required")
+    })
+    @GetMapping("/declarations/replay")
+    public void replayRecords(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        var out = response.getOutputStream();
+        auditLog.replay(from, to, auditRecord -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(DeclarationAuditRecordResponse.from(auditRecord)));
+                out.write('\n');
+                return true;
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+    }
+}
@@ -1,9 +1,14 @@
 package br.com.matheusgusmao.incometax.web.controller;
 
 import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationSnapshot;
+import br.com.matheusgusmao.incometax.domain.service.DeclarationMutationExecutor;
+import br.com.matheusgusmao.incometax.domain.service.DeclarationReadCoalescer;
 import br.com.matheusgusmao.incometax.domain.service.DeclarationService;
 import br.com.matheusgusmao.incometax.infra.persistence.entity.user.UserEntity;
+import br.com.matheusgusmao.incometax.web.cache.DeliveredDeclarationResponseCache;
 import br.com.matheusgusmao.incometax.web.dto.declaration.CreateDeclarationRequest;
+import br.com.matheusgusmao.incometax.web.dto.declaration.DeclarationAmendmentResponse;
 import br.com.matheusgusmao.incometax.web.dto.declaration.DeclarationHistoryResponse;
 import br.com.matheusgusmao.incometax.web.dto.declaration.DeclarationResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,12 +18,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,25 +38,32 @@ import java.util.UUID;
 public class DeclarationController {
 
     private final DeclarationService declarationService;
+    private final DeclarationMutationExecutor mutationExecutor;
+    private final DeclarationReadCoalescer readCoalescer;
+    private final DeliveredDeclarationResponseCache responseCache;
 
-    public DeclarationController(final DeclarationService declarationService) {
+    public DeclarationController(final DeclarationService declarationService, final DeclarationMutationExecutor mutationExecutor,
+                                 final DeclarationReadCoalescer readCoalescer, final DeliveredDeclarationResponseCache responseCache) {
         this.declarationService = declarationService;
+        this.mutationExecutor = mutationExecutor;
+        this.readCoalescer = readCoalescer;
+        this.responseCache = responseCache;
     }
 
     @Operation(
-            summary = "Create a new tax declaration.",
-            description = "Returns a created declaration."
+            summary = "Get or create the tax declaration of a year.",
+            description = "Returns the taxpayer's declaration for the year, creating it if it does not exist yet."
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "201",
-                    description = "Successful operation.",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CreateDeclarationRequest.class))
+                    description = "Declaration created.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeclarationResponse.class))
             ),
             @ApiResponse(
-                    responseCode = "409",
-                    description = "Already exists declaration for that year.",
-                    content = @Content(schema = @Schema(hidden = true))
+                    responseCode = "200",
+                    description = "Declaration for that year already existed.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeclarationResponse.class))
             ),
             @ApiResponse(
                     responseCode = "401",
@@ -63,25 +80,66 @@ public class DeclarationController {
 
         var taxpayerId = authenticatedUser.getId();
 
-        var newDeclaration = declarationService.createNewDeclaration(taxpayerId, request.year());
-
-        var location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(newDeclaration.getId()).toUri();
+        var creation = declarationService.findOrCreateDeclaration(taxpayerId, request.year());
+        var declaration = creation.declaration();
 
-        return ResponseEntity.created(location).body(DeclarationResponse.from(newDeclaration));
+        var location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(declaration.getId()).toUri();
+        if (!creation.created()) {
+            return ResponseEntity.ok().location(location).body(DeclarationResponse.from(declaration));
+        }
+        return ResponseEntity.created(location).body(DeclarationResponse.from(declaration));
     }
-    @Operation(summary = "Get declaration by ID")
+    @Operation(summary = "Get declaration by ID",
+            description = "With asOf, returns the declaration as it stood at that time; this needs the events storage mode. "
+                    + "With amendment, returns that amendment of the declaration, as delivered if a later one replaced it.")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Declaration found"),
-            @ApiResponse(responseCode = "404", description = "Declaration not found"),
+            @ApiResponse(responseCode = "200", description = "Declaration found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeclarationResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Declaration not modified since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "asOf given while the storage mode keeps no history, or given with amendment"),
+            @ApiResponse(responseCode = "403", description = "asOf or amendment asked of another taxpayer's declaration"),
+            @ApiResponse(responseCode = "404", description = "Declaration not found, not recorded yet at asOf, or without that amendment"),
             @ApiResponse(responseCode = "401", description = "Authentication required")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<DeclarationResponse> getDeclaration(
+    public ResponseEntity<byte[]> getDeclaration(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserEntity authenticatedUser) {
-        
-        var declaration = declarationService.findById(id);
-        return ResponseEntity.ok(DeclarationResponse.from(declaration));
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+            @RequestParam(required = false) Integer amendment,
+            @AuthenticationPrincipal UserEntity authenticatedUser,
+            WebRequest webRequest) {
+
+        if (asOf != null && amendment != null) {
+            throw new IllegalArgumentException("Give either asOf or amendment, not both.");
+        }
+        if (asOf != null || amendment != null) {
+            var taxpayerId = authenticatedUser.getId();
+            var found = asOf != null
+                    ? declarationService.findAsOf(id, taxpayerId, asOf)
+                    : declarationService.findAmendment(id, taxpayerId, amendment);
+            var past = responseCache.serialize(DeclarationSnapshot.of(found));
+            return ResponseEntity.ok()
+                    .eTag(past.eTag())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(past.body());
+        }
+
+        // Delivered declarations are answered from their serialized body without loading anything.
+        var response = responseCache.get(id);
+        if (response == null) {
+            if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                    && webRequest.checkNotModified(DeclarationETags.of(id, declarationService.findVersion(id)))) {
+                return null;
+            }
+            response = responseCache.put(readCoalescer.findById(id));
+        } else if (webRequest.checkNotModified(response.eTag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(response.eTag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.body());
     }
 
     @Operation(summary = "Submit declaration")
@@ -89,29 +147,106 @@ public class DeclarationController {
             @ApiResponse(responseCode = "200", description = "Declaration submitted successfully"),
             @ApiResponse(responseCode = "400", description = "Cannot submit declaration without incomes"),
             @ApiResponse(responseCode = "404", description = "Declaration not found"),
+            @ApiResponse(responseCode = "409", description = "Declaration changed since the version given in If-Match"),
             @ApiResponse(responseCode = "401", description = "Authentication required")
     })
     @PostMapping("/{id}/submit")
     public ResponseEntity<DeclarationResponse> submitDeclaration(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserEntity authenticatedUser) {
+            @AuthenticationPrincipal UserEntity authenticatedUser,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
         var taxpayerId = authenticatedUser.getId();
-        var submittedDeclaration = declarationService.submitDeclaration(id, taxpayerId);
-        return ResponseEntity.ok(DeclarationResponse.from(submittedDeclaration));
+        var expectedVersion = DeclarationETags.parseVersion(ifMatch, id);
+        var submittedDeclaration = mutationExecutor.once(id,
+                () -> declarationService.submitDeclaration(id, taxpayerId, expectedVersion));
+        var response = responseCache.put(readCoalescer.findById(id));
+        return ResponseEntity.ok().eTag(response.eTag()).body(DeclarationResponse.from(submittedDeclaration));
+    }
+
+    @Operation(summary = "Amend a delivered declaration",
+            description = "Reopens the declaration for editing as its next amendment; the delivered version stays readable "
+                    + "through the amendment parameter. Needs the relational or events storage mode.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Declaration reopened as its next amendment"),
+            @ApiResponse(responseCode = "400", description = "Declaration not delivered, archived, or the storage mode cannot amend"),
+            @ApiResponse(responseCode = "403", description = "Declaration belongs to another taxpayer"),
+            @ApiResponse(responseCode = "404", description = "Declaration not found"),
+            @ApiResponse(responseCode = "409", description = "Declaration changed since the version given in If-Match"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @PostMapping("/{id}/amend")
+    public ResponseEntity<DeclarationResponse> amendDeclaration(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserEntity authenticatedUser,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        var taxpayerId = authenticatedUser.getId();
+        var expectedVersion = DeclarationETags.parseVersion(ifMatch, id);
+        var amended = mutationExecutor.once(id, () -> declarationService.amendDeclaration(id, taxpayerId, expectedVersion));
+        responseCache.evict(id, amended.getVersion());
+        return ResponseEntity.ok(DeclarationResponse.from(amended));
+    }
+
+    @Operation(summary = "List the delivered versions that amendments replaced")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Replaced versions, oldest first"),
+            @ApiResponse(responseCode = "403", description = "Declaration belongs to another taxpayer"),
+            @ApiResponse(responseCode = "404", description = "Declaration not found"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @GetMapping("/{id}/amendments")
+    public ResponseEntity<List<DeclarationAmendmentResponse>> getAmendments(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserEntity authenticatedUser) {
+
+        var amendments = declarationService.findReplacedAmendments(id, authenticatedUser.getId()).stream()
+                .map(DeclarationAmendmentResponse::from)
+                .toList();
+        return ResponseEntity.ok(amendments);
+    }
+
+    @Operation(summary = "Start a year from an earlier declaration",
+            description = "Creates the declaration for the given year with the incomes, expenses and dependents of the source.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Declaration created from the source"),
+            @ApiResponse(responseCode = "400", description = "Invalid year"),
+            @ApiResponse(responseCode = "403", description = "Source declaration belongs to another taxpayer"),
+            @ApiResponse(responseCode = "404", description = "Source declaration not found"),
+            @ApiResponse(responseCode = "409", description = "Already exists declaration for that year"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @PostMapping("/{id}/copy-to/{year}")
+    public ResponseEntity<DeclarationResponse> copyToYear(
+            @PathVariable Long id,
+            @PathVariable int year,
+            @AuthenticationPrincipal UserEntity authenticatedUser) {
+
+        var taxpayerId = authenticatedUser.getId();
+        var copy = mutationExecutor.once(id, () -> declarationService.copyToYear(id, taxpayerId, year));
+
+        var location = ServletUriComponentsBuilder.fromCurrentContextPath().path("/declarations/{id}").buildAndExpand(copy.getId()).toUri();
+        return ResponseEntity.created(location).body(DeclarationResponse.from(copy));
     }
 
     @Operation(summary = "Get declaration history")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "History retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "History not modified since the given ETag"),
             @ApiResponse(responseCode = "401", description = "Authentication required")
     })
     @GetMapping("/history")
     public ResponseEntity<List<DeclarationHistoryResponse>> getHistory(
-            @AuthenticationPrincipal UserEntity authenticatedUser) {
-        
+            @AuthenticationPrincipal UserEntity authenticatedUser,
+            WebRequest webRequest) {
+
         var taxpayerId = authenticatedUser.getId();
+        var etag = DeclarationETags.ofHistory(taxpayerId, declarationService.getDeclarationHistoryVersion(taxpayerId));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         var history = declarationService.getDeclarationHistory(taxpayerId);
-        return ResponseEntity.ok(history);
+        return ResponseEntity.ok().eTag(etag).body(history);
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package br.com.matheusgusmao.incometax.web.controller;
+
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationHistoryVersion;
+
+import java.util.UUID;
+
+public final class DeclarationETags {
+
+    private static final String WILDCARD = "*";
+
+    private DeclarationETags() {}
+
+    public static String of(Long declarationId, Long version) {
+        return "\"" + prefix(declarationId) + version + "\"";
+    }
+
+    static String ofHistory(UUID taxpayerId, DeclarationHistoryVersion historyVersion) {
+        return "\"history-" + taxpayerId + "-n" + historyVersion.declarationCount() + "-v" + historyVersion.versionSum() + "\"";
+    }
+
+    static Long parseVersion(String ifMatch, Long declarationId) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals(WILDCARD)) {
+            return null;
+        }
+
+        var etag = ifMatch.trim();
+        if (etag.startsWith("W/")) {
+            throw new IllegalArgumentException("If-Match requires a strong ETag.");
+        }
+        etag = etag.replace("\"", "");
+
+        var prefix = prefix(declarationId);
+        if (!etag.startsWith(prefix)) {
+            throw new IllegalArgumentException("If-Match does not refer to declaration " + declarationId + ".");
+        }
+        try {
+            return Long.parseLong(etag.substring(prefix.length()));
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+
+    private static String prefix(Long declarationId) {
+        return "declaration-" + declarationId + "-v";
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.matheusgusmao.incometax.web.controller;
+
+import br.com.matheusgusmao.incometax.infra.event.DeclarationEventBus;
+import br.com.matheusgusmao.incometax.infra.event.DeclarationEventTotals;
+import br.com.matheusgusmao.incometax.web.dto.events.DeclarationEventStatsResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/events")
+@Tag(name = "Declaration Events")
+public class DeclarationEventStatsController {
+
+    private final DeclarationEventBus eventBus;
+    private final DeclarationEventTotals eventTotals;
+
+    public DeclarationEventStatsController(DeclarationEventBus eventBus, DeclarationEventTotals eventTotals) {
+        this.eventBus = eventBus;
+        this.eventTotals = eventTotals;
+    }
+
+    @Operation(summary = "Show how far each declaration event consumer has got and the totals of each kind of event",
+            description = "Counters cover the time since the application started.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Counters retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Administrator role required")
+    })
+    @GetMapping("/declarations")
+    public ResponseEntity<DeclarationEventStatsResponse> getStats() {
+        return ResponseEntity.ok(DeclarationEventStatsResponse.from(eventBus.stats(), eventTotals.totals()));
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.matheusgusmao.incometax.web.controller;
+
+import br.com.matheusgusmao.incometax.domain.service.DeclarationExportService;
+import br.com.matheusgusmao.incometax.infra.export.DeclarationExportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/admin/exports")
+@Tag(name = "Declaration Exports")
+public class DeclarationExportController {
+
+    private final DeclarationExportService exportService;
+
+    public DeclarationExportController(DeclarationExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @Operation(summary = "Export every delivered declaration as a gzip stream",
+            description = "NDJSON writes one declaration per line; BINARY writes the compact record format. "
+                    + "Omitting the year exports all years, archived ones included.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+            @ApiResponse(responseCode = "403", description = "Administrator role required")
+    })
+    @GetMapping("/declarations")
+    public void exportDeclarations(@RequestParam(required = false) Integer year,
+                                   @RequestParam(defaultValue = "NDJSON") DeclarationExportFormat format,
+                                   HttpServletResponse response) throws IOException {
+        var fileName = "declarations" + (year == null ? "" : "-" + year) + "." + format.getFileExtension();
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString());
+        exportService.export(year, format, response.getOutputStream());
+    }
+}
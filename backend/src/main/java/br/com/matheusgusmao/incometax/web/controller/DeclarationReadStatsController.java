@@ -0,0 +1,35 @@
+package br.com.matheusgusmao.incometax.web.controller;
+
+import br.com.matheusgusmao.incometax.domain.service.DeclarationReadCoalescer;
+import br.com.matheusgusmao.incometax.web.dto.reads.DeclarationReadStatsResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/reads")
+@Tag(name = "Declaration Reads")
+public class DeclarationReadStatsController {
+
+    private final DeclarationReadCoalescer readCoalescer;
+
+    public DeclarationReadStatsController(DeclarationReadCoalescer readCoalescer) {
+        this.readCoalescer = readCoalescer;
+    }
+
+    @Operation(summary = "Count declaration reads and the loads saved by sharing concurrent ones",
+            description = "Counters cover the time since the application started.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Counters retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Administrator role required")
+    })
+    @GetMapping("/declarations")
+    public ResponseEntity<DeclarationReadStatsResponse> getStats() {
+        return ResponseEntity.ok(DeclarationReadStatsResponse.from(readCoalescer.stats()));
+    }
+}
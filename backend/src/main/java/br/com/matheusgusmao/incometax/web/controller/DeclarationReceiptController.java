@@ -0,0 +1,44 @@
+package br.com.matheusgusmao.incometax.web.controller;
+
+import br.com.matheusgusmao.incometax.domain.service.DeclarationReceiptService;
+import br.com.matheusgusmao.incometax.infra.persistence.entity.user.UserEntity;
+import br.com.matheusgusmao.incometax.web.dto.receipt.DeclarationReceiptResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/declarations/{declarationId}/receipt")
+@Tag(name = "Operations involving Declaration entity.")
+public class DeclarationReceiptController {
+
+    private final DeclarationReceiptService receiptService;
+
+    public DeclarationReceiptController(DeclarationReceiptService receiptService) {
+        this.receiptService = receiptService;
+    }
+
+    @Operation(summary = "Get the delivery receipt of a submitted declaration",
+            description = "Receipts are issued shortly after the submit, so a declaration submitted a moment ago may not have one yet.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Receipt found"),
+            @ApiResponse(responseCode = "403", description = "Declaration belongs to another taxpayer"),
+            @ApiResponse(responseCode = "404", description = "No receipt issued for the declaration yet"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @GetMapping
+    public ResponseEntity<DeclarationReceiptResponse> getReceipt(
+            @PathVariable Long declarationId,
+            @AuthenticationPrincipal UserEntity authenticatedUser) {
+
+        var receipt = receiptService.findReceipt(declarationId, authenticatedUser.getId());
+        return ResponseEntity.ok(DeclarationReceiptResponse.from(receipt));
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.matheusgusmao.incometax.web.controller;
+
+import br.com.matheusgusmao.incometax.domain.service.DeclarationRolloverService;
+import br.com.matheusgusmao.incometax.web.dto.rollover.DeclarationRolloverResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/declaration-rollovers")
+@Tag(name = "Declaration Rollover")
+public class DeclarationRolloverController {
+
+    private final DeclarationRolloverService rolloverService;
+
+    public DeclarationRolloverController(DeclarationRolloverService rolloverService) {
+        this.rolloverService = rolloverService;
+    }
+
+    @Operation(summary = "Create the declaration of a year for every active taxpayer",
+            description = "Resumes the last unfinished rollover of that year from its checkpoint, if there is one.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Rollover started"),
+            @ApiResponse(responseCode = "400", description = "A rollover is already running"),
+            @ApiResponse(responseCode = "403", description = "Administrator role required")
+    })
+    @PostMapping
+    public ResponseEntity<DeclarationRolloverResponse> start(@RequestParam int year) {
+        var progress = rolloverService.start(year);
+        return ResponseEntity.accepted().body(DeclarationRolloverResponse.from(progress));
+    }
+
+    @Operation(summary = "Get the progress of the latest declaration rollover")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Progress retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "No rollover has been run"),
+            @ApiResponse(responseCode = "403", description = "Administrator role required")
+    })
+    @GetMapping("/current")
+    public ResponseEntity<DeclarationRolloverResponse> getProgress() {
+        return rolloverService.getProgress()
+                .map(DeclarationRolloverResponse::from)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
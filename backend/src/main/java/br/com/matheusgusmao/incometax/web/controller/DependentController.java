@@ -2,7 +2,9 @@ package br.com.matheusgusmao.incometax.web.controller;
 
 import br.com.matheusgusmao.incometax.domain.model.dependent.Cpf;
 import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.service.DeclarationMutationExecutor;
 import br.com.matheusgusmao.incometax.domain.service.DeclarationService;
+import br.com.matheusgusmao.incometax.infra.persistence.entity.user.UserEntity;
 import br.com.matheusgusmao.incometax.web.dto.declaration.DeclarationResponse;
 import br.com.matheusgusmao.incometax.web.dto.dependent.CreateDependentRequest;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,7 +12,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -19,9 +23,11 @@ import org.springframework.web.bind.annotation.*;
 public class DependentController {
 
     private final DeclarationService declarationService;
+    private final DeclarationMutationExecutor mutationExecutor;
 
-    public DependentController(DeclarationService declarationService) {
+    public DependentController(DeclarationService declarationService, DeclarationMutationExecutor mutationExecutor) {
         this.declarationService = declarationService;
+        this.mutationExecutor = mutationExecutor;
     }
 
     @Operation(summary = "Add dependent to declaration")
@@ -29,6 +35,7 @@ public class DependentController {
             @ApiResponse(responseCode = "201", description = "Dependent added successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid CPF or duplicate dependent"),
             @ApiResponse(responseCode = "404", description = "Declaration not found"),
+            @ApiResponse(responseCode = "409", description = "Declaration kept changing concurrently"),
             @ApiResponse(responseCode = "401", description = "Authentication required")
     })
     @PostMapping
@@ -37,8 +44,34 @@ public class DependentController {
             @Valid @RequestBody CreateDependentRequest request) {
         var cpf = new Cpf(request.cpf());
         var dependent = new Dependent(request.name(), cpf, request.birthDate());
-        var response = declarationService.addDependent(declarationId, dependent);
+        var response = mutationExecutor.retrying(declarationId,
+                () -> declarationService.addDependent(declarationId, dependent));
 
-        return ResponseEntity.status(201).body(DeclarationResponse.from(response));
+        return ResponseEntity.status(201)
+                .eTag(DeclarationETags.of(declarationId, response.getVersion()))
+                .body(DeclarationResponse.from(response));
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Remove dependent from declaration")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Dependent removed successfully"),
+            @ApiResponse(responseCode = "403", description = "Declaration belongs to another taxpayer"),
+            @ApiResponse(responseCode = "404", description = "Declaration or dependent not found"),
+            @ApiResponse(responseCode = "409", description = "Declaration changed since the version given in If-Match"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @DeleteMapping("/{dependentId}")
+    public ResponseEntity<Void> removeDependent(
+            @PathVariable Long declarationId,
+            @PathVariable Long dependentId,
+            @AuthenticationPrincipal UserEntity authenticatedUser,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        var taxpayerId = authenticatedUser.getId();
+        var expectedVersion = DeclarationETags.parseVersion(ifMatch, declarationId);
+        var updatedDeclaration = mutationExecutor.once(declarationId,
+                () -> declarationService.removeDependent(declarationId, dependentId, taxpayerId, expectedVersion));
+
+        return ResponseEntity.noContent().eTag(DeclarationETags.of(declarationId, updatedDeclaration.getVersion())).build();
+    }
+}
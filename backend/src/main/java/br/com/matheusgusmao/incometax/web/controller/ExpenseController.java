@@ -1,6 +1,7 @@
 package br.com.matheusgusmao.incometax.web.controller;
 
 import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.service.DeclarationMutationExecutor;
 import br.com.matheusgusmao.incometax.domain.service.DeclarationService;
 import br.com.matheusgusmao.incometax.infra.persistence.entity.user.UserEntity;
 import br.com.matheusgusmao.incometax.web.dto.expense.CreateExpenseRequest;
@@ -10,6 +11,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -20,15 +22,18 @@ import org.springframework.web.bind.annotation.*;
 public class ExpenseController {
 
     private final DeclarationService declarationService;
+    private final DeclarationMutationExecutor mutationExecutor;
 
-    public ExpenseController(DeclarationService declarationService) {
+    public ExpenseController(DeclarationService declarationService, DeclarationMutationExecutor mutationExecutor) {
         this.declarationService = declarationService;
+        this.mutationExecutor = mutationExecutor;
     }
 
     @Operation(summary = "Add deductible expense to declaration")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Expense added successfully"),
             @ApiResponse(responseCode = "404", description = "Declaration not found"),
+            @ApiResponse(responseCode = "409", description = "Declaration kept changing concurrently"),
             @ApiResponse(responseCode = "401", description = "Authentication required")
     })
     @PostMapping
@@ -38,15 +43,41 @@ public class ExpenseController {
             @AuthenticationPrincipal UserEntity authenticatedUser) {
         
         var expense = new DeductibleExpense(request.description(), request.type(), request.value());
-        var updatedDeclaration = declarationService.addDeductibleExpense(declarationId, expense);
+        var updatedDeclaration = mutationExecutor.retrying(declarationId,
+                () -> declarationService.addDeductibleExpense(declarationId, expense));
         
         var addedExpense = updatedDeclaration.getDeductibleExpenses().stream()
                 .filter(e -> e.getDescription().equals(request.description()) && 
                            e.getType().equals(request.type()) && 
-                           e.getValue().equals(request.value()))
+                           e.getValue().equals(expense.getValue()))
                 .findFirst()
                 .orElseThrow();
         
-        return ResponseEntity.status(201).body(ExpenseResponse.from(addedExpense));
+        return ResponseEntity.status(201)
+                .eTag(DeclarationETags.of(declarationId, updatedDeclaration.getVersion()))
+                .body(ExpenseResponse.from(addedExpense));
+    }
+
+    @Operation(summary = "Remove deductible expense from declaration")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Expense removed successfully"),
+            @ApiResponse(responseCode = "403", description = "Declaration belongs to another taxpayer"),
+            @ApiResponse(responseCode = "404", description = "Declaration or expense not found"),
+            @ApiResponse(responseCode = "409", description = "Declaration changed since the version given in If-Match"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @DeleteMapping("/{expenseId}")
+    public ResponseEntity<Void> removeExpense(
+            @PathVariable Long declarationId,
+            @PathVariable Long expenseId,
+            @AuthenticationPrincipal UserEntity authenticatedUser,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        var taxpayerId = authenticatedUser.getId();
+        var expectedVersion = DeclarationETags.parseVersion(ifMatch, declarationId);
+        var updatedDeclaration = mutationExecutor.once(declarationId,
+                () -> declarationService.removeDeductibleExpense(declarationId, expenseId, taxpayerId, expectedVersion));
+
+        return ResponseEntity.noContent().eTag(DeclarationETags.of(declarationId, updatedDeclaration.getVersion())).build();
     }
 }
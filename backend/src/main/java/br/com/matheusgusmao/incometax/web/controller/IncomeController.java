@@ -1,6 +1,7 @@
 package br.com.matheusgusmao.incometax.web.controller;
 
 import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.service.DeclarationMutationExecutor;
 import br.com.matheusgusmao.incometax.domain.service.DeclarationService;
 import br.com.matheusgusmao.incometax.infra.persistence.entity.user.UserEntity;
 import br.com.matheusgusmao.incometax.web.dto.income.CreateIncomeRequest;
@@ -10,6 +11,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -20,15 +22,18 @@ import org.springframework.web.bind.annotation.*;
 public class IncomeController {
 
     private final DeclarationService declarationService;
+    private final DeclarationMutationExecutor mutationExecutor;
 
-    public IncomeController(DeclarationService declarationService) {
+    public IncomeController(DeclarationService declarationService, DeclarationMutationExecutor mutationExecutor) {
         this.declarationService = declarationService;
+        this.mutationExecutor = mutationExecutor;
     }
 
     @Operation(summary = "Add income to declaration")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Income added successfully"),
             @ApiResponse(responseCode = "404", description = "Declaration not found"),
+            @ApiResponse(responseCode = "409", description = "Declaration kept changing concurrently"),
             @ApiResponse(responseCode = "401", description = "Authentication required")
     })
     @PostMapping
@@ -38,15 +43,41 @@ public class IncomeController {
             @AuthenticationPrincipal UserEntity authenticatedUser) {
         
         var income = new Income(request.payingSource(), request.type(), request.value());
-        var updatedDeclaration = declarationService.addIncome(declarationId, income);
+        var updatedDeclaration = mutationExecutor.retrying(declarationId,
+                () -> declarationService.addIncome(declarationId, income));
         
         var addedIncome = updatedDeclaration.getIncomes().stream()
                 .filter(i -> i.getPayingSource().equals(request.payingSource()) && 
                            i.getType().equals(request.type()) && 
-                           i.getValue().equals(request.value()))
+                           i.getValue().equals(income.getValue()))
                 .findFirst()
                 .orElseThrow();
         
-        return ResponseEntity.status(201).body(IncomeResponse.from(addedIncome));
+        return ResponseEntity.status(201)
+                .eTag(DeclarationETags.of(declarationId, updatedDeclaration.getVersion()))
+                .body(IncomeResponse.from(addedIncome));
+    }
+
+    @Operation(summary = "Remove income from declaration")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Income removed successfully"),
+            @ApiResponse(responseCode = "403", description = "Declaration belongs to another taxpayer"),
+            @ApiResponse(responseCode = "404", description = "Declaration or income not found"),
+            @ApiResponse(responseCode = "409", description = "Declaration changed since the version given in If-Match"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @DeleteMapping("/{incomeId}")
+    public ResponseEntity<Void> removeIncome(
+            @PathVariable Long declarationId,
+            @PathVariable Long incomeId,
+            @AuthenticationPrincipal UserEntity authenticatedUser,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        var taxpayerId = authenticatedUser.getId();
+        var expectedVersion = DeclarationETags.parseVersion(ifMatch, declarationId);
+        var updatedDeclaration = mutationExecutor.once(declarationId,
+                () -> declarationService.removeIncome(declarationId, incomeId, taxpayerId, expectedVersion));
+
+        return ResponseEntity.noContent().eTag(DeclarationETags.of(declarationId, updatedDeclaration.getVersion())).build();
     }
 }
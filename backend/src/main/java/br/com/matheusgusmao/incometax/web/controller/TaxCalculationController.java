@@ -0,0 +1,44 @@
+package br.com.matheusgusmao.incometax.web.controller;
+
+import br.com.matheusgusmao.incometax.domain.service.TaxCalculationService;
+import br.com.matheusgusmao.incometax.infra.persistence.entity.user.UserEntity;
+import br.com.matheusgusmao.incometax.web.dto.calculation.TaxCalculationResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/declarations/{declarationId}/tax-calculation")
+@Tag(name = "Operations involving Declaration entity.")
+public class TaxCalculationController {
+
+    private final TaxCalculationService taxCalculationService;
+
+    public TaxCalculationController(TaxCalculationService taxCalculationService) {
+        this.taxCalculationService = taxCalculationService;
+    }
+
+    @Operation(summary = "Get the tax calculation of a declaration",
+            description = "Served from the stored calculation while the declaration has not changed since it was made.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Calculation of the current version of the declaration"),
+            @ApiResponse(responseCode = "403", description = "Declaration belongs to another taxpayer"),
+            @ApiResponse(responseCode = "404", description = "Declaration not found"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @GetMapping
+    public ResponseEntity<TaxCalculationResponse> getTaxCalculation(
+            @PathVariable Long declarationId,
+            @AuthenticationPrincipal UserEntity authenticatedUser) {
+
+        var result = taxCalculationService.findOrCalculate(declarationId, authenticatedUser.getId());
+        return ResponseEntity.ok(TaxCalculationResponse.from(declarationId, result));
+    }
+}
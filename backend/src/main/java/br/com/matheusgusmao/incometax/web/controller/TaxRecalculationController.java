@@ -0,0 +1,52 @@
+package br.com.matheusgusmao.incometax.web.controller;
+
+import br.com.matheusgusmao.incometax.domain.service.TaxRecalculationService;
+import br.com.matheusgusmao.incometax.web.dto.recalculation.TaxRecalculationResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/tax-recalculations")
+@Tag(name = "Tax Recalculation")
+public class TaxRecalculationController {
+
+    private final TaxRecalculationService taxRecalculationService;
+
+    public TaxRecalculationController(TaxRecalculationService taxRecalculationService) {
+        this.taxRecalculationService = taxRecalculationService;
+    }
+
+    @Operation(summary = "Recalculate the tax of every declaration in editing status",
+            description = "Resumes the last unfinished recalculation from its checkpoint, if there is one.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Recalculation started"),
+            @ApiResponse(responseCode = "400", description = "A recalculation is already running"),
+            @ApiResponse(responseCode = "403", description = "Administrator role required")
+    })
+    @PostMapping
+    public ResponseEntity<TaxRecalculationResponse> start() {
+        var progress = taxRecalculationService.start();
+        return ResponseEntity.accepted().body(TaxRecalculationResponse.from(progress));
+    }
+
+    @Operation(summary = "Get the progress of the latest tax recalculation")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Progress retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "No recalculation has been run"),
+            @ApiResponse(responseCode = "403", description = "Administrator role required")
+    })
+    @GetMapping("/current")
+    public ResponseEntity<TaxRecalculationResponse> getProgress() {
+        return taxRecalculationService.getProgress()
+                .map(TaxRecalculationResponse::from)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
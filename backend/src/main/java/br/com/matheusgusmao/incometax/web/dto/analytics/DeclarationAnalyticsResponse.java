@@ -0,0 +1,40 @@
+package br.com.matheusgusmao.incometax.web.dto.analytics;
+
+import br.com.matheusgusmao.incometax.domain.model.analytics.BracketSummary;
+import br.com.matheusgusmao.incometax.domain.model.analytics.DeclarationAnalyticsSummary;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public record DeclarationAnalyticsResponse(
+        int year,
+        long declarations,
+        Map<String, Long> declarationsByStatus,
+        Map<String, Money> incomeByType,
+        Map<String, Money> deductionsByType,
+        List<BracketSummary> taxBrackets,
+        Map<String, Money> taxDuePercentiles) {
+
+    public static DeclarationAnalyticsResponse from(DeclarationAnalyticsSummary summary) {
+        Map<String, Money> percentiles = new LinkedHashMap<>();
+        summary.taxDuePercentiles().forEach((percentile, value) -> percentiles.put("p" + percentile, value));
+
+        return new DeclarationAnalyticsResponse(
+                summary.year(),
+                summary.declarations(),
+                byName(summary.declarationsByStatus()),
+                byName(summary.incomeByType()),
+                byName(summary.deductionsByType()),
+                summary.taxBrackets(),
+                percentiles
+        );
+    }
+
+    private static <K extends Enum<K>, V> Map<String, V> byName(Map<K, V> values) {
+        Map<String, V> result = new LinkedHashMap<>();
+        values.forEach((key, value) -> result.put(key.name(), value));
+        return result;
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.matheusgusmao.incometax.web.dto.audit;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import br.com.matheusgusmao.incometax.infra.audit.DeclarationAuditRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record DeclarationAuditRecordResponse(
+        LocalDateTime timestamp,
+        String actor,
+        DeclarationEventType type,
+        Long declarationId,
+        UUID taxpayerId,
+        Long version,
+        BigDecimal amount,
+        Long incomeId,
+        Long expenseId,
+        Long dependentId,
+        Long copiedFromDeclarationId) {
+
+    public static DeclarationAuditRecordResponse from(DeclarationAuditRecord auditRecord) {
+        var type = auditRecord.type();
+        return new DeclarationAuditRecordResponse(auditRecord.timestamp(), auditRecord.actor(), type,
+                auditRecord.declarationId(), auditRecord.taxpayerId(), auditRecord.version(),
+                Money.ofCents(auditRecord.amountCents()).toBigDecimal(),
+                relatedIdOf(auditRecord, type == DeclarationEventType.INCOME_ADDED || type == DeclarationEventType.INCOME_REMOVED),
+                relatedIdOf(auditRecord, type == DeclarationEventType.EXPENSE_ADDED || type == DeclarationEventType.EXPENSE_REMOVED),
+                relatedIdOf(auditRecord, type == DeclarationEventType.DEPENDENT_ADDED || type == DeclarationEventType.DEPENDENT_REMOVED),
+                relatedIdOf(auditRecord, type == DeclarationEventType.DECLARATION_COPIED));
+    }
+
+    // Records written before related ids were kept carry 0.
+    private static Long relatedIdOf(DeclarationAuditRecord auditRecord, boolean applies) {
+        return applies && auditRecord.relatedId() != 0 ? auditRecord.relatedId() : null;
+    }
+}
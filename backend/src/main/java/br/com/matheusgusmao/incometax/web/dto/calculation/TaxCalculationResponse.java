@@ -0,0 +1,27 @@
+package br.com.matheusgusmao.incometax.web.dto.calculation;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.TaxCalculationResult;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public record TaxCalculationResponse(
+        Long declarationId,
+        Money totalIncome,
+        Money totalDeductions,
+        Money calculationBase,
+        Money taxDue,
+        BigDecimal effectiveAliquot) {
+
+    // Stored aliquots come back from the database without their trailing zeros.
+    public static TaxCalculationResponse from(Long declarationId, TaxCalculationResult result) {
+        return new TaxCalculationResponse(
+                declarationId,
+                result.totalIncome(),
+                result.totalDeductions(),
+                result.calculationBase(),
+                result.taxDue(),
+                result.effectiveAliquot().setScale(4, RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.matheusgusmao.incometax.web.dto.declaration;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationAmendment;
+
+import java.time.LocalDateTime;
+
+public record DeclarationAmendmentResponse(int amendment, LocalDateTime deliveryDate, LocalDateTime amendedAt) {
+
+    public static DeclarationAmendmentResponse from(DeclarationAmendment amendment) {
+        return new DeclarationAmendmentResponse(amendment.amendment(), amendment.deliveryDate(), amendment.amendedAt());
+    }
+}
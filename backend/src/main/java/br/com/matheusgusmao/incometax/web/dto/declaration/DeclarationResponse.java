@@ -1,18 +1,25 @@
 package br.com.matheusgusmao.incometax.web.dto.declaration;
 
 import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationSnapshot;
 
 import java.time.LocalDateTime;
 
-public record DeclarationResponse(Long id, int year, String status, LocalDateTime deliveryDate) {
+public record DeclarationResponse(Long id, int year, int amendment, String status, LocalDateTime deliveryDate) {
 
     public static DeclarationResponse from(Declaration declaration) {
         return new DeclarationResponse(
                 declaration.getId(),
                 declaration.getYear(),
+                declaration.getAmendment(),
                 declaration.getStatus().name(),
                 declaration.getDeliveryDate()
 
         );
     }
-}
\ No newline at end of file
+
+    public static DeclarationResponse from(DeclarationSnapshot declaration) {
+        return new DeclarationResponse(declaration.id(), declaration.year(), declaration.amendment(), declaration.status().name(),
+                declaration.deliveryDate());
+    }
+}
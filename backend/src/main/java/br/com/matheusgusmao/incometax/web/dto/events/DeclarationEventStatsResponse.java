@@ -0,0 +1,17 @@
+package br.com.matheusgusmao.incometax.web.dto.events;
+
+import br.com.matheusgusmao.incometax.infra.event.DeclarationEventBusStats;
+import br.com.matheusgusmao.incometax.infra.event.DeclarationEventTotals;
+
+import java.util.List;
+
+public record DeclarationEventStatsResponse(
+        int capacity,
+        long published,
+        List<DeclarationEventBusStats.ConsumerStats> consumers,
+        List<DeclarationEventTotals.Total> totals) {
+
+    public static DeclarationEventStatsResponse from(DeclarationEventBusStats stats, List<DeclarationEventTotals.Total> totals) {
+        return new DeclarationEventStatsResponse(stats.capacity(), stats.published(), stats.consumers(), totals);
+    }
+}
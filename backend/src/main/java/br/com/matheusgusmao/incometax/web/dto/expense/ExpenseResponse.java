@@ -2,10 +2,9 @@ package br.com.matheusgusmao.incometax.web.dto.expense;
 
 import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
 import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
 
-import java.math.BigDecimal;
-
-public record ExpenseResponse(Long id, String description, ExpenseType type, BigDecimal value) {
+public record ExpenseResponse(Long id, String description, ExpenseType type, Money value) {
     public static ExpenseResponse from(DeductibleExpense domain) {
         return new ExpenseResponse(domain.getId(), domain.getDescription(), domain.getType(), domain.getValue());
     }
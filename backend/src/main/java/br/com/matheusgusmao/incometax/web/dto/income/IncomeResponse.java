@@ -2,10 +2,9 @@ package br.com.matheusgusmao.incometax.web.dto.income;
 
 import br.com.matheusgusmao.incometax.domain.model.income.Income;
 import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
 
-import java.math.BigDecimal;
-
-public record IncomeResponse(Long id, String payingSource, IncomeType type, BigDecimal value) {
+public record IncomeResponse(Long id, String payingSource, IncomeType type, Money value) {
 
     public static IncomeResponse from(Income income) {
         return new IncomeResponse(
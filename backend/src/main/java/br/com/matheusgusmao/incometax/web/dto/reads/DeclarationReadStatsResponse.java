@@ -0,0 +1,10 @@
+package br.com.matheusgusmao.incometax.web.dto.reads;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationReadStats;
+
+public record DeclarationReadStatsResponse(long reads, long loads, long loadsSaved) {
+
+    public static DeclarationReadStatsResponse from(DeclarationReadStats stats) {
+        return new DeclarationReadStatsResponse(stats.reads(), stats.loads(), stats.coalesced());
+    }
+}
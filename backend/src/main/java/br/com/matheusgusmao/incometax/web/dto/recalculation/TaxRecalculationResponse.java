@@ -0,0 +1,27 @@
+package br.com.matheusgusmao.incometax.web.dto.recalculation;
+
+import br.com.matheusgusmao.incometax.domain.model.recalculation.TaxRecalculationProgress;
+
+import java.time.LocalDateTime;
+
+public record TaxRecalculationResponse(
+        Long jobId,
+        String status,
+        long lastDeclarationId,
+        long processed,
+        long declarationsPerSecond,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt) {
+
+    public static TaxRecalculationResponse from(TaxRecalculationProgress progress) {
+        return new TaxRecalculationResponse(
+                progress.jobId(),
+                progress.status().name(),
+                progress.lastDeclarationId(),
+                progress.processed(),
+                Math.round(progress.declarationsPerSecond()),
+                progress.startedAt(),
+                progress.finishedAt()
+        );
+    }
+}
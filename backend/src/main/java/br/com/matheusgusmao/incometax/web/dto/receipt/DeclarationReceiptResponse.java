@@ -0,0 +1,12 @@
+package br.com.matheusgusmao.incometax.web.dto.receipt;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationReceipt;
+
+import java.time.LocalDateTime;
+
+public record DeclarationReceiptResponse(Long declarationId, String number, LocalDateTime issuedAt) {
+
+    public static DeclarationReceiptResponse from(DeclarationReceipt receipt) {
+        return new DeclarationReceiptResponse(receipt.declarationId(), receipt.number(), receipt.issuedAt());
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.matheusgusmao.incometax.web.dto.rollover;
+
+import br.com.matheusgusmao.incometax.domain.model.rollover.DeclarationRolloverProgress;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record DeclarationRolloverResponse(
+        Long jobId,
+        int year,
+        String status,
+        UUID lastTaxpayerId,
+        long created,
+        long declarationsPerSecond,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt) {
+
+    public static DeclarationRolloverResponse from(DeclarationRolloverProgress progress) {
+        return new DeclarationRolloverResponse(
+                progress.jobId(),
+                progress.year(),
+                progress.status().name(),
+                progress.lastTaxpayerId(),
+                progress.created(),
+                Math.round(progress.declarationsPerSecond()),
+                progress.startedAt(),
+                progress.finishedAt()
+        );
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.matheusgusmao.incometax.web.idempotency;
+
+import br.com.matheusgusmao.incometax.infra.persistence.projection.IdempotentResponse;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.IdempotencyKeyRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Responses of requests sent with an {@code Idempotency-Key}, kept until their TTL runs out. Every response
+ * is written to the database, which survives restarts; the most recent ones are also held in memory, up to
+ * a byte budget, so most retries are answered without a query.
+ */
+@Slf4j
+@Component
+public class IdempotentResponseStore {
+
+    private final IdempotencyKeyRepository repository;
+    @Getter
+    private final Duration ttl;
+    private final long maxBytes;
+    private final ConcurrentHashMap<Scope, IdempotentResponse> responses = new ConcurrentHashMap<>();
+    private final ArrayDeque<Scope> insertionOrder = new ArrayDeque<>();
+    private final Set<Scope> inFlight = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long cachedBytes;
+
+    public IdempotentResponseStore(IdempotencyKeyRepository repository,
+                                   @Value("${application.idempotency.ttlMillis:86400000}") long ttlMillis,
+                                   @Value("${application.idempotency.maxBytes:8388608}") long maxBytes) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("Idempotency key TTL must be positive.");
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Idempotency cache size cannot be negative.");
+        }
+        this.repository = repository;
+        this.ttl = Duration.ofMillis(ttlMillis);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Claims the key for a request about to run. Returns false while another request with the same key is
+     * still running on this instance; claims are not shared between instances.
+     */
+    public boolean begin(String owner, String idempotencyKey) {
+        return inFlight.add(new Scope(owner, idempotencyKey));
+    }
+
+    public void end(String owner, String idempotencyKey) {
+        inFlight.remove(new Scope(owner, idempotencyKey));
+    }
+
+    public Optional<IdempotentResponse> find(String owner, String idempotencyKey) {
+        var now = LocalDateTime.now();
+        var cached = responses.get(new Scope(owner, idempotencyKey));
+        if (cached != null && !cached.isExpired(now)) {
+            return Optional.of(cached);
+        }
+        return repository.find(owner, idempotencyKey, now);
+    }
+
+    public void save(String owner, String idempotencyKey, IdempotentResponse response) {
+        repository.save(owner, idempotencyKey, response);
+        if (response.body().length > maxBytes) {
+            return;
+        }
+
+        var scope = new Scope(owner, idempotencyKey);
+        lock.lock();
+        try {
+            var previous = responses.put(scope, response);
+            if (previous != null) {
+                cachedBytes -= previous.body().length;
+                insertionOrder.remove(scope);
+            }
+            insertionOrder.addLast(scope);
+            cachedBytes += response.body().length;
+            while (cachedBytes > maxBytes) {
+                evictOldest();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.idempotency.purgeIntervalMillis:3600000}")
+    public void purgeExpired() {
+        var now = LocalDateTime.now();
+        lock.lock();
+        try {
+            // Every entry lives for the same TTL, so the oldest entries are the first to expire.
+            while (!insertionOrder.isEmpty() && responses.get(insertionOrder.peekFirst()).isExpired(now)) {
+                evictOldest();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        var purged = repository.deleteExpired(now);
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    long cachedBytes() {
+        lock.lock();
+        try {
+            return cachedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictOldest() {
+        var evicted = responses.remove(insertionOrder.removeFirst());
+        cachedBytes -= evicted.body().length;
+    }
+
+    private record Scope(String owner, String idempotencyKey) {
+    }
+}
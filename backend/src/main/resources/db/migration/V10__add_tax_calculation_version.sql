@@ -0,0 +1,3 @@
+-- The declaration version a stored calculation was made from. A row whose version is behind the
+-- declaration's is stale and gets recalculated on the next read.
+alter table tax_calculations add column declaration_version bigint not null default -1;
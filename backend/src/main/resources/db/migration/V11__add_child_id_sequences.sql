@@ -0,0 +1,14 @@
+-- The next id of each child table. Document and event storage give children their ids before the rows
+-- are written, so the ids are taken from here rather than from the table's own rowid.
+create table child_id_sequences (
+    table_name varchar(64) not null primary key,
+    next_id bigint not null
+) without rowid;
+
+insert into child_id_sequences (table_name, next_id) select 'incomes', coalesce(max(id), 0) + 1 from incomes;
+insert into child_id_sequences (table_name, next_id) select 'deductible_expenses', coalesce(max(id), 0) + 1 from deductible_expenses;
+insert into child_id_sequences (table_name, next_id) select 'dependents', coalesce(max(id), 0) + 1 from dependents;
+
+-- Documents written so far numbered their children per declaration. Without them the child tables, which
+-- the projection kept in step, are read again until the next save writes a document with table ids.
+update declarations set document = null where document is not null;
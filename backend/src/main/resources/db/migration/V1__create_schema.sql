@@ -0,0 +1,67 @@
+create table app_user (
+    id blob not null,
+    email varchar(255) not null unique,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    password varchar(255) not null,
+    role varchar(255) check (role in ('USER', 'ADMIN')),
+    primary key (id)
+);
+
+create table declarations (
+    id integer,
+    taxpayer_id blob not null,
+    year integer not null,
+    status varchar(30) not null check (status in ('EDITING', 'DELIVERED')),
+    delivery_date timestamp,
+    version bigint not null,
+    primary key (id)
+);
+
+create table incomes (
+    id integer,
+    declaration_id integer not null references declarations (id) on delete cascade,
+    paying_source varchar(255) not null,
+    type varchar(30) not null check (type in ('SALARY', 'VACATION', 'THIRTEENTH_SALARY', 'OTHER')),
+    value numeric(10, 2) not null,
+    primary key (id)
+);
+
+create table deductible_expenses (
+    id integer,
+    declaration_id integer not null references declarations (id) on delete cascade,
+    description varchar(255) not null,
+    type varchar(30) not null check (type in ('HEALTH', 'EDUCATION', 'OTHER')),
+    value numeric(10, 2) not null,
+    primary key (id)
+);
+
+create table dependents (
+    id integer,
+    declaration_id integer not null references declarations (id) on delete cascade,
+    name varchar(255) not null,
+    cpf varchar(11) not null,
+    birth_date date not null,
+    primary key (id)
+);
+
+create table tax_calculations (
+    declaration_id bigint not null references declarations (id) on delete cascade,
+    total_income numeric(12, 2) not null,
+    total_deductions numeric(12, 2) not null,
+    calculation_base numeric(12, 2) not null,
+    tax_due numeric(12, 2) not null,
+    effective_aliquot numeric(7, 4) not null,
+    calculated_at timestamp not null,
+    primary key (declaration_id)
+);
+
+create table tax_recalculation_jobs (
+    id integer,
+    status varchar(30) not null check (status in ('RUNNING', 'FAILED', 'COMPLETED')),
+    last_declaration_id bigint not null,
+    processed bigint not null,
+    started_at timestamp not null,
+    finished_at timestamp,
+    primary key (id)
+);
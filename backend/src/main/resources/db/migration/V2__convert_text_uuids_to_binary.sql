@@ -0,0 +1,10 @@
+-- Converts databases created while UUIDs were stored as 36-character text to 16-byte blobs.
+-- Safe to run more than once: rows that are already binary are skipped.
+-- Requires SQLite 3.41+ for unhex(); the bundled sqlite-jdbc driver ships a newer engine.
+update app_user
+set id = unhex(replace(id, '-', ''))
+where typeof(id) = 'text';
+
+update declarations
+set taxpayer_id = unhex(replace(taxpayer_id, '-', ''))
+where typeof(taxpayer_id) = 'text';
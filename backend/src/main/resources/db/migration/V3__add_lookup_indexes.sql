@@ -0,0 +1,11 @@
+create unique index if not exists ux_app_user_email_normalized on app_user (lower(email));
+
+create unique index if not exists ux_declarations_taxpayer_year on declarations (taxpayer_id, year);
+
+create index if not exists ix_declarations_editing on declarations (id) where status = 'EDITING';
+
+create index if not exists ix_incomes_declaration on incomes (declaration_id);
+
+create index if not exists ix_deductible_expenses_declaration on deductible_expenses (declaration_id);
+
+create index if not exists ix_dependents_declaration on dependents (declaration_id);
@@ -0,0 +1 @@
+alter table declarations add column document blob;
@@ -0,0 +1,10 @@
+create table declaration_rollover_jobs (
+    id integer,
+    year integer not null,
+    status varchar(30) not null check (status in ('RUNNING', 'FAILED', 'COMPLETED')),
+    last_taxpayer_id blob,
+    created bigint not null,
+    started_at timestamp not null,
+    finished_at timestamp,
+    primary key (id)
+);
@@ -0,0 +1,14 @@
+create table idempotency_keys (
+    owner varchar(255) not null,
+    idempotency_key varchar(255) not null,
+    request_hash blob not null,
+    status integer not null,
+    content_type varchar(255),
+    location varchar(2048),
+    etag varchar(255),
+    body blob not null,
+    expires_at timestamp not null,
+    primary key (owner, idempotency_key)
+);
+
+create index ix_idempotency_keys_expires_at on idempotency_keys (expires_at);
@@ -0,0 +1,25 @@
+create table declaration_submission_outbox (
+    id integer,
+    declaration_id bigint not null,
+    taxpayer_id blob not null,
+    year integer not null,
+    delivery_date timestamp not null,
+    status varchar(30) not null check (status in ('PENDING', 'DEAD')),
+    attempts integer not null,
+    available_at timestamp not null,
+    claimed_until timestamp,
+    last_error varchar(1000),
+    created_at timestamp not null,
+    primary key (id)
+);
+
+create index ix_declaration_submission_outbox_pending on declaration_submission_outbox (available_at) where status = 'PENDING';
+
+-- No foreign key: receipts outlive the declarations rows when delivered declarations are archived.
+create table declaration_receipts (
+    declaration_id bigint not null,
+    taxpayer_id blob not null,
+    number varchar(30) not null,
+    issued_at timestamp not null,
+    primary key (declaration_id)
+);
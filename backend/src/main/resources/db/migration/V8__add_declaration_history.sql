@@ -0,0 +1,22 @@
+-- History of declarations kept by the events storage mode. Neither table references declarations, so the
+-- history of a declaration outlives its row when it is archived.
+create table declaration_events (
+    declaration_id bigint not null,
+    version bigint not null,
+    changes blob not null,
+    recorded_at timestamp not null,
+    primary key (declaration_id, version)
+) without rowid;
+
+create table declaration_snapshots (
+    declaration_id bigint not null,
+    version bigint not null,
+    taxpayer_id blob not null,
+    year integer not null,
+    status varchar(30) not null,
+    delivery_date timestamp,
+    last_child_id bigint not null,
+    document blob not null,
+    recorded_at timestamp not null,
+    primary key (declaration_id, version)
+) without rowid;
@@ -0,0 +1,52 @@
+-- The amendment a declaration is on, and for each child the amendment that added it. Rows never change
+-- their amendment, so a child is stored once and shared by every version that holds it.
+alter table declarations add column amendment integer not null default 0;
+alter table incomes add column amendment integer not null default 0;
+alter table deductible_expenses add column amendment integer not null default 0;
+alter table dependents add column amendment integer not null default 0;
+
+-- One row per delivered version that an amendment replaced.
+create table declaration_amendments (
+    declaration_id integer not null references declarations (id) on delete cascade,
+    amendment integer not null,
+    version bigint not null,
+    delivery_date timestamp not null,
+    amended_at timestamp not null,
+    primary key (declaration_id, amendment)
+) without rowid;
+
+-- Children an amendment removed while an earlier delivered version still holds them, with the id they
+-- had and the amendment that removed them. SQLite may hand a deleted child's id to a new row, so the id
+-- alone does not identify one.
+create table removed_incomes (
+    id integer,
+    declaration_id integer not null references declarations (id) on delete cascade,
+    paying_source varchar(255) not null,
+    type varchar(30) not null,
+    value numeric(10, 2) not null,
+    amendment integer not null,
+    removed_in integer not null,
+    primary key (declaration_id, id, amendment)
+);
+
+create table removed_deductible_expenses (
+    id integer,
+    declaration_id integer not null references declarations (id) on delete cascade,
+    description varchar(255) not null,
+    type varchar(30) not null,
+    value numeric(10, 2) not null,
+    amendment integer not null,
+    removed_in integer not null,
+    primary key (declaration_id, id, amendment)
+);
+
+create table removed_dependents (
+    id integer,
+    declaration_id integer not null references declarations (id) on delete cascade,
+    name varchar(255) not null,
+    cpf varchar(11) not null,
+    birth_date date not null,
+    amendment integer not null,
+    removed_in integer not null,
+    primary key (declaration_id, id, amendment)
+);
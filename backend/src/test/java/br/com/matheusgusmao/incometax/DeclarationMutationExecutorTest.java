@@ -0,0 +1,243 @@
+package br.com.matheusgusmao.incometax;
+
+import br.com.matheusgusmao.incometax.domain.service.DeclarationMutationExecutor;
+import br.com.matheusgusmao.incometax.domain.service.DeclarationService;
+import br.com.matheusgusmao.incometax.infra.exception.custom.DeclarationVersionConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DeclarationMutationExecutor")
+class DeclarationMutationExecutorTest {
+
+    @Mock
+    private DeclarationService declarationService;
+
+    private DeclarationMutationExecutor mutationExecutor;
+
+    @BeforeEach
+    void setUp() {
+        mutationExecutor = new DeclarationMutationExecutor(declarationService, 3, 16);
+    }
+
+    @Test
+    @DisplayName("When a commutative mutation loses the race once Then it is retried and succeeds")
+    void shouldRetryCommutativeMutationAfterConflict() {
+        var attempts = new AtomicInteger();
+
+        var result = mutationExecutor.retrying(1L, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException("DeclarationEntity", 1L);
+            }
+            return "saved";
+        });
+
+        assertThat(result).isEqualTo("saved");
+        assertThat(attempts).hasValue(2);
+        verifyNoInteractions(declarationService);
+    }
+
+    @Test
+    @DisplayName("When a commutative mutation keeps conflicting Then a conflict with the current version is thrown")
+    void shouldGiveUpAfterMaxAttempts() {
+        var attempts = new AtomicInteger();
+        when(declarationService.findVersion(1L)).thenReturn(8L);
+
+        assertThatThrownBy(() -> mutationExecutor.retrying(1L, () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("DeclarationEntity", 1L);
+        }))
+                .isInstanceOf(DeclarationVersionConflictException.class)
+                .extracting("currentVersion").isEqualTo(8L);
+
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("When a conflicting mutation loses the race Then it is not retried")
+    void shouldNotRetryConflictingMutation() {
+        var attempts = new AtomicInteger();
+        when(declarationService.findVersion(1L)).thenReturn(4L);
+
+        assertThatThrownBy(() -> mutationExecutor.once(1L, () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("DeclarationEntity", 1L);
+        }))
+                .isInstanceOf(DeclarationVersionConflictException.class)
+                .hasMessage("Declaration 1 was modified concurrently. Current version is 4.");
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("When max attempts is lower than one Then construction should fail")
+    void shouldRejectInvalidMaxAttempts() {
+        assertThatThrownBy(() -> new DeclarationMutationExecutor(declarationService, 0, 16))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("When lock stripes is lower than one Then construction should fail")
+    void shouldRejectInvalidLockStripes() {
+        assertThatThrownBy(() -> new DeclarationMutationExecutor(declarationService, 3, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("When many threads mutate the same declaration Then every version-checked write lands without a conflict")
+    void shouldSerializeMutationsOfTheSameDeclaration() throws Exception {
+        var row = new VersionedRow();
+        var writers = 200;
+
+        try (var threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            var start = new CountDownLatch(1);
+            var results = new ArrayList<Future<Long>>();
+            for (int i = 0; i < writers; i++) {
+                results.add(threads.submit(() -> {
+                    start.await();
+                    return mutationExecutor.once(1L, row::readModifyWrite);
+                }));
+            }
+            start.countDown();
+            for (var result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        }
+
+        assertThat(row.version).hasValue(writers);
+        verifyNoInteractions(declarationService);
+    }
+
+    @Test
+    @DisplayName("When one declaration is being mutated Then another declaration is not blocked")
+    void shouldNotBlockOtherDeclarations() throws Exception {
+        var holding = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (var threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            var blocked = threads.submit(() -> mutationExecutor.once(1L, () -> {
+                holding.countDown();
+                await(release);
+                return "first";
+            }));
+            holding.await();
+
+            var other = threads.submit(() -> mutationExecutor.once(2L, () -> "second"));
+
+            assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+            assertThat(blocked.isDone()).isFalse();
+            release.countDown();
+            assertThat(blocked.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        }
+    }
+
+    @Test
+    @DisplayName("When a retried mutation backs off Then a mutation queued behind it runs in the meantime")
+    void shouldReleaseTheDeclarationWhileBackingOff() throws Exception {
+        var order = new CopyOnWriteArrayList<String>();
+        var holding = new CountDownLatch(1);
+
+        try (var threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            var retried = threads.submit(() -> mutationExecutor.retrying(1L, () -> {
+                if (order.isEmpty()) {
+                    order.add("first attempt");
+                    holding.countDown();
+                    sleep(50);
+                    throw new ObjectOptimisticLockingFailureException("DeclarationEntity", 1L);
+                }
+                order.add("second attempt");
+                return "saved";
+            }));
+            holding.await();
+            var queued = threads.submit(() -> mutationExecutor.once(1L, () -> order.add("queued")));
+
+            assertThat(retried.get(5, TimeUnit.SECONDS)).isEqualTo("saved");
+            queued.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(order).containsExactly("first attempt", "queued", "second attempt");
+    }
+
+    @Test
+    @DisplayName("When several declarations are mutated concurrently Then they run in parallel")
+    void shouldScaleAcrossDeclarations() throws Exception {
+        var declarations = 8;
+        var mutationsEach = 5;
+        var mutationMillis = 40;
+
+        var started = System.nanoTime();
+        try (var threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            var results = new ArrayList<Future<String>>();
+            for (long id = 1; id <= declarations; id++) {
+                var declarationId = id;
+                for (int i = 0; i < mutationsEach; i++) {
+                    results.add(threads.submit(() -> mutationExecutor.retrying(declarationId, () -> {
+                        sleep(mutationMillis);
+                        return "saved";
+                    })));
+                }
+            }
+            for (var result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        }
+        var elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // One declaration's mutations run back to back (5 x 40 ms); all 40 serially would take 1600 ms.
+        assertThat(elapsedMillis).isLessThan((long) declarations * mutationsEach * mutationMillis / 2);
+    }
+
+    // Stands in for a declaration row guarded by a version column: a writer that read a stale version fails.
+    private static final class VersionedRow {
+
+        private final AtomicLong version = new AtomicLong();
+
+        private long readModifyWrite() {
+            var read = version.get();
+            Thread.yield();
+            if (!version.compareAndSet(read, read + 1)) {
+                throw new ObjectOptimisticLockingFailureException("DeclarationEntity", 1L);
+            }
+            return read + 1;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+}
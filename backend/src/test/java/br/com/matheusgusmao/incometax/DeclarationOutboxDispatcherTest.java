@@ -0,0 +1,166 @@
+package br.com.matheusgusmao.incometax;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationSubmittedEvent;
+import br.com.matheusgusmao.incometax.domain.event.DeclarationSubmittedHandler;
+import br.com.matheusgusmao.incometax.domain.service.DeclarationOutboxDispatcher;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationOutboxEntry;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationOutboxRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DeclarationOutboxDispatcher")
+class DeclarationOutboxDispatcherTest {
+
+    private static final UUID TAXPAYER = UUID.fromString("0190c2a4-0000-7000-8000-000000000001");
+
+    @Mock
+    private DeclarationOutboxRepository outboxRepository;
+
+    // The in-process consumer the dispatcher delivers to.
+    private final List<DeclarationSubmittedEvent> received = Collections.synchronizedList(new ArrayList<>());
+    private final DeclarationSubmittedHandler recordingHandler = received::add;
+
+    private DeclarationOutboxDispatcher dispatcher(int batchSize, int maxAttempts, DeclarationSubmittedHandler... handlers) {
+        return new DeclarationOutboxDispatcher(outboxRepository, List.of(handlers), batchSize, maxAttempts, 1000, 8000, 60_000,
+                Runnable::run, Runnable::run);
+    }
+
+    private static DeclarationOutboxEntry entry(long id, int attempts) {
+        return new DeclarationOutboxEntry(id, new DeclarationSubmittedEvent(id, TAXPAYER, 2025, LocalDateTime.of(2026, 4, 30, 12, 0)), attempts);
+    }
+
+    @Test
+    @DisplayName("When events are due Then they are claimed in batches, handed to every handler and deleted")
+    void shouldDeliverEventsInBatches() {
+        var otherHandlerCalls = new AtomicInteger();
+        when(outboxRepository.claim(eq(2), any(), any()))
+                .thenReturn(List.of(entry(1, 0), entry(2, 0)))
+                .thenReturn(List.of(entry(3, 0)));
+
+        var delivered = dispatcher(2, 5, recordingHandler, event -> otherHandlerCalls.incrementAndGet()).drain();
+
+        assertThat(delivered).isEqualTo(3);
+        assertThat(received).extracting(DeclarationSubmittedEvent::declarationId).containsExactly(1L, 2L, 3L);
+        assertThat(otherHandlerCalls).hasValue(3);
+        verify(outboxRepository).delete(List.of(1L, 2L));
+        verify(outboxRepository).delete(List.of(3L));
+        verify(outboxRepository, times(2)).claim(eq(2), any(), any());
+    }
+
+    @Test
+    @DisplayName("When a handler fails Then only that event is rescheduled with exponential backoff")
+    void shouldRescheduleFailedEvent() {
+        when(outboxRepository.claim(eq(10), any(), any())).thenReturn(List.of(entry(1, 0), entry(2, 2)));
+        DeclarationSubmittedHandler failingOnSecond = event -> {
+            if (event.declarationId() == 2L) {
+                throw new IllegalStateException("mail server unavailable");
+            }
+        };
+
+        var before = LocalDateTime.now();
+        var delivered = dispatcher(10, 5, recordingHandler, failingOnSecond).drain();
+
+        assertThat(delivered).isEqualTo(1);
+        verify(outboxRepository).delete(List.of(1L));
+        var availableAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).reschedule(eq(2L), eq(3), availableAt.capture(), contains("mail server unavailable"));
+        // Third attempt failed: 1s doubled twice.
+        assertThat(Duration.between(before, availableAt.getValue()).toMillis()).isCloseTo(4000, within(500L));
+    }
+
+    @Test
+    @DisplayName("When the backoff would pass its maximum Then the maximum is used")
+    void shouldCapBackoff() {
+        when(outboxRepository.claim(eq(10), any(), any())).thenReturn(List.of(entry(1, 7)));
+
+        var before = LocalDateTime.now();
+        dispatcher(10, 20, event -> {
+            throw new IllegalStateException("down");
+        }).drain();
+
+        var availableAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).reschedule(eq(1L), eq(8), availableAt.capture(), any());
+        assertThat(Duration.between(before, availableAt.getValue()).toMillis()).isCloseTo(8000, within(500L));
+    }
+
+    @Test
+    @DisplayName("When an event fails its last attempt Then it is kept as dead instead of retried")
+    void shouldMarkEventDeadAfterLastAttempt() {
+        when(outboxRepository.claim(eq(10), any(), any())).thenReturn(List.of(entry(1, 4)));
+
+        dispatcher(10, 5, event -> {
+            throw new IllegalStateException("down");
+        }).drain();
+
+        verify(outboxRepository).markDead(eq(1L), eq(5), contains("down"));
+        verify(outboxRepository, never()).reschedule(anyLong(), anyInt(), any(), any());
+        verify(outboxRepository).delete(List.of());
+    }
+
+    @Test
+    @DisplayName("When handlers run on a pool Then events of a batch are handled side by side")
+    void shouldHandleEventsInParallel() throws Exception {
+        when(outboxRepository.claim(eq(10), any(), any())).thenReturn(List.of(entry(1, 0), entry(2, 0)));
+        var bothStarted = new CountDownLatch(2);
+        DeclarationSubmittedHandler waitingForEachOther = event -> {
+            bothStarted.countDown();
+            try {
+                if (!bothStarted.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("events were handled one after the other");
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(exception);
+            }
+        };
+        var pool = Executors.newFixedThreadPool(2);
+        try {
+            var dispatcher = new DeclarationOutboxDispatcher(outboxRepository, List.of(waitingForEachOther), 10, 5, 1000, 8000, 60_000,
+                    Runnable::run, pool);
+
+            assertThat(dispatcher.drain()).isEqualTo(2);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("When the dispatcher is polled Then it drains the outbox on its own thread")
+    void shouldDrainWhenPolled() {
+        var pendingDrains = new ArrayList<Runnable>();
+        var dispatcher = new DeclarationOutboxDispatcher(outboxRepository, List.of(recordingHandler), 10, 5, 1000, 8000, 60_000,
+                pendingDrains::add, Runnable::run);
+        when(outboxRepository.claim(eq(10), any(), any())).thenReturn(List.of(entry(1, 0)));
+
+        dispatcher.poll();
+        dispatcher.poll();
+
+        assertThat(pendingDrains).hasSize(1);
+        pendingDrains.getFirst().run();
+        assertThat(received).hasSize(1);
+    }
+}
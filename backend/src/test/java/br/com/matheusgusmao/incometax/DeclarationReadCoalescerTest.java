@@ -0,0 +1,179 @@
+package br.com.matheusgusmao.incometax;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationChangedEvent;
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationSnapshot;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Cpf;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.service.DeclarationReadCoalescer;
+import br.com.matheusgusmao.incometax.domain.service.DeclarationService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DeclarationReadCoalescer")
+class DeclarationReadCoalescerTest {
+
+    private static final Long DECLARATION_ID = 1L;
+
+    @Mock
+    private DeclarationService declarationService;
+
+    private DeclarationReadCoalescer readCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        readCoalescer = new DeclarationReadCoalescer(declarationService);
+    }
+
+    @Test
+    @DisplayName("When several callers read the same declaration concurrently Then it is loaded once")
+    void shouldShareOneLoadBetweenConcurrentReads() throws Exception {
+        var release = new CountDownLatch(1);
+        when(declarationService.findById(DECLARATION_ID)).thenAnswer(invocation -> {
+            release.await();
+            return declaration();
+        });
+        var callers = 20;
+
+        List<DeclarationSnapshot> snapshots = new ArrayList<>();
+        try (var threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            var results = new ArrayList<Future<DeclarationSnapshot>>();
+            for (int i = 0; i < callers; i++) {
+                results.add(threads.submit(() -> readCoalescer.findById(DECLARATION_ID)));
+            }
+            awaitReads(callers);
+            release.countDown();
+            for (var result : results) {
+                snapshots.add(result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        verify(declarationService, times(1)).findById(DECLARATION_ID);
+        assertThat(snapshots).allSatisfy(snapshot -> assertThat(snapshot).isSameAs(snapshots.getFirst()));
+        assertThat(readCoalescer.stats().reads()).isEqualTo(callers);
+        assertThat(readCoalescer.stats().loads()).isEqualTo(1);
+        assertThat(readCoalescer.stats().coalesced()).isEqualTo(callers - 1);
+    }
+
+    @Test
+    @DisplayName("When reads do not overlap Then each one loads the declaration again")
+    void shouldNotKeepFinishedLoads() {
+        when(declarationService.findById(DECLARATION_ID)).thenReturn(declaration());
+
+        readCoalescer.findById(DECLARATION_ID);
+        readCoalescer.findById(DECLARATION_ID);
+
+        verify(declarationService, times(2)).findById(DECLARATION_ID);
+        assertThat(readCoalescer.stats().coalesced()).isZero();
+    }
+
+    @Test
+    @DisplayName("When the shared load fails Then every waiting caller sees the failure")
+    void shouldPropagateLoadFailureToEveryCaller() throws Exception {
+        var release = new CountDownLatch(1);
+        when(declarationService.findById(DECLARATION_ID)).thenAnswer(invocation -> {
+            release.await();
+            throw new EntityNotFoundException("Declaration not found with id: 1");
+        });
+
+        try (var threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = threads.submit(() -> readCoalescer.findById(DECLARATION_ID));
+            var second = threads.submit(() -> readCoalescer.findById(DECLARATION_ID));
+            awaitReads(2);
+            release.countDown();
+
+            for (var result : List.of(first, second)) {
+                assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                        .isInstanceOf(ExecutionException.class)
+                        .hasCauseInstanceOf(EntityNotFoundException.class);
+            }
+        }
+        verify(declarationService, times(1)).findById(DECLARATION_ID);
+    }
+
+    @Test
+    @DisplayName("When the declaration changes during a load Then later reads start a fresh load")
+    void shouldNotJoinLoadStartedBeforeChange() throws Exception {
+        var firstLoadStarted = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(declarationService.findById(DECLARATION_ID))
+                .thenAnswer(invocation -> {
+                    firstLoadStarted.countDown();
+                    release.await();
+                    return declaration();
+                })
+                .thenReturn(declaration());
+
+        try (var threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            var stale = threads.submit(() -> readCoalescer.findById(DECLARATION_ID));
+            firstLoadStarted.await();
+
+            readCoalescer.onDeclarationChanged(new DeclarationChangedEvent(DECLARATION_ID));
+            readCoalescer.findById(DECLARATION_ID);
+
+            release.countDown();
+            stale.get(5, TimeUnit.SECONDS);
+        }
+        verify(declarationService, times(2)).findById(DECLARATION_ID);
+    }
+
+    @Test
+    @DisplayName("When a snapshot is handed out Then its collections cannot be modified")
+    void shouldHandOutImmutableSnapshot() {
+        when(declarationService.findById(DECLARATION_ID)).thenReturn(declaration());
+
+        var snapshot = readCoalescer.findById(DECLARATION_ID);
+
+        assertThat(snapshot.incomes()).hasSize(1);
+        assertThat(snapshot.dependents()).hasSize(1);
+        assertThatThrownBy(() -> snapshot.incomes().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.deductibleExpenses().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.dependents().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private void awaitReads(long reads) throws InterruptedException {
+        while (readCoalescer.stats().reads() < reads) {
+            Thread.sleep(5);
+        }
+        // Each caller counts its read just before it joins the load; give the last ones time to join.
+        Thread.sleep(100);
+    }
+
+    private static Declaration declaration() {
+        var declaration = new Declaration(DECLARATION_ID, UUID.randomUUID(), 2024,
+                DeclarationStatus.EDITING, null, 3L);
+        declaration.addIncome(new Income(1L, "Company", IncomeType.SALARY, new BigDecimal("60000.00")));
+        declaration.addDeductibleExpense(new DeductibleExpense(2L, "School", ExpenseType.EDUCATION, new BigDecimal("1500.00")));
+        declaration.addDependent(new Dependent(3L, "Maria", new Cpf("52998224725"), LocalDate.of(2015, 1, 1)));
+        return declaration;
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.matheusgusmao.incometax;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationSubmittedEvent;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationReceipt;
+import br.com.matheusgusmao.incometax.domain.service.DeclarationReceiptService;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationReceiptRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DeclarationReceiptService")
+class DeclarationReceiptServiceTest {
+
+    private static final UUID TAXPAYER = UUID.fromString("0190c2a4-0000-7000-8000-000000000001");
+
+    @Mock
+    private DeclarationReceiptRepository receiptRepository;
+
+    @InjectMocks
+    private DeclarationReceiptService receiptService;
+
+    @Test
+    @DisplayName("When the same submission is handled twice Then the same receipt number is issued")
+    void shouldIssueSameReceiptForRedeliveredEvent() {
+        var event = new DeclarationSubmittedEvent(1L, TAXPAYER, 2025, LocalDateTime.of(2026, 4, 30, 12, 0));
+
+        receiptService.handle(event);
+        receiptService.handle(event);
+
+        var receipts = ArgumentCaptor.forClass(DeclarationReceipt.class);
+        verify(receiptRepository, times(2)).issue(receipts.capture());
+        assertThat(receipts.getAllValues()).extracting(DeclarationReceipt::number)
+                .containsOnly(receipts.getValue().number())
+                .allMatch(number -> number.matches("[0-9A-F]{5}(\\.[0-9A-F]{5}){3}"));
+    }
+
+    @Test
+    @DisplayName("When the receipt belongs to another taxpayer Then access is denied")
+    void shouldDenyReceiptOfAnotherTaxpayer() {
+        when(receiptRepository.findByDeclarationId(1L))
+                .thenReturn(Optional.of(new DeclarationReceipt(1L, TAXPAYER, "00000.00000.00000.00000", LocalDateTime.now())));
+
+        assertThatThrownBy(() -> receiptService.findReceipt(1L, UUID.randomUUID()))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    @DisplayName("When the receipt was not issued yet Then it is not found")
+    void shouldNotFindMissingReceipt() {
+        when(receiptRepository.findByDeclarationId(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> receiptService.findReceipt(1L, TAXPAYER))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+}
@@ -0,0 +1,159 @@
+package br.com.matheusgusmao.incometax;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationChangedEvent;
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+import br.com.matheusgusmao.incometax.domain.model.rollover.DeclarationRolloverProgress;
+import br.com.matheusgusmao.incometax.domain.model.rollover.DeclarationRolloverStatus;
+import br.com.matheusgusmao.incometax.domain.service.DeclarationRolloverService;
+import br.com.matheusgusmao.incometax.infra.event.DeclarationEventBus;
+import br.com.matheusgusmao.incometax.infra.persistence.archive.DeclarationArchive;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.CreatedDeclaration;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRolloverRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DeclarationRolloverService")
+class DeclarationRolloverServiceTest {
+
+    private static final int YEAR = 2026;
+    private static final UUID FIRST = UUID.fromString("0190c2a4-0000-7000-8000-000000000001");
+    private static final UUID SECOND = UUID.fromString("0190c2a4-0000-7000-8000-000000000002");
+    private static final UUID THIRD = UUID.fromString("0190c2a4-0000-7000-8000-000000000003");
+
+    @Mock
+    private DeclarationRolloverRepository rolloverRepository;
+    @Mock
+    private DeclarationArchive declarationArchive;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private DeclarationEventBus declarationEventBus;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DeclarationRolloverService rolloverService;
+    private final List<Runnable> pendingJobs = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        rolloverService = new DeclarationRolloverService(rolloverRepository, declarationArchive,
+                new TransactionTemplate(transactionManager), eventPublisher, declarationEventBus, 2, 2, 1.0, pendingJobs::add);
+    }
+
+    private DeclarationRolloverProgress job(UUID lastTaxpayerId, long created) {
+        return new DeclarationRolloverProgress(1L, YEAR, DeclarationRolloverStatus.RUNNING, lastTaxpayerId, created, 0, LocalDateTime.now(), null);
+    }
+
+    private void runPendingJobs() {
+        pendingJobs.forEach(Runnable::run);
+        pendingJobs.clear();
+    }
+
+    @Test
+    @DisplayName("When there is no unfinished job Then every chunk of taxpayers is inserted and checkpointed")
+    void shouldCreateDeclarationsChunkByChunk() {
+        when(rolloverRepository.findUnfinishedJob(YEAR)).thenReturn(Optional.empty());
+        when(rolloverRepository.createJob(eq(YEAR), any())).thenReturn(job(null, 0));
+        when(rolloverRepository.findActiveTaxpayersAfter(null, YEAR, 2, 2)).thenReturn(List.of(FIRST, SECOND));
+        when(rolloverRepository.findActiveTaxpayersAfter(SECOND, YEAR, 2, 2)).thenReturn(List.of(THIRD));
+        when(rolloverRepository.findActiveTaxpayersAfter(THIRD, YEAR, 2, 2)).thenReturn(List.of());
+        when(rolloverRepository.createEditing(List.of(FIRST, SECOND), YEAR)).thenReturn(List.of(new CreatedDeclaration(10L, FIRST), new CreatedDeclaration(11L, SECOND)));
+        // The third taxpayer already opened their declaration.
+        when(rolloverRepository.createEditing(List.of(THIRD), YEAR)).thenReturn(List.of());
+
+        rolloverService.start(YEAR);
+        runPendingJobs();
+
+        verify(rolloverRepository).updateCheckpoint(1L, SECOND, 2);
+        verify(rolloverRepository).updateCheckpoint(1L, THIRD, 2);
+        verify(eventPublisher).publishEvent(new DeclarationChangedEvent(10L));
+        verify(eventPublisher).publishEvent(new DeclarationChangedEvent(11L));
+        verify(declarationEventBus).publish(DeclarationEventType.DECLARATION_CREATED, 10L, FIRST, 0, 0);
+        verify(declarationEventBus).publish(DeclarationEventType.DECLARATION_CREATED, 11L, SECOND, 0, 0);
+        verify(rolloverRepository).finishJob(eq(1L), eq(DeclarationRolloverStatus.COMPLETED), any());
+        assertThat(rolloverService.getProgress()).get()
+                .extracting(DeclarationRolloverProgress::status, DeclarationRolloverProgress::created)
+                .containsExactly(DeclarationRolloverStatus.COMPLETED, 2L);
+    }
+
+    @Test
+    @DisplayName("When an interrupted job exists Then it resumes after its checkpoint")
+    void shouldResumeFromCheckpoint() {
+        when(rolloverRepository.findUnfinishedJob(YEAR)).thenReturn(Optional.of(job(SECOND, 2)));
+        when(rolloverRepository.findActiveTaxpayersAfter(SECOND, YEAR, 2, 2)).thenReturn(List.of());
+
+        rolloverService.start(YEAR);
+        runPendingJobs();
+
+        verify(rolloverRepository, never()).createJob(anyInt(), any());
+        verify(rolloverRepository, never()).findActiveTaxpayersAfter(isNull(), anyInt(), anyInt(), anyInt());
+        verify(rolloverRepository).finishJob(eq(1L), eq(DeclarationRolloverStatus.COMPLETED), any());
+    }
+
+    @Test
+    @DisplayName("When a taxpayer's year is archived Then no declaration is inserted for them")
+    void shouldSkipArchivedYears() {
+        when(rolloverRepository.findUnfinishedJob(YEAR)).thenReturn(Optional.of(job(null, 0)));
+        when(rolloverRepository.findActiveTaxpayersAfter(null, YEAR, 2, 2)).thenReturn(List.of(FIRST, SECOND));
+        when(rolloverRepository.findActiveTaxpayersAfter(SECOND, YEAR, 2, 2)).thenReturn(List.of());
+        when(declarationArchive.exists(FIRST, YEAR)).thenReturn(true);
+        when(rolloverRepository.createEditing(List.of(SECOND), YEAR)).thenReturn(List.of(new CreatedDeclaration(12L, SECOND)));
+
+        rolloverService.start(YEAR);
+        runPendingJobs();
+
+        verify(rolloverRepository).updateCheckpoint(1L, SECOND, 1);
+    }
+
+    @Test
+    @DisplayName("When a chunk fails Then the job is marked failed and keeps its checkpoint")
+    void shouldMarkJobFailed() {
+        when(rolloverRepository.findUnfinishedJob(YEAR)).thenReturn(Optional.of(job(SECOND, 2)));
+        when(rolloverRepository.findActiveTaxpayersAfter(SECOND, YEAR, 2, 2)).thenThrow(new IllegalStateException("database is locked"));
+
+        rolloverService.start(YEAR);
+        runPendingJobs();
+
+        verify(rolloverRepository).finishJob(eq(1L), eq(DeclarationRolloverStatus.FAILED), any());
+        verify(rolloverRepository, never()).updateCheckpoint(anyLong(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("When a job is already running Then a second start is rejected")
+    void shouldRejectConcurrentStart() {
+        when(rolloverRepository.findUnfinishedJob(YEAR)).thenReturn(Optional.of(job(null, 0)));
+
+        rolloverService.start(YEAR);
+
+        assertThatThrownBy(() -> rolloverService.start(YEAR))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("A declaration rollover is already running.");
+    }
+
+    @Test
+    @DisplayName("When the write share is not a fraction Then the service cannot be built")
+    void shouldRejectInvalidWriteShare() {
+        assertThatThrownBy(() -> new DeclarationRolloverService(rolloverRepository, declarationArchive,
+                new TransactionTemplate(transactionManager), eventPublisher, declarationEventBus, 2, 2, 0, pendingJobs::add))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
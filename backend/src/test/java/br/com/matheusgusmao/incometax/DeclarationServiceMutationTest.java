@@ -5,14 +5,22 @@ import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
 import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
 import br.com.matheusgusmao.incometax.domain.model.income.Income;
 import br.com.matheusgusmao.incometax.domain.service.DeclarationService;
+import br.com.matheusgusmao.incometax.infra.event.DeclarationEventBus;
+import br.com.matheusgusmao.incometax.infra.persistence.archive.DeclarationArchive;
 import br.com.matheusgusmao.incometax.infra.persistence.entity.declaration.DeclarationEntity;
 import br.com.matheusgusmao.incometax.infra.persistence.mapper.DeclarationMapper;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationAmendmentRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationCopyRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationOutboxRepository;
 import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRolloverRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.store.RelationalDeclarationStore;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -31,6 +39,20 @@ class DeclarationServiceMutationTest {
     private DeclarationRepository declarationRepository;
     @Mock
     private DeclarationMapper declarationMapper;
+    @Mock
+    private DeclarationArchive declarationArchive;
+    @Mock
+    private DeclarationCopyRepository declarationCopyRepository;
+    @Mock
+    private DeclarationRolloverRepository declarationRolloverRepository;
+    @Mock
+    private DeclarationOutboxRepository declarationOutboxRepository;
+    @Mock
+    private DeclarationAmendmentRepository declarationAmendmentRepository;
+    @Mock
+    private DeclarationEventBus declarationEventBus;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private DeclarationService declarationService;
 
@@ -43,7 +65,10 @@ class DeclarationServiceMutationTest {
 
     @BeforeEach
     void setUp() {
-        declarationService = new DeclarationService(declarationRepository, declarationMapper);
+        declarationService = new DeclarationService(declarationRepository,
+                new RelationalDeclarationStore(declarationRepository, declarationMapper, declarationAmendmentRepository), declarationArchive,
+                declarationCopyRepository, declarationRolloverRepository, declarationOutboxRepository, declarationAmendmentRepository,
+                declarationEventBus, eventPublisher);
     }
 
     @Nested
@@ -1,5 +1,8 @@
 package br.com.matheusgusmao.incometax;
 
+import br.com.matheusgusmao.incometax.domain.event.DeclarationChangedEvent;
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+import br.com.matheusgusmao.incometax.domain.event.DeclarationSubmittedEvent;
 import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
 import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
 import br.com.matheusgusmao.incometax.domain.model.declaration.TaxCalculationResult;
@@ -9,10 +12,14 @@ import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
 import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
 import br.com.matheusgusmao.incometax.domain.model.income.Income;
 import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
 import br.com.matheusgusmao.incometax.infra.security.AuthService;
 import br.com.matheusgusmao.incometax.domain.service.DeclarationService;
 import br.com.matheusgusmao.incometax.domain.service.TaxCalculationService;
+import br.com.matheusgusmao.incometax.infra.exception.custom.DeclarationVersionConflictException;
 import br.com.matheusgusmao.incometax.infra.exception.custom.EntityAlreadyExistsException;
+import br.com.matheusgusmao.incometax.infra.event.DeclarationEventBus;
+import br.com.matheusgusmao.incometax.infra.persistence.archive.DeclarationArchive;
 import br.com.matheusgusmao.incometax.infra.persistence.entity.declaration.DeclarationEntity;
 import br.com.matheusgusmao.incometax.infra.persistence.entity.dependent.DependentEntity;
 import br.com.matheusgusmao.incometax.infra.persistence.entity.expense.DeductibleExpenseEntity;
@@ -21,15 +28,24 @@ import br.com.matheusgusmao.incometax.infra.persistence.mapper.DeclarationMapper
 import br.com.matheusgusmao.incometax.infra.persistence.mapper.DeductibleExpenseMapper;
 import br.com.matheusgusmao.incometax.infra.persistence.mapper.DependentMapper;
 import br.com.matheusgusmao.incometax.infra.persistence.mapper.IncomeMapper;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.CreatedDeclaration;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationHistoryVersion;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationAmendmentRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationCopyRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationOutboxRepository;
 import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRolloverRepository;
 import br.com.matheusgusmao.incometax.infra.persistence.repository.UserRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.store.RelationalDeclarationStore;
 import br.com.matheusgusmao.incometax.infra.security.jwt.JwtService;
+import br.com.matheusgusmao.incometax.web.dto.declaration.DeclarationHistoryResponse;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -37,13 +53,20 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -60,6 +83,20 @@ class DeclarationServiceTest {
     private DeclarationMapper declarationMapper;
     @Mock
     private DependentMapper dependentMapper;
+    @Mock
+    private DeclarationArchive declarationArchive;
+    @Mock
+    private DeclarationCopyRepository declarationCopyRepository;
+    @Mock
+    private DeclarationRolloverRepository declarationRolloverRepository;
+    @Mock
+    private DeclarationOutboxRepository declarationOutboxRepository;
+    @Mock
+    private DeclarationAmendmentRepository declarationAmendmentRepository;
+    @Mock
+    private DeclarationEventBus declarationEventBus;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private DeclarationService declarationService;
     @InjectMocks
@@ -82,7 +119,7 @@ class DeclarationServiceTest {
         ReflectionTestUtils.setField(declarationMapper, "dependentMapper", dependentMapper);
         ReflectionTestUtils.setField(declarationMapper, "incomeMapper", incomeMapper);
         ReflectionTestUtils.setField(declarationMapper, "deductibleExpenseMapper", deductibleExpenseMapper);
-        ReflectionTestUtils.setField(declarationService, "declarationMapper", declarationMapper);
+        ReflectionTestUtils.setField(declarationService, "declarationStore", new RelationalDeclarationStore(declarationRepository, declarationMapper, declarationAmendmentRepository));
     }
 
     @Nested
@@ -99,34 +136,158 @@ class DeclarationServiceTest {
             year = 2025;
         }
 
+        private DeclarationEntity stored(Long id) {
+            var entity = new DeclarationEntity();
+            entity.setId(id);
+            entity.setTaxpayerId(taxpayerId);
+            entity.setYear(year);
+            entity.setStatus(DeclarationStatus.EDITING);
+            entity.setVersion(0L);
+            return entity;
+        }
+
+        @Test
+        @DisplayName("When the declaration of the year already exists Then it is returned without writing")
+        void shouldFetchExistingDeclaration() {
+            when(declarationRolloverRepository.findIdByTaxpayerAndYear(taxpayerId, year)).thenReturn(Optional.of(5L));
+            when(declarationRepository.findById(5L)).thenReturn(Optional.of(stored(5L)));
+
+            var creation = declarationService.findOrCreateDeclaration(taxpayerId, year);
+
+            assertThat(creation.created()).isFalse();
+            assertThat(creation.declaration().getId()).isEqualTo(5L);
+            verify(declarationRolloverRepository, never()).createEditing(any(), anyInt());
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("When the declaration of the year does not exist Then it is created")
+        void shouldCreateMissingDeclaration() {
+            when(declarationRolloverRepository.findIdByTaxpayerAndYear(taxpayerId, year)).thenReturn(Optional.empty());
+            when(declarationRolloverRepository.createEditing(List.of(taxpayerId), year)).thenReturn(List.of(new CreatedDeclaration(6L, taxpayerId)));
+            when(declarationRepository.findById(6L)).thenReturn(Optional.of(stored(6L)));
+
+            var creation = declarationService.findOrCreateDeclaration(taxpayerId, year);
+
+            assertThat(creation.created()).isTrue();
+            assertThat(creation.declaration().getId()).isEqualTo(6L);
+            assertThat(creation.declaration().getStatus()).isEqualTo(DeclarationStatus.EDITING);
+            verify(declarationArchive).exists(taxpayerId, year);
+            verify(eventPublisher).publishEvent(any(Object.class));
+        }
+
+        @Test
+        @DisplayName("When another request creates the declaration first Then that declaration is returned")
+        void shouldReturnDeclarationCreatedConcurrently() {
+            when(declarationRolloverRepository.findIdByTaxpayerAndYear(taxpayerId, year))
+                    .thenReturn(Optional.empty())
+                    .thenReturn(Optional.of(7L));
+            when(declarationRolloverRepository.createEditing(List.of(taxpayerId), year)).thenReturn(List.of());
+            when(declarationRepository.findById(7L)).thenReturn(Optional.of(stored(7L)));
+
+            var creation = declarationService.findOrCreateDeclaration(taxpayerId, year);
+
+            assertThat(creation.created()).isFalse();
+            assertThat(creation.declaration().getId()).isEqualTo(7L);
+        }
+
+        @Test
+        @DisplayName("When the year was archived Then the archived declaration is returned")
+        void shouldFetchArchivedDeclaration() {
+            var archived = new Declaration(3L, taxpayerId, year, DeclarationStatus.DELIVERED, LocalDateTime.of(2026, 4, 30, 12, 0));
+            when(declarationRolloverRepository.findIdByTaxpayerAndYear(taxpayerId, year)).thenReturn(Optional.empty());
+            when(declarationArchive.exists(taxpayerId, year)).thenReturn(true);
+            when(declarationArchive.findByTaxpayer(taxpayerId)).thenReturn(List.of(archived));
+
+            var creation = declarationService.findOrCreateDeclaration(taxpayerId, year);
+
+            assertThat(creation.created()).isFalse();
+            assertThat(creation.declaration()).isSameAs(archived);
+            verify(declarationRolloverRepository, never()).createEditing(any(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("Given a taxpayer wants to start a year from an earlier declaration")
+    @Tag("Unit")
+    class CopyDeclarationTests {
+
+        private UUID taxpayerId;
+
+        @BeforeEach
+        void setUp() {
+            taxpayerId = UUID.randomUUID();
+        }
+
+        private DeclarationEntity stored(Long id, int year, DeclarationStatus status) {
+            var entity = new DeclarationEntity();
+            entity.setId(id);
+            entity.setTaxpayerId(taxpayerId);
+            entity.setYear(year);
+            entity.setStatus(status);
+            entity.setVersion(4L);
+            return entity;
+        }
+
+        @Test
+        @DisplayName("When the source was delivered Then its rows are copied in the database")
+        void shouldCopyDeliveredDeclarationWithSetBasedStatements() {
+            when(declarationRepository.findById(1L)).thenReturn(Optional.of(stored(1L, 2024, DeclarationStatus.DELIVERED)));
+            when(declarationRepository.existsByTaxpayerIdAndYear(taxpayerId, 2025)).thenReturn(false);
+            when(declarationCopyRepository.copyToYear(1L, 2025)).thenReturn(OptionalLong.of(2L));
+            when(declarationRepository.findById(2L)).thenReturn(Optional.of(stored(2L, 2025, DeclarationStatus.EDITING)));
+
+            var copy = declarationService.copyToYear(1L, taxpayerId, 2025);
+
+            assertThat(copy.getId()).isEqualTo(2L);
+            assertThat(copy.getYear()).isEqualTo(2025);
+            assertThat(copy.getStatus()).isEqualTo(DeclarationStatus.EDITING);
+            verify(declarationRepository, never()).save(any(DeclarationEntity.class));
+        }
+
+        @Test
+        @DisplayName("When the target year already has a declaration Then nothing is copied")
+        void shouldRejectCopyToTakenYear() {
+            when(declarationRepository.findById(1L)).thenReturn(Optional.of(stored(1L, 2024, DeclarationStatus.DELIVERED)));
+            when(declarationRepository.existsByTaxpayerIdAndYear(taxpayerId, 2025)).thenReturn(true);
+
+            assertThatThrownBy(() -> declarationService.copyToYear(1L, taxpayerId, 2025))
+                    .isInstanceOf(EntityAlreadyExistsException.class);
+
+            verifyNoInteractions(declarationCopyRepository);
+        }
+
         @Test
-        @DisplayName("When taxpayer creates declaration for a new year Then declaration should be created successfully")
-        void shouldCreateNewDeclarationSuccessfullyWhenNonExistent() {
-            when(declarationRepository.existsByTaxpayerIdAndYear(taxpayerId, year)).thenReturn(false);
+        @DisplayName("When the source is still being edited Then it is copied through the aggregate")
+        void shouldCopyEditingDeclarationThroughAggregate() {
+            var source = stored(1L, 2024, DeclarationStatus.EDITING);
+            source.setIncomes(new ArrayList<>(List.of(new IncomeEntity())));
+            when(declarationRepository.findById(1L)).thenReturn(Optional.of(source));
+            when(incomeMapper.toDomain(any(IncomeEntity.class)))
+                    .thenReturn(new Income(7L, "Company", IncomeType.SALARY, new BigDecimal("5000.00")));
+            when(incomeMapper.toEntity(any(Income.class), any(DeclarationEntity.class))).thenAnswer(i -> new IncomeEntity());
             when(declarationRepository.save(any(DeclarationEntity.class))).thenAnswer(invocation -> {
-                DeclarationEntity entityToSave = invocation.getArgument(0);
-                entityToSave.setId(1L);
-                return entityToSave;
+                DeclarationEntity saved = invocation.getArgument(0);
+                saved.setId(2L);
+                return saved;
             });
+            when(declarationRepository.findById(2L)).thenAnswer(i -> Optional.of(stored(2L, 2025, DeclarationStatus.EDITING)));
 
-            var result = declarationService.createNewDeclaration(taxpayerId, year);
+            declarationService.copyToYear(1L, taxpayerId, 2025);
 
-            assertThat(result).isNotNull();
-            assertThat(result.getId()).isNotNull();
-            assertThat(result.getId()).isEqualTo(1L);
-            verify(declarationRepository).existsByTaxpayerIdAndYear(taxpayerId, year);
-            verify(declarationRepository).save(any(DeclarationEntity.class));
+            verify(declarationRepository).save(argThat(entity -> entity.getYear() == 2025 && entity.getIncomes().size() == 1));
+            verifyNoInteractions(declarationCopyRepository);
         }
 
         @Test
-        @DisplayName("When taxpayer tries to create declaration for existing year Then exception should be thrown")
-        void shouldThrowExceptionWhenDeclarationForSameYearAlreadyExists() {
-            when(declarationRepository.existsByTaxpayerIdAndYear(taxpayerId, year)).thenReturn(true);
+        @DisplayName("When the source belongs to another taxpayer Then access is denied")
+        void shouldRejectCopyOfAnotherTaxpayersDeclaration() {
+            when(declarationRepository.findById(1L)).thenReturn(Optional.of(stored(1L, 2024, DeclarationStatus.DELIVERED)));
 
-            assertThatThrownBy(() -> declarationService.createNewDeclaration(taxpayerId, year))
-                    .isInstanceOf(EntityAlreadyExistsException.class);
+            assertThatThrownBy(() -> declarationService.copyToYear(1L, UUID.randomUUID(), 2025))
+                    .isInstanceOf(AccessDeniedException.class);
 
-            verify(declarationRepository, never()).save(any(DeclarationEntity.class));
+            verifyNoInteractions(declarationCopyRepository);
         }
     }
 
@@ -166,6 +327,7 @@ class DeclarationServiceTest {
                 entity.setValue(domain.getValue());
                 return entity;
             });
+            when(incomeMapper.toDomain(any(IncomeEntity.class))).thenReturn(newIncome);
 
             var updatedDeclaration = declarationService.addIncome(declarationId, newIncome);
 
@@ -174,6 +336,8 @@ class DeclarationServiceTest {
 
             verify(declarationRepository).findById(declarationId);
             verify(declarationRepository).save(any(DeclarationEntity.class));
+            verify(declarationEventBus).publishAfterCommit(eq(DeclarationEventType.INCOME_ADDED), eq(declarationId), any(UUID.class),
+                    anyLong(), eq(5_000_000L), anyLong());
         }
 
         @Test
@@ -301,6 +465,7 @@ class DeclarationServiceTest {
             var expense = new DeductibleExpense("Consulta médica", ExpenseType.HEALTH, new BigDecimal("350.00"));
             when(declarationRepository.findById(declarationId)).thenReturn(Optional.of(existingDeclarationEntity));
             when(declarationRepository.save(any(DeclarationEntity.class))).thenAnswer(i -> i.getArgument(0));
+            when(deductibleExpenseMapper.toDomain(any())).thenReturn(expense);
 
             var result = declarationService.addDeductibleExpense(declarationId, expense);
 
@@ -314,6 +479,7 @@ class DeclarationServiceTest {
             var expense = new DeductibleExpense("Assinatura de revista", ExpenseType.OTHER, new BigDecimal("50.00"));
             when(declarationRepository.findById(declarationId)).thenReturn(Optional.of(existingDeclarationEntity));
             when(declarationRepository.save(any(DeclarationEntity.class))).thenAnswer(i -> i.getArgument(0));
+            when(deductibleExpenseMapper.toDomain(any())).thenReturn(expense);
 
             var result = declarationService.addDeductibleExpense(declarationId, expense);
 
@@ -395,6 +561,26 @@ class DeclarationServiceTest {
 
             assertThat(result).isEmpty();
         }
+
+        @Test
+        @DisplayName("When some declarations were archived Then they are listed before the stored ones")
+        void shouldListArchivedDeclarations() {
+            var taxpayerId = UUID.randomUUID();
+            var stored = new DeclarationEntity();
+            stored.setId(2L);
+            stored.setTaxpayerId(taxpayerId);
+            stored.setYear(2024);
+            stored.setStatus(DeclarationStatus.EDITING);
+            var archived = new Declaration(1L, taxpayerId, 2015, DeclarationStatus.DELIVERED, LocalDateTime.of(2016, 4, 30, 12, 0));
+
+            when(declarationRepository.findAllByTaxpayerId(taxpayerId)).thenReturn(List.of(stored));
+            when(declarationArchive.findByTaxpayer(taxpayerId)).thenReturn(List.of(archived));
+
+            var result = declarationService.getDeclarationHistory(taxpayerId);
+
+            assertThat(result).extracting(DeclarationHistoryResponse::year, DeclarationHistoryResponse::status)
+                    .containsExactly(tuple(2015, "DELIVERED"), tuple(2024, "EDITING"));
+        }
     }
 
     @Nested
@@ -423,7 +609,7 @@ class DeclarationServiceTest {
         @DisplayName("When taxpayer submits complete declaration Then declaration should be submitted successfully")
         void shouldSubmitDeclarationSuccessfullyWhenComplete() {
             var incomeEntity = new IncomeEntity();
-            incomeEntity.setValue(new BigDecimal("1000"));
+            incomeEntity.setValue(Money.of(new BigDecimal("1000")));
             declarationEntity.setIncomes(List.of(incomeEntity));
 
             var incomeDomain = new Income("Some Company", IncomeType.SALARY, new BigDecimal("1000"));
@@ -436,6 +622,8 @@ class DeclarationServiceTest {
             assertThat(result.getStatus()).isEqualTo(DeclarationStatus.DELIVERED);
             assertThat(result.getDeliveryDate()).isNotNull();
             verify(declarationRepository).save(any(DeclarationEntity.class));
+            verify(declarationOutboxRepository).append(
+                    eq(new DeclarationSubmittedEvent(declarationId, taxpayerId, result.getYear(), result.getDeliveryDate())), any());
         }
 
         @Test
@@ -446,6 +634,7 @@ class DeclarationServiceTest {
                     .hasMessage("Cannot submit a declaration with no incomes. Please report your incomes.");
 
             verify(declarationRepository, never()).save(any());
+            verifyNoInteractions(declarationOutboxRepository);
         }
         @Test
         @DisplayName("When taxpayer id does not match declaration owner Then access should be denied")
@@ -457,6 +646,103 @@ class DeclarationServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Given a taxpayer wants to amend a delivered declaration")
+    @Tag("Unit")
+    class DeclarationAmendmentTests {
+
+        private UUID taxpayerId;
+        private DeclarationEntity declarationEntity;
+
+        @BeforeEach
+        void setUp() {
+            taxpayerId = UUID.randomUUID();
+
+            declarationEntity = new DeclarationEntity();
+            declarationEntity.setId(1L);
+            declarationEntity.setTaxpayerId(taxpayerId);
+            declarationEntity.setYear(2025);
+            declarationEntity.setStatus(DeclarationStatus.DELIVERED);
+            declarationEntity.setDeliveryDate(LocalDateTime.of(2025, 4, 30, 10, 0));
+            declarationEntity.setVersion(3L);
+
+            when(declarationRepository.findById(1L)).thenReturn(Optional.of(declarationEntity));
+        }
+
+        @Test
+        @DisplayName("When the declaration is delivered Then it is reopened as its next amendment and the delivered version is kept")
+        void shouldReopenDeliveredDeclarationAsNextAmendment() {
+            when(declarationRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+            when(declarationRepository.saveAndFlush(any(DeclarationEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+            var result = declarationService.amendDeclaration(1L, taxpayerId, 3L);
+
+            assertThat(result.getAmendment()).isEqualTo(1);
+            assertThat(result.getStatus()).isEqualTo(DeclarationStatus.EDITING);
+            assertThat(result.getDeliveryDate()).isNull();
+            verify(declarationAmendmentRepository).recordReplaced(
+                    argThat(delivered -> delivered.getAmendment() == 0 && delivered.getStatus() == DeclarationStatus.DELIVERED), any());
+            verify(eventPublisher).publishEvent(new DeclarationChangedEvent(1L));
+        }
+
+        @Test
+        @DisplayName("When the declaration was archived Then the amendment is rejected")
+        void shouldRejectAmendmentOfArchivedDeclaration() {
+            when(declarationRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> declarationService.amendDeclaration(1L, taxpayerId, null))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("An archived declaration cannot be amended.");
+
+            verify(declarationRepository, never()).saveAndFlush(any());
+            verifyNoInteractions(declarationAmendmentRepository);
+        }
+
+        @Test
+        @DisplayName("When the declaration is still being edited Then the amendment is rejected")
+        void shouldRejectAmendmentOfEditingDeclaration() {
+            declarationEntity.setStatus(DeclarationStatus.EDITING);
+            declarationEntity.setDeliveryDate(null);
+            when(declarationRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+            assertThatThrownBy(() -> declarationService.amendDeclaration(1L, taxpayerId, null))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Only a delivered declaration can be amended.");
+
+            verifyNoInteractions(declarationAmendmentRepository);
+        }
+
+        @Test
+        @DisplayName("When an amendment replaced by a later one is asked for Then its delivered version is returned")
+        void shouldFindReplacedAmendment() {
+            declarationEntity.setAmendment(1);
+            declarationEntity.setStatus(DeclarationStatus.EDITING);
+            var replaced = Declaration.rehydrate(1L, taxpayerId, 2025, 0, DeclarationStatus.DELIVERED,
+                    LocalDateTime.of(2025, 4, 30, 10, 0), 3L, List.of(), List.of(), List.of());
+            when(declarationAmendmentRepository.findReplaced(1L, 0)).thenReturn(Optional.of(replaced));
+
+            assertThat(declarationService.findAmendment(1L, taxpayerId, 0)).isSameAs(replaced);
+            assertThat(declarationService.findAmendment(1L, taxpayerId, 1).getStatus()).isEqualTo(DeclarationStatus.EDITING);
+            assertThatThrownBy(() -> declarationService.findAmendment(1L, taxpayerId, 2))
+                    .isInstanceOf(EntityNotFoundException.class)
+                    .hasMessage("Declaration 1 has no amendment 2");
+        }
+
+        @Test
+        @DisplayName("When another taxpayer asks for an amendment or the amendment list Then access is denied")
+        void shouldDenyAmendmentsToOtherTaxpayers() {
+            declarationEntity.setAmendment(1);
+            var stranger = UUID.randomUUID();
+
+            assertThatThrownBy(() -> declarationService.findAmendment(1L, stranger, 0))
+                    .isInstanceOf(AccessDeniedException.class);
+            assertThatThrownBy(() -> declarationService.findReplacedAmendments(1L, stranger))
+                    .isInstanceOf(AccessDeniedException.class);
+            verify(declarationAmendmentRepository, never()).findReplaced(any(), anyInt());
+            verify(declarationAmendmentRepository, never()).findAll(any());
+        }
+    }
+
     @Nested
     @DisplayName("Given a taxpayer wants to manage dependents in their declaration")
     @Tag("Unit")
@@ -483,6 +769,7 @@ class DeclarationServiceTest {
 
             when(declarationRepository.findById(declarationId)).thenReturn(Optional.of(existingDeclarationEntity));
             when(declarationRepository.save(any(DeclarationEntity.class))).thenAnswer(i -> i.getArgument(0));
+            when(dependentMapper.toDomain(any())).thenReturn(newDependent);
 
             Declaration updatedDeclaration = declarationService.addDependent(declarationId, newDependent);
 
@@ -548,7 +835,7 @@ class DeclarationServiceTest {
             DeclarationMapper realDeclarationMapper = new DeclarationMapper();
             ReflectionTestUtils.setField(realDeclarationMapper, "incomeMapper", incomeMapper);
             ReflectionTestUtils.setField(realDeclarationMapper, "deductibleExpenseMapper", deductibleExpenseMapper);
-            ReflectionTestUtils.setField(taxCalculationService, "declarationMapper", realDeclarationMapper);
+            ReflectionTestUtils.setField(taxCalculationService, "declarationStore", new RelationalDeclarationStore(declarationRepository, realDeclarationMapper, declarationAmendmentRepository));
         }
 
         @Test
@@ -561,17 +848,17 @@ class DeclarationServiceTest {
             TaxCalculationResult result = taxCalculationService.calculate(declarationId);
 
             assertThat(result).isNotNull();
-            assertThat(result.taxDue()).isZero();
+            assertThat(result.taxDue()).isEqualTo(Money.ZERO);
         }
 
         @Test
         @DisplayName("Given a declaration with income and deductions, when the calculation is requested, then the progressive table is applied")
         void shouldApplyProgressiveTableWhenDeclarationHasIncomeAndDeductions() {
             var incomeEntity = new IncomeEntity();
-            incomeEntity.setValue(new BigDecimal("60000.00"));
+            incomeEntity.setValue(Money.of(new BigDecimal("60000.00")));
 
             var expenseEntity = new DeductibleExpenseEntity();
-            expenseEntity.setValue(new BigDecimal("5000.00"));
+            expenseEntity.setValue(Money.of(new BigDecimal("5000.00")));
 
             var declarationEntity = new DeclarationEntity();
             declarationEntity.setId(declarationId);
@@ -589,16 +876,16 @@ class DeclarationServiceTest {
 
             TaxCalculationResult result = taxCalculationService.calculate(declarationId);
 
-            assertThat(result.totalIncome()).isEqualByComparingTo("60000.00");
-            assertThat(result.totalDeductions()).isEqualByComparingTo("5000.00");
-            assertThat(result.calculationBase()).isEqualByComparingTo("55000.00");
-            assertThat(result.taxDue()).isEqualByComparingTo("4421.76");
+            assertThat(result.totalIncome()).isEqualTo(Money.of(new BigDecimal("60000.00")));
+            assertThat(result.totalDeductions()).isEqualTo(Money.of(new BigDecimal("5000.00")));
+            assertThat(result.calculationBase()).isEqualTo(Money.of(new BigDecimal("55000.00")));
+            assertThat(result.taxDue()).isEqualTo(Money.of(new BigDecimal("4421.76")));
         }
         @Test
         @DisplayName("Given base is within faixa 1, then tax is zero")
         void shouldApplyFaixa1() {
             var incomeEntity = new IncomeEntity();
-            incomeEntity.setValue(new BigDecimal("20000.00"));
+            incomeEntity.setValue(Money.of(new BigDecimal("20000.00")));
 
             var declarationEntity = new DeclarationEntity();
             declarationEntity.setId(declarationId);
@@ -610,14 +897,14 @@ class DeclarationServiceTest {
                     .thenReturn(new Income("S", IncomeType.SALARY, new BigDecimal("20000.00")));
 
             TaxCalculationResult result = taxCalculationService.calculate(declarationId);
-            assertThat(result.taxDue()).isZero();
+            assertThat(result.taxDue()).isEqualTo(Money.ZERO);
         }
 
         @Test
         @DisplayName("Given base is within faixa 2, then faixa 2 formula is applied")
         void shouldApplyFaixa2() {
             var incomeEntity = new IncomeEntity();
-            incomeEntity.setValue(new BigDecimal("30000.00"));
+            incomeEntity.setValue(Money.of(new BigDecimal("30000.00")));
             var declarationEntity = new DeclarationEntity();
             declarationEntity.setId(declarationId);
             declarationEntity.setIncomes(List.of(incomeEntity));
@@ -628,14 +915,14 @@ class DeclarationServiceTest {
                     .thenReturn(new Income("S", IncomeType.SALARY, new BigDecimal("30000.00")));
 
             TaxCalculationResult result = taxCalculationService.calculate(declarationId);
-            assertThat(result.taxDue()).isEqualByComparingTo("411.61");
+            assertThat(result.taxDue()).isEqualTo(Money.of(new BigDecimal("411.61")));
         }
 
         @Test
         @DisplayName("Given base is within faixa 3, then faixa 3 formula is applied")
         void shouldApplyFaixa3() {
             var incomeEntity = new IncomeEntity();
-            incomeEntity.setValue(new BigDecimal("44000.00"));
+            incomeEntity.setValue(Money.of(new BigDecimal("44000.00")));
             var declarationEntity = new DeclarationEntity();
             declarationEntity.setId(declarationId);
             declarationEntity.setIncomes(List.of(incomeEntity));
@@ -646,14 +933,14 @@ class DeclarationServiceTest {
                     .thenReturn(new Income("S", IncomeType.SALARY, new BigDecimal("44000.00")));
 
             TaxCalculationResult result = taxCalculationService.calculate(declarationId);
-            assertThat(result.taxDue()).isEqualByComparingTo("2217.62");
+            assertThat(result.taxDue()).isEqualTo(Money.of(new BigDecimal("2217.62")));
         }
 
         @Test
         @DisplayName("Given base is within faixa 5, then faixa 5 formula is applied")
         void shouldApplyFaixa5() {
             var incomeEntity = new IncomeEntity();
-            incomeEntity.setValue(new BigDecimal("80000.00"));
+            incomeEntity.setValue(Money.of(new BigDecimal("80000.00")));
             var declarationEntity = new DeclarationEntity();
             declarationEntity.setId(declarationId);
             declarationEntity.setIncomes(List.of(incomeEntity));
@@ -664,7 +951,7 @@ class DeclarationServiceTest {
                     .thenReturn(new Income("S", IncomeType.SALARY, new BigDecimal("80000.00")));
 
             TaxCalculationResult result = taxCalculationService.calculate(declarationId);
-            assertThat(result.taxDue()).isEqualByComparingTo("11247.95");
+            assertThat(result.taxDue()).isEqualTo(Money.of(new BigDecimal("11247.95")));
         }
 
         @Test
@@ -691,5 +978,153 @@ class DeclarationServiceTest {
                     .isInstanceOf(EntityNotFoundException.class)
                     .hasMessage("Declaration not found with id: 99");
         }
+
+        @Test
+        @DisplayName("Should read an archived declaration when it is no longer stored")
+        void shouldFallBackToArchive() {
+            var archived = new Declaration(7L, UUID.randomUUID(), 2015, DeclarationStatus.DELIVERED, LocalDateTime.of(2016, 4, 30, 12, 0), 4L);
+            when(declarationRepository.findById(7L)).thenReturn(Optional.empty());
+            when(declarationArchive.findById(7L)).thenReturn(Optional.of(archived));
+
+            assertThat(declarationService.findById(7L)).isSameAs(archived);
+        }
+
+        @Test
+        @DisplayName("Should refuse to read a past state when the storage mode keeps no history")
+        void shouldRejectAsOfWithoutHistory() {
+            assertThatThrownBy(() -> declarationService.findAsOf(7L, UUID.randomUUID(), LocalDateTime.of(2025, 1, 1, 0, 0)))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Given the client polls a declaration with a known ETag")
+    @Tag("Unit")
+    class DeclarationVersionTests {
+
+        @Test
+        @DisplayName("When the version is looked up Then only the version projection is queried")
+        void shouldReturnVersionWithoutLoadingAggregate() {
+            when(declarationRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+            assertThat(declarationService.findVersion(1L)).isEqualTo(3L);
+
+            verify(declarationRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("When the declaration does not exist Then not found should be thrown")
+        void shouldThrowNotFoundWhenVersionIsMissing() {
+            when(declarationRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> declarationService.findVersion(99L))
+                    .isInstanceOf(EntityNotFoundException.class)
+                    .hasMessage("Declaration not found with id: 99");
+        }
+
+        @Test
+        @DisplayName("When the history version is looked up Then no declaration is loaded")
+        void shouldReturnHistoryVersionWithoutLoadingDeclarations() {
+            var taxpayerId = UUID.randomUUID();
+            var historyVersion = new DeclarationHistoryVersion(2, 5);
+            when(declarationRepository.findHistoryVersionByTaxpayerId(taxpayerId)).thenReturn(historyVersion);
+
+            assertThat(declarationService.getDeclarationHistoryVersion(taxpayerId)).isEqualTo(historyVersion);
+
+            verify(declarationRepository, never()).findAllByTaxpayerId(any());
+        }
+
+        @Test
+        @DisplayName("When an entity is mapped Then its version is kept on the domain and back")
+        void shouldCarryVersionThroughMapper() {
+            var entity = new DeclarationEntity();
+            entity.setId(1L);
+            entity.setTaxpayerId(UUID.randomUUID());
+            entity.setYear(2025);
+            entity.setStatus(DeclarationStatus.EDITING);
+            entity.setVersion(7L);
+            var mapper = new DeclarationMapper(incomeMapper, deductibleExpenseMapper, dependentMapper);
+
+            var domain = mapper.toDomain(entity);
+
+            assertThat(domain.getVersion()).isEqualTo(7L);
+            assertThat(mapper.toEntity(domain).getVersion()).isEqualTo(7L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Given the client sends the version it last saw")
+    @Tag("Unit")
+    class ExpectedVersionTests {
+
+        private DeclarationEntity existingDeclarationEntity;
+        private UUID taxpayerId;
+
+        @BeforeEach
+        void setUp() {
+            taxpayerId = UUID.randomUUID();
+            existingDeclarationEntity = new DeclarationEntity();
+            existingDeclarationEntity.setId(1L);
+            existingDeclarationEntity.setTaxpayerId(taxpayerId);
+            existingDeclarationEntity.setYear(2025);
+            existingDeclarationEntity.setStatus(DeclarationStatus.EDITING);
+            existingDeclarationEntity.setVersion(5L);
+        }
+
+        @Test
+        @DisplayName("When the declaration moved past that version Then removal is rejected with the current version")
+        void shouldRejectRemovalOnStaleVersion() {
+            when(declarationRepository.findById(1L)).thenReturn(Optional.of(existingDeclarationEntity));
+
+            assertThatThrownBy(() -> declarationService.removeIncome(1L, 10L, taxpayerId, 4L))
+                    .isInstanceOf(DeclarationVersionConflictException.class)
+                    .extracting("currentVersion").isEqualTo(5L);
+
+            verify(declarationRepository, never()).save(any(DeclarationEntity.class));
+        }
+
+        @Test
+        @DisplayName("When the declaration moved past that version Then submission is rejected")
+        void shouldRejectSubmissionOnStaleVersion() {
+            when(declarationRepository.findById(1L)).thenReturn(Optional.of(existingDeclarationEntity));
+
+            assertThatThrownBy(() -> declarationService.submitDeclaration(1L, taxpayerId, 3L))
+                    .isInstanceOf(DeclarationVersionConflictException.class);
+
+            verify(declarationRepository, never()).save(any(DeclarationEntity.class));
+        }
+
+        @Test
+        @DisplayName("When another taxpayer removes a child Then access is denied and nothing is saved")
+        void shouldDenyRemovalByAnotherTaxpayer() {
+            when(declarationRepository.findById(1L)).thenReturn(Optional.of(existingDeclarationEntity));
+            var otherTaxpayer = UUID.randomUUID();
+
+            assertThatThrownBy(() -> declarationService.removeIncome(1L, 10L, otherTaxpayer, 5L))
+                    .isInstanceOf(AccessDeniedException.class);
+            assertThatThrownBy(() -> declarationService.removeDeductibleExpense(1L, 10L, otherTaxpayer, 5L))
+                    .isInstanceOf(AccessDeniedException.class);
+            assertThatThrownBy(() -> declarationService.removeDependent(1L, 10L, otherTaxpayer, 5L))
+                    .isInstanceOf(AccessDeniedException.class);
+
+            verify(declarationRepository, never()).save(any(DeclarationEntity.class));
+        }
+
+        @Test
+        @DisplayName("When the version matches Then removal goes through and bumps the version")
+        void shouldRemoveWhenVersionMatches() {
+            var incomeEntity = new IncomeEntity();
+            incomeEntity.setId(10L);
+            existingDeclarationEntity.setIncomes(List.of(incomeEntity));
+            when(declarationRepository.findById(1L)).thenReturn(Optional.of(existingDeclarationEntity));
+            when(incomeMapper.toDomain(any(IncomeEntity.class)))
+                    .thenReturn(new Income(10L, "Company", IncomeType.SALARY, new BigDecimal("100.00")));
+            when(declarationRepository.save(any(DeclarationEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+            var result = declarationService.removeIncome(1L, 10L, taxpayerId, 5L);
+
+            assertThat(result.getIncomes()).isEmpty();
+            verify(declarationRepository).incrementVersion(any(DeclarationEntity.class));
+        }
     }
-}
\ No newline at end of file
+}
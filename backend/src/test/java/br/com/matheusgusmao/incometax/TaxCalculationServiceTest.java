@@ -2,19 +2,29 @@ package br.com.matheusgusmao.incometax;
 
 import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
 import br.com.matheusgusmao.incometax.domain.model.declaration.TaxCalculationResult;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
 import br.com.matheusgusmao.incometax.domain.service.TaxCalculationService;
 import br.com.matheusgusmao.incometax.infra.persistence.entity.declaration.DeclarationEntity;
 import br.com.matheusgusmao.incometax.infra.persistence.mapper.DeclarationMapper;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationTaxResult;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.StoredTaxCalculation;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationAmendmentRepository;
 import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.TaxCalculationRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.store.RelationalDeclarationStore;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
 
 import java.math.BigDecimal;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @Tag("UnitTest")
@@ -28,6 +38,9 @@ public class TaxCalculationServiceTest {
     @Mock
     private DeclarationMapper declarationMapper;
 
+    @Mock
+    private TaxCalculationRepository calculationRepository;
+
     private TaxCalculationService taxCalculationService;
 
     private final DeclarationEntity mockEntity = new DeclarationEntity();
@@ -35,7 +48,8 @@ public class TaxCalculationServiceTest {
 
     @BeforeEach
     void setUp() {
-        taxCalculationService = new TaxCalculationService(declarationRepository, declarationMapper);
+        taxCalculationService = new TaxCalculationService(new RelationalDeclarationStore(declarationRepository, declarationMapper, mock(DeclarationAmendmentRepository.class)),
+                calculationRepository);
     }
 
     private Declaration setupMockDeclaration(String calculationBase) {
@@ -43,9 +57,9 @@ public class TaxCalculationServiceTest {
         when(declarationRepository.findById(declarationId)).thenReturn(Optional.of(mockEntity));
         when(declarationMapper.toDomain(mockEntity)).thenReturn(mockDeclaration);
 
-        BigDecimal base = new BigDecimal(calculationBase);
+        Money base = Money.of(new BigDecimal(calculationBase));
         when(mockDeclaration.calculateTotalIncome()).thenReturn(base);
-        when(mockDeclaration.calculateTotalDeductions()).thenReturn(BigDecimal.ZERO);
+        when(mockDeclaration.calculateTotalDeductions()).thenReturn(Money.ZERO);
 
         return mockDeclaration;
     }
@@ -67,8 +81,8 @@ public class TaxCalculationServiceTest {
         setupMockDeclaration("40000.00");
         TaxCalculationResult result = taxCalculationService.calculate(declarationId);
 
-        assertThat(result.taxDue()).isEqualTo(new BigDecimal("1617.62"));
-        assertThat(result.taxDue().scale()).isEqualTo(2);
+        assertThat(result.taxDue()).isEqualTo(Money.of(new BigDecimal("1617.62")));
+        assertThat(result.taxDue().toBigDecimal().scale()).isEqualTo(2);
         assertThat(result.effectiveAliquot()).isEqualTo(new BigDecimal("4.0400"));
     }
 
@@ -82,8 +96,8 @@ public class TaxCalculationServiceTest {
         void testAtFaixa1Boundary() {
             setupMockDeclaration("24511.92");
             TaxCalculationResult result = taxCalculationService.calculate(declarationId);
-            assertThat(result.taxDue()).isEqualByComparingTo("0.00");
-            assertThat(result.taxDue().scale()).as("Scale must be 2").isEqualTo(2);
+            assertThat(result.taxDue()).isEqualTo(Money.of(new BigDecimal("0.00")));
+            assertThat(result.taxDue().toBigDecimal().scale()).as("Scale must be 2").isEqualTo(2);
         }
 
         @Test
@@ -91,8 +105,8 @@ public class TaxCalculationServiceTest {
         void testAtFaixa2Boundary() {
             setupMockDeclaration("33919.80");
             TaxCalculationResult result = taxCalculationService.calculate(declarationId);
-            assertThat(result.taxDue()).isEqualByComparingTo("705.60");
-            assertThat(result.taxDue().scale()).isEqualTo(2);
+            assertThat(result.taxDue()).isEqualTo(Money.of(new BigDecimal("705.60")));
+            assertThat(result.taxDue().toBigDecimal().scale()).isEqualTo(2);
         }
 
         @Test
@@ -100,8 +114,8 @@ public class TaxCalculationServiceTest {
         void testAtFaixa3Boundary() {
             setupMockDeclaration("45012.60");
             TaxCalculationResult result = taxCalculationService.calculate(declarationId);
-            assertThat(result.taxDue()).isEqualByComparingTo("2369.51");
-            assertThat(result.taxDue().scale()).isEqualTo(2);
+            assertThat(result.taxDue()).isEqualTo(Money.of(new BigDecimal("2369.51")));
+            assertThat(result.taxDue().toBigDecimal().scale()).isEqualTo(2);
         }
 
         @Test
@@ -109,8 +123,59 @@ public class TaxCalculationServiceTest {
         void testAtFaixa4Boundary() {
             setupMockDeclaration("55976.16");
             TaxCalculationResult result = taxCalculationService.calculate(declarationId);
-            assertThat(result.taxDue()).isEqualByComparingTo("4641.40");
-            assertThat(result.taxDue().scale()).isEqualTo(2);
+            assertThat(result.taxDue()).isEqualTo(Money.of(new BigDecimal("4641.40")));
+            assertThat(result.taxDue().toBigDecimal().scale()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Stored calculations")
+    class StoredCalculationTests {
+
+        private final UUID taxpayerId = UUID.randomUUID();
+
+        @Test
+        @DisplayName("When the stored calculation matches the current version Then it is returned without loading the declaration")
+        void shouldServeTheStoredCalculation() {
+            var stored = new TaxCalculationResult(Money.of(new BigDecimal("40000.00")), Money.ZERO,
+                    Money.of(new BigDecimal("40000.00")), Money.of(new BigDecimal("1617.62")), new BigDecimal("4.0441"));
+            when(declarationRepository.findVersionById(declarationId)).thenReturn(Optional.of(4L));
+            when(calculationRepository.findByVersion(declarationId, 4L)).thenReturn(Optional.of(new StoredTaxCalculation(taxpayerId, stored)));
+
+            var result = taxCalculationService.findOrCalculate(declarationId, taxpayerId);
+
+            assertThat(result).isEqualTo(stored);
+            verify(declarationRepository, never()).findById(any());
+            verify(calculationRepository, never()).save(any(), any());
+        }
+
+        @Test
+        @DisplayName("When no calculation matches the current version Then it is calculated and stored for that version")
+        void shouldCalculateAndStoreForTheCurrentVersion() {
+            var declaration = setupMockDeclaration("40000.00");
+            when(declaration.getTaxpayerId()).thenReturn(taxpayerId);
+            when(declaration.getVersion()).thenReturn(5L);
+            when(declarationRepository.findVersionById(declarationId)).thenReturn(Optional.of(5L));
+            when(calculationRepository.findByVersion(declarationId, 5L)).thenReturn(Optional.empty());
+
+            var result = taxCalculationService.findOrCalculate(declarationId, taxpayerId);
+
+            ArgumentCaptor<DeclarationTaxResult> saved = ArgumentCaptor.forClass(DeclarationTaxResult.class);
+            verify(calculationRepository).save(saved.capture(), any());
+            assertThat(saved.getValue().declarationVersion()).isEqualTo(5L);
+            assertThat(saved.getValue().result()).isEqualTo(result);
+            assertThat(result.taxDue()).isEqualTo(Money.of(new BigDecimal("1617.62")));
+        }
+
+        @Test
+        @DisplayName("When another taxpayer asks for a stored calculation Then access is denied")
+        void shouldDenyAnotherTaxpayer() {
+            var stored = new TaxCalculationResult(Money.ZERO, Money.ZERO, Money.ZERO, Money.ZERO, BigDecimal.ZERO);
+            when(declarationRepository.findVersionById(declarationId)).thenReturn(Optional.of(1L));
+            when(calculationRepository.findByVersion(declarationId, 1L)).thenReturn(Optional.of(new StoredTaxCalculation(taxpayerId, stored)));
+
+            assertThatThrownBy(() -> taxCalculationService.findOrCalculate(declarationId, UUID.randomUUID()))
+                    .isInstanceOf(AccessDeniedException.class);
         }
     }
 }
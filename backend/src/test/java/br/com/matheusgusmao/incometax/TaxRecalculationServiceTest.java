@@ -0,0 +1,139 @@
+package br.com.matheusgusmao.incometax;
+
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import br.com.matheusgusmao.incometax.domain.model.recalculation.TaxRecalculationProgress;
+import br.com.matheusgusmao.incometax.domain.model.recalculation.TaxRecalculationStatus;
+import br.com.matheusgusmao.incometax.domain.service.TaxCalculationService;
+import br.com.matheusgusmao.incometax.domain.service.TaxRecalculationService;
+import br.com.matheusgusmao.incometax.infra.persistence.mapper.DeclarationMapper;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationTaxResult;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationTotals;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationAmendmentRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.store.RelationalDeclarationStore;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.TaxCalculationRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.TaxRecalculationRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaxRecalculationService")
+class TaxRecalculationServiceTest {
+
+    @Mock
+    private TaxRecalculationRepository recalculationRepository;
+    @Mock
+    private DeclarationRepository declarationRepository;
+    @Mock
+    private DeclarationMapper declarationMapper;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaxRecalculationService recalculationService;
+    private final List<Runnable> pendingJobs = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        var taxCalculationService = new TaxCalculationService(new RelationalDeclarationStore(declarationRepository, declarationMapper, mock(DeclarationAmendmentRepository.class)),
+                mock(TaxCalculationRepository.class));
+        recalculationService = new TaxRecalculationService(recalculationRepository, taxCalculationService,
+                new TransactionTemplate(transactionManager), 2, pendingJobs::add);
+    }
+
+    private TaxRecalculationProgress job(long lastDeclarationId, long processed) {
+        return new TaxRecalculationProgress(1L, TaxRecalculationStatus.RUNNING, lastDeclarationId, processed, 0, LocalDateTime.now(), null);
+    }
+
+    private void runPendingJobs() {
+        pendingJobs.forEach(Runnable::run);
+        pendingJobs.clear();
+    }
+
+    @Test
+    @DisplayName("When there is no unfinished job Then every chunk is calculated, saved and checkpointed")
+    @SuppressWarnings("unchecked")
+    void shouldRecalculateAllChunksAndComplete() {
+        when(recalculationRepository.findUnfinishedJob()).thenReturn(Optional.empty());
+        when(recalculationRepository.createJob(any())).thenReturn(job(0, 0));
+        when(recalculationRepository.findEditingTotalsAfter(0, 2)).thenReturn(List.of(
+                new DeclarationTotals(3, 1, Money.of(new BigDecimal("40000.00")), Money.ZERO),
+                new DeclarationTotals(7, 1, Money.of(new BigDecimal("10000.00")), Money.ZERO)));
+        when(recalculationRepository.findEditingTotalsAfter(7, 2)).thenReturn(List.of(
+                new DeclarationTotals(9, 1, Money.of(new BigDecimal("80000.00")), Money.ZERO)));
+        when(recalculationRepository.findEditingTotalsAfter(9, 2)).thenReturn(List.of());
+
+        recalculationService.start();
+        runPendingJobs();
+
+        ArgumentCaptor<List<DeclarationTaxResult>> results = ArgumentCaptor.forClass(List.class);
+        verify(recalculationRepository, times(2)).saveResults(results.capture(), any());
+        assertThat(results.getAllValues().getFirst())
+                .extracting(result -> result.result().taxDue())
+                .containsExactly(Money.of(new BigDecimal("1617.62")), Money.ZERO);
+        assertThat(results.getAllValues().getLast().getFirst().result().taxDue()).isEqualTo(Money.of(new BigDecimal("11247.95")));
+
+        verify(recalculationRepository).updateCheckpoint(1L, 7, 2);
+        verify(recalculationRepository).updateCheckpoint(1L, 9, 3);
+        verify(recalculationRepository).finishJob(eq(1L), eq(TaxRecalculationStatus.COMPLETED), any());
+        assertThat(recalculationService.getProgress()).get()
+                .extracting(TaxRecalculationProgress::status, TaxRecalculationProgress::processed)
+                .containsExactly(TaxRecalculationStatus.COMPLETED, 3L);
+    }
+
+    @Test
+    @DisplayName("When an interrupted job exists Then it resumes after its checkpoint")
+    void shouldResumeFromCheckpoint() {
+        when(recalculationRepository.findUnfinishedJob()).thenReturn(Optional.of(job(7, 2)));
+        when(recalculationRepository.findEditingTotalsAfter(7, 2)).thenReturn(List.of());
+
+        recalculationService.start();
+        runPendingJobs();
+
+        verify(recalculationRepository, never()).createJob(any());
+        verify(recalculationRepository, never()).findEditingTotalsAfter(eq(0L), anyInt());
+        verify(recalculationRepository).finishJob(eq(1L), eq(TaxRecalculationStatus.COMPLETED), any());
+    }
+
+    @Test
+    @DisplayName("When a chunk fails Then the job is marked failed and keeps its checkpoint")
+    void shouldMarkJobFailed() {
+        when(recalculationRepository.findUnfinishedJob()).thenReturn(Optional.of(job(7, 2)));
+        when(recalculationRepository.findEditingTotalsAfter(7, 2)).thenThrow(new IllegalStateException("database is locked"));
+
+        recalculationService.start();
+        runPendingJobs();
+
+        verify(recalculationRepository).finishJob(eq(1L), eq(TaxRecalculationStatus.FAILED), any());
+        verify(recalculationRepository, never()).updateCheckpoint(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("When a job is already running Then a second start is rejected")
+    void shouldRejectConcurrentStart() {
+        when(recalculationRepository.findUnfinishedJob()).thenReturn(Optional.of(job(0, 0)));
+
+        recalculationService.start();
+
+        assertThatThrownBy(() -> recalculationService.start())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("A tax recalculation is already running.");
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.matheusgusmao.incometax.domain.model.analytics;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("DeclarationColumns Domain - Structural Tests")
+@Tag("Structural")
+@Tag("UnitTest")
+@Tag("Unit")
+public class DeclarationColumnsDomainTest {
+
+    private static DeclarationRow row(long id, int year, DeclarationStatus status, long salaryCents, long healthCents, long taxDueCents, int bracket) {
+        var incomes = new long[IncomeType.values().length];
+        incomes[IncomeType.SALARY.ordinal()] = salaryCents;
+        var deductions = new long[ExpenseType.values().length];
+        deductions[ExpenseType.HEALTH.ordinal()] = healthCents;
+        return new DeclarationRow(id, year, status, incomes, deductions, taxDueCents, bracket);
+    }
+
+    @Nested
+    @DisplayName("Row Maintenance")
+    class RowMaintenanceTests {
+
+        @Test
+        @DisplayName("Should keep one row per declaration when upserting the same id")
+        void shouldOverwriteExistingRow() {
+            var columns = new DeclarationColumns(1);
+            columns.upsert(row(1, 2025, DeclarationStatus.EDITING, 100_00, 0, 0, 1));
+            columns.upsert(row(1, 2025, DeclarationStatus.DELIVERED, 300_00, 0, 0, 1));
+
+            var summary = columns.summarize(2025, new int[0]);
+
+            assertThat(columns.size()).isEqualTo(1);
+            assertThat(summary.incomeByType().get(IncomeType.SALARY)).isEqualTo(Money.of(new BigDecimal("300.00")));
+            assertThat(summary.declarationsByStatus().get(DeclarationStatus.DELIVERED)).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("Should grow and keep ids ordered when rows arrive out of order")
+        void shouldInsertOutOfOrderRows() {
+            var columns = new DeclarationColumns(1);
+            columns.upsert(row(5, 2025, DeclarationStatus.EDITING, 5_00, 0, 0, 1));
+            columns.upsert(row(2, 2025, DeclarationStatus.EDITING, 2_00, 0, 0, 1));
+            columns.upsert(row(9, 2025, DeclarationStatus.EDITING, 9_00, 0, 0, 1));
+            columns.remove(5);
+
+            assertThat(columns.size()).isEqualTo(2);
+            assertThat(columns.summarize(2025, new int[0]).incomeByType().get(IncomeType.SALARY)).isEqualTo(Money.of(new BigDecimal("11.00")));
+        }
+
+        @Test
+        @DisplayName("Should ignore removal of unknown declaration")
+        void shouldIgnoreUnknownRemoval() {
+            var columns = new DeclarationColumns();
+            columns.upsert(row(1, 2025, DeclarationStatus.EDITING, 1_00, 0, 0, 1));
+
+            columns.remove(42);
+
+            assertThat(columns.size()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Year Summary")
+    class YearSummaryTests {
+
+        @Test
+        @DisplayName("Should aggregate only the requested year by type and bracket")
+        void shouldAggregateRequestedYear() {
+            var columns = new DeclarationColumns();
+            columns.upsert(row(1, 2025, DeclarationStatus.EDITING, 40_000_00, 1_000_00, 1_617_62, 3));
+            columns.upsert(row(2, 2025, DeclarationStatus.DELIVERED, 10_000_00, 0, 0, 1));
+            columns.upsert(row(3, 2024, DeclarationStatus.DELIVERED, 99_000_00, 0, 16_472_45, 5));
+
+            var summary = columns.summarize(2025, new int[]{50, 100});
+
+            assertThat(summary.declarations()).isEqualTo(2);
+            assertThat(summary.incomeByType().get(IncomeType.SALARY)).isEqualTo(Money.of(new BigDecimal("50000.00")));
+            assertThat(summary.deductionsByType().get(ExpenseType.HEALTH)).isEqualTo(Money.of(new BigDecimal("1000.00")));
+            assertThat(summary.taxBrackets()).extracting(BracketSummary::declarations).containsExactly(1L, 0L, 1L, 0L, 0L);
+            assertThat(summary.taxBrackets().get(2).taxDue()).isEqualTo(Money.of(new BigDecimal("1617.62")));
+            assertThat(summary.taxDuePercentiles().get(50)).isEqualTo(Money.ZERO);
+            assertThat(summary.taxDuePercentiles().get(100)).isEqualTo(Money.of(new BigDecimal("1617.62")));
+        }
+
+        @Test
+        @DisplayName("Should return zero percentiles for a year without declarations")
+        void shouldReturnZeroForEmptyYear() {
+            var summary = new DeclarationColumns().summarize(2030, new int[]{90});
+
+            assertThat(summary.declarations()).isZero();
+            assertThat(summary.taxDuePercentiles().get(90)).isEqualTo(Money.ZERO);
+        }
+
+        @Test
+        @DisplayName("Should reject percentiles outside 0 to 100")
+        void shouldRejectInvalidPercentile() {
+            var columns = new DeclarationColumns();
+            columns.upsert(row(1, 2025, DeclarationStatus.EDITING, 1_00, 0, 0, 1));
+
+            assertThatThrownBy(() -> columns.summarize(2025, new int[]{101}))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
 import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
 import br.com.matheusgusmao.incometax.domain.model.income.Income;
 import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -15,6 +16,8 @@ import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -338,7 +341,7 @@ class DeclarationDomainTest {
 
             var total = declaration.calculateTotalIncome();
 
-            assertThat(total).isEqualByComparingTo(BigDecimal.valueOf(8000));
+            assertThat(total).isEqualTo(Money.of(BigDecimal.valueOf(8000)));
         }
 
         @Test
@@ -348,7 +351,7 @@ class DeclarationDomainTest {
 
             var total = declaration.calculateTotalIncome();
 
-            assertThat(total).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(total).isEqualTo(Money.ZERO);
         }
 
         @Test
@@ -360,7 +363,7 @@ class DeclarationDomainTest {
 
             var total = declaration.calculateTotalDeductions();
 
-            assertThat(total).isEqualByComparingTo(BigDecimal.valueOf(2000));
+            assertThat(total).isEqualTo(Money.of(BigDecimal.valueOf(2000)));
         }
 
         @Test
@@ -370,7 +373,7 @@ class DeclarationDomainTest {
 
             var total = declaration.calculateTotalDeductions();
 
-            assertThat(total).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(total).isEqualTo(Money.ZERO);
         }
     }
     @Nested
@@ -524,7 +527,7 @@ class DeclarationDomainTest {
 
             var total = declaration.calculateTotalIncome();
 
-            assertThat(total).isEqualByComparingTo(new BigDecimal("10001.50"));
+            assertThat(total).isEqualTo(Money.of(new BigDecimal("10001.50")));
         }
 
         @Test
@@ -537,7 +540,7 @@ class DeclarationDomainTest {
 
             var total = declaration.calculateTotalDeductions();
 
-            assertThat(total).isEqualByComparingTo(new BigDecimal("2501.50"));
+            assertThat(total).isEqualTo(Money.of(new BigDecimal("2501.50")));
         }
 
         @Test
@@ -562,7 +565,7 @@ class DeclarationDomainTest {
             declaration.addIncome(new Income("Company B", IncomeType.SALARY, BigDecimal.ZERO));
 
             var total = declaration.calculateTotalIncome();
-            assertThat(total).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(total).isEqualTo(Money.ZERO);
         }
 
         @Test
@@ -573,7 +576,121 @@ class DeclarationDomainTest {
 
             var total = declaration.calculateTotalDeductions();
 
-            assertThat(total).isEqualByComparingTo(new BigDecimal("0.01"));
+            assertThat(total).isEqualTo(Money.of(new BigDecimal("0.01")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Declaration Rehydration")
+    class DeclarationRehydrationTests {
+
+        @Test
+        @DisplayName("Should rehydrate a delivered declaration with its children")
+        void shouldRehydrateDeliveredDeclarationWithChildren() {
+            var deliveryDate = LocalDateTime.of(2025, 4, 30, 12, 0);
+            var incomes = new ArrayList<Income>(List.of(Income.rehydrate(1L, "Company A", IncomeType.SALARY, Money.ofCents(500000))));
+            var expenses = new ArrayList<DeductibleExpense>(List.of(DeductibleExpense.rehydrate(2L, "Health", ExpenseType.HEALTH, Money.ofCents(120000))));
+            var dependents = new ArrayList<Dependent>(List.of(new Dependent(3L, "Child", new Cpf("12345678909"), LocalDate.of(2015, 1, 1))));
+
+            var declaration = Declaration.rehydrate(10L, taxpayerId, year, DeclarationStatus.DELIVERED, deliveryDate, 4L, incomes, expenses, dependents);
+
+            assertThat(declaration.getId()).isEqualTo(10L);
+            assertThat(declaration.getStatus()).isEqualTo(DeclarationStatus.DELIVERED);
+            assertThat(declaration.getDeliveryDate()).isEqualTo(deliveryDate);
+            assertThat(declaration.getVersion()).isEqualTo(4L);
+            assertThat(declaration.getIncomes()).hasSize(1);
+            assertThat(declaration.getDeductibleExpenses()).hasSize(1);
+            assertThat(declaration.getDependents()).hasSize(1);
+            assertThat(declaration.calculateTotalIncome()).isEqualTo(Money.ofCents(500000));
+        }
+
+        @Test
+        @DisplayName("Should still enforce status rules after rehydration")
+        void shouldEnforceStatusRulesAfterRehydration() {
+            var declaration = Declaration.rehydrate(10L, taxpayerId, year, DeclarationStatus.DELIVERED, LocalDateTime.now(), 1L,
+                    new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+
+            assertThatThrownBy(() -> declaration.addIncome(new Income("Company A", IncomeType.SALARY, BigDecimal.TEN)))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        @DisplayName("Should leave the given collections untouched by later changes")
+        void shouldLeaveGivenCollectionsUntouched() {
+            var incomes = new ArrayList<Income>();
+            var declaration = Declaration.rehydrate(10L, taxpayerId, year, DeclarationStatus.EDITING, null, 1L,
+                    incomes, new ArrayList<>(), new ArrayList<>());
+
+            declaration.addIncome(new Income("Company A", IncomeType.SALARY, BigDecimal.TEN));
+
+            assertThat(incomes).isEmpty();
+            assertThat(declaration.getIncomes()).hasSize(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Declaration Amendment")
+    class DeclarationAmendmentTests {
+
+        private Declaration delivered() {
+            var incomes = new ArrayList<Income>(List.of(
+                    Income.rehydrate(1L, "Company A", IncomeType.SALARY, Money.ofCents(500000)),
+                    Income.rehydrate(2L, "Company B", IncomeType.OTHER, Money.ofCents(70000))));
+            var expenses = new ArrayList<DeductibleExpense>(List.of(DeductibleExpense.rehydrate(3L, "Health", ExpenseType.HEALTH, Money.ofCents(120000))));
+            return Declaration.rehydrate(10L, taxpayerId, year, DeclarationStatus.DELIVERED, LocalDateTime.of(2025, 4, 30, 12, 0), 4L,
+                    incomes, expenses, new ArrayList<>());
+        }
+
+        @Test
+        @DisplayName("When a delivered declaration is amended Then the amendment is the next version back in editing")
+        void shouldStartNextAmendmentInEditing() {
+            var original = delivered();
+
+            var amendment = original.amend();
+
+            assertThat(amendment.getId()).isEqualTo(10L);
+            assertThat(amendment.getAmendment()).isEqualTo(1);
+            assertThat(amendment.getStatus()).isEqualTo(DeclarationStatus.EDITING);
+            assertThat(amendment.getDeliveryDate()).isNull();
+            assertThat(amendment.getVersion()).isEqualTo(4L);
+            assertThat(amendment.getIncomes()).isSameAs(original.getIncomes());
+            assertThat(amendment.getDeductibleExpenses()).isSameAs(original.getDeductibleExpenses());
+        }
+
+        @Test
+        @DisplayName("When the amendment changes its children Then the original keeps its own")
+        void shouldLeaveOriginalUnchanged() {
+            var original = delivered();
+            var amendment = original.amend();
+
+            amendment.removeIncome(2L);
+            amendment.addIncome(new Income("Company C", IncomeType.VACATION, BigDecimal.TEN));
+            amendment.removeDeductibleExpense(3L);
+
+            assertThat(original.getIncomes()).extracting(Income::getId).containsExactly(1L, 2L);
+            assertThat(original.getDeductibleExpenses()).hasSize(1);
+            assertThat(original.getStatus()).isEqualTo(DeclarationStatus.DELIVERED);
+            assertThat(amendment.getIncomes()).extracting(Income::getPayingSource).containsExactly("Company A", "Company C");
+            assertThat(amendment.getDeductibleExpenses()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("When a submitted amendment is amended again Then the amendment number keeps counting")
+        void shouldCountAmendments() {
+            var amendment = delivered().amend();
+            amendment.submit();
+
+            assertThat(amendment.amend().getAmendment()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("When a declaration in editing is amended Then it is rejected")
+        void shouldRejectAmendingEditingDeclaration() {
+            var declaration = new Declaration(taxpayerId, year);
+
+            assertThatThrownBy(declaration::amend)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Only a delivered declaration can be amended.");
         }
     }
 
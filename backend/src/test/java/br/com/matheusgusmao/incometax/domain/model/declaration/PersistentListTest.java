@@ -0,0 +1,111 @@
+package br.com.matheusgusmao.incometax.domain.model.declaration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("UnitTest")
+@Tag("Unit")
+class PersistentListTest {
+
+    private static PersistentList<Integer> range(int size) {
+        return PersistentList.copyOf(IntStream.range(0, size).boxed().toList());
+    }
+
+    @Test
+    @DisplayName("When elements are added and removed Then every version keeps its own elements")
+    void shouldKeepEveryVersion() {
+        var empty = PersistentList.<String>of();
+        var one = empty.plus("a");
+        var two = one.plus("b");
+        var withoutFirst = two.minus(0);
+
+        assertThat(empty).isEmpty();
+        assertThat(one).containsExactly("a");
+        assertThat(two).containsExactly("a", "b");
+        assertThat(withoutFirst).containsExactly("b");
+    }
+
+    @Test
+    @DisplayName("When a large list changes Then only the touched chunk is copied")
+    void shouldShareUntouchedChunks() {
+        var original = range(200);
+
+        var removed = original.minus(100);
+        var appended = original.plus(200);
+
+        assertThat(original.chunkCount()).isEqualTo(7);
+        assertThat(removed.sharedChunks(original)).isEqualTo(6);
+        assertThat(appended.sharedChunks(original)).isEqualTo(6);
+        assertThat(original).hasSize(200).element(100).isEqualTo(100);
+        assertThat(removed).hasSize(199).element(100).isEqualTo(101);
+        assertThat(appended).hasSize(201).last().isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("When elements are removed anywhere Then positions match a plain list")
+    void shouldMatchPlainList() {
+        var list = range(100);
+        var expected = new ArrayList<>(list);
+
+        for (var index : List.of(99, 0, 31, 31, 31, 40, 0, 50)) {
+            list = list.minus(index);
+            expected.remove((int) index);
+        }
+        list = list.plus(1000);
+        expected.add(1000);
+
+        assertThat(list).containsExactlyElementsOf(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(list.get(i)).isEqualTo(expected.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("When the last element of a chunk is removed Then the chunk is dropped")
+    void shouldDropEmptyChunks() {
+        var list = range(33).minus(32);
+
+        assertThat(list.chunkCount()).isEqualTo(1);
+        assertThat(list).hasSize(32);
+    }
+
+    @Test
+    @DisplayName("When removals leave chunks under half full Then they are merged into a neighbour with room")
+    void shouldMergeSmallChunks() {
+        var list = range(320);
+        var expected = new ArrayList<>(list);
+
+        // Empties most of each chunk, last one first, so each removal starts at the front of its chunk.
+        for (int chunk = 9; chunk >= 0; chunk--) {
+            for (int removed = 0; removed < 20; removed++) {
+                list = list.minus(chunk * 32);
+                expected.remove(chunk * 32);
+            }
+        }
+
+        assertThat(list.chunkCount()).isEqualTo(5);
+        assertThat(list).containsExactlyElementsOf(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(list.get(i)).isEqualTo(expected.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("When the list is changed in place or given nulls Then it is rejected")
+    void shouldRejectMutationAndNulls() {
+        var list = range(3);
+
+        assertThatThrownBy(() -> list.add(3)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> list.remove(0)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> list.plus(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> list.minus(3)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.matheusgusmao.incometax.domain.model.declaration;
 
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
 import br.com.matheusgusmao.incometax.domain.service.TaxCalculationService;
 import br.com.matheusgusmao.incometax.infra.persistence.entity.declaration.DeclarationEntity;
 import br.com.matheusgusmao.incometax.infra.persistence.mapper.DeclarationMapper;
@@ -27,10 +28,10 @@ public class TaxCalculationResultDomainTest {
         @Test
         @DisplayName("Should create TaxCalculationResult with 5 parameters")
         void shouldCreateTaxCalculationResultWith5Parameters() {
-            var totalIncome = BigDecimal.valueOf(10000);
-            var totalDeductions = BigDecimal.valueOf(2000);
-            var calculationBase = BigDecimal.valueOf(8000);
-            var taxDue = BigDecimal.valueOf(1200);
+            var totalIncome = Money.of(BigDecimal.valueOf(10000));
+            var totalDeductions = Money.of(BigDecimal.valueOf(2000));
+            var calculationBase = Money.of(BigDecimal.valueOf(8000));
+            var taxDue = Money.of(BigDecimal.valueOf(1200));
             var effectiveAliquot = BigDecimal.valueOf(15.0);
 
             var result = new TaxCalculationResult(totalIncome, totalDeductions, calculationBase, taxDue, effectiveAliquot);
@@ -46,12 +47,12 @@ public class TaxCalculationResultDomainTest {
         @Test
         @DisplayName("Should create TaxCalculationResult with 6 parameters")
         void shouldCreateTaxCalculationResultWith6Parameters() {
-            var totalIncome = BigDecimal.valueOf(10000);
-            var totalDeductions = BigDecimal.valueOf(2000);
-            var calculationBase = BigDecimal.valueOf(8000);
-            var taxDue = BigDecimal.valueOf(1200);
+            var totalIncome = Money.of(BigDecimal.valueOf(10000));
+            var totalDeductions = Money.of(BigDecimal.valueOf(2000));
+            var calculationBase = Money.of(BigDecimal.valueOf(8000));
+            var taxDue = Money.of(BigDecimal.valueOf(1200));
             var effectiveAliquot = BigDecimal.valueOf(15.0);
-            var finalBalance = BigDecimal.valueOf(500);
+            var finalBalance = Money.of(BigDecimal.valueOf(500));
 
             var result = new TaxCalculationResult(totalIncome, totalDeductions, calculationBase, taxDue, effectiveAliquot, finalBalance);
 
@@ -67,57 +68,57 @@ public class TaxCalculationResultDomainTest {
         @DisplayName("Should handle zero values in 5 parameter constructor")
         void shouldHandleZeroValuesIn5ParameterConstructor() {
             var result = new TaxCalculationResult(
-                    BigDecimal.ZERO,
-                    BigDecimal.ZERO,
-                    BigDecimal.ZERO,
-                    BigDecimal.ZERO,
+                    Money.ZERO,
+                    Money.ZERO,
+                    Money.ZERO,
+                    Money.ZERO,
                     BigDecimal.ZERO
             );
 
-            assertThat(result.totalIncome()).isEqualByComparingTo(BigDecimal.ZERO);
-            assertThat(result.totalDeductions()).isEqualByComparingTo(BigDecimal.ZERO);
-            assertThat(result.finalBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(result.totalIncome()).isEqualByComparingTo(Money.ZERO);
+            assertThat(result.totalDeductions()).isEqualByComparingTo(Money.ZERO);
+            assertThat(result.finalBalance()).isEqualByComparingTo(Money.ZERO);
         }
 
         @Test
         @DisplayName("Should handle zero values in 6 parameter constructor")
         void shouldHandleZeroValuesIn6ParameterConstructor() {
             var result = new TaxCalculationResult(
+                    Money.ZERO,
+                    Money.ZERO,
+                    Money.ZERO,
+                    Money.ZERO,
                     BigDecimal.ZERO,
-                    BigDecimal.ZERO,
-                    BigDecimal.ZERO,
-                    BigDecimal.ZERO,
-                    BigDecimal.ZERO,
-                    BigDecimal.ZERO
+                    Money.ZERO
             );
 
-            assertThat(result.totalIncome()).isEqualByComparingTo(BigDecimal.ZERO);
-            assertThat(result.finalBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(result.totalIncome()).isEqualByComparingTo(Money.ZERO);
+            assertThat(result.finalBalance()).isEqualByComparingTo(Money.ZERO);
         }
 
         @Test
         @DisplayName("Should handle negative finalBalance in 6 parameter constructor")
         void shouldHandleNegativeFinalBalanceIn6ParameterConstructor() {
             var result = new TaxCalculationResult(
-                    BigDecimal.valueOf(10000),
-                    BigDecimal.valueOf(2000),
-                    BigDecimal.valueOf(8000),
-                    BigDecimal.valueOf(1200),
+                    Money.of(BigDecimal.valueOf(10000)),
+                    Money.of(BigDecimal.valueOf(2000)),
+                    Money.of(BigDecimal.valueOf(8000)),
+                    Money.of(BigDecimal.valueOf(1200)),
                     BigDecimal.valueOf(15.0),
-                    BigDecimal.valueOf(-500) // Negative balance (refund)
+                    Money.of(BigDecimal.valueOf(-500)) // Negative balance (refund)
             );
 
-            assertThat(result.finalBalance()).isEqualByComparingTo(BigDecimal.valueOf(-500));
+            assertThat(result.finalBalance()).isEqualByComparingTo(Money.of(BigDecimal.valueOf(-500)));
         }
 
         @Test
         @DisplayName("Should set finalBalance equal to taxDue in 5 parameter constructor")
         void shouldSetFinalBalanceEqualToTaxDueIn5ParameterConstructor() {
-            var taxDue = BigDecimal.valueOf(1500);
+            var taxDue = Money.of(BigDecimal.valueOf(1500));
             var result = new TaxCalculationResult(
-                    BigDecimal.valueOf(10000),
-                    BigDecimal.valueOf(2000),
-                    BigDecimal.valueOf(8000),
+                    Money.of(BigDecimal.valueOf(10000)),
+                    Money.of(BigDecimal.valueOf(2000)),
+                    Money.of(BigDecimal.valueOf(8000)),
                     taxDue,
                     BigDecimal.valueOf(18.75)
             );
@@ -129,30 +130,30 @@ public class TaxCalculationResultDomainTest {
         @DisplayName("Should handle large values correctly")
         void shouldHandleLargeValuesCorrectly() {
             var result = new TaxCalculationResult(
-                    new BigDecimal("999999.99"),
-                    new BigDecimal("50000.00"),
-                    new BigDecimal("949999.99"),
-                    new BigDecimal("142500.00"),
+                    Money.of(new BigDecimal("999999.99")),
+                    Money.of(new BigDecimal("50000.00")),
+                    Money.of(new BigDecimal("949999.99")),
+                    Money.of(new BigDecimal("142500.00")),
                     new BigDecimal("15.0")
             );
 
-            assertThat(result.totalIncome()).isEqualByComparingTo(new BigDecimal("999999.99"));
-            assertThat(result.finalBalance()).isEqualByComparingTo(new BigDecimal("142500.00"));
+            assertThat(result.totalIncome()).isEqualByComparingTo(Money.of(new BigDecimal("999999.99")));
+            assertThat(result.finalBalance()).isEqualByComparingTo(Money.of(new BigDecimal("142500.00")));
         }
 
         @Test
         @DisplayName("Should handle decimal precision correctly")
         void shouldHandleDecimalPrecisionCorrectly() {
             var result = new TaxCalculationResult(
-                    new BigDecimal("1234.56"),
-                    new BigDecimal("123.45"),
-                    new BigDecimal("1111.11"),
-                    new BigDecimal("166.67"),
+                    Money.of(new BigDecimal("1234.56")),
+                    Money.of(new BigDecimal("123.45")),
+                    Money.of(new BigDecimal("1111.11")),
+                    Money.of(new BigDecimal("166.67")),
                     new BigDecimal("15.0001"),
-                    new BigDecimal("166.67")
+                    Money.of(new BigDecimal("166.67"))
             );
 
-            assertThat(result.totalIncome()).isEqualByComparingTo(new BigDecimal("1234.56"));
+            assertThat(result.totalIncome()).isEqualByComparingTo(Money.of(new BigDecimal("1234.56")));
             assertThat(result.effectiveAliquot()).isEqualByComparingTo(new BigDecimal("15.0001"));
         }
     }
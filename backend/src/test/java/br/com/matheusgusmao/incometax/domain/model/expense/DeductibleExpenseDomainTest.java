@@ -1,5 +1,6 @@
 package br.com.matheusgusmao.incometax.domain.model.expense;
 
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Tag;
@@ -30,7 +31,7 @@ public class DeductibleExpenseDomainTest {
 
             assertThat(expense.getDescription()).isEqualTo(description);
             assertThat(expense.getType()).isEqualTo(type);
-            assertThat(expense.getValue()).isEqualTo(value);
+            assertThat(expense.getValue()).isEqualTo(Money.of(value));
             assertThat(expense.getId()).isNull();
         }
         @Test
@@ -46,7 +47,7 @@ public class DeductibleExpenseDomainTest {
             assertThat(expense.getId()).isEqualTo(id);
             assertThat(expense.getDescription()).isEqualTo(description);
             assertThat(expense.getType()).isEqualTo(type);
-            assertThat(expense.getValue()).isEqualTo(value);
+            assertThat(expense.getValue()).isEqualTo(Money.of(value));
         }
         @Test
         @DisplayName("Should accept all expense types")
@@ -64,7 +65,7 @@ public class DeductibleExpenseDomainTest {
         @Test
         @DisplayName("Should throw exception when value is null")
         void shouldThrowExceptionWhenValueIsNull() {
-            assertThatThrownBy(() -> new DeductibleExpense("Health Plan", ExpenseType.HEALTH, null))
+            assertThatThrownBy(() -> new DeductibleExpense("Health Plan", ExpenseType.HEALTH, (BigDecimal) null))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Expense value must be positive");
         }
@@ -101,21 +102,21 @@ public class DeductibleExpenseDomainTest {
         void shouldAcceptPositiveValue() {
             var expense = new DeductibleExpense("Health Plan", ExpenseType.HEALTH, BigDecimal.valueOf(100));
 
-            assertThat(expense.getValue()).isPositive();
+            assertThat(expense.getValue().isPositive()).isTrue();
         }
         @Test
         @DisplayName("Should accept small positive value")
         void shouldAcceptSmallPositiveValue() {
             var expense = new DeductibleExpense("Expense", ExpenseType.OTHER, new BigDecimal("0.01"));
 
-            assertThat(expense.getValue()).isEqualByComparingTo(new BigDecimal("0.01"));
+            assertThat(expense.getValue()).isEqualTo(Money.of(new BigDecimal("0.01")));
         }
         @Test
         @DisplayName("Should accept large decimal values")
         void shouldAcceptLargeDecimalValues() {
             var expense = new DeductibleExpense("Expense", ExpenseType.HEALTH, new BigDecimal("999999.99"));
 
-            assertThat(expense.getValue()).isEqualByComparingTo(new BigDecimal("999999.99"));
+            assertThat(expense.getValue()).isEqualTo(Money.of(new BigDecimal("999999.99")));
         }
     }
     @Nested
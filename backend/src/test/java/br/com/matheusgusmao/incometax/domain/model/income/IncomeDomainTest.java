@@ -1,4 +1,6 @@
 package br.com.matheusgusmao.incometax.domain.model.income;
+
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Tag;
@@ -29,7 +31,7 @@ public class IncomeDomainTest {
 
             assertThat(income.getPayingSource()).isEqualTo(payingSource);
             assertThat(income.getType()).isEqualTo(type);
-            assertThat(income.getValue()).isEqualTo(value);
+            assertThat(income.getValue()).isEqualTo(Money.of(value));
             assertThat(income.getId()).isNull();
         }
 
@@ -46,7 +48,7 @@ public class IncomeDomainTest {
             assertThat(income.getId()).isEqualTo(id);
             assertThat(income.getPayingSource()).isEqualTo(payingSource);
             assertThat(income.getType()).isEqualTo(type);
-            assertThat(income.getValue()).isEqualTo(value);
+            assertThat(income.getValue()).isEqualTo(Money.of(value));
         }
 
         @Test
@@ -54,7 +56,7 @@ public class IncomeDomainTest {
         void shouldAcceptZeroValue() {
             var income = new Income("Company XYZ", IncomeType.SALARY, BigDecimal.ZERO);
 
-            assertThat(income.getValue()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(income.getValue()).isEqualTo(Money.ZERO);
         }
 
         @Test
@@ -75,7 +77,7 @@ public class IncomeDomainTest {
         @Test
         @DisplayName("Should throw exception when value is null")
         void shouldThrowExceptionWhenValueIsNull() {
-            assertThatThrownBy(() -> new Income("Company XYZ", IncomeType.SALARY, null))
+            assertThatThrownBy(() -> new Income("Company XYZ", IncomeType.SALARY, (BigDecimal) null))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Income value cannot be negative");
         }
@@ -101,7 +103,7 @@ public class IncomeDomainTest {
         void shouldAcceptPositiveValue() {
             var income = new Income("Company P", IncomeType.SALARY, BigDecimal.valueOf(100));
 
-            assertThat(income.getValue()).isPositive();
+            assertThat(income.getValue().isPositive()).isTrue();
         }
 
         @Test
@@ -109,7 +111,7 @@ public class IncomeDomainTest {
         void shouldAcceptLargeDecimalValues() {
             var income = new Income("Company X", IncomeType.SALARY, new BigDecimal("999999.99"));
 
-            assertThat(income.getValue()).isEqualByComparingTo(new BigDecimal("999999.99"));
+            assertThat(income.getValue()).isEqualTo(Money.of(new BigDecimal("999999.99")));
         }
     }
     @Nested
@@ -0,0 +1,108 @@
+package br.com.matheusgusmao.incometax.domain.model.money;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Money Domain - Structural Tests")
+@Tag("Structural")
+@Tag("UnitTest")
+@Tag("Unit")
+public class MoneyDomainTest {
+
+    @Nested
+    @DisplayName("Money Conversion")
+    class MoneyConversionTests {
+
+        @Test
+        @DisplayName("Should store amounts as centavos regardless of the decimal scale")
+        void shouldStoreAmountsAsCentavos() {
+            assertThat(Money.of(new BigDecimal("1234.5")).cents()).isEqualTo(123450);
+            assertThat(Money.of(new BigDecimal("1234.50"))).isEqualTo(Money.of(BigDecimal.valueOf(123450, 2)));
+            assertThat(Money.of(BigDecimal.ZERO)).isSameAs(Money.ZERO);
+        }
+
+        @Test
+        @DisplayName("Should convert back to a BigDecimal with two decimal places")
+        void shouldConvertBackToBigDecimal() {
+            var money = Money.ofCents(100050);
+
+            assertThat(money.toBigDecimal()).isEqualTo(new BigDecimal("1000.50"));
+            assertThat(money.toString()).isEqualTo("1000.50");
+            assertThat(Money.ofCents(-5).toString()).isEqualTo("-0.05");
+        }
+
+        @Test
+        @DisplayName("Should reject amounts with more than two decimal places unless a rounding mode is given")
+        void shouldRejectImplicitRounding() {
+            assertThatThrownBy(() -> Money.of(new BigDecimal("10.005")))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("at most 2 decimal places");
+
+            assertThat(Money.of(new BigDecimal("10.005"), RoundingMode.HALF_UP).cents()).isEqualTo(1001);
+            assertThat(Money.of(new BigDecimal("10.005"), RoundingMode.DOWN).cents()).isEqualTo(1000);
+        }
+
+        @Test
+        @DisplayName("Should reject null and amounts that do not fit in a long")
+        void shouldRejectNullAndOversizedAmounts() {
+            assertThatThrownBy(() -> Money.of(null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Money.of(new BigDecimal("92233720368547758.08")))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Money Arithmetic")
+    class MoneyArithmeticTests {
+
+        @Test
+        @DisplayName("Should add and subtract exactly")
+        void shouldAddAndSubtractExactly() {
+            var a = Money.of(new BigDecimal("0.10"));
+            var b = Money.of(new BigDecimal("0.20"));
+
+            assertThat(a.plus(b)).isEqualTo(Money.of(new BigDecimal("0.30")));
+            assertThat(a.minus(b)).isEqualTo(Money.ofCents(-10));
+            assertThat(a.minus(b).isNegative()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should fail instead of overflowing")
+        void shouldFailInsteadOfOverflowing() {
+            var max = Money.ofCents(Long.MAX_VALUE);
+
+            assertThatThrownBy(() -> max.plus(Money.ofCents(1)))
+                    .isInstanceOf(ArithmeticException.class);
+            assertThatThrownBy(() -> Money.ofCents(Long.MIN_VALUE).minus(Money.ofCents(1)))
+                    .isInstanceOf(ArithmeticException.class);
+        }
+
+        @Test
+        @DisplayName("Should multiply with an explicit rounding mode")
+        void shouldMultiplyWithExplicitRounding() {
+            var base = Money.of(new BigDecimal("40000.00"));
+
+            assertThat(base.multiply(new BigDecimal("0.075"), RoundingMode.HALF_UP)).isEqualTo(Money.of(new BigDecimal("3000.00")));
+            assertThat(Money.ofCents(1).multiply(new BigDecimal("0.5"), RoundingMode.HALF_UP)).isEqualTo(Money.ofCents(1));
+            assertThat(Money.ofCents(1).multiply(new BigDecimal("0.5"), RoundingMode.HALF_EVEN)).isEqualTo(Money.ZERO);
+        }
+
+        @Test
+        @DisplayName("Should order amounts by value")
+        void shouldOrderAmountsByValue() {
+            assertThat(Money.ofCents(1)).isGreaterThan(Money.ZERO);
+            assertThat(Money.ofCents(-1)).isLessThan(Money.ZERO);
+            assertThat(Money.ZERO.isZero()).isTrue();
+            assertThat(Money.ofCents(1).isPositive()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.matheusgusmao.incometax.infra.audit;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+import br.com.matheusgusmao.incometax.infra.event.DeclarationEventBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@DisplayName("Declaration audit log")
+class DeclarationAuditLogTest {
+
+    private static final UUID TAXPAYER = UUID.fromString("0190c2a4-0000-7000-8000-000000000001");
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // Publishes the events through a bus feeding the log and stops the bus, which waits for the log to catch up.
+    private static void publish(DeclarationAuditLog auditLog, long firstId, int events) {
+        var bus = new DeclarationEventBus(List.of(auditLog), 1024, 10);
+        bus.start();
+        for (long id = firstId; id < firstId + events; id++) {
+            bus.publish(DeclarationEventType.INCOME_ADDED, id, TAXPAYER, id, id * 100, id + 40);
+        }
+        bus.stop();
+    }
+
+    private static List<DeclarationAuditRecord> all(DeclarationAuditLog auditLog) {
+        var records = new ArrayList<DeclarationAuditRecord>();
+        auditLog.replay(null, null, records::add);
+        return records;
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("When a user changes a declaration Then the change is recorded with who made it, when and on which item")
+    void shouldRecordChangeWithActorAndTime() {
+        var auditLog = new DeclarationAuditLog(directory, 1024 * 1024, 64 * 1024);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("taxpayer@example.com", null, List.of()));
+        var before = LocalDateTime.now().minusSeconds(1);
+
+        publish(auditLog, 1, 1);
+
+        assertThat(all(auditLog)).singleElement().satisfies(auditRecord -> {
+            assertThat(auditRecord.actor()).isEqualTo("taxpayer@example.com");
+            assertThat(auditRecord.type()).isEqualTo(DeclarationEventType.INCOME_ADDED);
+            assertThat(auditRecord.declarationId()).isEqualTo(1L);
+            assertThat(auditRecord.taxpayerId()).isEqualTo(TAXPAYER);
+            assertThat(auditRecord.version()).isEqualTo(1L);
+            assertThat(auditRecord.amountCents()).isEqualTo(100L);
+            assertThat(auditRecord.relatedId()).isEqualTo(41L);
+            assertThat(auditRecord.timestamp()).isAfter(before).isBefore(LocalDateTime.now().plusSeconds(1));
+        });
+    }
+
+    @Test
+    @DisplayName("When changes are made without a user Then they are recorded without an actor")
+    void shouldRecordChangeWithoutActor() {
+        var auditLog = new DeclarationAuditLog(directory, 1024 * 1024, 64 * 1024);
+
+        publish(auditLog, 1, 1);
+
+        assertThat(all(auditLog)).singleElement().extracting(DeclarationAuditRecord::actor).isNull();
+    }
+
+    @Test
+    @DisplayName("When records are queried by time range and declaration Then only matching ones are returned up to the limit")
+    void shouldFilterByRangeDeclarationAndLimit() {
+        var auditLog = new DeclarationAuditLog(directory, 1024 * 1024, 64 * 1024);
+        publish(auditLog, 1, 50);
+
+        assertThat(auditLog.find(LocalDateTime.now().minusMinutes(1), null, 7L, 100))
+                .extracting(DeclarationAuditRecord::declarationId)
+                .containsExactly(7L);
+        assertThat(auditLog.find(null, null, null, 10))
+                .extracting(DeclarationAuditRecord::declarationId)
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(auditLog.find(LocalDateTime.now().plusMinutes(1), null, null, 100)).isEmpty();
+        assertThat(auditLog.find(null, LocalDateTime.now().minusMinutes(1), null, 100)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("When segments fill up Then new ones are started and a reopened log replays all of them in order")
+    void shouldRollSegmentsAndReplayAfterReopening() throws Exception {
+        var auditLog = new DeclarationAuditLog(directory, 1024, 64 * 1024);
+        // Segments are only started anew after a write, so each round of events gets its own.
+        for (var round = 0; round < 5; round++) {
+            publish(auditLog, round * 100 + 1, 100);
+        }
+        auditLog.close();
+
+        var reopened = new DeclarationAuditLog(directory, 1024, 64 * 1024);
+
+        assertThat(reopened.segmentCount()).isGreaterThan(1);
+        assertThat(segmentFiles()).hasSize(reopened.segmentCount());
+        assertThat(all(reopened)).extracting(DeclarationAuditRecord::declarationId)
+                .containsExactlyElementsOf(Stream.iterate(1L, id -> id + 1).limit(500).toList());
+    }
+
+    @Test
+    @DisplayName("When the log was not closed and its last record is torn Then reopening keeps every whole record")
+    void shouldRecoverUnsealedSegmentWithTornRecord() throws Exception {
+        var auditLog = new DeclarationAuditLog(directory, 1024 * 1024, 64 * 1024);
+        publish(auditLog, 1, 20);
+        var segment = segmentFiles().getFirst();
+        Files.write(segment, new byte[]{0, 0, 0, 60, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        var reopened = new DeclarationAuditLog(directory, 1024 * 1024, 64 * 1024);
+        publish(reopened, 21, 1);
+
+        assertThat(all(reopened)).extracting(DeclarationAuditRecord::declarationId)
+                .containsExactlyElementsOf(Stream.iterate(1L, id -> id + 1).limit(21).toList());
+        assertThat(segmentFiles()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("When the range starts after it ends Then the query is rejected")
+    void shouldRejectInvertedRange() {
+        var auditLog = new DeclarationAuditLog(directory, 1024 * 1024, 64 * 1024);
+        var now = LocalDateTime.now();
+
+        assertThatThrownBy(() -> auditLog.find(now, now.minusSeconds(1), null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> auditLog.find(null, null, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
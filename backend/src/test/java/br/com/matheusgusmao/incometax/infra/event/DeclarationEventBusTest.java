@@ -0,0 +1,223 @@
+package br.com.matheusgusmao.incometax.infra.event;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationEventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@DisplayName("Declaration event bus")
+class DeclarationEventBusTest {
+
+    private static final UUID TAXPAYER = UUID.fromString("0190c2a4-0000-7000-8000-000000000001");
+
+    private final List<DeclarationEventBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void stopBuses() {
+        buses.forEach(DeclarationEventBus::stop);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private DeclarationEventBus start(int bufferSize, DeclarationEventConsumer... consumers) {
+        var bus = new DeclarationEventBus(List.of(consumers), bufferSize, 10);
+        bus.start();
+        buses.add(bus);
+        return bus;
+    }
+
+    // Copies what it needs out of each slot, as consumers must.
+    private static final class Recorder implements DeclarationEventConsumer {
+
+        private final String name;
+        private final List<Long> declarationIds = Collections.synchronizedList(new ArrayList<>());
+        private final List<Boolean> batchEnds = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch expected;
+
+        private Recorder(String name, int expected) {
+            this.name = name;
+            this.expected = new CountDownLatch(expected);
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void onEvent(DeclarationEvent event, long sequence, boolean endOfBatch) {
+            declarationIds.add(event.getDeclarationId());
+            batchEnds.add(endOfBatch);
+            expected.countDown();
+        }
+
+        private void await() throws InterruptedException {
+            assertThat(expected.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("When events are published Then every consumer receives all of them in order")
+    void shouldDeliverEventsInOrderToEveryConsumer() throws Exception {
+        var first = new Recorder("first", 1000);
+        var second = new Recorder("second", 1000);
+        var bus = start(64, first, second);
+
+        for (long id = 0; id < 1000; id++) {
+            bus.publish(DeclarationEventType.INCOME_ADDED, id, TAXPAYER, 1, 100);
+        }
+        first.await();
+        second.await();
+
+        var expected = new ArrayList<Long>();
+        for (long id = 0; id < 1000; id++) {
+            expected.add(id);
+        }
+        assertThat(first.declarationIds).isEqualTo(expected);
+        assertThat(second.declarationIds).isEqualTo(expected);
+        assertThat(first.batchEnds.getLast()).isTrue();
+        // A worker counts a batch as processed only after handing over its last event.
+        bus.stop();
+        var stats = bus.stats();
+        assertThat(stats.published()).isEqualTo(1000);
+        assertThat(stats.consumers()).extracting(DeclarationEventBusStats.ConsumerStats::processed).containsOnly(1000L);
+    }
+
+    @Test
+    @DisplayName("When several threads publish at once Then no event is lost and each thread's events keep their order")
+    void shouldAcceptConcurrentProducers() throws Exception {
+        var producers = 4;
+        var perProducer = 5000;
+        var recorder = new Recorder("recorder", producers * perProducer);
+        var bus = start(256, recorder);
+
+        var threads = new ArrayList<Thread>();
+        for (int producer = 0; producer < producers; producer++) {
+            var base = producer * 1_000_000L;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (long i = 0; i < perProducer; i++) {
+                    bus.publish(DeclarationEventType.EXPENSE_ADDED, base + i, TAXPAYER, 1, 1);
+                }
+            }));
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        recorder.await();
+
+        assertThat(recorder.declarationIds).hasSize(producers * perProducer).doesNotHaveDuplicates();
+        for (int producer = 0; producer < producers; producer++) {
+            var base = producer * 1_000_000L;
+            var ofProducer = recorder.declarationIds.stream().filter(id -> id >= base && id < base + 1_000_000L).toList();
+            assertThat(ofProducer).isSorted().hasSize(perProducer);
+        }
+    }
+
+    @Test
+    @DisplayName("When the ring is full Then the producer waits for the slowest consumer instead of overwriting events")
+    void shouldWaitForSlowConsumer() throws Exception {
+        var release = new CountDownLatch(1);
+        var recorder = new Recorder("recorder", 10);
+        DeclarationEventConsumer slow = new DeclarationEventConsumer() {
+            @Override
+            public String name() {
+                return "slow";
+            }
+
+            @Override
+            public void onEvent(DeclarationEvent event, long sequence, boolean endOfBatch) {
+                try {
+                    release.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        var bus = start(4, slow, recorder);
+        var done = new AtomicBoolean();
+
+        var producer = Thread.ofPlatform().start(() -> {
+            for (long id = 0; id < 10; id++) {
+                bus.publish(DeclarationEventType.DEPENDENT_ADDED, id, TAXPAYER, 1, 0);
+            }
+            done.set(true);
+        });
+        producer.join(200);
+        assertThat(done).isFalse();
+
+        release.countDown();
+        producer.join(10_000);
+        recorder.await();
+        assertThat(done).isTrue();
+        assertThat(recorder.declarationIds).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+    }
+
+    @Test
+    @DisplayName("When a consumer throws Then it goes on with the next events and counts the failure")
+    void shouldKeepConsumingAfterFailure() throws Exception {
+        var handled = new CountDownLatch(3);
+        DeclarationEventConsumer failingOnSecond = new DeclarationEventConsumer() {
+            @Override
+            public String name() {
+                return "failing";
+            }
+
+            @Override
+            public void onEvent(DeclarationEvent event, long sequence, boolean endOfBatch) {
+                handled.countDown();
+                if (event.getDeclarationId() == 2L) {
+                    throw new IllegalStateException("boom");
+                }
+            }
+        };
+        var bus = start(8, failingOnSecond);
+
+        for (long id = 1; id <= 3; id++) {
+            bus.publish(DeclarationEventType.INCOME_REMOVED, id, TAXPAYER, 1, 0);
+        }
+
+        assertThat(handled.await(10, TimeUnit.SECONDS)).isTrue();
+        bus.stop();
+        assertThat(bus.stats().consumers().getFirst().failures()).isEqualTo(1);
+        assertThat(bus.stats().consumers().getFirst().processed()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("When publishing inside a transaction Then consumers only see the event once it has committed")
+    void shouldPublishAfterCommit() throws Exception {
+        var recorder = new Recorder("recorder", 1);
+        var bus = start(8, recorder);
+        TransactionSynchronizationManager.initSynchronization();
+
+        bus.publishAfterCommit(DeclarationEventType.DECLARATION_SUBMITTED, 7L, TAXPAYER, 3, 0, 0);
+        assertThat(bus.stats().published()).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        recorder.await();
+        assertThat(recorder.declarationIds).containsExactly(7L);
+    }
+
+    @Test
+    @DisplayName("When the buffer size is not a power of two Then the bus cannot be built")
+    void shouldRejectInvalidBufferSize() {
+        assertThatThrownBy(() -> new DeclarationEventBus(List.of(), 1000, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
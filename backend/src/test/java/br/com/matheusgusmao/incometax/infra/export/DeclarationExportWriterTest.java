@@ -0,0 +1,120 @@
+package br.com.matheusgusmao.incometax.infra.export;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Cpf;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import br.com.matheusgusmao.incometax.infra.persistence.store.DeclarationDocumentCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@DisplayName("Declaration export writer")
+class DeclarationExportWriterTest {
+
+    private static final UUID TAXPAYER = UUID.fromString("0190c2a4-0000-7000-8000-000000000001");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Declaration delivered(long id) {
+        var incomes = new ArrayList<Income>();
+        incomes.add(Income.rehydrate(id * 10, "Company", IncomeType.SALARY, Money.ofCents(6_000_000)));
+        var expenses = new ArrayList<DeductibleExpense>();
+        expenses.add(DeductibleExpense.rehydrate(id * 10 + 1, "School", ExpenseType.EDUCATION, Money.ofCents(150_050)));
+        var dependents = new ArrayList<Dependent>();
+        dependents.add(new Dependent(id * 10 + 2, "Maria", new Cpf("52998224725"), LocalDate.of(2015, 1, 1)));
+        return Declaration.rehydrate(id, TAXPAYER, 2024, DeclarationStatus.DELIVERED, LocalDateTime.of(2025, 4, 30, 12, 0),
+                3L, incomes, expenses, dependents);
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    @DisplayName("When declarations are exported as NDJSON Then each one is a gzip-compressed line with its children")
+    void shouldWriteOneJsonLinePerDeclaration() throws IOException {
+        var target = new ByteArrayOutputStream();
+        try (var writer = DeclarationExportWriter.open(DeclarationExportFormat.NDJSON, target, objectMapper)) {
+            writer.write(delivered(1L));
+            writer.write(delivered(2L));
+        }
+
+        var lines = new String(gunzip(target.toByteArray()), StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines).hasSize(2);
+        var first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asLong()).isEqualTo(1L);
+        assertThat(first.get("taxpayerId").asText()).isEqualTo(TAXPAYER.toString());
+        assertThat(first.get("deliveryDate").asText()).isEqualTo("2025-04-30T12:00");
+        assertThat(first.get("incomes").get(0).get("value").decimalValue()).isEqualByComparingTo("60000.00");
+        assertThat(first.get("deductibleExpenses").get(0).get("value").decimalValue()).isEqualByComparingTo("1500.50");
+        assertThat(first.get("dependents").get(0).get("birthDate").asText()).isEqualTo("2015-01-01");
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("When declarations are exported in binary Then records decode back to the same declarations")
+    void shouldWriteBinaryRecords() throws IOException {
+        var target = new ByteArrayOutputStream();
+        try (var writer = DeclarationExportWriter.open(DeclarationExportFormat.BINARY, target, objectMapper)) {
+            writer.write(delivered(7L));
+        }
+
+        try (var in = new DataInputStream(new ByteArrayInputStream(gunzip(target.toByteArray())))) {
+            assertThat(in.readInt()).isEqualTo(BinaryDeclarationExportWriter.MAGIC);
+            assertThat(in.readByte()).isEqualTo(BinaryDeclarationExportWriter.FORMAT);
+            assertThat(in.readByte()).isEqualTo(BinaryDeclarationExportWriter.RECORD);
+            assertThat(in.readLong()).isEqualTo(7L);
+            assertThat(new UUID(in.readLong(), in.readLong())).isEqualTo(TAXPAYER);
+            assertThat(in.readInt()).isEqualTo(2024);
+            assertThat(in.readUTF()).isEqualTo("2025-04-30T12:00");
+            assertThat(in.readLong()).isEqualTo(3L);
+            var document = DeclarationDocumentCodec.decode(in.readNBytes(in.readInt()));
+            assertThat(document.incomes()).extracting(Income::getValue).containsExactly(Money.ofCents(6_000_000));
+            assertThat(document.dependents()).extracting(Dependent::getId).containsExactly(72L);
+            assertThat(in.readByte()).isEqualTo(BinaryDeclarationExportWriter.END);
+            assertThat(in.read()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    @DisplayName("When the writer is closed Then the target stream stays open")
+    void shouldLeaveTargetOpen() {
+        var closed = new boolean[1];
+        var target = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        DeclarationExportWriter.open(DeclarationExportFormat.NDJSON, target, objectMapper).close();
+
+        assertThat(closed[0]).isFalse();
+        assertThat(target.size()).isPositive();
+    }
+}
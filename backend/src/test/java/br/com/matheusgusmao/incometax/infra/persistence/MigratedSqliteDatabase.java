@@ -0,0 +1,47 @@
+package br.com.matheusgusmao.incometax.infra.persistence;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+/**
+ * A SQLite file migrated with the application's Flyway scripts, for tests of SQL that only SQLite can
+ * check. Each test gets its own file, so tests never share rows.
+ */
+public final class MigratedSqliteDatabase {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceTransactionManager transactionManager;
+
+    private MigratedSqliteDatabase(JdbcTemplate jdbcTemplate, DataSourceTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+    }
+
+    public static MigratedSqliteDatabase in(Path directory) {
+        var dataSource = new DriverManagerDataSource("jdbc:sqlite:" + directory.resolve("test.db"));
+        dataSource.setDriverClassName("org.sqlite.JDBC");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        return new MigratedSqliteDatabase(new JdbcTemplate(dataSource), new DataSourceTransactionManager(dataSource));
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public DataSourceTransactionManager transactionManager() {
+        return transactionManager;
+    }
+
+    public TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+}
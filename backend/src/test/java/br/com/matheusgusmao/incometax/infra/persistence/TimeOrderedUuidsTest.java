@@ -0,0 +1,47 @@
+package br.com.matheusgusmao.incometax.infra.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@DisplayName("Time ordered UUIDs")
+class TimeOrderedUuidsTest {
+
+    @Test
+    @DisplayName("When a UUID is generated Then it is an RFC 9562 version 7 UUID carrying the timestamp")
+    void shouldGenerateVersion7Uuid() {
+        var timestamp = 1_760_000_000_000L;
+
+        var uuid = TimeOrderedUuids.at(timestamp);
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isEqualTo(timestamp);
+    }
+
+    @Test
+    @DisplayName("When UUIDs are generated at increasing times Then their binary form sorts in the same order")
+    void shouldSortByCreationTime() {
+        var earlier = TimeOrderedUuids.at(1_760_000_000_000L);
+        var later = TimeOrderedUuids.at(1_760_000_000_001L);
+
+        assertThat(Long.compareUnsigned(earlier.getMostSignificantBits(), later.getMostSignificantBits())).isNegative();
+    }
+
+    @Test
+    @DisplayName("When many UUIDs are generated in the same millisecond Then they are still unique")
+    void shouldBeUniqueWithinTheSameMillisecond() {
+        var uuids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            uuids.add(TimeOrderedUuids.at(1_760_000_000_000L));
+        }
+
+        assertThat(uuids).hasSize(10_000);
+    }
+}
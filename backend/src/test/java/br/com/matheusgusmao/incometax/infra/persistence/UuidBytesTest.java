@@ -0,0 +1,26 @@
+package br.com.matheusgusmao.incometax.infra.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@DisplayName("UUID bytes")
+class UuidBytesTest {
+
+    @Test
+    @DisplayName("When a UUID is converted to bytes Then it is 16 big-endian bytes that convert back to the same UUID")
+    void shouldRoundTripThroughBigEndianBytes() {
+        var uuid = UUID.fromString("01020304-0506-0708-090a-0b0c0d0e0f10");
+
+        var bytes = UuidBytes.toBytes(uuid);
+
+        assertThat(bytes).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16);
+        assertThat(UuidBytes.toUuid(bytes)).isEqualTo(uuid);
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.matheusgusmao.incometax.infra.persistence.archive;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Cpf;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@DisplayName("Declaration archive")
+class DeclarationArchiveTest {
+
+    @TempDir
+    private Path directory;
+
+    private final List<UUID> taxpayers = List.of(
+            UUID.fromString("00000000-0000-0000-0000-000000000001"),
+            UUID.fromString("8f000000-0000-0000-0000-000000000002"),
+            UUID.fromString("ff000000-0000-0000-0000-000000000003"));
+
+    private Declaration delivered(long id, UUID taxpayerId, int year) {
+        var incomes = new ArrayList<Income>();
+        incomes.add(Income.rehydrate(id * 10, "Company " + id, IncomeType.SALARY, Money.ofCents(5_000_000 + id)));
+        var expenses = new ArrayList<DeductibleExpense>();
+        expenses.add(DeductibleExpense.rehydrate(id * 10 + 1, "School", ExpenseType.EDUCATION, Money.ofCents(150_000)));
+        var dependents = new ArrayList<Dependent>();
+        dependents.add(new Dependent(id * 10 + 2, "Maria", new Cpf("52998224725"), LocalDate.of(2015, 1, 1)));
+        return Declaration.rehydrate(id, taxpayerId, year, DeclarationStatus.DELIVERED, LocalDateTime.of(year + 1, 4, 30, 12, 0),
+                3L, incomes, expenses, dependents);
+    }
+
+    // 60 declarations spread over three taxpayers, so every taxpayer spans several sparse index entries.
+    private List<Declaration> declarations() {
+        var declarations = new ArrayList<Declaration>();
+        for (long id = 1; id <= 60; id++) {
+            declarations.add(delivered(id, taxpayers.get((int) (id % 3)), 1960 + (int) id));
+        }
+        return declarations;
+    }
+
+    @Test
+    @DisplayName("When declarations are archived Then each one is read back by id with its children")
+    void shouldFindArchivedDeclarationById() {
+        var archive = new DeclarationArchive(directory);
+        archive.append(declarations());
+
+        var declaration = archive.findById(42L).orElseThrow();
+
+        assertThat(declaration.getTaxpayerId()).isEqualTo(taxpayers.get(0));
+        assertThat(declaration.getYear()).isEqualTo(2002);
+        assertThat(declaration.getStatus()).isEqualTo(DeclarationStatus.DELIVERED);
+        assertThat(declaration.getDeliveryDate()).isEqualTo(LocalDateTime.of(2003, 4, 30, 12, 0));
+        assertThat(declaration.getVersion()).isEqualTo(3L);
+        assertThat(declaration.calculateTotalIncome()).isEqualTo(Money.ofCents(5_000_042));
+        assertThat(declaration.getDeductibleExpenses()).extracting(DeductibleExpense::getId).containsExactly(421L);
+        assertThat(declaration.getDependents()).extracting(Dependent::getName).containsExactly("Maria");
+        assertThat(archive.findById(61L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("When a taxpayer's history is read Then only their declarations are returned in year order")
+    void shouldFindDeclarationsByTaxpayer() {
+        var archive = new DeclarationArchive(directory);
+        archive.append(declarations());
+
+        for (int index = 0; index < taxpayers.size(); index++) {
+            var history = archive.findByTaxpayer(taxpayers.get(index));
+            assertThat(history).hasSize(20)
+                    .allSatisfy(declaration -> assertThat(declaration.getTaxpayerId()).isIn(taxpayers))
+                    .extracting(Declaration::getYear).isSorted();
+            var expectedRemainder = index;
+            assertThat(history).allSatisfy(declaration -> assertThat(declaration.getId() % 3).isEqualTo(expectedRemainder));
+        }
+        assertThat(archive.findByTaxpayer(UUID.randomUUID())).isEmpty();
+        assertThat(archive.exists(taxpayers.get(1), 1961)).isTrue();
+        assertThat(archive.exists(taxpayers.get(1), 1962)).isFalse();
+    }
+
+    @Test
+    @DisplayName("When the archive is reopened Then segments written before are served again")
+    void shouldReopenSegmentsFromDisk() throws IOException {
+        var archive = new DeclarationArchive(directory);
+        archive.append(declarations().subList(0, 30));
+        archive.append(declarations().subList(30, 60));
+        Files.write(directory.resolve("declarations-00000000000000000099.seg.tmp"), new byte[]{1, 2, 3});
+
+        var reopened = new DeclarationArchive(directory);
+
+        assertThat(reopened.segmentCount()).isEqualTo(2);
+        assertThat(reopened.findById(7L)).isPresent();
+        assertThat(reopened.findById(55L)).isPresent();
+        assertThat(reopened.contains(60L)).isTrue();
+        assertThat(Files.exists(directory.resolve("declarations-00000000000000000099.seg.tmp"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("When a declaration was archived twice Then its history lists it once")
+    void shouldNotDuplicateDeclarationsArchivedTwice() {
+        var archive = new DeclarationArchive(directory);
+        archive.append(List.of(delivered(1L, taxpayers.get(0), 2015)));
+        archive.append(List.of(delivered(1L, taxpayers.get(0), 2015), delivered(2L, taxpayers.get(0), 2016)));
+
+        assertThat(archive.findByTaxpayer(taxpayers.get(0))).extracting(Declaration::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("When the archive is scanned for a year Then each declaration of that year is passed on once")
+    void shouldScanArchivedDeclarationsOfYear() {
+        var archive = new DeclarationArchive(directory);
+        archive.append(declarations());
+        archive.append(List.of(delivered(61L, taxpayers.get(0), 2015), delivered(5L, taxpayers.get(2), 1965)));
+
+        var all = new ArrayList<Long>();
+        archive.forEach(null, declaration -> all.add(declaration.getId()));
+        var ofYear = new ArrayList<Declaration>();
+        archive.forEach(1965, ofYear::add);
+
+        assertThat(all).hasSize(61).doesNotHaveDuplicates();
+        assertThat(ofYear).extracting(Declaration::getId).containsExactly(5L);
+        assertThat(ofYear.getFirst().getIncomes()).hasSize(1);
+    }
+}
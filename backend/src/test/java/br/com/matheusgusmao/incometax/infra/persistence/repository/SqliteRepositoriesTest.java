@@ -0,0 +1,360 @@
+package br.com.matheusgusmao.incometax.infra.persistence.repository;
+
+import br.com.matheusgusmao.incometax.domain.event.DeclarationSubmittedEvent;
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationAmendment;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.declaration.TaxCalculationResult;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import br.com.matheusgusmao.incometax.infra.persistence.MigratedSqliteDatabase;
+import br.com.matheusgusmao.incometax.infra.persistence.UuidBytes;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationOutboxEntry;
+import br.com.matheusgusmao.incometax.infra.persistence.projection.DeclarationTaxResult;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.ChildIdSequenceRepository.ChildTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("Functional")
+@DisplayName("JDBC repositories on a migrated SQLite database")
+class SqliteRepositoriesTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 4, 30, 12, 0);
+
+    @TempDir
+    private Path directory;
+
+    private MigratedSqliteDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private final UUID taxpayerId = UUID.randomUUID();
+
+    @BeforeEach
+    void migrate() {
+        database = MigratedSqliteDatabase.in(directory);
+        jdbcTemplate = database.jdbcTemplate();
+    }
+
+    private long insertDeclaration(int year, String status, long version) {
+        return jdbcTemplate.queryForObject("""
+                insert into declarations (taxpayer_id, year, status, delivery_date, version)
+                values (?, ?, ?, null, ?)
+                returning id
+                """, Long.class, UuidBytes.toBytes(taxpayerId), year, status, version);
+    }
+
+    private void insertIncome(long declarationId, String payingSource, String value) {
+        insertIncome(declarationId, payingSource, value, 0);
+    }
+
+    private long insertIncome(long declarationId, String payingSource, String value, int amendment) {
+        return jdbcTemplate.queryForObject("""
+                insert into incomes (declaration_id, paying_source, type, value, amendment)
+                values (?, ?, 'SALARY', ?, ?)
+                returning id
+                """, Long.class, declarationId, payingSource, new BigDecimal(value), amendment);
+    }
+
+    private static DeclarationTaxResult taxResult(long declarationId, long version, long taxDueCents) {
+        return new DeclarationTaxResult(declarationId, version, new TaxCalculationResult(
+                Money.ofCents(1_000_000), Money.ofCents(0), Money.ofCents(1_000_000), Money.ofCents(taxDueCents), new BigDecimal("0.1000")));
+    }
+
+    @Nested
+    @DisplayName("Given the yearly rollover inserts editing declarations")
+    class RolloverTests {
+
+        @Test
+        @DisplayName("When some taxpayers already have the year Then only the new rows come back from RETURNING")
+        void shouldReturnOnlyInsertedIds() {
+            var existing = insertDeclaration(2026, "EDITING", 3);
+            var newcomer = UUID.randomUUID();
+            var repository = new DeclarationRolloverRepository(jdbcTemplate);
+
+            var created = repository.createEditing(List.of(taxpayerId, newcomer), 2026);
+
+            assertThat(created).singleElement().satisfies(declaration -> {
+                assertThat(declaration.id()).isNotEqualTo(existing);
+                assertThat(declaration.taxpayerId()).isEqualTo(newcomer);
+            });
+            assertThat(repository.findIdByTaxpayerAndYear(newcomer, 2026)).contains(created.getFirst().id());
+            assertThat(repository.findIdByTaxpayerAndYear(taxpayerId, 2026)).contains(existing);
+            assertThat(repository.createEditing(List.of(taxpayerId, newcomer), 2026)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Given submitted declarations wait in the outbox")
+    class OutboxTests {
+
+        @Test
+        @DisplayName("When a dispatcher claims events Then they are leased until the claim runs out")
+        void shouldLeaseClaimedEvents() {
+            var repository = new DeclarationOutboxRepository(jdbcTemplate);
+            repository.append(new DeclarationSubmittedEvent(1L, taxpayerId, 2025, NOW), NOW);
+            repository.append(new DeclarationSubmittedEvent(2L, taxpayerId, 2025, NOW), NOW);
+            repository.append(new DeclarationSubmittedEvent(3L, taxpayerId, 2025, NOW), NOW);
+
+            var claimed = repository.claim(2, NOW, NOW.plusMinutes(1));
+
+            assertThat(claimed).extracting(entry -> entry.event().declarationId()).containsExactly(1L, 2L);
+            assertThat(claimed.getFirst().event().taxpayerId()).isEqualTo(taxpayerId);
+            assertThat(repository.claim(10, NOW.plusSeconds(30), NOW.plusMinutes(2)))
+                    .extracting(entry -> entry.event().declarationId()).containsExactly(3L);
+            assertThat(repository.claim(10, NOW.plusMinutes(3), NOW.plusMinutes(4)))
+                    .extracting(entry -> entry.event().declarationId()).containsExactly(1L, 2L, 3L);
+        }
+
+        @Test
+        @DisplayName("When an event is rescheduled or dead Then it is claimed only when due or never again")
+        void shouldHonourRescheduleAndDead() {
+            var repository = new DeclarationOutboxRepository(jdbcTemplate);
+            repository.append(new DeclarationSubmittedEvent(1L, taxpayerId, 2025, NOW), NOW);
+            repository.append(new DeclarationSubmittedEvent(2L, taxpayerId, 2025, NOW), NOW);
+            var claimed = repository.claim(10, NOW, NOW.plusMinutes(1)).stream().map(DeclarationOutboxEntry::id).toList();
+
+            repository.reschedule(claimed.get(0), 1, NOW.plusMinutes(5), "timeout");
+            repository.markDead(claimed.get(1), 5, "gave up");
+
+            assertThat(repository.claim(10, NOW.plusMinutes(2), NOW.plusMinutes(3))).isEmpty();
+            assertThat(repository.claim(10, NOW.plusMinutes(5), NOW.plusMinutes(6)))
+                    .singleElement().extracting(DeclarationOutboxEntry::attempts).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Given tax calculations are stored per declaration version")
+    class TaxCalculationTests {
+
+        @Test
+        @DisplayName("When calculations are upserted out of order Then the newest version wins")
+        void shouldKeepNewestVersion() {
+            var declarationId = insertDeclaration(2025, "EDITING", 4);
+            var calculations = new TaxCalculationRepository(jdbcTemplate);
+            var recalculation = new TaxRecalculationRepository(jdbcTemplate);
+
+            calculations.save(taxResult(declarationId, 4, 50_000), NOW);
+            recalculation.saveResults(List.of(taxResult(declarationId, 3, 10_000)), NOW);
+
+            assertThat(calculations.findByVersion(declarationId, 3)).isEmpty();
+            assertThat(calculations.findByVersion(declarationId, 4)).hasValueSatisfying(stored -> {
+                assertThat(stored.taxpayerId()).isEqualTo(taxpayerId);
+                assertThat(stored.result().taxDue()).isEqualTo(Money.ofCents(50_000));
+            });
+
+            recalculation.saveResults(List.of(taxResult(declarationId, 5, 70_000)), NOW);
+
+            assertThat(calculations.findByVersion(declarationId, 4)).isEmpty();
+            assertThat(calculations.findByVersion(declarationId, 5)).hasValueSatisfying(stored ->
+                    assertThat(stored.result().taxDue()).isEqualTo(Money.ofCents(70_000)));
+        }
+
+        @Test
+        @DisplayName("When editing totals are summed Then values are added as exact cents with the row version")
+        void shouldSumEditingTotalsInCents() {
+            var editing = insertDeclaration(2025, "EDITING", 2);
+            var delivered = insertDeclaration(2024, "DELIVERED", 7);
+            insertIncome(editing, "A", "0.10");
+            insertIncome(editing, "B", "0.20");
+            insertIncome(delivered, "C", "100.00");
+
+            var totals = new TaxRecalculationRepository(jdbcTemplate).findEditingTotalsAfter(0, 10);
+
+            assertThat(totals).singleElement().satisfies(row -> {
+                assertThat(row.declarationId()).isEqualTo(editing);
+                assertThat(row.declarationVersion()).isEqualTo(2L);
+                assertThat(row.totalIncome()).isEqualTo(Money.ofCents(30));
+            });
+        }
+    }
+
+    @Nested
+    @DisplayName("Given a delivered declaration is amended")
+    class AmendmentTests {
+
+        private static final LocalDateTime DELIVERED_AT = LocalDateTime.of(2025, 4, 30, 10, 0);
+
+        private DeclarationAmendmentRepository amendments;
+
+        @BeforeEach
+        void setUp() {
+            amendments = new DeclarationAmendmentRepository(jdbcTemplate);
+        }
+
+        private static Income income(long id, String payingSource, long cents) {
+            return Income.rehydrate(id, payingSource, IncomeType.SALARY, Money.ofCents(cents));
+        }
+
+        private Declaration declaration(long id, int amendment, DeclarationStatus status, long version, List<Income> incomes) {
+            return Declaration.rehydrate(id, taxpayerId, 2025, amendment, status, status == DeclarationStatus.DELIVERED ? DELIVERED_AT : null,
+                    version, incomes, List.of(), List.of());
+        }
+
+        // What amending does to the rows: the delivered version is recorded and the header moves to the next amendment.
+        private void amend(Declaration delivered) {
+            amendments.recordReplaced(delivered, NOW);
+            jdbcTemplate.update("update declarations set amendment = ?, status = 'EDITING', delivery_date = null, version = ? where id = ?",
+                    delivered.getAmendment() + 1, delivered.getVersion() + 1, delivered.getId());
+        }
+
+        // What saving the amendment does: rows it no longer holds are kept aside, then deleted.
+        private void save(Declaration amendment, List<Long> deletedIncomeIds) {
+            database.transactionTemplate().executeWithoutResult(status -> {
+                amendments.keepRemovedChildren(amendment);
+                deletedIncomeIds.forEach(id -> jdbcTemplate.update("delete from incomes where id = ?", id));
+            });
+        }
+
+        private static List<String> payingSources(Declaration declaration) {
+            return declaration.getIncomes().stream().map(Income::getPayingSource).toList();
+        }
+
+        @Test
+        @DisplayName("When amendments remove and replace children Then every replaced amendment is read back as delivered")
+        void shouldReadReplacedAmendmentsAfterRemovalsAndReplacements() {
+            var id = insertDeclaration(2025, "DELIVERED", 3);
+            var first = insertIncome(id, "Company A", "100.00", 0);
+            var second = insertIncome(id, "Company B", "200.00", 0);
+
+            amend(declaration(id, 0, DeclarationStatus.DELIVERED, 3, List.of(income(first, "Company A", 100_00), income(second, "Company B", 200_00))));
+            var replacement = insertIncome(id, "Company C", "300.00", 1);
+            save(declaration(id, 1, DeclarationStatus.EDITING, 5,
+                    List.of(income(first, "Company A", 100_00), income(replacement, "Company C", 300_00))), List.of(second));
+
+            amend(declaration(id, 1, DeclarationStatus.DELIVERED, 6,
+                    List.of(income(first, "Company A", 100_00), income(replacement, "Company C", 300_00))));
+            save(declaration(id, 2, DeclarationStatus.EDITING, 8, List.of()), List.of(first, replacement));
+
+            assertThat(amendments.findAll(id)).extracting(DeclarationAmendment::version).containsExactly(3L, 6L);
+            assertThat(amendments.findReplaced(id, 0)).hasValueSatisfying(original -> {
+                assertThat(original.getAmendment()).isZero();
+                assertThat(original.getStatus()).isEqualTo(DeclarationStatus.DELIVERED);
+                assertThat(original.getVersion()).isEqualTo(3L);
+                assertThat(original.getIncomes()).extracting(Income::getId).containsExactly(first, second);
+                assertThat(payingSources(original)).containsExactly("Company A", "Company B");
+            });
+            assertThat(amendments.findReplaced(id, 1)).hasValueSatisfying(amended -> {
+                assertThat(amended.getVersion()).isEqualTo(6L);
+                assertThat(payingSources(amended)).containsExactly("Company A", "Company C");
+                assertThat(amended.getIncomes()).extracting(income -> income.getValue().cents()).containsExactly(100_00L, 300_00L);
+            });
+            assertThat(amendments.findReplaced(id, 2)).isEmpty();
+            assertThat(jdbcTemplate.queryForObject("select count(*) from incomes where declaration_id = ?", Integer.class, id)).isZero();
+        }
+
+        @Test
+        @DisplayName("When an amendment removes a child it added itself Then nothing is kept aside for it")
+        void shouldNotKeepChildrenAddedByTheAmendment() {
+            var id = insertDeclaration(2025, "DELIVERED", 3);
+            var kept = insertIncome(id, "Company A", "100.00", 0);
+            amend(declaration(id, 0, DeclarationStatus.DELIVERED, 3, List.of(income(kept, "Company A", 100_00))));
+            var added = insertIncome(id, "Company B", "50.00", 1);
+
+            save(declaration(id, 1, DeclarationStatus.EDITING, 5, List.of(income(kept, "Company A", 100_00))), List.of(added));
+
+            assertThat(jdbcTemplate.queryForObject("select count(*) from removed_incomes", Integer.class)).isZero();
+            assertThat(amendments.findReplaced(id, 0)).hasValueSatisfying(original ->
+                    assertThat(original.getIncomes()).extracting(Income::getId).containsExactly(kept));
+        }
+    }
+
+    @Nested
+    @DisplayName("Given delivered declarations of past years are archived")
+    class ArchiveTests {
+
+        private int count(String table, long declarationId) {
+            return jdbcTemplate.queryForObject("select count(*) from " + table + " where declaration_id = ?", Integer.class, declarationId);
+        }
+
+        @Test
+        @DisplayName("When a declaration is amended between the read and the delete Then it keeps its row and its children")
+        void shouldKeepDeclarationsAmendedAfterTheRead() {
+            var archivable = insertDeclaration(2023, "DELIVERED", 2);
+            insertIncome(archivable, "Company A", "100.00");
+            var amended = insertDeclaration(2024, "DELIVERED", 4);
+            insertIncome(amended, "Company B", "200.00");
+            insertDeclaration(2026, "EDITING", 0);
+            var repository = new DeclarationArchiveRepository(jdbcTemplate);
+
+            var ids = repository.findArchivableIds(2025, 10);
+            jdbcTemplate.update("update declarations set amendment = 1, status = 'EDITING', delivery_date = null where id = ?", amended);
+            var deleted = database.transactionTemplate().execute(status -> repository.deleteAll(ids));
+
+            assertThat(ids).containsExactly(archivable, amended);
+            assertThat(deleted).containsExactly(archivable);
+            assertThat(count("incomes", archivable)).isZero();
+            assertThat(count("incomes", amended)).isEqualTo(1);
+            assertThat(jdbcTemplate.queryForList("select id from declarations where year < 2025", Long.class)).containsExactly(amended);
+        }
+
+        @Test
+        @DisplayName("When an amendment is delivered again after the read Then neither it nor the rows it shares are deleted")
+        void shouldKeepRedeliveredAmendments() {
+            var id = insertDeclaration(2023, "DELIVERED", 2);
+            insertIncome(id, "Company A", "100.00");
+            insertDeclaration(2026, "EDITING", 0);
+            var repository = new DeclarationArchiveRepository(jdbcTemplate);
+
+            var ids = repository.findArchivableIds(2025, 10);
+            jdbcTemplate.update("update declarations set amendment = 1, version = 4 where id = ?", id);
+            var deleted = database.transactionTemplate().execute(status -> repository.deleteAll(ids));
+
+            assertThat(ids).containsExactly(id);
+            assertThat(deleted).isEmpty();
+            assertThat(count("incomes", id)).isEqualTo(1);
+            assertThat(jdbcTemplate.queryForObject("select status from declarations where id = ?", String.class, id)).isEqualTo("DELIVERED");
+        }
+    }
+
+    @Nested
+    @DisplayName("Given a declaration is copied to another year")
+    class CopyTests {
+
+        @Test
+        @DisplayName("When the source has children Then INSERT ... SELECT copies them with ids from the child sequence")
+        void shouldCopyChildrenWithReservedIds() {
+            var source = insertDeclaration(2025, "DELIVERED", 6);
+            insertIncome(source, "Company A", "1000.00");
+            insertIncome(source, "Company B", "250.50");
+            var sequences = new ChildIdSequenceRepository(jdbcTemplate);
+            var repository = new DeclarationCopyRepository(jdbcTemplate, sequences);
+
+            var copyId = database.transactionTemplate().execute(status -> repository.copyToYear(source, 2026)).orElseThrow();
+
+            var copied = jdbcTemplate.queryForList(
+                    "select id, paying_source, value from incomes where declaration_id = ? order by id", copyId);
+            assertThat(copied).extracting(row -> row.get("paying_source")).containsExactly("Company A", "Company B");
+            assertThat(jdbcTemplate.queryForObject("select status from declarations where id = ?", String.class, copyId))
+                    .isEqualTo("EDITING");
+            var firstId = ((Number) copied.getFirst().get("id")).longValue();
+            assertThat(((Number) copied.get(1).get("id")).longValue()).isEqualTo(firstId + 1);
+            assertThat(sequences.reserve(ChildTable.INCOMES, 1)).isEqualTo(firstId + 2);
+        }
+
+        @Test
+        @DisplayName("When the source is kept as a document Then nothing is copied")
+        void shouldSkipDocumentDeclarations() {
+            var source = insertDeclaration(2025, "EDITING", 1);
+            jdbcTemplate.update("update declarations set document = x'00' where id = ?", source);
+            var repository = new DeclarationCopyRepository(jdbcTemplate, new ChildIdSequenceRepository(jdbcTemplate));
+
+            var copy = database.transactionTemplate().execute(status -> repository.copyToYear(source, 2026));
+
+            assertThat(copy).isEmpty();
+            assertThat(jdbcTemplate.queryForObject("select count(*) from declarations", Integer.class)).isEqualTo(1);
+        }
+    }
+}
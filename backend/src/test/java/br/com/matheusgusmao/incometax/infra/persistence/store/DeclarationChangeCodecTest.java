@@ -0,0 +1,77 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Cpf;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@DisplayName("Declaration change codec")
+class DeclarationChangeCodecTest {
+
+    @Test
+    @DisplayName("When changes are encoded Then decoding returns the same changes in order")
+    void shouldRoundTripChanges() {
+        var deliveredAt = LocalDateTime.of(2025, 4, 30, 18, 5, 1);
+        List<DeclarationChange> changes = List.of(
+                new DeclarationChange.IncomeAdded(Income.rehydrate(4L, "Company", IncomeType.SALARY, Money.ofCents(1_000_050))),
+                new DeclarationChange.IncomeRemoved(2L),
+                new DeclarationChange.ExpenseAdded(DeductibleExpense.rehydrate(5L, "Clinic", ExpenseType.HEALTH, Money.ofCents(20_000))),
+                new DeclarationChange.ExpenseRemoved(3L),
+                new DeclarationChange.DependentAdded(new Dependent(6L, "Ana", new Cpf("52998224725"), LocalDate.of(2015, 3, 9))),
+                new DeclarationChange.DependentRemoved(1L),
+                new DeclarationChange.StatusChanged(DeclarationStatus.DELIVERED, deliveredAt));
+
+        var decoded = DeclarationChangeCodec.decode(DeclarationChangeCodec.encode(changes));
+
+        assertThat(decoded).hasSize(7);
+        assertThat(decoded.get(0)).isInstanceOfSatisfying(DeclarationChange.IncomeAdded.class, added -> {
+            assertThat(added.income().getId()).isEqualTo(4L);
+            assertThat(added.income().getPayingSource()).isEqualTo("Company");
+            assertThat(added.income().getType()).isEqualTo(IncomeType.SALARY);
+            assertThat(added.income().getValue()).isEqualTo(Money.ofCents(1_000_050));
+        });
+        assertThat(decoded.get(1)).isEqualTo(new DeclarationChange.IncomeRemoved(2L));
+        assertThat(decoded.get(2)).isInstanceOfSatisfying(DeclarationChange.ExpenseAdded.class, added -> {
+            assertThat(added.expense().getId()).isEqualTo(5L);
+            assertThat(added.expense().getDescription()).isEqualTo("Clinic");
+            assertThat(added.expense().getValue()).isEqualTo(Money.ofCents(20_000));
+        });
+        assertThat(decoded.get(3)).isEqualTo(new DeclarationChange.ExpenseRemoved(3L));
+        assertThat(decoded.get(4)).isInstanceOfSatisfying(DeclarationChange.DependentAdded.class, added -> {
+            assertThat(added.dependent().getId()).isEqualTo(6L);
+            assertThat(added.dependent().getCpf()).isEqualTo(new Cpf("52998224725"));
+            assertThat(added.dependent().getBirthDate()).isEqualTo(LocalDate.of(2015, 3, 9));
+        });
+        assertThat(decoded.get(5)).isEqualTo(new DeclarationChange.DependentRemoved(1L));
+        assertThat(decoded.get(6)).isEqualTo(new DeclarationChange.StatusChanged(DeclarationStatus.DELIVERED, deliveredAt));
+    }
+
+    @Test
+    @DisplayName("When a child is removed Then its change takes a few bytes")
+    void shouldKeepRemovalsCompact() {
+        assertThat(DeclarationChangeCodec.encode(List.of(new DeclarationChange.IncomeRemoved(2L)))).hasSizeLessThanOrEqualTo(16);
+    }
+
+    @Test
+    @DisplayName("When the format byte is unknown Then decoding fails")
+    void shouldRejectUnknownFormat() {
+        assertThatThrownBy(() -> DeclarationChangeCodec.decode(new byte[]{9, 0, 0, 0, 0}))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@DisplayName("Declaration change log")
+class DeclarationChangeLogTest {
+
+    @TempDir
+    private Path directory;
+
+    private DocumentWrite write(long declarationId, long version) {
+        return new DocumentWrite(declarationId, DeclarationStatus.EDITING, null, version - 1, version, new byte[]{1, 2, 3});
+    }
+
+    @Test
+    @DisplayName("When a declaration was written several times Then only its newest record is replayed")
+    void shouldKeepNewestRecordPerDeclaration() {
+        var log = new DeclarationChangeLog(directory);
+        log.append(write(1L, 4L));
+        log.rotate();
+        log.append(write(1L, 5L));
+        log.append(write(2L, 2L));
+        log.close();
+
+        assertThat(new DeclarationChangeLog(directory).readLatest())
+                .extracting(DocumentWrite::declarationId, DocumentWrite::version)
+                .containsExactlyInAnyOrder(tuple(1L, 5L), tuple(2L, 2L));
+    }
+
+    @Test
+    @DisplayName("When the last record was cut off by a crash Then the records before it are still replayed")
+    void shouldIgnoreTornTail() throws IOException {
+        var log = new DeclarationChangeLog(directory);
+        log.append(write(1L, 4L));
+        log.close();
+        try (var segments = Files.list(directory)) {
+            var segment = segments.findFirst().orElseThrow();
+            Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+        }
+
+        assertThat(new DeclarationChangeLog(directory).readLatest())
+                .singleElement().extracting(DocumentWrite::version).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("When segments are sealed and deleted Then only later records remain")
+    void shouldDeleteSealedSegments() {
+        var log = new DeclarationChangeLog(directory);
+        log.append(write(1L, 4L));
+        var boundary = log.rotate();
+        log.append(write(2L, 2L));
+        log.deleteBefore(boundary);
+        log.close();
+
+        assertThat(new DeclarationChangeLog(directory).readLatest())
+                .singleElement().extracting(DocumentWrite::declarationId).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Cpf;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@DisplayName("Declaration document codec")
+class DeclarationDocumentCodecTest {
+
+    private Declaration declaration() {
+        var declaration = new Declaration(1L, UUID.randomUUID(), 2025, DeclarationStatus.EDITING, null, 3L);
+        declaration.addIncome(new Income(4L, "Company", IncomeType.SALARY, Money.ofCents(1_000_050)));
+        declaration.addDeductibleExpense(new DeductibleExpense(5L, "Clinic", ExpenseType.HEALTH, Money.ofCents(20_000)));
+        declaration.addDependent(new Dependent(6L, "Ana", new Cpf("52998224725"), LocalDate.of(2015, 3, 9)));
+        return declaration;
+    }
+
+    @Test
+    @DisplayName("When a declaration is encoded Then decoding returns the same children and version")
+    void shouldRoundTripChildren() {
+        var decoded = DeclarationDocumentCodec.decode(DeclarationDocumentCodec.encode(declaration(), 4L));
+
+        assertThat(decoded.version()).isEqualTo(4L);
+        assertThat(decoded.incomes()).singleElement().satisfies(income -> {
+            assertThat(income.getId()).isEqualTo(4L);
+            assertThat(income.getPayingSource()).isEqualTo("Company");
+            assertThat(income.getType()).isEqualTo(IncomeType.SALARY);
+            assertThat(income.getValue()).isEqualTo(Money.ofCents(1_000_050));
+        });
+        assertThat(decoded.deductibleExpenses()).singleElement().satisfies(expense -> {
+            assertThat(expense.getDescription()).isEqualTo("Clinic");
+            assertThat(expense.getType()).isEqualTo(ExpenseType.HEALTH);
+            assertThat(expense.getValue()).isEqualTo(Money.ofCents(20_000));
+        });
+        assertThat(decoded.dependents()).singleElement().satisfies(dependent -> {
+            assertThat(dependent.getName()).isEqualTo("Ana");
+            assertThat(dependent.getCpf()).isEqualTo(new Cpf("52998224725"));
+            assertThat(dependent.getBirthDate()).isEqualTo(LocalDate.of(2015, 3, 9));
+        });
+    }
+
+    @Test
+    @DisplayName("When a child has no id yet Then encoding fails")
+    void shouldRejectChildrenWithoutId() {
+        var declaration = declaration();
+        declaration.addIncome(new Income("Bonus", IncomeType.SALARY, Money.ofCents(5_000)));
+
+        assertThatThrownBy(() -> DeclarationDocumentCodec.encode(declaration, 4L))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("When the document has an unknown format Then decoding fails")
+    void shouldRejectUnknownFormat() {
+        var document = DeclarationDocumentCodec.encode(declaration(), 4L);
+        document[0] = 99;
+
+        assertThatThrownBy(() -> DeclarationDocumentCodec.decode(document))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("99");
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Cpf;
+import br.com.matheusgusmao.incometax.domain.model.dependent.Dependent;
+import br.com.matheusgusmao.incometax.domain.model.expense.DeductibleExpense;
+import br.com.matheusgusmao.incometax.domain.model.expense.ExpenseType;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@DisplayName("Declaration history state")
+class DeclarationHistoryStateTest {
+
+    private static final UUID TAXPAYER = UUID.fromString("0190c2a4-0000-7000-8000-000000000001");
+
+    private static Declaration saved(long version, Income... incomes) {
+        return Declaration.rehydrate(1L, TAXPAYER, 2025, DeclarationStatus.EDITING, null, version,
+                new ArrayList<>(List.of(incomes)), new ArrayList<>(), new ArrayList<>());
+    }
+
+    private static Income income(Long id, long cents) {
+        return Income.rehydrate(id, "Company", IncomeType.SALARY, Money.ofCents(cents));
+    }
+
+    @Test
+    @DisplayName("When children the state does not hold are present Then they are recorded as added with their own ids")
+    void shouldRecordUnknownIdsAsAdded() {
+        var state = DeclarationHistoryState.of(saved(3L, income(4L, 100)), 3L);
+        var edited = state.toDeclaration(1L, TAXPAYER, 2025);
+        edited.removeIncome(4L);
+        edited.addIncome(income(20L, 200));
+        edited.addDeductibleExpense(DeductibleExpense.rehydrate(31L, "Clinic", ExpenseType.HEALTH, Money.ofCents(300)));
+        edited.addDependent(new Dependent(12L, "Ana", new Cpf("52998224725"), LocalDate.of(2015, 3, 9)));
+
+        var changes = state.changesTo(edited);
+        state.apply(4L, changes);
+
+        assertThat(changes).hasSize(4).first().isEqualTo(new DeclarationChange.IncomeRemoved(4L));
+        assertThat(state.getVersion()).isEqualTo(4L);
+        assertThat(state.getIncomes()).extracting(Income::getId).containsExactly(20L);
+        assertThat(state.getDeductibleExpenses()).extracting(DeductibleExpense::getId).containsExactly(31L);
+        assertThat(state.getDependents()).extracting(Dependent::getId).containsExactly(12L);
+        assertThat(state.getLastChildId()).isEqualTo(31L);
+    }
+
+    @Test
+    @DisplayName("When a child has no id yet Then its changes cannot be listed")
+    void shouldRejectChildrenWithoutIds() {
+        var state = DeclarationHistoryState.of(saved(0L, income(1L, 100)), 0L);
+        var edited = state.toDeclaration(1L, TAXPAYER, 2025);
+        edited.addIncome(income(null, 300));
+
+        assertThatThrownBy(() -> state.changesTo(edited)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("When the recorded changes are replayed on the snapshot Then the declaration is rebuilt as saved")
+    void shouldRebuildFromSnapshotAndChanges() {
+        var live = DeclarationHistoryState.empty(DeclarationStatus.EDITING, null);
+        var recorded = new ArrayList<byte[]>();
+        for (long version = 1; version <= 5; version++) {
+            var edited = live.toDeclaration(1L, TAXPAYER, 2025);
+            edited.addIncome(income(version, version * 100));
+            if (version == 3) {
+                edited.removeIncome(1L);
+            }
+            var changes = live.changesTo(edited);
+            live.apply(version, changes);
+            recorded.add(DeclarationChangeCodec.encode(changes));
+        }
+
+        var rebuilt = DeclarationHistoryState.empty(DeclarationStatus.EDITING, null);
+        for (int i = 0; i < recorded.size(); i++) {
+            rebuilt.apply(i + 1, DeclarationChangeCodec.decode(recorded.get(i)));
+        }
+
+        assertThat(rebuilt.getVersion()).isEqualTo(5L);
+        assertThat(rebuilt.getIncomes()).extracting(Income::getId).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(rebuilt.getIncomes()).extracting(income -> income.getValue().cents()).containsExactly(200L, 300L, 400L, 500L);
+    }
+
+    @Test
+    @DisplayName("When a declaration is submitted Then the status change is recorded")
+    void shouldRecordStatusChange() {
+        var state = DeclarationHistoryState.of(saved(2L, income(1L, 100)), 2L);
+        var edited = state.toDeclaration(1L, TAXPAYER, 2025);
+        edited.submit();
+
+        var changes = state.changesTo(edited);
+        state.apply(3L, changes);
+
+        assertThat(changes).singleElement().isInstanceOf(DeclarationChange.StatusChanged.class);
+        assertThat(state.getStatus()).isEqualTo(DeclarationStatus.DELIVERED);
+        assertThat(state.getDeliveryDate()).isEqualTo(edited.getDeliveryDate());
+    }
+}
@@ -0,0 +1,149 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import br.com.matheusgusmao.incometax.infra.persistence.MigratedSqliteDatabase;
+import br.com.matheusgusmao.incometax.infra.persistence.mapper.DeclarationMapper;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.ChildIdSequenceRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationAmendmentRepository;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.DeclarationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@Tag("Functional")
+@DisplayName("Event-sourced declaration store on a migrated SQLite database")
+class EventSourcedDeclarationStoreTest {
+
+    private static final UUID TAXPAYER = UUID.fromString("0190c2a4-0000-7000-8000-000000000001");
+
+    @TempDir
+    private Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private EventSourcedDeclarationStore store;
+
+    @BeforeEach
+    void setUp() {
+        var database = MigratedSqliteDatabase.in(directory);
+        jdbcTemplate = database.jdbcTemplate();
+        transactionTemplate = database.transactionTemplate();
+        var amendments = new DeclarationAmendmentRepository(jdbcTemplate);
+        store = new EventSourcedDeclarationStore(jdbcTemplate, mock(DeclarationRepository.class), new DeclarationMapper(), amendments,
+                new ChildIdSequenceRepository(jdbcTemplate), 2);
+    }
+
+    private static Income income(long cents) {
+        return new Income("Company", IncomeType.SALARY, Money.ofCents(cents));
+    }
+
+    private Declaration create(Income... incomes) {
+        var declaration = new Declaration(TAXPAYER, 2025);
+        for (var income : incomes) {
+            declaration.addIncome(income);
+        }
+        return transactionTemplate.execute(status -> store.create(declaration));
+    }
+
+    private Declaration edit(Declaration declaration, Consumer<Declaration> change) {
+        change.accept(declaration);
+        return transactionTemplate.execute(status -> store.update(declaration));
+    }
+
+    private Declaration load(long declarationId) {
+        return transactionTemplate.execute(status -> store.findById(declarationId)).orElseThrow();
+    }
+
+    private void recordedAt(long declarationId, long version, LocalDateTime at) {
+        jdbcTemplate.update("update declaration_events set recorded_at = ? where declaration_id = ? and version = ?",
+                Timestamp.valueOf(at), declarationId, version);
+        jdbcTemplate.update("update declaration_snapshots set recorded_at = ? where declaration_id = ? and version = ?",
+                Timestamp.valueOf(at), declarationId, version);
+    }
+
+    @Test
+    @DisplayName("When children are added Then the history and the child table agree on their ids")
+    void shouldGiveAddedChildrenTheirRowIds() {
+        var created = create(income(100_00), income(200_00));
+        var updated = edit(created, declaration -> declaration.addIncome(income(300_00)));
+
+        var rowIds = jdbcTemplate.queryForList("select id from incomes where declaration_id = ? order by id", Long.class, created.getId());
+        assertThat(updated.getIncomes()).extracting(Income::getId).containsExactlyElementsOf(rowIds);
+        assertThat(load(created.getId()).getIncomes()).extracting(Income::getId).containsExactlyElementsOf(rowIds);
+    }
+
+    @Test
+    @DisplayName("When one of two identical children is removed Then the row with its id is the one deleted")
+    void shouldProjectRemovalsById() {
+        var created = create(income(100_00), income(100_00));
+        var kept = created.getIncomes().getFirst().getId();
+        var removed = created.getIncomes().get(1).getId();
+
+        edit(created, declaration -> declaration.removeIncome(removed));
+
+        assertThat(jdbcTemplate.queryForList("select id from incomes where declaration_id = ?", Long.class, created.getId()))
+                .containsExactly(kept);
+        assertThat(load(created.getId()).getIncomes()).extracting(Income::getId).containsExactly(kept);
+    }
+
+    @Test
+    @DisplayName("When saves pass the snapshot interval Then snapshots are written and a load replays only the changes after them")
+    void shouldSnapshotAndReplay() {
+        var declaration = create(income(100_00));
+        for (long cents = 2; cents <= 5; cents++) {
+            var added = cents * 100_00;
+            declaration = edit(declaration, current -> current.addIncome(income(added)));
+        }
+        var first = declaration.getIncomes().getFirst().getId();
+        declaration = edit(declaration, current -> current.removeIncome(first));
+
+        assertThat(declaration.getVersion()).isEqualTo(5L);
+        assertThat(jdbcTemplate.queryForList("select version from declaration_snapshots where declaration_id = ? order by version",
+                Long.class, declaration.getId())).containsExactly(0L, 2L, 4L);
+        var loaded = load(declaration.getId());
+        assertThat(loaded.getVersion()).isEqualTo(5L);
+        assertThat(loaded.getIncomes()).extracting(income -> income.getValue().cents())
+                .containsExactly(200_00L, 300_00L, 400_00L, 500_00L);
+        assertThat(loaded.getIncomes()).extracting(Income::getId).containsExactlyElementsOf(
+                jdbcTemplate.queryForList("select id from incomes where declaration_id = ? order by id", Long.class, declaration.getId()));
+    }
+
+    @Test
+    @DisplayName("When a declaration is read as of a past time Then it is replayed up to the last version recorded by then")
+    void shouldReplayAsOf() {
+        var start = LocalDateTime.of(2026, 3, 1, 9, 0);
+        var declaration = create(income(100_00));
+        recordedAt(declaration.getId(), 0, start);
+        for (long version = 1; version <= 3; version++) {
+            var added = (version + 1) * 100_00;
+            declaration = edit(declaration, current -> current.addIncome(income(added)));
+            recordedAt(declaration.getId(), version, start.plusHours(version));
+        }
+        var id = declaration.getId();
+
+        var beforeAll = transactionTemplate.execute(status -> store.findAsOf(id, start.minusMinutes(1)));
+        var afterSecond = transactionTemplate.execute(status -> store.findAsOf(id, start.plusHours(2).plusMinutes(30)));
+
+        assertThat(beforeAll).isEmpty();
+        assertThat(afterSecond).hasValueSatisfying(asOf -> {
+            assertThat(asOf.getVersion()).isEqualTo(2L);
+            assertThat(asOf.getIncomes()).extracting(income -> income.getValue().cents()).containsExactly(100_00L, 200_00L, 300_00L);
+        });
+    }
+}
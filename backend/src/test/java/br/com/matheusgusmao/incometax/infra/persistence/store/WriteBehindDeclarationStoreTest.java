@@ -0,0 +1,313 @@
+package br.com.matheusgusmao.incometax.infra.persistence.store;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.Declaration;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.domain.model.income.Income;
+import br.com.matheusgusmao.incometax.domain.model.income.IncomeType;
+import br.com.matheusgusmao.incometax.domain.model.money.Money;
+import br.com.matheusgusmao.incometax.infra.exception.custom.DeclarationWriteConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Write-behind declaration store")
+class WriteBehindDeclarationStoreTest {
+
+    @TempDir
+    private Path logDirectory;
+    @Mock
+    private DocumentDeclarationStore delegate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final UUID taxpayerId = UUID.randomUUID();
+    private final AtomicLong nextIncomeId = new AtomicLong(1);
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private WriteBehindDeclarationStore store(int maxEntries) {
+        lenient().doAnswer(invocation -> withIncomeIds(invocation.getArgument(0))).when(delegate).assignChildIds(any());
+        var store = new WriteBehindDeclarationStore(delegate, transactionManager, eventPublisher, logDirectory.toString(), maxEntries, 1_000_000);
+        store.recover();
+        return store;
+    }
+
+    private Declaration editing(long id, long version) {
+        return new Declaration(id, taxpayerId, 2025, DeclarationStatus.EDITING, null, version);
+    }
+
+    private Declaration withIncomeIds(Declaration declaration) {
+        var incomes = declaration.getIncomes().stream()
+                .map(income -> income.getId() != null ? income
+                        : Income.rehydrate(nextIncomeId.getAndIncrement(), income.getPayingSource(), income.getType(), income.getValue()))
+                .toList();
+        return Declaration.rehydrate(declaration.getId(), declaration.getTaxpayerId(), declaration.getYear(), declaration.getStatus(),
+                declaration.getDeliveryDate(), declaration.getVersion(), incomes, declaration.getDeductibleExpenses(), declaration.getDependents());
+    }
+
+    private static void complete(boolean committed) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (committed) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(committed
+                ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+
+    private Declaration addIncome(WriteBehindDeclarationStore store, long id) {
+        var declaration = store.findById(id).orElseThrow();
+        declaration.addIncome(new Income("Company", IncomeType.SALARY, Money.ofCents(100_000)));
+        return store.update(declaration);
+    }
+
+    @Test
+    @DisplayName("When a cached declaration is edited Then the edit is served from memory and written only on flush")
+    void shouldBufferEditsUntilFlush() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(editing(1L, 3L)));
+        when(delegate.writeAll(anyList())).thenReturn(new int[]{1});
+        var store = store(10);
+
+        var saved = addIncome(store, 1L);
+
+        assertThat(saved.getVersion()).isEqualTo(4L);
+        assertThat(saved.getIncomes()).singleElement().extracting(Income::getId).isEqualTo(1L);
+        assertThat(store.findById(1L).orElseThrow().getIncomes()).hasSize(1);
+        assertThat(store.findVersion(1L)).contains(4L);
+        verify(delegate, times(1)).findById(1L);
+        verify(delegate, never()).update(any());
+
+        store.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DocumentWrite>> writes = ArgumentCaptor.forClass(List.class);
+        verify(delegate).writeAll(writes.capture());
+        assertThat(writes.getValue()).singleElement().satisfies(write -> {
+            assertThat(write.expectedVersion()).isEqualTo(3L);
+            assertThat(write.version()).isEqualTo(4L);
+        });
+
+        store.flush();
+        verify(delegate, times(1)).writeAll(anyList());
+    }
+
+    @Test
+    @DisplayName("When the process dies before a flush Then the change log replays the edit on the next start")
+    void shouldReplayUnflushedEditsOnRestart() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(editing(1L, 3L)));
+        when(delegate.restoreAll(anyList())).thenReturn(new int[]{1});
+        addIncome(store(10), 1L);
+
+        store(10);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DocumentWrite>> restored = ArgumentCaptor.forClass(List.class);
+        verify(delegate).restoreAll(restored.capture());
+        assertThat(restored.getValue()).singleElement().satisfies(write -> {
+            assertThat(write.expectedVersion()).isEqualTo(3L);
+            assertThat(write.version()).isEqualTo(4L);
+            assertThat(DeclarationDocumentCodec.decode(write.document()).incomes()).hasSize(1);
+        });
+
+        store(10);
+        verify(delegate, times(1)).restoreAll(anyList());
+    }
+
+    @Test
+    @DisplayName("When an edit is based on an older version Then it is rejected")
+    void shouldRejectStaleEdits() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(editing(1L, 3L)));
+        var store = store(10);
+        var stale = store.findById(1L).orElseThrow();
+        addIncome(store, 1L);
+
+        assertThatThrownBy(() -> store.update(stale)).isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    @DisplayName("When the working set is full Then the least recently used clean declaration is evicted")
+    void shouldEvictLeastRecentlyUsedCleanDeclarations() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(editing(1L, 3L)));
+        when(delegate.findById(2L)).thenReturn(Optional.of(editing(2L, 1L)));
+        var store = store(1);
+
+        store.findById(1L);
+        store.findById(2L);
+        store.findById(1L);
+
+        assertThat(store.size()).isEqualTo(1);
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("When the working set is full Then unflushed edits are kept until they are flushed")
+    void shouldNotEvictDirtyDeclarations() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(editing(1L, 3L)));
+        when(delegate.findById(2L)).thenReturn(Optional.of(editing(2L, 1L)));
+        when(delegate.writeAll(anyList())).thenReturn(new int[]{1});
+        var store = store(1);
+
+        addIncome(store, 1L);
+        store.findById(2L);
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.findVersion(1L)).contains(4L);
+
+        store.flush();
+        store.findById(2L);
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.findVersion(2L)).contains(1L);
+        verify(delegate, never()).findVersion(any());
+    }
+
+    @Test
+    @DisplayName("When a cached declaration is submitted Then it is written through and leaves the working set")
+    void shouldWriteThroughOnSubmit() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(editing(1L, 3L)));
+        var store = store(10);
+        var declaration = addIncome(store, 1L);
+
+        declaration.submit();
+        store.updateStatus(declaration);
+
+        var write = ArgumentCaptor.forClass(DocumentWrite.class);
+        verify(delegate).writeOrFail(write.capture());
+        assertThat(write.getValue().status()).isEqualTo(DeclarationStatus.DELIVERED);
+        assertThat(write.getValue().expectedVersion()).isEqualTo(3L);
+        assertThat(write.getValue().version()).isEqualTo(5L);
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("When an edit is made inside a transaction Then other readers see it only after the commit")
+    void shouldPublishEditsOnlyAfterCommit() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(editing(1L, 3L)));
+        var store = store(10);
+        store.findById(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        addIncome(store, 1L);
+
+        assertThat(store.findVersion(1L)).contains(4L);
+        assertThat(CompletableFuture.supplyAsync(() -> store.findVersion(1L)).join()).contains(3L);
+
+        complete(true);
+
+        assertThat(CompletableFuture.supplyAsync(() -> store.findVersion(1L)).join()).contains(4L);
+    }
+
+    @Test
+    @DisplayName("When the change log cannot take a committed edit Then the edit is kept and written by the next flush")
+    void shouldKeepCommittedEditsTheLogRejects() throws IOException {
+        when(delegate.findById(1L)).thenReturn(Optional.of(editing(1L, 3L)));
+        when(delegate.writeAll(anyList())).thenReturn(new int[]{1});
+        var store = store(10);
+        store.findById(1L);
+        // Recovery sealed segment 1, so the next append opens segment 2; a directory there makes it fail.
+        Files.createDirectory(logDirectory.resolve("changes-%020d.log".formatted(2)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        addIncome(store, 1L);
+        complete(true);
+
+        assertThat(CompletableFuture.supplyAsync(() -> store.findVersion(1L)).join()).contains(4L);
+        store.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DocumentWrite>> writes = ArgumentCaptor.forClass(List.class);
+        verify(delegate).writeAll(writes.capture());
+        assertThat(writes.getValue()).singleElement().satisfies(write -> {
+            assertThat(write.expectedVersion()).isEqualTo(3L);
+            assertThat(write.version()).isEqualTo(4L);
+        });
+    }
+
+    @Test
+    @DisplayName("When the transaction of an edit rolls back Then the edit is neither kept nor logged")
+    void shouldDropEditsOfRolledBackTransactions() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(editing(1L, 3L)));
+        var store = store(10);
+        store.findById(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        addIncome(store, 1L);
+        complete(false);
+
+        assertThat(store.findVersion(1L)).contains(3L);
+        store(10);
+        verify(delegate, never()).restoreAll(anyList());
+    }
+
+    @Test
+    @DisplayName("When a declaration is read while a write-through is in flight Then the read is not cached")
+    void shouldNotCacheReadsThatRaceWriteThroughs() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(editing(1L, 3L)));
+        var store = store(10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        store.update(editing(2L, 1L));
+        store.findById(1L);
+        assertThat(store.size()).isZero();
+
+        complete(true);
+        store.findById(1L);
+        store.findById(1L);
+
+        assertThat(store.size()).isEqualTo(1);
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("When a flush finds the row changed elsewhere Then the edit is kept aside and the next read reports a conflict")
+    void shouldKeepConflictingWritesAndReportThem() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(editing(1L, 3L))).thenReturn(Optional.of(editing(1L, 4L)));
+        when(delegate.writeAll(anyList())).thenReturn(new int[]{0});
+        var store = store(10);
+        addIncome(store, 1L);
+
+        store.flush();
+
+        assertThat(new DeclarationChangeLog(logDirectory.resolve("conflicts")).readLatest())
+                .singleElement().extracting(DocumentWrite::version).isEqualTo(4L);
+        assertThatThrownBy(() -> store.findById(1L)).isInstanceOf(DeclarationWriteConflictException.class);
+        assertThat(store.findById(1L).orElseThrow().getIncomes()).isEmpty();
+        verify(delegate, times(1)).writeAll(anyList());
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.matheusgusmao.incometax.web.cache;
+
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationSnapshot;
+import br.com.matheusgusmao.incometax.domain.model.declaration.DeclarationStatus;
+import br.com.matheusgusmao.incometax.web.dto.declaration.DeclarationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@DisplayName("Delivered declaration response cache")
+class DeliveredDeclarationResponseCacheTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private DeclarationSnapshot declaration(long id, DeclarationStatus status) {
+        return declaration(id, status, 7L);
+    }
+
+    private DeclarationSnapshot declaration(long id, DeclarationStatus status, long version) {
+        var deliveryDate = status == DeclarationStatus.DELIVERED ? LocalDateTime.of(2025, 4, 30, 10, 15) : null;
+        return new DeclarationSnapshot(id, UUID.randomUUID(), 2024, 0, status, deliveryDate, version, List.of(), List.of(), List.of());
+    }
+
+    @Test
+    @DisplayName("When a delivered declaration is put Then its serialized response is served afterwards")
+    void shouldCacheDeliveredDeclaration() throws Exception {
+        var cache = new DeliveredDeclarationResponseCache(objectMapper, 1024);
+        var declaration = declaration(1L, DeclarationStatus.DELIVERED);
+
+        var response = cache.put(declaration);
+
+        assertThat(cache.get(1L)).isSameAs(response);
+        assertThat(response.eTag()).isEqualTo("\"declaration-1-v7\"");
+        assertThat(objectMapper.readValue(response.body(), DeclarationResponse.class))
+                .isEqualTo(DeclarationResponse.from(declaration));
+    }
+
+    @Test
+    @DisplayName("When a declaration is still being edited Then its response is returned but not cached")
+    void shouldNotCacheEditingDeclaration() {
+        var cache = new DeliveredDeclarationResponseCache(objectMapper, 1024);
+
+        var response = cache.put(declaration(1L, DeclarationStatus.EDITING));
+
+        assertThat(response.body()).isNotEmpty();
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.cachedBytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("When the cache outgrows its byte budget Then the oldest responses are dropped")
+    void shouldEvictOldestResponsesOverBudget() {
+        var probe = new DeliveredDeclarationResponseCache(objectMapper, 1024).put(declaration(1L, DeclarationStatus.DELIVERED));
+        var cache = new DeliveredDeclarationResponseCache(objectMapper, probe.body().length * 2L);
+
+        cache.put(declaration(1L, DeclarationStatus.DELIVERED));
+        cache.put(declaration(2L, DeclarationStatus.DELIVERED));
+        cache.put(declaration(3L, DeclarationStatus.DELIVERED));
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isNotNull();
+        assertThat(cache.get(3L)).isNotNull();
+        assertThat(cache.cachedBytes()).isLessThanOrEqualTo(probe.body().length * 2L);
+    }
+
+    @Test
+    @DisplayName("When an amended declaration is evicted Then its response is no longer served")
+    void shouldEvictAmendedDeclaration() {
+        var cache = new DeliveredDeclarationResponseCache(objectMapper, 1024);
+        cache.put(declaration(1L, DeclarationStatus.DELIVERED));
+        cache.put(declaration(2L, DeclarationStatus.DELIVERED));
+        var kept = cache.get(2L);
+
+        cache.evict(1L, 8L);
+        cache.evict(3L, 8L);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isSameAs(kept);
+        assertThat(cache.cachedBytes()).isEqualTo(kept.body().length);
+    }
+
+    @Test
+    @DisplayName("When a read that loaded the delivered version puts it after the amendment evicted it Then it is not cached again")
+    void shouldRefuseVersionsEvictedByAmendment() {
+        var cache = new DeliveredDeclarationResponseCache(objectMapper, 1024);
+        cache.put(declaration(1L, DeclarationStatus.DELIVERED, 7L));
+
+        cache.evict(1L, 8L);
+        var stale = cache.put(declaration(1L, DeclarationStatus.DELIVERED, 7L));
+
+        assertThat(stale.eTag()).isEqualTo("\"declaration-1-v7\"");
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.cachedBytes()).isZero();
+
+        var resubmitted = cache.put(declaration(1L, DeclarationStatus.DELIVERED, 9L));
+
+        assertThat(cache.get(1L)).isSameAs(resubmitted);
+    }
+
+    @Test
+    @DisplayName("When an older version is put after a newer one Then the newer response stays cached")
+    void shouldKeepNewerVersion() {
+        var cache = new DeliveredDeclarationResponseCache(objectMapper, 1024);
+        var newer = cache.put(declaration(1L, DeclarationStatus.DELIVERED, 9L));
+
+        cache.put(declaration(1L, DeclarationStatus.DELIVERED, 7L));
+
+        assertThat(cache.get(1L)).isSameAs(newer);
+        assertThat(cache.cachedBytes()).isEqualTo(newer.body().length);
+    }
+}
@@ -0,0 +1,166 @@
+package br.com.matheusgusmao.incometax.web.idempotency;
+
+import br.com.matheusgusmao.incometax.infra.persistence.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@DisplayName("Idempotency-Key filter")
+class IdempotencyKeyFilterTest {
+
+    private final IdempotentResponseStore store = new IdempotentResponseStore(mock(IdempotencyKeyRepository.class), 60_000, 1024);
+    private final IdempotencyKeyFilter filter = new IdempotencyKeyFilter(store, JsonMapper.builder().findAndAddModules().build());
+    private final AtomicInteger executions = new AtomicInteger();
+
+    // Stands in for a controller that creates a row and echoes the request body.
+    private final FilterChain createIncome = (request, response) -> {
+        var number = executions.incrementAndGet();
+        var body = request.getInputStream().readAllBytes();
+        var httpResponse = (HttpServletResponse) response;
+        httpResponse.setStatus(201);
+        httpResponse.setContentType("application/json");
+        httpResponse.setHeader("Location", "/incomes/" + number);
+        httpResponse.getOutputStream().write(body);
+    };
+
+    @BeforeEach
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("a@b.c", null, List.of()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest post(String key, String body) {
+        var request = new MockHttpServletRequest("POST", "/api/v1/declarations/1/incomes");
+        if (key != null) {
+            request.addHeader(IdempotencyKeyFilter.IDEMPOTENCY_KEY, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, createIncome);
+        return response;
+    }
+
+    @Test
+    @DisplayName("When a request is retried with the same key Then the stored response is returned without running it again")
+    void shouldReplayStoredResponse() throws Exception {
+        var first = send(post("key-1", "{\"value\":10}"));
+        var retry = send(post("key-1", "{\"value\":10}"));
+
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader("Location")).isEqualTo("/incomes/1");
+        assertThat(retry.getHeader(IdempotencyKeyFilter.IDEMPOTENT_REPLAYED)).isEqualTo("true");
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString()).isEqualTo("{\"value\":10}");
+    }
+
+    @Test
+    @DisplayName("When requests carry different keys or no key Then each one runs")
+    void shouldRunRequestsWithoutStoredResponse() throws Exception {
+        send(post("key-1", "{\"value\":10}"));
+        send(post("key-2", "{\"value\":10}"));
+        send(post(null, "{\"value\":10}"));
+        send(post(null, "{\"value\":10}"));
+
+        assertThat(executions).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("When a key is reused for a different request Then the request is rejected")
+    void shouldRejectKeyReusedForDifferentRequest() throws Exception {
+        send(post("key-1", "{\"value\":10}"));
+
+        var reused = send(post("key-1", "{\"value\":20}"));
+
+        assertThat(executions).hasValue(1);
+        assertThat(reused.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    @DisplayName("When the body is read without blocking Then the listener gets the whole body")
+    void shouldServeBodyToReadListener() throws Exception {
+        var read = new ByteArrayOutputStream();
+        var completed = new AtomicBoolean();
+        FilterChain nonBlocking = (request, response) -> {
+            var input = request.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    read.write(input.readAllBytes());
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    completed.set(true);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    throw new AssertionError(throwable);
+                }
+            });
+            ((HttpServletResponse) response).setStatus(201);
+        };
+
+        filter.doFilter(post("key-1", "{\"value\":10}"), new MockHttpServletResponse(), nonBlocking);
+
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo("{\"value\":10}");
+        assertThat(completed).isTrue();
+    }
+
+    @Test
+    @DisplayName("When the request with the key is still running Then the retry is rejected")
+    void shouldRejectConcurrentRetry() throws Exception {
+        store.begin("a@b.c", "key-1");
+
+        var retry = send(post("key-1", "{\"value\":10}"));
+
+        assertThat(executions).hasValue(0);
+        assertThat(retry.getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    @DisplayName("When the request fails Then a retry with the same key runs again")
+    void shouldNotStoreFailedResponse() throws Exception {
+        FilterChain failing = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(409);
+        };
+        filter.doFilter(post("key-1", "{\"value\":10}"), new MockHttpServletResponse(), failing);
+
+        var retry = send(post("key-1", "{\"value\":10}"));
+
+        assertThat(executions).hasValue(2);
+        assertThat(retry.getStatus()).isEqualTo(201);
+    }
+}
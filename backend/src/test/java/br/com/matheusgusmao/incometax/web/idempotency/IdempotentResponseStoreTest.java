@@ -0,0 +1,94 @@
+package br.com.matheusgusmao.incometax.web.idempotency;
+
+import br.com.matheusgusmao.incometax.infra.persistence.projection.IdempotentResponse;
+import br.com.matheusgusmao.incometax.infra.persistence.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Tag("UnitTest")
+@Tag("Unit")
+@DisplayName("Idempotent response store")
+class IdempotentResponseStoreTest {
+
+    private final IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+
+    private IdempotentResponse response(int bodySize, LocalDateTime expiresAt) {
+        return new IdempotentResponse(new byte[32], 201, "application/json", null, null, new byte[bodySize], expiresAt);
+    }
+
+    @Test
+    @DisplayName("When a response is saved Then it is written to the database and served from memory")
+    void shouldServeSavedResponseFromMemory() {
+        var store = new IdempotentResponseStore(repository, 60_000, 1024);
+        var response = response(10, LocalDateTime.now().plusMinutes(1));
+
+        store.save("a@b.c", "key-1", response);
+
+        assertThat(store.find("a@b.c", "key-1")).containsSame(response);
+        verify(repository).save("a@b.c", "key-1", response);
+        verify(repository, never()).find(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("When the key is not in memory Then the database is asked")
+    void shouldFallBackToDatabase() {
+        var store = new IdempotentResponseStore(repository, 60_000, 1024);
+        var response = response(10, LocalDateTime.now().plusMinutes(1));
+        when(repository.find(eq("a@b.c"), eq("key-1"), any())).thenReturn(Optional.of(response));
+
+        assertThat(store.find("a@b.c", "key-1")).containsSame(response);
+        assertThat(store.find("other@b.c", "key-1")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("When the memory budget is exceeded Then the oldest responses leave memory")
+    void shouldEvictOldestResponses() {
+        var store = new IdempotentResponseStore(repository, 60_000, 25);
+        var expiresAt = LocalDateTime.now().plusMinutes(1);
+
+        store.save("a@b.c", "key-1", response(10, expiresAt));
+        store.save("a@b.c", "key-2", response(10, expiresAt));
+        store.save("a@b.c", "key-3", response(10, expiresAt));
+
+        assertThat(store.cachedBytes()).isEqualTo(20);
+        assertThat(store.find("a@b.c", "key-1")).isEmpty();
+        assertThat(store.find("a@b.c", "key-3")).isPresent();
+    }
+
+    @Test
+    @DisplayName("When responses expire Then the purge drops them from memory and the database")
+    void shouldPurgeExpiredResponses() {
+        var store = new IdempotentResponseStore(repository, 60_000, 1024);
+        store.save("a@b.c", "key-1", response(10, LocalDateTime.now().minusSeconds(1)));
+        store.save("a@b.c", "key-2", response(10, LocalDateTime.now().plusMinutes(1)));
+
+        store.purgeExpired();
+
+        assertThat(store.cachedBytes()).isEqualTo(10);
+        assertThat(store.find("a@b.c", "key-1")).isEmpty();
+        verify(repository).deleteExpired(any());
+    }
+
+    @Test
+    @DisplayName("When a key is being processed Then it cannot be claimed again until it is released")
+    void shouldClaimKeyOnce() {
+        var store = new IdempotentResponseStore(repository, 60_000, 1024);
+
+        assertThat(store.begin("a@b.c", "key-1")).isTrue();
+        assertThat(store.begin("a@b.c", "key-1")).isFalse();
+        assertThat(store.begin("other@b.c", "key-1")).isTrue();
+
+        store.end("a@b.c", "key-1");
+
+        assertThat(store.begin("a@b.c", "key-1")).isTrue();
+    }
+}